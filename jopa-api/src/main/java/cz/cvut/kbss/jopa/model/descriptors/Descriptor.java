@@ -34,8 +34,10 @@ public abstract class Descriptor {
     private String language;
     private boolean hasLanguage;
 
+    private final Set<String> fetchedAttributes = new LinkedHashSet<>();
+
     protected Descriptor() {
-        this(null);
+        this((URI) null);
     }
 
     protected Descriptor(boolean assertionsInSubjectContext) {
@@ -52,6 +54,19 @@ public abstract class Descriptor {
         this.assertionsInSubjectContext = assertionsInSubjectContext;
     }
 
+    /**
+     * Copies context, language and fetched attributes of the specified descriptor.
+     *
+     * @param other The descriptor to copy
+     */
+    protected Descriptor(Descriptor other) {
+        this.context = other.context;
+        this.assertionsInSubjectContext = other.assertionsInSubjectContext;
+        this.language = other.language;
+        this.hasLanguage = other.hasLanguage;
+        fetchedAttributes.addAll(other.fetchedAttributes);
+    }
+
     /**
      * Gets context for this descriptor.
      * <p>
@@ -165,6 +180,35 @@ public abstract class Descriptor {
      */
     public abstract Descriptor setAttributeLanguage(Field attribute, String languageTag);
 
+    /**
+     * Adds the specified attribute path to the fetch graph of this descriptor.
+     * <p>
+     * Entities referenced by attributes in the fetch graph are loaded together with the described entity, using one
+     * storage access per level of the graph instead of one per referenced entity. The path consists of attribute names
+     * separated by dots and is relative to the described entity, e.g., {@code "author"} or {@code "author.employer"}.
+     * <p>
+     * Only singular and set-based object property attributes can be fetched this way. The fetch graph is not taken
+     * into account when comparing descriptors.
+     *
+     * @param attributePath Path of the attribute to fetch
+     * @return This descriptor
+     */
+    public Descriptor addFetchedAttribute(String attributePath) {
+        Objects.requireNonNull(attributePath);
+        fetchedAttributes.add(attributePath);
+        return this;
+    }
+
+    /**
+     * Gets attribute paths in the fetch graph of this descriptor.
+     *
+     * @return Unmodifiable view of the fetched attribute paths, possibly empty
+     * @see #addFetchedAttribute(String)
+     */
+    public Set<String> getFetchedAttributes() {
+        return Collections.unmodifiableSet(fetchedAttributes);
+    }
+
     /**
      * Gets all contexts present in this descriptor.
      * <p>
@@ -60,6 +60,24 @@ public class EntityDescriptor extends Descriptor {
         this.fieldDescriptors = new HashMap<>();
     }
 
+    private EntityDescriptor(EntityDescriptor other) {
+        super(other);
+        this.fieldDescriptors = new HashMap<>(other.fieldDescriptors.size());
+        other.fieldDescriptors.forEach((f, d) -> fieldDescriptors.put(f, d == other ? this : d));
+    }
+
+    /**
+     * Creates a shallow copy of this descriptor.
+     * <p>
+     * Attribute descriptors are shared with the original, but changes to the attribute descriptor mapping or the
+     * fetched attributes of the copy do not affect the original.
+     *
+     * @return New descriptor equal to this one
+     */
+    public EntityDescriptor copy() {
+        return new EntityDescriptor(this);
+    }
+
     @Override
     public EntityDescriptor addAttributeDescriptor(Field attribute, Descriptor descriptor) {
         Objects.requireNonNull(attribute, ErrorUtils.getNPXMessageSupplier("attribute"));
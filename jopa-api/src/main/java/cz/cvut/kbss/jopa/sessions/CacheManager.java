@@ -65,6 +65,28 @@ public interface CacheManager extends Cache {
      */
     void setInferredClasses(Set<Class<?>> inferredClasses);
 
+    /**
+     * Records that entities were loaded from the storage because they were not found in the cache.
+     * <p>
+     * Caches which do not collect statistics ignore this call.
+     *
+     * @param loadTime Time spent loading the entities, in nanoseconds
+     */
+    default void recordLoad(long loadTime) {
+        // Do nothing by default
+    }
+
+    /**
+     * Gets statistics of this cache.
+     * <p>
+     * Caches which do not collect statistics return empty statistics.
+     *
+     * @return Current cache statistics
+     */
+    default CacheStatistics getStatistics() {
+        return CacheStatistics.empty();
+    }
+
     /**
      * Closes the cache.
      */
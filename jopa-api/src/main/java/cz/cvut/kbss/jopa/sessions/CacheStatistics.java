@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions;
+
+/**
+ * Snapshot of second level cache statistics.
+ * <p>
+ * Lookups are counted as hits or misses, evictions are entries removed by the cache due to its size limits (explicit
+ * evictions by the application are not counted). Load count and time correspond to storage accesses made to load
+ * entities which were not found in the cache (a batch load counts as one load).
+ */
+public final class CacheStatistics {
+
+    private static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadCount;
+    private final long totalLoadTime;
+
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, long loadCount, long totalLoadTime) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.totalLoadTime = totalLoadTime;
+    }
+
+    /**
+     * Gets statistics with all counters set to zero.
+     *
+     * @return Empty statistics
+     */
+    public static CacheStatistics empty() {
+        return EMPTY;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the ratio of cache hits to all lookups.
+     *
+     * @return Hit rate between 0 and 1, 1 if there have been no lookups
+     */
+    public double getHitRate() {
+        final long lookups = hitCount + missCount;
+        return lookups == 0 ? 1.0 : (double) hitCount / lookups;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Gets the total time spent loading entities which were not found in the cache.
+     *
+     * @return Load time in nanoseconds
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Gets the average time of a load of entities which were not found in the cache.
+     *
+     * @return Average load time in nanoseconds, 0 if there have been no loads
+     */
+    public double getAverageLoadTime() {
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", loadCount=" + loadCount +
+                ", totalLoadTime=" + totalLoadTime +
+                '}';
+    }
+}
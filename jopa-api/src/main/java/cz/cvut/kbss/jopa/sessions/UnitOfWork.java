@@ -133,6 +133,22 @@ public interface UnitOfWork extends Session {
      */
     <T> T readObject(Class<T> cls, Object identifier, Descriptor descriptor);
 
+    /**
+     * Retrieves objects with the specified identifiers.
+     * <p>
+     * This is a batch version of {@link #readObject(Class, Object, Descriptor)}. Objects which are not already managed
+     * by this persistence context are loaded from the storage together.
+     *
+     * @param cls         The type of the returned objects
+     * @param identifiers Instance identifiers
+     * @param descriptor  Entity descriptor
+     * @return List of retrieved objects corresponding in order to the specified identifiers, {@code null} is used for
+     * identifiers for which no object exists
+     * @throws NullPointerException    If {@code cls}, {@code identifiers} or {@code repository} is {@code null}
+     * @throws OWLPersistenceException If an error occurs during object loading
+     */
+    <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor);
+
     /**
      * Retrieves a reference to an object with the specified identifier.
      * <p>
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -269,4 +270,32 @@ class EntityDescriptorTest {
 
         assertEquals(CONTEXT_TWO, sut.getAttributeContext(stringAtt));
     }
-}
\ No newline at end of file
+
+    @Test
+    void fetchedAttributesAreNotTakenIntoAccountInEquals() {
+        final EntityDescriptor dOne = new EntityDescriptor(CONTEXT_ONE);
+        final EntityDescriptor dTwo = new EntityDescriptor(CONTEXT_ONE);
+        dTwo.addFetchedAttribute("stringAtt");
+
+        assertEquals(Collections.singleton("stringAtt"), dTwo.getFetchedAttributes());
+        assertEquals(dOne, dTwo);
+        assertEquals(dOne.hashCode(), dTwo.hashCode());
+    }
+
+    @Test
+    void copyCreatesEqualDescriptorWithoutSharingFetchedAttributes() throws Exception {
+        final EntityDescriptor original = new EntityDescriptor(CONTEXT_ONE, false);
+        original.setLanguage(LANG);
+        original.addAttributeContext(TestClass.stringAttField(), CONTEXT_TWO);
+        original.addFetchedAttribute("stringAtt");
+
+        final EntityDescriptor copy = original.copy();
+        copy.addFetchedAttribute("intAtt");
+        assertEquals(original, copy);
+        assertEquals(LANG, copy.getLanguage());
+        assertFalse(copy.areAssertionsInSubjectContext());
+        assertEquals(CONTEXT_TWO, copy.getAttributeContext(stringAtt));
+        assertEquals(Collections.singleton("stringAtt"), original.getFetchedAttributes());
+        assertEquals(2, copy.getFetchedAttributes().size());
+    }
+}
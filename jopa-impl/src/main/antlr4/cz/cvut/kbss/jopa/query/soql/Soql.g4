@@ -35,7 +35,7 @@ joinedParams: object DOT attribute (DOT attribute)+ ;
 
 
 
-tables: tableWithName ;
+tables: tableWithName fetchJoin* ;
 
 table: TEXT ;
 
@@ -43,6 +43,10 @@ tableName: TEXT ;
 
 tableWithName: table tableName ;
 
+fetchJoin: JOIN FETCH fetchJoinPath ;
+
+fetchJoinPath: object DOT attribute (DOT attribute)* ;
+
 
 
 logOp: AND | OR ;
@@ -91,6 +95,8 @@ FROM: 'FROM' ;
 
 JOIN: 'JOIN' ;
 
+FETCH: 'FETCH' ;
+
 AND: 'AND' ;
 
 OR: 'OR' ;
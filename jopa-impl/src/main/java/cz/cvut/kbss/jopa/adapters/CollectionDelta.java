@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.adapters;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Element-level changes of an indirect collection since its value was last written into the storage.
+ * <p>
+ * The changes are net, i.e., an element which was added and then removed again (or vice versa) is not recorded at all.
+ * <p>
+ * A delta may become incomplete, meaning that it no longer describes the difference between the collection and its
+ * stored value. In that case, the whole collection value has to be written.
+ *
+ * @param <E> Element type
+ */
+public class CollectionDelta<E> {
+
+    private final Set<E> added = new LinkedHashSet<>();
+    private final Set<Object> removed = new LinkedHashSet<>();
+    private boolean complete = true;
+
+    void elementAdded(E element) {
+        if (!removed.remove(element)) {
+            added.add(element);
+        }
+    }
+
+    void elementRemoved(Object element) {
+        if (!added.remove(element)) {
+            removed.add(element);
+        }
+    }
+
+    /**
+     * Gets elements added to the collection.
+     *
+     * @return Unmodifiable set of added elements
+     */
+    public Set<E> getAdded() {
+        return Collections.unmodifiableSet(added);
+    }
+
+    /**
+     * Gets elements removed from the collection.
+     * <p>
+     * Note that in case of collections allowing duplicates (lists), the collection may still contain a copy of a
+     * removed element.
+     *
+     * @return Unmodifiable set of removed elements
+     */
+    public Set<Object> getRemoved() {
+        return Collections.unmodifiableSet(removed);
+    }
+
+    /**
+     * Whether there are no recorded changes.
+     *
+     * @return {@code true} if no elements were added or removed, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Whether this delta describes all the changes of the collection since it was last written into the storage.
+     *
+     * @return Completeness status
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Marks this delta as incomplete, so that the whole collection value is written next time.
+     */
+    public void invalidate() {
+        added.clear();
+        removed.clear();
+        this.complete = false;
+    }
+
+    /**
+     * Resets this delta after the collection value has been written into the storage.
+     */
+    public void reset() {
+        added.clear();
+        removed.clear();
+        this.complete = true;
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionDelta{" + (complete ? "added=" + added + ", removed=" + removed : "incomplete") + '}';
+    }
+}
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.adapters;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
 
 import java.lang.reflect.Field;
+import java.util.Objects;
 
 public abstract class IndirectCollection<T> {
 
@@ -62,4 +63,27 @@ public abstract class IndirectCollection<T> {
      * @return The collection wrapped in this indirect collection
      */
     public abstract T getReferencedCollection();
+
+    /**
+     * Checks whether this collection is the value of the specified field of the specified owner instance.
+     *
+     * @param owner Owner instance
+     * @param f     Field
+     * @return {@code true} if this collection was created for the specified owner and field, {@code false} otherwise
+     */
+    public boolean isValueOf(Object owner, Field f) {
+        return this.owner == owner && Objects.equals(this.field, f);
+    }
+
+    /**
+     * Gets element-level changes of this collection since it was last written into the storage.
+     * <p>
+     * Collections which do not track element changes return {@code null}, which means that their whole value has to
+     * be written.
+     *
+     * @return Collection delta, possibly {@code null}
+     */
+    public CollectionDelta<?> getDelta() {
+        return null;
+    }
 }
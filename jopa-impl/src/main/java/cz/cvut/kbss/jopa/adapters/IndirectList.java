@@ -18,16 +18,20 @@ import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class IndirectList<E> extends IndirectCollection<List<E>> implements List<E> {
 
     private final List<E> internalList;
 
+    private final CollectionDelta<E> delta;
+
     /**
      * No-arg constructor to allow clone building.
      */
     IndirectList() {
         this.internalList = new ArrayList<>();
+        this.delta = new CollectionDelta<>();
     }
 
     /**
@@ -40,13 +44,20 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
      * @throws NullPointerException If the {@code referencedList} is null
      */
     public IndirectList(Object owner, Field f, UnitOfWorkImpl uow, List<E> referencedList) {
+        this(owner, f, uow, referencedList, new CollectionDelta<>());
+    }
+
+    private IndirectList(Object owner, Field f, UnitOfWorkImpl uow, List<E> referencedList,
+                         CollectionDelta<E> delta) {
         super(owner, f, uow);
         this.internalList = Objects.requireNonNull(referencedList);
+        this.delta = delta;
     }
 
     @Override
     public boolean add(E arg0) {
         final boolean res = internalList.add(arg0);
+        delta.elementAdded(arg0);
         persistChange();    // There is always a change
         return res;
     }
@@ -54,6 +65,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public void add(int arg0, E arg1) {
         internalList.add(arg0, arg1);
+        delta.elementAdded(arg1);
         persistChange();
     }
 
@@ -61,6 +73,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean addAll(Collection<? extends E> c) {
         boolean res = internalList.addAll(c);
         if (res) {
+            c.forEach(delta::elementAdded);
             persistChange();
         }
         return res;
@@ -70,6 +83,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean addAll(int index, Collection<? extends E> c) {
         boolean res = internalList.addAll(index, c);
         if (res) {
+            c.forEach(delta::elementAdded);
             persistChange();
         }
         return res;
@@ -77,6 +91,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     @Override
     public void clear() {
+        internalList.forEach(delta::elementRemoved);
         internalList.clear();
         persistChange();
     }
@@ -130,6 +145,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean remove(Object arg0) {
         boolean res = internalList.remove(arg0);
         if (res) {
+            delta.elementRemoved(arg0);
             persistChange();
         }
         return res;
@@ -138,14 +154,18 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public E remove(int arg0) {
         E elem = internalList.remove(arg0);
+        delta.elementRemoved(elem);
         persistChange();
         return elem;
     }
 
     @Override
     public boolean removeAll(Collection<?> arg0) {
+        // The argument may be a view of this list, so removed elements are determined before they are removed
+        final List<E> removed = internalList.stream().filter(arg0::contains).collect(Collectors.toList());
         boolean res = internalList.removeAll(arg0);
         if (res) {
+            removed.forEach(delta::elementRemoved);
             persistChange();
         }
         return res;
@@ -153,8 +173,10 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     @Override
     public boolean retainAll(Collection<?> arg0) {
+        final List<E> removed = internalList.stream().filter(e -> !arg0.contains(e)).collect(Collectors.toList());
         boolean res = internalList.retainAll(arg0);
         if (res) {
+            removed.forEach(delta::elementRemoved);
             persistChange();
         }
         return res;
@@ -163,6 +185,8 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public E set(int arg0, E arg1) {
         E elem = internalList.set(arg0, arg1);
+        delta.elementRemoved(elem);
+        delta.elementAdded(arg1);
         persistChange();
         return elem;
     }
@@ -174,7 +198,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     @Override
     public List<E> subList(int fromIndex, int toIndex) {
-        return new IndirectList<>(owner, field, persistenceContext, internalList.subList(fromIndex, toIndex));
+        return new IndirectList<>(owner, field, persistenceContext, internalList.subList(fromIndex, toIndex), delta);
     }
 
     @Override
@@ -192,6 +216,11 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
         return internalList;
     }
 
+    @Override
+    public CollectionDelta<E> getDelta() {
+        return delta;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o instanceof List) {
@@ -216,6 +245,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     private class IndirectIterator implements Iterator<E> {
 
         private final Iterator<E> it;
+        private E current;
 
         private IndirectIterator(Iterator<E> it) {
             this.it = it;
@@ -228,12 +258,14 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
         @Override
         public E next() {
-            return it.next();
+            this.current = it.next();
+            return current;
         }
 
         @Override
         public void remove() {
             it.remove();
+            delta.elementRemoved(current);
             IndirectList.this.persistChange();
         }
     }
@@ -241,6 +273,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     private class IndirectListIterator implements ListIterator<E> {
 
         private final ListIterator<E> lit;
+        private E current;
 
         private IndirectListIterator(ListIterator<E> lit) {
             this.lit = lit;
@@ -253,7 +286,8 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
         @Override
         public E next() {
-            return lit.next();
+            this.current = lit.next();
+            return current;
         }
 
         @Override
@@ -263,7 +297,8 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
         @Override
         public E previous() {
-            return lit.previous();
+            this.current = lit.previous();
+            return current;
         }
 
         @Override
@@ -279,18 +314,23 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
         @Override
         public void remove() {
             lit.remove();
+            delta.elementRemoved(current);
             IndirectList.this.persistChange();
         }
 
         @Override
         public void set(E e) {
             lit.set(e);
+            delta.elementRemoved(current);
+            delta.elementAdded(e);
+            this.current = e;
             IndirectList.this.persistChange();
         }
 
         @Override
         public void add(E e) {
             lit.add(e);
+            delta.elementAdded(e);
             IndirectList.this.persistChange();
         }
     }
@@ -18,11 +18,14 @@ import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E> {
 
     private Set<E> internalSet;
 
+    private final CollectionDelta<E> delta = new CollectionDelta<>();
+
     /**
      * No-arg constructor to allow clone building.
      */
@@ -52,7 +55,7 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
 
     @Override
     public Iterator<E> iterator() {
-        return new IndirectSetIterator<>(internalSet.iterator());
+        return new IndirectSetIterator(internalSet.iterator());
     }
 
     @Override
@@ -69,6 +72,7 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
     public boolean add(E e) {
         boolean res = internalSet.add(e);
         if (res) {
+            delta.elementAdded(e);
             persistChange();
         }
         return res;
@@ -78,6 +82,7 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
     public boolean remove(Object o) {
         boolean res = internalSet.remove(o);
         if (res) {
+            delta.elementRemoved(o);
             persistChange();
         }
         return res;
@@ -89,9 +94,14 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
     }
 
     @Override
-
     public boolean addAll(Collection<? extends E> c) {
-        boolean res = internalSet.addAll(c);
+        boolean res = false;
+        for (E e : c) {
+            if (internalSet.add(e)) {
+                delta.elementAdded(e);
+                res = true;
+            }
+        }
         if (res) {
             persistChange();
         }
@@ -100,8 +110,10 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        final List<E> removed = internalSet.stream().filter(e -> !c.contains(e)).collect(Collectors.toList());
         boolean res = internalSet.retainAll(c);
         if (res) {
+            removed.forEach(delta::elementRemoved);
             persistChange();
         }
         return res;
@@ -109,8 +121,11 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        // The argument may be this set itself, so removed elements are determined before they are removed
+        final List<E> removed = internalSet.stream().filter(c::contains).collect(Collectors.toList());
         boolean res = internalSet.removeAll(c);
         if (res) {
+            removed.forEach(delta::elementRemoved);
             persistChange();
         }
         return res;
@@ -118,15 +133,17 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
 
     @Override
     public void clear() {
+        internalSet.forEach(delta::elementRemoved);
         internalSet.clear();
         persistChange();
     }
 
-    private class IndirectSetIterator<T> implements Iterator<T> {
+    private class IndirectSetIterator implements Iterator<E> {
 
-        private Iterator<T> iterator;
+        private final Iterator<E> iterator;
+        private E current;
 
-        private IndirectSetIterator(Iterator<T> iterator) {
+        private IndirectSetIterator(Iterator<E> iterator) {
             this.iterator = iterator;
         }
 
@@ -136,13 +153,15 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
         }
 
         @Override
-        public T next() {
-            return iterator.next();
+        public E next() {
+            this.current = iterator.next();
+            return current;
         }
 
         @Override
         public void remove() {
             iterator.remove();
+            delta.elementRemoved(current);
             IndirectSet.this.persistChange();
         }
     }
@@ -152,6 +171,11 @@ public class IndirectSet<E> extends IndirectCollection<Set<E>> implements Set<E>
         return internalSet;
     }
 
+    @Override
+    public CollectionDelta<E> getDelta() {
+        return delta;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o instanceof Set) {
@@ -24,9 +24,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -49,6 +47,39 @@ class ClasspathScanner {
         listeners.add(listener);
     }
 
+    /**
+     * Processes classes listed in the build-time metamodel index (see {@link MetamodelIndex}).
+     * <p>
+     * Only indexed classes from the specified package (and its subpackages) are processed. Unlike during classpath
+     * scanning, the classes are not initialized.
+     *
+     * @param scanPath Package whose classes should be processed
+     * @return {@code false} if no index is available or no indexed class is in the specified package, in which case no
+     * classes are processed, {@code true} otherwise
+     */
+    boolean processIndexedClasses(String scanPath) {
+        final List<URL> indexes = MetamodelIndex.find(classLoader);
+        if (indexes.isEmpty()) {
+            LOG.warn("No metamodel index found on classpath, falling back to classpath scanning.");
+            return false;
+        }
+        final String prefix = scanPath + '.';
+        final List<String> classNames = new ArrayList<>();
+        for (String className : MetamodelIndex.read(indexes)) {
+            if (className.startsWith(prefix)) {
+                classNames.add(className);
+            }
+        }
+        if (classNames.isEmpty()) {
+            LOG.warn("Metamodel indexes {} contain no classes from package {}, falling back to classpath scanning.",
+                    indexes, scanPath);
+            return false;
+        }
+        LOG.info("Loading persistence unit classes from metamodel indexes {}.", indexes);
+        classNames.forEach(className -> processClass(className, false));
+        return true;
+    }
+
     /**
      * Inspired by https://github.com/ddopson/java-class-enumerator
      */
@@ -107,7 +138,7 @@ class ClasspathScanner {
                     className = className.substring(0, className.length() - CLASS_FILE_SUFFIX.length());
                 }
                 if (className != null) {
-                    processClass(className);
+                    processClass(className, true);
                 }
             }
         } catch (IOException e) {
@@ -115,9 +146,9 @@ class ClasspathScanner {
         }
     }
 
-    private void processClass(String className) {
+    private void processClass(String className, boolean initialize) {
         try {
-            final Class<?> cls = Class.forName(className, true, classLoader);
+            final Class<?> cls = Class.forName(className, initialize, classLoader);
             listeners.forEach(listener -> listener.accept(cls));
         } catch (ClassNotFoundException e) {
             throw new OWLPersistenceException("Unexpected ClassNotFoundException when scanning for entities.", e);
@@ -140,7 +171,7 @@ class ClasspathScanner {
                 className = packageName + '.' + fileName.substring(0, fileName.length() - 6);
             }
             if (className != null) {
-                processClass(className);
+                processClass(className, true);
             }
             final File subDir = new File(dir, fileName);
             if (subDir.isDirectory()) {
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.loaders;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMapping;
+import cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMappings;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Build-time index of classes relevant to persistence unit building.
+ * <p>
+ * The index is a plain text resource located at {@link #LOCATION}, containing one fully qualified class name per
+ * line. Lines starting with {@code #} are comments. Each archive (or class directory) may contain its own index, the
+ * indexes of all of them are merged.
+ * <p>
+ * When the index is enabled (see {@link cz.cvut.kbss.jopa.model.JOPAPersistenceProperties#USE_METAMODEL_INDEX}) and
+ * available, persistence unit classes are loaded directly from it, so that the classpath need not be scanned.
+ */
+public class MetamodelIndex {
+
+    /**
+     * Location of the index resource.
+     */
+    public static final String LOCATION = "META-INF/jopa/metamodel.idx";
+
+    private static final String COMMENT = "#";
+
+    private MetamodelIndex() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Checks whether the specified class is relevant to persistence unit building and should thus be indexed.
+     * <p>
+     * These are entity classes and classes declaring SPARQL result set mappings.
+     *
+     * @param cls The class to check
+     * @return {@code true} if the class should be indexed, {@code false} otherwise
+     */
+    public static boolean isIndexed(Class<?> cls) {
+        return (cls.getAnnotation(OWLClass.class) != null && !cls.isInterface()) ||
+                cls.getDeclaredAnnotation(SparqlResultSetMapping.class) != null ||
+                cls.getDeclaredAnnotation(SparqlResultSetMappings.class) != null;
+    }
+
+    /**
+     * Writes index of the specified classes into the specified file.
+     *
+     * @param classNames Names of the indexed classes
+     * @param target     Target file, the directories on its path are created if necessary
+     * @throws IOException When unable to write the index
+     */
+    public static void write(Collection<String> classNames, Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        final List<String> lines = new ArrayList<>(classNames.size() + 1);
+        lines.add(COMMENT + " JOPA metamodel index");
+        new TreeSet<>(classNames).forEach(lines::add);
+        Files.write(target, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds all the indexes available to the specified class loader.
+     *
+     * @param classLoader Class loader used to look up the indexes
+     * @return URLs of the indexes, empty if no index is available
+     */
+    static List<URL> find(ClassLoader classLoader) {
+        try {
+            return Collections.list(classLoader.getResources(LOCATION));
+        } catch (IOException e) {
+            throw new OWLPersistenceException("Unable to look up metamodel index.", e);
+        }
+    }
+
+    /**
+     * Reads names of indexed classes from the specified indexes.
+     *
+     * @param indexes URLs of the indexes to read
+     * @return Names of indexed classes
+     */
+    static Set<String> read(Collection<URL> indexes) {
+        final Set<String> classNames = new LinkedHashSet<>();
+        for (URL index : indexes) {
+            try {
+                readIndex(index, classNames);
+            } catch (IOException e) {
+                throw new OWLPersistenceException("Unable to read metamodel index " + index, e);
+            }
+        }
+        return classNames;
+    }
+
+    private static void readIndex(URL index, Set<String> classNames) throws IOException {
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith(COMMENT)) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+}
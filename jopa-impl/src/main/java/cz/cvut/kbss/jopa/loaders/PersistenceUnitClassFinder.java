@@ -44,6 +44,9 @@ public class PersistenceUnitClassFinder {
      * <ul> <li>Entities, i.e. classes annotated with {@link cz.cvut.kbss.jopa.model.annotations.OWLClass},</li>
      * <li>Result result mapping classes, i.e. classes annotated with {@link cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMapping}
      * or {@link cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMappings}</li> </ul>
+     * <p>
+     * If the build-time {@link MetamodelIndex} is enabled by {@link JOPAPersistenceProperties#USE_METAMODEL_INDEX} and
+     * it contains classes from the scanned package, the classes are loaded from it and the classpath is not scanned.
      *
      * @param configuration Persistence configuration, should contain value for the {@link
      *                      JOPAPersistenceProperties#SCAN_PACKAGE} property
@@ -60,7 +63,10 @@ public class PersistenceUnitClassFinder {
         }
         classProcessor.addListener(entityLoader);
         classProcessor.addListener(resultSetMappingLoader);
-        classProcessor.processClasses(toScan);
+        if (!configuration.is(JOPAPersistenceProperties.USE_METAMODEL_INDEX) ||
+                !classProcessor.processIndexedClasses(toScan)) {
+            classProcessor.processClasses(toScan);
+        }
         this.scanned = true;
     }
 
@@ -24,6 +24,7 @@ import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.utils.ErrorUtils;
 import cz.cvut.kbss.jopa.utils.Procedure;
 import cz.cvut.kbss.jopa.utils.ThrowingConsumer;
+import cz.cvut.kbss.ontodriver.PreparedStatement;
 import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.Statement;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
@@ -31,6 +32,9 @@ import cz.cvut.kbss.ontodriver.iteration.ResultRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -282,10 +286,10 @@ abstract class AbstractQuery implements Query {
      * @throws OntoDriverException When something goes wrong during query evaluation or result set processing
      */
     void executeQuery(ThrowingConsumer<ResultRow, OntoDriverException> consumer) throws OntoDriverException {
-        try (final Statement stmt = connection.createStatement()) {
+        try (final Statement stmt = createQueryStatement()) {
             setTargetOntology(stmt);
             logQuery();
-            final ResultSet rs = stmt.executeQuery(query.assembleQuery());
+            final ResultSet rs = executeStatement(stmt);
             for (ResultRow row : rs) {
                 consumer.accept(row);
             }
@@ -293,10 +297,10 @@ abstract class AbstractQuery implements Query {
     }
 
     <R> Stream<R> executeQueryForStream(Function<ResultRow, Optional<R>> function) throws OntoDriverException {
-        final Statement stmt = connection.createStatement();
+        final Statement stmt = createQueryStatement();
         setTargetOntology(stmt);
         logQuery();
-        final ResultSet rs = stmt.executeQuery(query.assembleQuery());
+        final ResultSet rs = executeStatement(stmt);
         return StreamSupport.stream(new QueryResultSpliterator<>(rs.spliterator(), function, () -> {
             try {
                 stmt.close();
@@ -307,6 +311,71 @@ abstract class AbstractQuery implements Query {
         }), false);
     }
 
+    /**
+     * Executes the query and returns a stream of results which are loaded in chunks.
+     * <p>
+     * Keys are extracted from result rows lazily as the stream is consumed and each chunk of keys is then mapped using
+     * the specified chunk loader.
+     *
+     * @param keyExtractor Extracts key from a result row
+     * @param chunkLoader  Maps a chunk of keys to results
+     * @param chunkSize    Maximum number of result rows in a chunk
+     * @param <K>          Key type
+     * @param <R>          Result type
+     * @return Stream of results
+     * @throws OntoDriverException When something goes wrong during query evaluation
+     */
+    <K, R> Stream<R> executeQueryForChunkedStream(Function<ResultRow, K> keyExtractor,
+                                                  Function<List<K>, List<R>> chunkLoader, int chunkSize)
+            throws OntoDriverException {
+        final Statement stmt = createQueryStatement();
+        setTargetOntology(stmt);
+        logQuery();
+        final ResultSet rs = executeStatement(stmt);
+        final ChunkedQueryResultSpliterator<K, R> spliterator =
+                new ChunkedQueryResultSpliterator<>(rs.spliterator(), keyExtractor, chunkLoader, chunkSize, () -> {
+                    try {
+                        stmt.close();
+                    } catch (OntoDriverException e) {
+                        markTransactionForRollback();
+                        throw new OWLPersistenceException(e);
+                    }
+                });
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Creates statement for query execution.
+     * <p>
+     * If values of any parameters can be bound to query variables by the storage, a prepared statement with these
+     * values set is created, so that the query string does not change with parameter values and the storage can reuse
+     * its parsed form.
+     */
+    private Statement createQueryStatement() throws OntoDriverException {
+        final Map<String, String> bindings = new HashMap<>();
+        final String queryString = query.assembleQuery(bindings);
+        if (bindings.isEmpty()) {
+            return connection.createStatement();
+        }
+        final PreparedStatement stmt = connection.prepareStatement(queryString);
+        try {
+            for (Map.Entry<String, String> e : bindings.entrySet()) {
+                stmt.setObject(e.getKey(), e.getValue());
+            }
+        } catch (RuntimeException e) {
+            stmt.close();
+            throw e;
+        }
+        return stmt;
+    }
+
+    private ResultSet executeStatement(Statement stmt) throws OntoDriverException {
+        if (stmt instanceof PreparedStatement) {
+            return ((PreparedStatement) stmt).executeQuery();
+        }
+        return stmt.executeQuery(query.assembleQuery());
+    }
+
     boolean exceptionCausesRollback(RuntimeException e) {
         return !(e instanceof NoUniqueResultException) && !(e instanceof NoResultException);
     }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import cz.cvut.kbss.jopa.utils.Procedure;
+import cz.cvut.kbss.ontodriver.iteration.ResultRow;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator for processing {@link cz.cvut.kbss.ontodriver.ResultSet} in chunks.
+ * <p>
+ * Instead of mapping result rows one by one, this spliterator extracts keys (e.g., entity identifiers) from up to
+ * {@code chunkSize} result rows and then maps the whole chunk at once using the specified chunk loader. Only one chunk
+ * of results is held in memory at a time and the next chunk is loaded only when the previous one has been consumed.
+ * <p>
+ * The {@code onClose} handler, which releases the underlying statement and result set, is invoked as soon as the
+ * result set is exhausted (before the last chunk is consumed) or when processing fails. It is invoked at most once.
+ *
+ * @param <K> The type of the keys extracted from result rows
+ * @param <X> The type of the extracted item
+ */
+class ChunkedQueryResultSpliterator<K, X> extends Spliterators.AbstractSpliterator<X> {
+
+    private final Spliterator<ResultRow> resultSetSpliterator;
+    private final Function<ResultRow, K> keyExtractor;
+    private final Function<List<K>, List<X>> chunkLoader;
+    private final int chunkSize;
+    private final Procedure onClose;
+
+    private final Deque<X> chunk = new ArrayDeque<>();
+    private boolean exhausted;
+    private boolean closed;
+
+    ChunkedQueryResultSpliterator(Spliterator<ResultRow> resultSetSpliterator, Function<ResultRow, K> keyExtractor,
+                                  Function<List<K>, List<X>> chunkLoader, int chunkSize, Procedure onClose) {
+        super(Long.MAX_VALUE, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+        assert chunkSize > 0;
+        this.resultSetSpliterator = resultSetSpliterator;
+        this.keyExtractor = keyExtractor;
+        this.chunkLoader = chunkLoader;
+        this.chunkSize = chunkSize;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super X> action) {
+        try {
+            while (chunk.isEmpty()) {
+                if (exhausted) {
+                    return false;
+                }
+                loadChunk();
+            }
+            action.accept(chunk.poll());
+            return true;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void loadChunk() {
+        final List<K> keys = new ArrayList<>(chunkSize);
+        while (keys.size() < chunkSize && resultSetSpliterator.tryAdvance(row -> keys.add(keyExtractor.apply(row)))) {
+            // Keep pulling rows until the chunk is full or the result set is exhausted
+        }
+        if (keys.size() < chunkSize) {
+            this.exhausted = true;
+            close();
+        }
+        if (!keys.isEmpty()) {
+            chunkLoader.apply(keys).stream().filter(Objects::nonNull).forEach(chunk::add);
+        }
+    }
+
+    /**
+     * Releases the underlying result set, unless it has already been released.
+     */
+    void close() {
+        if (!closed) {
+            this.closed = true;
+            onClose.execute();
+        }
+    }
+}
@@ -57,20 +57,76 @@ public final class JOPAPersistenceProperties extends PersistenceProperties {
     public static final String CACHE_SWEEP_RATE = "cz.cvut.jopa.cache.sweepRate";
 
     /**
-     * Type of the second level cache. Currently supported are {@literal ttl} and {@literal lru}.
+     * Type of the second level cache. Currently supported are {@literal ttl}, {@literal lru}, {@literal concurrent}
+     * and {@literal weighted}.
+     * <p>
+     * The {@literal concurrent} cache uses approximate LRU eviction and, unlike {@literal lru}, does not serialize
+     * concurrent readers. The {@literal weighted} cache works the same way, but it is bounded by estimated memory
+     * footprint of the cached entities instead of their count.
      */
     public static final String CACHE_TYPE = "cz.cvut.jopa.cache.type";
 
     /**
-     * Capacity of the LRU second level cache.
+     * Capacity of the LRU (and concurrent) second level cache.
      */
     public static final String LRU_CACHE_CAPACITY = "cz.cvut.jopa.cache.lru.capacity";
 
+    /**
+     * Maximum total weight of entities in the weighted second level cache.
+     * <p>
+     * The weight is an estimate of the entities' memory footprint in bytes.
+     */
+    public static final String CACHE_MAX_WEIGHT = "cz.cvut.jopa.cache.weighted.maxWeight";
+
     /**
      * Disable integrity constraints validation on entity/field load.
      */
     public static final String DISABLE_IC_VALIDATION_ON_LOAD = "cz.cvut.jopa.ic.validation.disableOnLoad";
 
+    /**
+     * Whether changes of managed entity attributes done in a transaction should be written into the storage lazily.
+     * <p>
+     * By default, every attribute modification (setter call or indirect collection change) is immediately written into
+     * the transactional storage. When this setting is {@code true}, modifications only mark the attribute as dirty and
+     * each dirty attribute is written once, when the persistence context is flushed or committed or before a query is
+     * executed.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String DEFER_ATTRIBUTE_UPDATES = "cz.cvut.jopa.deferAttributeUpdates";
+
+    /**
+     * Number of entity instances loaded at once when processing result stream of a typed query.
+     * <p>
+     * Identifiers of the results are read from the query result set in chunks of this size and each chunk is loaded
+     * in a single batch.
+     * <p>
+     * Defaults to {@link TypedQueryImpl#DEFAULT_STREAM_CHUNK_SIZE}.
+     */
+    public static final String QUERY_STREAM_CHUNK_SIZE = "cz.cvut.jopa.query.streamChunkSize";
+
+    /**
+     * Maximum number of parsed query templates cached in the persistence unit.
+     * <p>
+     * Parsed (and, in case of SOQL, translated) queries are shared by all persistence contexts, so that repeatedly
+     * executed queries are parsed only once. Setting this to {@code 0} disables the cache.
+     * <p>
+     * Defaults to {@link cz.cvut.kbss.jopa.query.QueryPlanCache#DEFAULT_CAPACITY}.
+     */
+    public static final String QUERY_PLAN_CACHE_SIZE = "cz.cvut.jopa.query.planCacheSize";
+
+    /**
+     * Whether to load persistence unit classes from the build-time metamodel index instead of scanning the classpath.
+     * <p>
+     * The index (see {@link cz.cvut.kbss.jopa.loaders.MetamodelIndex}) is generated by the {@literal
+     * generate-metamodel-index} goal of the JOPA Maven plugin. When enabled, classes from {@link #SCAN_PACKAGE} listed
+     * in the indexes found on the classpath are used, so all the persistence unit classes have to be indexed. If no
+     * index is found or none of the indexed classes is in {@link #SCAN_PACKAGE}, the classpath is scanned.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String USE_METAMODEL_INDEX = "cz.cvut.jopa.metamodelIndex.enabled";
+
     private JOPAPersistenceProperties() {
         throw new AssertionError();
     }
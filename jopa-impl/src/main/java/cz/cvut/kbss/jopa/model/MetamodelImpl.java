@@ -38,6 +38,7 @@ public class MetamodelImpl implements Metamodel, MetamodelProvider {
     private Map<Class<?>, ManagedType<?>> typeMap;
     private Map<Class<?>, EntityType<?>> entities;
     private Set<Class<?>> inferredClasses;
+    private EntityTypeIndex entityTypeIndex;
 
     private NamedQueryManager namedQueryManager;
     private ResultSetMappingManager resultSetMappingManager;
@@ -72,6 +73,7 @@ public class MetamodelImpl implements Metamodel, MetamodelProvider {
         this.typeMap = metamodelBuilder.getTypeMap();
         this.entities = metamodelBuilder.getEntities();
         this.inferredClasses = metamodelBuilder.getInferredClasses();
+        this.entityTypeIndex = new EntityTypeIndex(entities.values());
         this.namedQueryManager = metamodelBuilder.getNamedQueryManager();
         this.resultSetMappingManager = metamodelBuilder.getResultSetMappingManager();
     }
@@ -113,6 +115,15 @@ public class MetamodelImpl implements Metamodel, MetamodelProvider {
         return Collections.unmodifiableSet(inferredClasses);
     }
 
+    /**
+     * Gets index of entity types by their ontological classes.
+     *
+     * @return Entity type index
+     */
+    public EntityTypeIndex getEntityTypeIndex() {
+        return entityTypeIndex;
+    }
+
     public NamedQueryManager getNamedQueryManager() {
         return namedQueryManager;
     }
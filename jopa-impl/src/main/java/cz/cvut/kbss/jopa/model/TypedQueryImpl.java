@@ -34,15 +34,23 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
 
+    /**
+     * Default number of entity instances loaded at once when processing result stream.
+     */
+    public static final int DEFAULT_STREAM_CHUNK_SIZE = 100;
+
     private final Class<X> resultType;
     private final MetamodelProvider metamodelProvider;
 
     private UnitOfWork uow;
 
+    private int streamChunkSize = DEFAULT_STREAM_CHUNK_SIZE;
+
     private Descriptor descriptor;
 
     public TypedQueryImpl(final QueryHolder query, final Class<X> resultType,
@@ -57,6 +65,18 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         this.uow = uow;
     }
 
+    /**
+     * Sets the number of entity instances loaded at once when processing {@link #getResultStream()}.
+     *
+     * @param streamChunkSize Chunk size, must be positive
+     */
+    public void setStreamChunkSize(int streamChunkSize) {
+        if (streamChunkSize <= 0) {
+            throw new IllegalArgumentException("Stream chunk size must be positive.");
+        }
+        this.streamChunkSize = streamChunkSize;
+    }
+
     @Override
     public List<X> getResultList() {
         ensureOpen();
@@ -73,31 +93,66 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
 
     private List<X> getResultListImpl() throws OntoDriverException {
         final boolean isEntityType = metamodelProvider.isEntityType(resultType);
-        final Descriptor instDescriptor = descriptor != null ? descriptor : new EntityDescriptor();
+        final Descriptor instDescriptor = resolveInstanceDescriptor();
+        if (isEntityType) {
+            return loadEntityInstances(instDescriptor);
+        }
         final List<X> res = new ArrayList<>();
-        executeQuery(rs -> {
-            if (isEntityType) {
-                loadEntityInstance(rs, instDescriptor).ifPresent(res::add);
-            } else {
-                loadResultValue(rs).ifPresent(res::add);
-            }
-        });
+        executeQuery(rs -> loadResultValue(rs).ifPresent(res::add));
+        return res;
+    }
+
+    /**
+     * Resolves descriptor for loading result entities, adding attributes fetched by the query (using {@code JOIN
+     * FETCH}) to its fetch graph.
+     * <p>
+     * The descriptor set on this query is copied before the fetched attributes are added to it, so that it is not
+     * modified. Fetched attributes are supported only for entity descriptors.
+     */
+    private Descriptor resolveInstanceDescriptor() {
+        final Set<String> fetched = query.getFetchedAttributes();
+        if (fetched.isEmpty() || (descriptor != null && !(descriptor instanceof EntityDescriptor))) {
+            return descriptor != null ? descriptor : new EntityDescriptor();
+        }
+        final Descriptor instDescriptor =
+                descriptor != null ? ((EntityDescriptor) descriptor).copy() : new EntityDescriptor();
+        fetched.forEach(instDescriptor::addFetchedAttribute);
+        return instDescriptor;
+    }
+
+    /**
+     * Loads all the query results as entity instances in a batch, so that the storage is not accessed for each result
+     * separately.
+     */
+    private List<X> loadEntityInstances(Descriptor instanceDescriptor) throws OntoDriverException {
+        ensureUnitOfWorkAvailable();
+        final List<URI> identifiers = new ArrayList<>();
+        executeQuery(rs -> identifiers.add(getEntityIdentifier(rs)));
+        final List<X> res = uow.readObjects(resultType, identifiers, instanceDescriptor);
+        res.removeIf(Objects::isNull);
         return res;
     }
 
-    private Optional<X> loadEntityInstance(ResultRow resultRow, Descriptor instanceDescriptor) {
+    private void ensureUnitOfWorkAvailable() {
         if (uow == null) {
             throw new IllegalStateException("Cannot load entity instance without Unit of Work.");
         }
+    }
+
+    private URI getEntityIdentifier(ResultRow resultRow) {
         try {
             assert resultRow.isBound(0);
-            final URI uri = URI.create(resultRow.getString(0));
-            return Optional.ofNullable(uow.readObject(resultType, uri, instanceDescriptor));
+            return URI.create(resultRow.getString(0));
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException("Unable to load query result as entity of type " + resultType, e);
         }
     }
 
+    private List<X> loadEntityInstances(List<URI> identifiers, Descriptor instanceDescriptor) {
+        ensureUnitOfWorkAvailable();
+        return uow.readObjects(resultType, identifiers, instanceDescriptor);
+    }
+
     private Optional<X> loadResultValue(ResultRow resultRow) {
         try {
             return Optional.of(resultRow.getObject(0, resultType));
@@ -129,18 +184,23 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entity instances are loaded lazily in chunks as the stream is consumed (see {@link
+     * cz.cvut.kbss.jopa.model.JOPAPersistenceProperties#QUERY_STREAM_CHUNK_SIZE}), each chunk using a single batch
+     * load. The underlying result set is released as soon as it is exhausted.
+     */
     @Override
     public Stream<X> getResultStream() {
         final boolean isEntityType = metamodelProvider.isEntityType(resultType);
-        final Descriptor instDescriptor = descriptor != null ? descriptor : new EntityDescriptor();
+        final Descriptor instDescriptor = resolveInstanceDescriptor();
         try {
-            return executeQueryForStream(row -> {
-                if (isEntityType) {
-                    return loadEntityInstance(row, instDescriptor);
-                } else {
-                    return loadResultValue(row);
-                }
-            });
+            if (isEntityType) {
+                return executeQueryForChunkedStream(this::getEntityIdentifier,
+                        ids -> loadEntityInstances(ids, instDescriptor), streamChunkSize);
+            }
+            return executeQueryForStream(this::loadResultValue);
         } catch (OntoDriverException e) {
             markTransactionForRollback();
             throw queryEvaluationException(e);
@@ -27,6 +27,8 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
 
     private final Field field;
 
+    private final FieldAccessor accessor;
+
     private final ManagedType<X> declaringType;
 
     private final PersistentAttributeType attributeType;
@@ -53,6 +55,7 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
 
     AbstractAttribute(AbstractAttributeBuilder<X, Y> builder) {
         this.field = builder.field;
+        this.accessor = FieldAccessor.forField(field);
         this.declaringType = builder.declaringType;
         this.attributeType = builder.attributeType;
         this.iri = builder.iri;
@@ -107,6 +110,17 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
         return field;
     }
 
+    /**
+     * Gets accessor of the field represented by this attribute.
+     * <p>
+     * The accessor is resolved when the attribute is created, i.e., during metamodel construction.
+     *
+     * @return Field accessor
+     */
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
     @Override
     public FetchType getFetchType() {
         return fetchType;
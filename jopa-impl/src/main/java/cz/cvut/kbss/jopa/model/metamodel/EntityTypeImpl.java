@@ -25,6 +25,8 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
 
     private InheritanceType inheritanceType;
 
+    private PropertyFieldIndex<X> fieldIndex;
+
     public EntityTypeImpl(String name, Class<X> javaType, final IRI iri) {
         super(javaType);
         this.name = name;
@@ -81,6 +83,19 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
         this.inheritanceType = inheritanceType;
     }
 
+    /**
+     * Gets index of fields of this entity type by the properties they are mapped to.
+     *
+     * @return Property field index, {@code null} if the metamodel has not been built, yet
+     */
+    public PropertyFieldIndex<X> getFieldIndex() {
+        return fieldIndex;
+    }
+
+    void initFieldIndex() {
+        this.fieldIndex = new PropertyFieldIndex<>(this);
+    }
+
     @Override
     public String toString() {
         return "EntityType{" + name + "<" + iri + ">}";
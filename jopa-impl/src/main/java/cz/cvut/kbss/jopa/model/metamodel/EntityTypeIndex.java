@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Immutable index of entity types by the IRIs of their ontological classes.
+ * <p>
+ * Besides the class IRI lookup, the index contains entity ancestors and concrete (non-abstract) entity descendants of
+ * every indexed entity type, so that the actual type of a polymorphic instance can be resolved from its types without
+ * walking the entity hierarchy.
+ */
+public class EntityTypeIndex {
+
+    private final Map<URI, Set<EntityTypeImpl<?>>> classIndex;
+    private final Map<EntityType<?>, Set<EntityType<?>>> ancestors;
+    private final Map<EntityType<?>, Set<EntityTypeImpl<?>>> concreteSubtypes;
+
+    /**
+     * Creates index of the specified entity types and all their entity subtypes.
+     *
+     * @param entityTypes Entity types to index
+     */
+    public EntityTypeIndex(Collection<? extends EntityType<?>> entityTypes) {
+        final Map<URI, Set<EntityTypeImpl<?>>> classes = new HashMap<>();
+        final Map<EntityType<?>, Set<EntityType<?>>> etAncestors = new HashMap<>();
+        final Map<EntityType<?>, Set<EntityTypeImpl<?>>> etSubtypes = new HashMap<>();
+        for (EntityType<?> et : entityTypes) {
+            index((AbstractIdentifiableType<?>) et, Collections.emptyList(), classes, etAncestors, etSubtypes);
+        }
+        this.classIndex = freeze(classes);
+        this.ancestors = freeze(etAncestors);
+        this.concreteSubtypes = freeze(etSubtypes);
+    }
+
+    private static void index(AbstractIdentifiableType<?> type, List<EntityType<?>> path,
+                              Map<URI, Set<EntityTypeImpl<?>>> classes,
+                              Map<EntityType<?>, Set<EntityType<?>>> etAncestors,
+                              Map<EntityType<?>, Set<EntityTypeImpl<?>>> etSubtypes) {
+        List<EntityType<?>> subtypePath = path;
+        if (type.getPersistenceType() == Type.PersistenceType.ENTITY) {
+            final EntityTypeImpl<?> et = (EntityTypeImpl<?>) type;
+            classes.computeIfAbsent(et.getIRI().toURI(), k -> new HashSet<>(2)).add(et);
+            // A type may be reached through several paths (e.g., when both it and its ancestor are indexed), so the
+            // ancestors are merged
+            etAncestors.computeIfAbsent(et, k -> new HashSet<>(path.size())).addAll(path);
+            etSubtypes.computeIfAbsent(et, k -> new HashSet<>());
+            if (!et.isAbstract()) {
+                path.forEach(ancestor -> etSubtypes.get(ancestor).add(et));
+            }
+            subtypePath = new ArrayList<>(path);
+            subtypePath.add(et);
+        }
+        for (AbstractIdentifiableType<?> subtype : type.getSubtypes()) {
+            index(subtype, subtypePath, classes, etAncestors, etSubtypes);
+        }
+    }
+
+    private static <K, V> Map<K, Set<V>> freeze(Map<K, Set<V>> map) {
+        final Map<K, Set<V>> result = new HashMap<>(map.size());
+        map.forEach((k, v) -> result.put(k, Collections.unmodifiableSet(v)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Gets entity types mapped to the ontological class with the specified IRI.
+     *
+     * @param classIri Ontological class identifier
+     * @return Set of entity types, possibly empty
+     */
+    public Set<EntityTypeImpl<?>> getEntityTypes(URI classIri) {
+        return classIndex.getOrDefault(classIri, Collections.emptySet());
+    }
+
+    /**
+     * Gets all entity ancestors of the specified entity type.
+     *
+     * @param et Entity type
+     * @return Set of entity types which the specified entity type (transitively) extends, possibly empty
+     */
+    public Set<EntityType<?>> getAncestors(EntityType<?> et) {
+        return ancestors.getOrDefault(et, Collections.emptySet());
+    }
+
+    /**
+     * Gets all non-abstract entity descendants of the specified entity type.
+     * <p>
+     * The result does not contain the specified entity type itself.
+     *
+     * @param et Entity type
+     * @param <T> Type represented by the entity type
+     * @return Set of entity types which (transitively) extend the specified entity type, possibly empty
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<EntityTypeImpl<? extends T>> getConcreteSubtypes(EntityType<T> et) {
+        final Set<?> subtypes = concreteSubtypes.getOrDefault(et, Collections.emptySet());
+        return (Set<EntityTypeImpl<? extends T>>) subtypes;
+    }
+}
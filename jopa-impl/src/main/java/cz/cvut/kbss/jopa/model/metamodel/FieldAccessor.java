@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides fast read and write access to a field of a managed type.
+ * <p>
+ * The accessor is backed by {@link MethodHandle}s resolved once, so that accessing the field does not require
+ * reflective access checks on every invocation. Accessors are created during metamodel construction and cached per
+ * declaring class, so that each field is resolved only once.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccessor>> ACCESSORS =
+            new ClassValue<ConcurrentMap<String, FieldAccessor>>() {
+                @Override
+                protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        if (!field.isAccessible()) {
+            field.setAccessible(true);
+        }
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            this.getter = normalize(lookup.unreflectGetter(field), GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new OWLPersistenceException("Unable to create accessor for field " + field, e);
+        }
+        this.setter = resolveSetter(lookup, field);
+    }
+
+    private static MethodHandle resolveSetter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            return normalize(lookup.unreflectSetter(field), SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // Static final fields cannot be written through a method handle, leave it to reflection
+            return null;
+        }
+    }
+
+    /**
+     * Static field handles do not take the instance argument, add a dummy one so that all handles have the same type.
+     */
+    private static MethodHandle normalize(MethodHandle handle, MethodType type) {
+        if (handle.type().parameterCount() < type.parameterCount()) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    /**
+     * Gets accessor of the specified field.
+     * <p>
+     * The accessor is created if it does not exist yet.
+     *
+     * @param field Field to access
+     * @return Field accessor
+     */
+    public static FieldAccessor forField(Field field) {
+        Objects.requireNonNull(field);
+        return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field.getName(), n -> new FieldAccessor(field));
+    }
+
+    /**
+     * Gets the field this accessor provides access to.
+     *
+     * @return Java field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets value of the field from the specified instance.
+     *
+     * @param instance Instance to read the value from (may be {@code null} for static fields)
+     * @return Field value
+     * @throws IllegalArgumentException If the instance is not of the field's declaring type
+     * @throws NullPointerException     If the instance is {@code null} and the field is not static
+     */
+    public Object getValue(Object instance) {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Cannot read field " + field + " of " + instance, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to extract field value.", e);
+        }
+    }
+
+    /**
+     * Sets value of the field on the specified instance.
+     *
+     * @param instance Target instance (may be {@code null} for static fields)
+     * @param value    The value to set (may be {@code null})
+     * @throws IllegalArgumentException If the instance is not of the field's declaring type or the value is not
+     *                                  assignable to the field
+     * @throws NullPointerException     If the instance is {@code null} and the field is not static
+     */
+    public void setValue(Object instance, Object value) {
+        if (setter == null) {
+            setReflectively(instance, value);
+            return;
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Cannot set value " + value + " on field " + field, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to set field value.", e);
+        }
+    }
+
+    private void setReflectively(Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new OWLPersistenceException("Unable to set field value.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldAccessor{" + field.getDeclaringClass().getSimpleName() + "." + field.getName() + '}';
+    }
+}
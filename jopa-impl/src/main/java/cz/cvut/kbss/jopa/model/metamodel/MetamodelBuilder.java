@@ -50,6 +50,9 @@ public class MetamodelBuilder {
      */
     public void buildMetamodel(PersistenceUnitClassFinder classFinder) {
         classFinder.getEntities().forEach(this::processOWLClass);
+        // Index fields only once all the entity types are complete
+        typeMap.values().stream().filter(t -> t.getPersistenceType() == Type.PersistenceType.ENTITY)
+               .forEach(t -> ((EntityTypeImpl<?>) t).initFieldIndex());
         classFinder.getResultSetMappings().forEach(mappingProcessor::buildMapper);
     }
 
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of fields of an entity type by the IRIs of the properties they are mapped to.
+ * <p>
+ * Every indexed field is assigned a position in range {@code [0, size())}, so that per-field state (e.g., values being
+ * loaded) can be kept in an array instead of a map keyed by field specifications.
+ * <p>
+ * The index is built once the entity type is complete, which saves reconstruction of entity instances from
+ * re-indexing the entity attributes every time.
+ *
+ * @param <X> Entity type
+ */
+public class PropertyFieldIndex<X> {
+
+    private static final URI RDF_TYPE = URI.create(RDF.TYPE);
+
+    private final String classIri;
+    private final Map<URI, Integer> positions;
+    private final List<FieldSpecification<? super X, ?>> fields;
+    private final int propertiesPosition;
+
+    /**
+     * Creates index of attributes, types and properties field of the specified entity type.
+     *
+     * @param et Entity type to index
+     */
+    public PropertyFieldIndex(EntityType<X> et) {
+        this.classIri = et.getIRI().toString();
+        final Map<URI, Integer> indexed = new HashMap<>();
+        final List<FieldSpecification<? super X, ?>> specs = new ArrayList<>();
+        for (Attribute<? super X, ?> att : et.getAttributes()) {
+            indexed.put(att.getIRI().toURI(), specs.size());
+            specs.add(att);
+        }
+        if (et.getTypes() != null) {
+            indexed.put(RDF_TYPE, specs.size());
+            specs.add(et.getTypes());
+        }
+        if (et.getProperties() != null) {
+            this.propertiesPosition = specs.size();
+            specs.add(et.getProperties());
+        } else {
+            this.propertiesPosition = -1;
+        }
+        this.positions = Collections.unmodifiableMap(indexed);
+        this.fields = Collections.unmodifiableList(specs);
+    }
+
+    /**
+     * Checks whether the specified IRI is the IRI of the ontological class of the indexed entity type.
+     *
+     * @param iri Class IRI
+     * @return {@code true} if the IRI identifies the entity class, {@code false} otherwise
+     */
+    public boolean isEntityClass(String iri) {
+        return classIri.equals(iri);
+    }
+
+    /**
+     * Gets position of the field mapped to the specified property.
+     * <p>
+     * Properties not mapped by any attribute resolve to the properties field (if the entity type has one).
+     *
+     * @param property Property identifier
+     * @return Field position, {@code -1} if there is no field the property can be loaded into
+     */
+    public int positionOf(URI property) {
+        final Integer position = positions.get(property);
+        return position != null ? position : propertiesPosition;
+    }
+
+    /**
+     * Gets field specification at the specified position.
+     *
+     * @param position Field position, as returned by {@link #positionOf(URI)}
+     * @return Field specification
+     */
+    public FieldSpecification<? super X, ?> getField(int position) {
+        return fields.get(position);
+    }
+
+    /**
+     * Gets the number of indexed fields.
+     *
+     * @return Number of fields
+     */
+    public int size() {
+        return fields.size();
+    }
+}
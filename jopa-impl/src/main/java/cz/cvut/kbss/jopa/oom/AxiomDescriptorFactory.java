@@ -23,6 +23,9 @@ import cz.cvut.kbss.ontodriver.model.*;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import static cz.cvut.kbss.ontodriver.model.Assertion.*;
@@ -51,6 +54,20 @@ class AxiomDescriptorFactory {
         return descriptor;
     }
 
+    /**
+     * Adds assertion of the specified attribute to the descriptor, regardless of the attribute's fetch type.
+     * <p>
+     * This allows lazily loaded attributes requested by a fetch graph to be loaded together with their owner.
+     *
+     * @param descriptor       Descriptor of axioms to load
+     * @param entityDescriptor Descriptor of the owner entity
+     * @param att              Fetched attribute
+     */
+    void addForFetchedAttribute(AxiomDescriptor descriptor, Descriptor entityDescriptor, Attribute<?, ?> att) {
+        final Assertion a = createAssertion(att, entityDescriptor.getAttributeDescriptor(att));
+        addAssertionToDescriptor(entityDescriptor, att, descriptor, a);
+    }
+
     private void addForTypes(LoadingParameters<?> loadingParams, EntityType<?> et, AxiomDescriptor descriptor) {
         final TypesSpecification<?, ?> types = et.getTypes();
         if (types != null && shouldLoad(types.getFetchType(), loadingParams.isForceEager())) {
@@ -112,6 +129,55 @@ class AxiomDescriptorFactory {
         return descriptor.hasLanguage() ? descriptor.getLanguage() : puLanguage;
     }
 
+    /**
+     * Creates descriptor for loading explicit types of an individual, used to resolve its actual entity type.
+     *
+     * @param loadingParams Loading parameters of the individual
+     * @return Axiom descriptor with class assertion in the subject context
+     */
+    AxiomDescriptor createForTypesLoading(LoadingParameters<?> loadingParams) {
+        final AxiomDescriptor descriptor = new AxiomDescriptor(NamedResource.create(loadingParams.getIdentifier()));
+        descriptor.setSubjectContext(loadingParams.getDescriptor().getContext());
+        descriptor.addAssertion(Assertion.createClassAssertion(false));
+        return descriptor;
+    }
+
+    /**
+     * Creates descriptor for loading an individual whose actual entity type is one of the specified candidates.
+     * <p>
+     * The descriptor contains the explicit class assertion in the subject context, so that the actual entity type can
+     * be resolved, and assertions of all the candidate entity types, so that the instance can be reconstructed from
+     * the result without another storage access.
+     *
+     * @param loadingParams Loading parameters of the individual
+     * @param candidates    Entity types the individual may be an instance of
+     * @return Axiom descriptor, or {@code null} if the candidates map the same property differently (e.g., in different
+     * contexts) and thus cannot be loaded using a single descriptor
+     */
+    AxiomDescriptor createForPolymorphicLoading(LoadingParameters<?> loadingParams,
+                                                Collection<? extends EntityType<?>> candidates) {
+        final AxiomDescriptor descriptor = createForTypesLoading(loadingParams);
+        final Map<URI, Assertion> assertions = new HashMap<>();
+        descriptor.getAssertions().forEach(a -> assertions.put(a.getIdentifier(), a));
+        for (EntityType<?> et : candidates) {
+            final AxiomDescriptor etDescriptor = createForEntityLoading(loadingParams, et);
+            for (Assertion a : etDescriptor.getAssertions()) {
+                final URI context = etDescriptor.getAssertionContext(a);
+                final Assertion existing = assertions.putIfAbsent(a.getIdentifier(), a);
+                if (existing == null) {
+                    descriptor.addAssertion(a);
+                    if (!Objects.equals(descriptor.getSubjectContext(), context)) {
+                        descriptor.setAssertionContext(a, context);
+                    }
+                } else if (!existing.equals(a) || existing.getType() != a.getType() ||
+                        !Objects.equals(descriptor.getAssertionContext(existing), context)) {
+                    return null;
+                }
+            }
+        }
+        return descriptor;
+    }
+
     /**
      * Creates an axiom representing a class assertion.
      * <p>
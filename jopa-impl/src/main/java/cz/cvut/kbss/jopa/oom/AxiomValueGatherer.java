@@ -41,6 +41,8 @@ class AxiomValueGatherer {
     private Map<Assertion, Set<Value<?>>> propertiesToAdd;
     private Map<Assertion, Set<Value<?>>> propertiesToRemove;
     private URI propertiesContext;
+    private AxiomValueDescriptor valuesToAdd;
+    private Map<URI, Map<Assertion, Set<Value<?>>>> valuesToRemove;
 
     AxiomValueGatherer(NamedResource subject, URI subjectContext) {
         this.axiomDescriptor = new AxiomValueDescriptor(subject);
@@ -65,6 +67,38 @@ class AxiomValueGatherer {
         }
     }
 
+    /**
+     * Adds element-level changes of assertion values.
+     * <p>
+     * Unlike {@link #addValues(Assertion, Collection, URI)}, the other existing values of the assertion are left
+     * untouched on update.
+     *
+     * @param assertion Assertion whose values changed
+     * @param added     Values to add
+     * @param removed   Values to remove
+     * @param context   Assertion context
+     */
+    void addValueChanges(Assertion assertion, Collection<Value<?>> added, Collection<Value<?>> removed, URI context) {
+        if (!added.isEmpty()) {
+            if (valuesToAdd == null) {
+                this.valuesToAdd = new AxiomValueDescriptor(axiomDescriptor.getSubject());
+                valuesToAdd.setSubjectContext(axiomDescriptor.getSubjectContext());
+            }
+            valuesToAdd.addAssertion(assertion);
+            added.forEach(v -> valuesToAdd.addAssertionValue(assertion, v));
+            if (!Objects.equals(valuesToAdd.getSubjectContext(), context)) {
+                valuesToAdd.setAssertionContext(assertion, context);
+            }
+        }
+        if (!removed.isEmpty()) {
+            if (valuesToRemove == null) {
+                this.valuesToRemove = new HashMap<>(4);
+            }
+            valuesToRemove.computeIfAbsent(context, c -> new HashMap<>())
+                          .computeIfAbsent(assertion, a -> new HashSet<>()).addAll(removed);
+        }
+    }
+
     void addSimpleListValues(SimpleListValueDescriptor listDescriptor) {
         simpleListDescriptors.add(listDescriptor);
     }
@@ -141,6 +175,14 @@ class AxiomValueGatherer {
     void update(Connection connection) {
         try {
             connection.update(axiomDescriptor);
+            if (valuesToRemove != null) {
+                for (Map.Entry<URI, Map<Assertion, Set<Value<?>>>> e : valuesToRemove.entrySet()) {
+                    connection.properties().removeProperties(axiomDescriptor.getSubject(), e.getKey(), e.getValue());
+                }
+            }
+            if (valuesToAdd != null) {
+                connection.persist(valuesToAdd);
+            }
             if (typesToAdd != null) {
                 connection.types().addTypes(axiomDescriptor.getSubject(), typesContext, typesToAdd);
             }
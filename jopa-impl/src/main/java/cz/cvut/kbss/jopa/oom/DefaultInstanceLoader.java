@@ -17,6 +17,9 @@ package cz.cvut.kbss.jopa.oom;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Loads entities which do not require polymorphic handling.
  */
@@ -38,6 +41,13 @@ class DefaultInstanceLoader extends EntityInstanceLoader {
         return loadReferenceInstance(loadingParameters, et);
     }
 
+    @Override
+    <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters) {
+        final List<EntityType<? extends T>> entityTypes = new ArrayList<>(loadingParameters.size());
+        loadingParameters.forEach(p -> entityTypes.add(metamodel.entity(p.getEntityType())));
+        return loadInstances(loadingParameters, entityTypes);
+    }
+
     static DefaultInstanceLoaderBuilder builder() {
         return new DefaultInstanceLoaderBuilder();
     }
@@ -16,12 +16,12 @@ package cz.cvut.kbss.jopa.oom;
 
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
-import cz.cvut.kbss.jopa.model.metamodel.Attribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.PropertyFieldIndex;
 import cz.cvut.kbss.jopa.sessions.validator.IntegrityConstraintsValidator;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
-import cz.cvut.kbss.jopa.vocabulary.RDF;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,8 +29,6 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 class EntityConstructor {
 
@@ -58,26 +56,32 @@ class EntityConstructor {
                             Collection<Axiom<?>> axioms) throws InstantiationException, IllegalAccessException {
         assert !axioms.isEmpty();
 
-        if (!axiomsContainEntityClassAssertion(axioms, et)) {
+        final PropertyFieldIndex<T> fieldIndex = ((EntityTypeImpl<T>) et).getFieldIndex();
+        if (!axiomsContainEntityClassAssertion(axioms, fieldIndex)) {
             return null;
         }
         final T instance = createEntityInstance(identifier, et);
         mapper.registerInstance(identifier, instance, descriptor.getContext());
-        populateAttributes(instance, et, descriptor, axioms);
+        populateAttributes(instance, et, fieldIndex, descriptor, axioms);
         validateIntegrityConstraints(instance, et);
 
         return instance;
     }
 
-    private static boolean axiomsContainEntityClassAssertion(Collection<Axiom<?>> axioms, EntityType<?> et) {
+    private static boolean axiomsContainEntityClassAssertion(Collection<Axiom<?>> axioms,
+                                                             PropertyFieldIndex<?> fieldIndex) {
         for (Axiom<?> ax : axioms) {
-            if (MappingUtils.isEntityClassAssertion(ax, et)) {
+            if (isEntityClassAssertion(ax, fieldIndex)) {
                 return true;
             }
         }
         return false;
     }
 
+    private static boolean isEntityClassAssertion(Axiom<?> ax, PropertyFieldIndex<?> fieldIndex) {
+        return MappingUtils.isClassAssertion(ax) && fieldIndex.isEntityClass(ax.getValue().stringValue());
+    }
+
     /**
      * Instantiates an entity of the specified {@link EntityType} with the specified identifier.
      *
@@ -95,63 +99,36 @@ class EntityConstructor {
         return instance;
     }
 
-    private <T> void populateAttributes(final T instance, EntityType<T> et,
+    private <T> void populateAttributes(final T instance, EntityType<T> et, PropertyFieldIndex<T> fieldIndex,
                                         Descriptor entityDescriptor, Collection<Axiom<?>> axioms)
             throws IllegalAccessException {
-        final Map<URI, FieldSpecification<? super T, ?>> attributes = indexEntityAttributes(et);
-        final Map<FieldSpecification<? super T, ?>, FieldStrategy<? extends FieldSpecification<? super T, ?>, T>>
-                fieldLoaders = new HashMap<>(
-                et.getAttributes().size());
+        final FieldStrategy<? extends FieldSpecification<? super T, ?>, T>[] fieldLoaders =
+                new FieldStrategy[fieldIndex.size()];
         for (Axiom<?> ax : axioms) {
-            if (MappingUtils.isEntityClassAssertion(ax, et)) {
+            final boolean classAssertion = MappingUtils.isClassAssertion(ax);
+            if (classAssertion && fieldIndex.isEntityClass(ax.getValue().stringValue())) {
                 continue;
             }
-            final FieldStrategy<? extends FieldSpecification<? super T, ?>, T> fs = getFieldLoader(
-                    ax, attributes, fieldLoaders, et, entityDescriptor);
-            if (fs == null) {
-                if (!MappingUtils.isClassAssertion(ax)) {
+            final int position = fieldIndex.positionOf(ax.getAssertion().getIdentifier());
+            if (position < 0) {
+                if (!classAssertion) {
                     LOG.warn("No attribute found for property {}. Axiom {} will be skipped.", ax.getAssertion(), ax);
                 }
                 continue;
             }
-            fs.addValueFromAxiom(ax);
+            if (fieldLoaders[position] == null) {
+                fieldLoaders[position] =
+                        FieldStrategy.createFieldStrategy(et, fieldIndex.getField(position), entityDescriptor, mapper);
+            }
+            fieldLoaders[position].addValueFromAxiom(ax);
         }
         // We need to build the field values separately because some may be
         // plural and we have to wait until all values are prepared
-        for (FieldStrategy<? extends FieldSpecification<?, ?>, ?> fs : fieldLoaders.values()) {
-            fs.buildInstanceFieldValue(instance);
-        }
-    }
-
-    private static <T> Map<URI, FieldSpecification<? super T, ?>> indexEntityAttributes(EntityType<T> et) {
-        final Map<URI, FieldSpecification<? super T, ?>> atts = new HashMap<>(et.getAttributes().size());
-        for (Attribute<? super T, ?> at : et.getAttributes()) {
-            atts.put(at.getIRI().toURI(), at);
-        }
-        if (et.getTypes() != null) {
-            atts.put(URI.create(RDF.TYPE), et.getTypes());
-        }
-        return atts;
-    }
-
-    private <T> FieldStrategy<? extends FieldSpecification<? super T, ?>, T> getFieldLoader(
-            Axiom<?> ax,
-            Map<URI, FieldSpecification<? super T, ?>> attributes,
-            Map<FieldSpecification<? super T, ?>, FieldStrategy<? extends FieldSpecification<? super T, ?>, T>> loaders,
-            EntityType<T> et, Descriptor desc) {
-        final URI attId = ax.getAssertion().getIdentifier();
-        FieldSpecification<? super T, ?> att = attributes.get(attId);
-        if (att == null) {
-            if (et.getProperties() != null) {
-                att = et.getProperties();
-            } else {
-                return null;
+        for (FieldStrategy<? extends FieldSpecification<?, ?>, ?> fs : fieldLoaders) {
+            if (fs != null) {
+                fs.buildInstanceFieldValue(instance);
             }
         }
-        if (!loaders.containsKey(att)) {
-            loaders.put(att, FieldStrategy.createFieldStrategy(et, att, desc, mapper));
-        }
-        return loaders.get(att);
     }
 
     private <T> void validateIntegrityConstraints(T entity, EntityType<T> et) {
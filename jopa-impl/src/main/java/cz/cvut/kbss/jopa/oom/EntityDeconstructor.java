@@ -76,4 +76,25 @@ class EntityDeconstructor {
         }
         return valueBuilder;
     }
+
+    /**
+     * Maps changes of the specified field value to axioms.
+     * <p>
+     * Unlike {@link #mapFieldToAxioms(URI, Object, Field, EntityType, Descriptor)}, this allows the field strategy to
+     * map only element-level changes of collection values, if they are known.
+     */
+    <T> AxiomValueGatherer mapFieldChangesToAxioms(URI primaryKey, T entity, Field field, EntityType<T> et,
+                                                   Descriptor descriptor) {
+        final FieldSpecification<? super T, ?> fieldSpec = et.getFieldSpecification(field.getName());
+        final AxiomValueGatherer valueBuilder = createAxiomValueBuilder(primaryKey, descriptor);
+        final FieldStrategy<? extends FieldSpecification<? super T, ?>, T> fs = FieldStrategy
+                .createFieldStrategy(et, fieldSpec, descriptor, mapper);
+        fs.setReferenceSavingResolver(referenceSavingResolver);
+        try {
+            fs.buildAxiomValueChangesFromInstance(entity, valueBuilder);
+        } catch (IllegalAccessException e) {
+            throw new EntityDeconstructionException(e);
+        }
+        return valueBuilder;
+    }
 }
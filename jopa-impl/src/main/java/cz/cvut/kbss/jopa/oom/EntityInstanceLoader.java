@@ -28,8 +28,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Root of the entity loading strategies.
@@ -40,8 +39,9 @@ abstract class EntityInstanceLoader {
     final MetamodelImpl metamodel;
 
     final CacheManager cache;
-    private final AxiomDescriptorFactory descriptorFactory;
+    final AxiomDescriptorFactory descriptorFactory;
     final EntityConstructor entityBuilder;
+    final FetchGraphLoader fetchGraphLoader;
 
     EntityInstanceLoader(EntityInstanceLoaderBuilder builder) {
         assert builder.storageConnection != null;
@@ -55,6 +55,7 @@ abstract class EntityInstanceLoader {
         this.cache = builder.cache;
         this.descriptorFactory = builder.descriptorFactory;
         this.entityBuilder = builder.entityBuilder;
+        this.fetchGraphLoader = builder.fetchGraphLoader;
     }
 
     /**
@@ -78,16 +79,102 @@ abstract class EntityInstanceLoader {
      */
     abstract <T> T loadReference(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads entities based on the specified loading parameters.
+     * <p>
+     * The entities are loaded in a batch, i.e., using as few storage accesses as possible.
+     *
+     * @param loadingParameters Instance loading parameters, one for each loaded entity
+     * @param <T>               Entity type
+     * @return List of loaded instances, corresponding in order to the specified loading parameters. Instances which
+     * could not be found are represented by {@code null}
+     */
+    abstract <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters);
+
     <T> T loadInstance(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
         final URI identifier = loadingParameters.getIdentifier();
         final Descriptor descriptor = loadingParameters.getDescriptor();
         if (isCached(loadingParameters, et)) {
             return cache.get(et.getJavaType(), identifier, descriptor);
         }
-        final AxiomDescriptor axiomDescriptor = descriptorFactory.createForEntityLoading(loadingParameters, et);
+        final Collection<Axiom<?>> prefetched = consumePrefetched(loadingParameters);
+        final long start = System.nanoTime();
+        try {
+            final Collection<Axiom<?>> axioms;
+            if (prefetched != null) {
+                axioms = prefetched;
+            } else {
+                axioms = storageConnection.find(descriptorFactory.createForEntityLoading(loadingParameters, et));
+            }
+            final T result =
+                    axioms.isEmpty() ? null : entityBuilder.reconstructEntity(identifier, et, descriptor, axioms);
+            if (prefetched == null && !loadingParameters.shouldBypassCache()) {
+                cache.recordLoad(System.nanoTime() - start);
+            }
+            return result;
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new EntityReconstructionException(e);
+        }
+    }
+
+    /**
+     * Loads instances of the specified entity types in one batch.
+     *
+     * @param loadingParameters Instance loading parameters
+     * @param entityTypes       Entity types of the instances, corresponding in order to the loading parameters. {@code
+     *                          null} values represent instances which should not be loaded at all
+     * @param <T>               Entity type
+     * @return List of loaded instances (possibly containing {@code null}s)
+     */
+    <T> List<T> loadInstances(List<LoadingParameters<T>> loadingParameters,
+                              List<EntityType<? extends T>> entityTypes) {
+        assert loadingParameters.size() == entityTypes.size();
+
+        final List<T> result = new ArrayList<>(Collections.nCopies(loadingParameters.size(), null));
+        final List<AxiomDescriptor> axiomDescriptors = new ArrayList<>(loadingParameters.size());
+        final Map<Integer, Collection<Axiom<?>>> prefetched = new HashMap<>();
+        for (int i = 0; i < loadingParameters.size(); i++) {
+            final LoadingParameters<T> params = loadingParameters.get(i);
+            final EntityType<? extends T> et = entityTypes.get(i);
+            if (et == null) {
+                continue;
+            }
+            if (isCached(params, et)) {
+                result.set(i, cache.get(et.getJavaType(), params.getIdentifier(), params.getDescriptor()));
+                continue;
+            }
+            final Collection<Axiom<?>> prefetchedAxioms = consumePrefetched(params);
+            if (prefetchedAxioms != null) {
+                prefetched.put(i, prefetchedAxioms);
+            } else {
+                axiomDescriptors.add(descriptorFactory.createForEntityLoading(params, et));
+            }
+        }
+        if (axiomDescriptors.isEmpty() && prefetched.isEmpty()) {
+            return result;
+        }
+        final long start = System.nanoTime();
         try {
-            final Collection<Axiom<?>> axioms = storageConnection.find(axiomDescriptor);
-            return axioms.isEmpty() ? null : entityBuilder.reconstructEntity(identifier, et, descriptor, axioms);
+            final Map<URI, List<Axiom<?>>> axioms =
+                    axiomDescriptors.isEmpty() ? Collections.emptyMap() :
+                    groupBySubject(storageConnection.find(axiomDescriptors));
+            for (int i = 0; i < loadingParameters.size(); i++) {
+                final LoadingParameters<T> params = loadingParameters.get(i);
+                final Collection<Axiom<?>> subjectAxioms =
+                        prefetched.containsKey(i) ? prefetched.get(i) : axioms.get(params.getIdentifier());
+                if (result.get(i) != null || entityTypes.get(i) == null || subjectAxioms == null ||
+                        subjectAxioms.isEmpty()) {
+                    continue;
+                }
+                result.set(i, entityBuilder.reconstructEntity(params.getIdentifier(), entityTypes.get(i),
+                        params.getDescriptor(), subjectAxioms));
+            }
+            if (!axiomDescriptors.isEmpty()) {
+                cache.recordLoad(System.nanoTime() - start);
+            }
+            return result;
         } catch (OntoDriverException e) {
             throw new StorageAccessException(e);
         } catch (InstantiationException | IllegalAccessException e) {
@@ -95,6 +182,16 @@ abstract class EntityInstanceLoader {
         }
     }
 
+    private Collection<Axiom<?>> consumePrefetched(LoadingParameters<?> loadingParameters) {
+        return fetchGraphLoader != null ? fetchGraphLoader.consume(loadingParameters) : null;
+    }
+
+    static Map<URI, List<Axiom<?>>> groupBySubject(Collection<Axiom<?>> axioms) {
+        final Map<URI, List<Axiom<?>>> result = new HashMap<>();
+        axioms.forEach(ax -> result.computeIfAbsent(ax.getSubject().getIdentifier(), k -> new ArrayList<>()).add(ax));
+        return result;
+    }
+
     <T> boolean isCached(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
         return !loadingParameters.shouldBypassCache() &&
                 cache.contains(et.getJavaType(), loadingParameters.getIdentifier(), loadingParameters.getDescriptor());
@@ -121,6 +218,7 @@ abstract class EntityInstanceLoader {
 
         private AxiomDescriptorFactory descriptorFactory;
         private EntityConstructor entityBuilder;
+        private FetchGraphLoader fetchGraphLoader;
 
         EntityInstanceLoaderBuilder connection(Connection connection) {
             this.storageConnection = Objects.requireNonNull(connection);
@@ -147,6 +245,11 @@ abstract class EntityInstanceLoader {
             return this;
         }
 
+        EntityInstanceLoaderBuilder fetchGraphLoader(FetchGraphLoader fetchGraphLoader) {
+            this.fetchGraphLoader = fetchGraphLoader;
+            return this;
+        }
+
         abstract EntityInstanceLoader build();
     }
 }
@@ -24,11 +24,26 @@ import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 
 interface EntityMappingHelper extends ConfigurationHolder {
 
     <T> T getEntityFromCacheOrOntology(Class<T> cls, URI identifier, Descriptor descriptor);
 
+    /**
+     * Batch version of {@link #getEntityFromCacheOrOntology(Class, URI, Descriptor)}.
+     * <p>
+     * Entities which are neither managed nor cached are loaded from the storage in one batch.
+     *
+     * @param cls         Entity class
+     * @param identifiers Entity identifiers
+     * @param descriptor  Entity descriptor
+     * @param <T>         Entity type
+     * @return List of entities corresponding in order to the identifiers, with {@code null} representing entities
+     * which could not be found
+     */
+    <T> List<T> getEntitiesFromCacheOrOntology(Class<T> cls, List<URI> identifiers, Descriptor descriptor);
+
     <T> EntityType<T> getEntityType(Class<T> cls);
 
     URI generateIdentifier(EntityType<?> et);
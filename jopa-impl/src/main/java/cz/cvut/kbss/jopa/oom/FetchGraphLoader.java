@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.oom;
+
+import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.metamodel.*;
+import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Loads axioms of entities reachable via descriptor fetch graphs.
+ * <p>
+ * The graph is traversed level by level and axioms of all the entities on one level are retrieved in a single storage
+ * access. The axioms are buffered until the corresponding entities are reconstructed by an {@link
+ * EntityInstanceLoader}.
+ *
+ * @see Descriptor#addFetchedAttribute(String)
+ */
+class FetchGraphLoader {
+
+    private final Connection storageConnection;
+    private final MetamodelImpl metamodel;
+    private final AxiomDescriptorFactory descriptorFactory;
+    private final Predicate<LoadingParameters<?>> isLoaded;
+
+    private final Map<LoadingParameters<?>, List<Axiom<?>>> prefetched = new HashMap<>();
+
+    /**
+     * @param storageConnection Storage connection
+     * @param metamodel         Metamodel
+     * @param descriptorFactory Factory of axiom descriptors
+     * @param isLoaded          Decides whether an entity is already available, so that it need not be prefetched
+     */
+    FetchGraphLoader(Connection storageConnection, MetamodelImpl metamodel, AxiomDescriptorFactory descriptorFactory,
+                     Predicate<LoadingParameters<?>> isLoaded) {
+        this.storageConnection = storageConnection;
+        this.metamodel = metamodel;
+        this.descriptorFactory = descriptorFactory;
+        this.isLoaded = isLoaded;
+    }
+
+    /**
+     * Loads axioms of the specified entities and of all the entities reachable from them via fetch graphs of their
+     * descriptors.
+     * <p>
+     * Entities whose descriptor has an empty fetch graph are skipped, as are polymorphic entities (their concrete type
+     * has to be resolved first) and entities which are already loaded.
+     *
+     * @param loadingParameters Loading parameters of the root entities
+     */
+    void prefetch(Collection<? extends LoadingParameters<?>> loadingParameters) {
+        Map<LoadingParameters<?>, FetchGraphNode> level = new LinkedHashMap<>();
+        for (LoadingParameters<?> params : loadingParameters) {
+            final Set<String> paths = params.getDescriptor().getFetchedAttributes();
+            if (!paths.isEmpty() && shouldPrefetch(params)) {
+                final FetchGraphNode node = level.computeIfAbsent(params, k -> new FetchGraphNode());
+                paths.forEach(node::addPath);
+            }
+        }
+        while (!level.isEmpty()) {
+            loadLevel(level);
+            level = resolveNextLevel(level);
+        }
+    }
+
+    private boolean shouldPrefetch(LoadingParameters<?> params) {
+        final Class<?> cls = params.getEntityType();
+        return metamodel.isEntityType(cls) && !metamodel.entity(cls).hasSubtypes() &&
+                !prefetched.containsKey(params) && !isLoaded.test(params);
+    }
+
+    private void loadLevel(Map<LoadingParameters<?>, FetchGraphNode> level) {
+        final List<AxiomDescriptor> axiomDescriptors = new ArrayList<>(level.size());
+        level.forEach((params, node) -> axiomDescriptors.add(createAxiomDescriptor(params, node)));
+        try {
+            final Map<URI, List<Axiom<?>>> axioms =
+                    EntityInstanceLoader.groupBySubject(storageConnection.find(axiomDescriptors));
+            level.keySet().forEach(params -> prefetched
+                    .put(params, axioms.getOrDefault(params.getIdentifier(), Collections.emptyList())));
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        }
+    }
+
+    /**
+     * Creates descriptor of axioms to load for the specified entity.
+     * <p>
+     * Lazily loaded attributes are not part of the regular entity loading descriptor, so the ones which are fetched
+     * are added explicitly. Their values are then set on the reconstructed entity.
+     */
+    private <T> AxiomDescriptor createAxiomDescriptor(LoadingParameters<T> params, FetchGraphNode node) {
+        final EntityType<T> et = metamodel.entity(params.getEntityType());
+        final AxiomDescriptor axiomDescriptor = descriptorFactory.createForEntityLoading(params, et);
+        for (String attName : node.children.keySet()) {
+            final Attribute<?, ?> att = resolveFetchedAttribute(et, attName);
+            if (att.getFetchType() == FetchType.LAZY && !params.isForceEager()) {
+                descriptorFactory.addForFetchedAttribute(axiomDescriptor, params.getDescriptor(), att);
+            }
+        }
+        return axiomDescriptor;
+    }
+
+    private Map<LoadingParameters<?>, FetchGraphNode> resolveNextLevel(Map<LoadingParameters<?>, FetchGraphNode> level) {
+        final Map<LoadingParameters<?>, FetchGraphNode> next = new LinkedHashMap<>();
+        level.forEach((params, node) -> {
+            final EntityType<?> et = metamodel.entity(params.getEntityType());
+            final List<Axiom<?>> axioms = prefetched.get(params);
+            node.children.forEach((attName, childNode) -> {
+                final Attribute<?, ?> att = resolveFetchedAttribute(et, attName);
+                final Class<?> targetType = att.isCollection() ? ((PluralAttribute<?, ?, ?>) att).getBindableJavaType() :
+                                            att.getJavaType();
+                final Descriptor targetDescriptor = params.getDescriptor().getAttributeDescriptor(att);
+                final URI property = att.getIRI().toURI();
+                for (Axiom<?> ax : axioms) {
+                    if (!property.equals(ax.getAssertion().getIdentifier()) ||
+                            !(ax.getValue().getValue() instanceof NamedResource)) {
+                        continue;
+                    }
+                    final URI reference = ((NamedResource) ax.getValue().getValue()).getIdentifier();
+                    final LoadingParameters<?> refParams =
+                            new LoadingParameters<>(targetType, reference, targetDescriptor);
+                    if (next.containsKey(refParams) || shouldPrefetch(refParams)) {
+                        next.computeIfAbsent(refParams, k -> new FetchGraphNode()).merge(childNode);
+                    }
+                }
+            });
+        });
+        return next;
+    }
+
+    private static Attribute<?, ?> resolveFetchedAttribute(EntityType<?> et, String name) {
+        final Attribute<?, ?> att = et.getAttribute(name);
+        if (att.getPersistentAttributeType() != Attribute.PersistentAttributeType.OBJECT ||
+                (att.isCollection() &&
+                        ((PluralAttribute<?, ?, ?>) att).getCollectionType() == PluralAttribute.CollectionType.LIST)) {
+            throw new IllegalArgumentException("Attribute " + att +
+                    " cannot be fetched, only singular and set-based object property attributes are supported.");
+        }
+        return att;
+    }
+
+    /**
+     * Removes and returns prefetched axioms of the entity with the specified loading parameters.
+     *
+     * @param loadingParameters Entity loading parameters
+     * @return Prefetched axioms (possibly empty if the entity does not exist), {@code null} if the entity has not been
+     * prefetched
+     */
+    List<Axiom<?>> consume(LoadingParameters<?> loadingParameters) {
+        return prefetched.remove(loadingParameters);
+    }
+
+    /**
+     * Discards any prefetched axioms which have not been consumed.
+     */
+    void clear() {
+        prefetched.clear();
+    }
+
+    /**
+     * Node of a fetch graph, i.e., tree of attribute names parsed from attribute paths.
+     */
+    private static class FetchGraphNode {
+
+        private final Map<String, FetchGraphNode> children = new LinkedHashMap<>();
+
+        private void addPath(String path) {
+            FetchGraphNode node = this;
+            for (String attName : path.split("\\.")) {
+                node = node.children.computeIfAbsent(attName.trim(), k -> new FetchGraphNode());
+            }
+        }
+
+        private void merge(FetchGraphNode other) {
+            other.children.forEach((name, child) -> children.computeIfAbsent(name, k -> new FetchGraphNode())
+                                                            .merge(child));
+        }
+    }
+}
@@ -14,6 +14,8 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.CollectionDelta;
+import cz.cvut.kbss.jopa.adapters.IndirectCollection;
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.*;
@@ -126,7 +128,7 @@ abstract class FieldStrategy<T extends FieldSpecification<? super X, ?>, X> {
      * Note that this method assumes the value and the field are of compatible types, no check is done here.
      */
     void setValueOnInstance(Object instance, Object value) {
-        EntityPropertiesUtils.setFieldValue(attribute.getJavaField(), instance, value);
+        EntityPropertiesUtils.setAttributeValue(attribute, instance, value);
     }
 
     /**
@@ -138,6 +140,41 @@ abstract class FieldStrategy<T extends FieldSpecification<? super X, ?>, X> {
         return EntityPropertiesUtils.getAttributeValue(attribute, instance);
     }
 
+    /**
+     * Gets element-level changes of the specified attribute value, provided they can be used to update the storage.
+     * <p>
+     * This is the case only when the value is an indirect collection created for the attribute of the specified
+     * instance and its changes have been completely tracked since the value was last written.
+     *
+     * @param instance Attribute owner
+     * @param value    Attribute value
+     * @return Collection delta or {@code null} if the whole value has to be written
+     */
+    CollectionDelta<?> getUsableDelta(X instance, Object value) {
+        if (!(value instanceof IndirectCollection) ||
+                !((IndirectCollection<?>) value).isValueOf(instance, attribute.getJavaField())) {
+            return null;
+        }
+        final CollectionDelta<?> delta = ((IndirectCollection<?>) value).getDelta();
+        return delta != null && delta.isComplete() ? delta : null;
+    }
+
+    /**
+     * Resets element-level changes of the specified attribute value after it has been written.
+     *
+     * @param instance Attribute owner
+     * @param value    Attribute value
+     */
+    void resetDelta(X instance, Object value) {
+        if (value instanceof IndirectCollection &&
+                ((IndirectCollection<?>) value).isValueOf(instance, attribute.getJavaField())) {
+            final CollectionDelta<?> delta = ((IndirectCollection<?>) value).getDelta();
+            if (delta != null) {
+                delta.reset();
+            }
+        }
+    }
+
     <E> URI resolveValueIdentifier(E instance, EntityType<E> valEt) {
         URI id = EntityPropertiesUtils.getIdentifier(instance, valEt);
         if (id == null) {
@@ -200,6 +237,23 @@ abstract class FieldStrategy<T extends FieldSpecification<? super X, ?>, X> {
     abstract void buildAxiomValuesFromInstance(X instance, AxiomValueGatherer valueBuilder)
             throws IllegalAccessException;
 
+    /**
+     * Extracts changes of the value of field represented by this strategy from the specified instance.
+     * <p>
+     * By default, the whole value is extracted, as in {@link #buildAxiomValuesFromInstance(Object,
+     * AxiomValueGatherer)}. Strategies which are able to write only element-level changes of the value override this
+     * method.
+     *
+     * @param instance     The instance to extract value changes from
+     * @param valueBuilder Builder into which the attribute value changes are extracted
+     * @throws IllegalArgumentException Access error
+     * @throws IllegalAccessException   Access error
+     */
+    void buildAxiomValueChangesFromInstance(X instance, AxiomValueGatherer valueBuilder)
+            throws IllegalAccessException {
+        buildAxiomValuesFromInstance(instance, valueBuilder);
+    }
+
     /**
      * Creates property assertion appropriate for the attribute represented by this strategy.
      *
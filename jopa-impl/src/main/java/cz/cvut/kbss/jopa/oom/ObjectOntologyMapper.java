@@ -20,6 +20,7 @@ import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.List;
 
 public interface ObjectOntologyMapper {
 
@@ -41,6 +42,18 @@ public interface ObjectOntologyMapper {
      */
     <T> T loadEntity(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads and reconstructs entities from the ontology.
+     * <p>
+     * The entities are loaded in a batch, so that the number of storage accesses is minimized.
+     *
+     * @param loadingParameters Loading parameters of the entities
+     * @param <T>               Entity type
+     * @return List of reconstructed entities corresponding in order to the loading parameters. Entities which do not
+     * exist are represented by {@code null}
+     */
+    <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters);
+
     /**
      * Loads a reference to an entity corresponding to the specified parameters.
      * <p>
@@ -38,10 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
 import java.net.URI;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 
 import static cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException.individualAlreadyManaged;
 
@@ -59,6 +56,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
     private final EntityDeconstructor entityBreaker;
     private final InstanceRegistry instanceRegistry;
     private final PendingReferenceRegistry pendingReferences;
+    private final FetchGraphLoader fetchGraphLoader;
 
     private final EntityInstanceLoader defaultInstanceLoader;
     private final EntityInstanceLoader twoStepInstanceLoader;
@@ -73,13 +71,17 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         this.pendingReferences = new PendingReferenceRegistry();
         this.entityBuilder = new EntityConstructor(this);
         this.entityBreaker = new EntityDeconstructor(this);
+        this.fetchGraphLoader = new FetchGraphLoader(storageConnection, metamodel, descriptorFactory,
+                p -> getExistingInstance(p.getEntityType(), p.getIdentifier(), p.getDescriptor()) != null);
 
         this.defaultInstanceLoader = DefaultInstanceLoader.builder().connection(storageConnection).metamodel(metamodel)
                                                           .descriptorFactory(descriptorFactory)
-                                                          .entityBuilder(entityBuilder).cache(cache).build();
+                                                          .entityBuilder(entityBuilder).cache(cache)
+                                                          .fetchGraphLoader(fetchGraphLoader).build();
         this.twoStepInstanceLoader = TwoStepInstanceLoader.builder().connection(storageConnection).metamodel(metamodel)
                                                           .descriptorFactory(descriptorFactory)
-                                                          .entityBuilder(entityBuilder).cache(cache).build();
+                                                          .entityBuilder(entityBuilder).cache(cache)
+                                                          .fetchGraphLoader(fetchGraphLoader).build();
     }
 
     @Override
@@ -104,7 +106,12 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         assert loadingParameters != null;
 
         instanceRegistry.reset();
-        return loadEntityInternal(loadingParameters);
+        fetchGraphLoader.prefetch(Collections.singleton(loadingParameters));
+        try {
+            return loadEntityInternal(loadingParameters);
+        } finally {
+            fetchGraphLoader.clear();
+        }
     }
 
     private <T> T loadEntityInternal(LoadingParameters<T> loadingParameters) {
@@ -121,6 +128,53 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         return result;
     }
 
+    @Override
+    public <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters) {
+        assert loadingParameters != null;
+
+        instanceRegistry.reset();
+        fetchGraphLoader.prefetch(loadingParameters);
+        try {
+            return loadEntitiesInternal(loadingParameters);
+        } finally {
+            fetchGraphLoader.clear();
+        }
+    }
+
+    private <T> List<T> loadEntitiesInternal(List<LoadingParameters<T>> loadingParameters) {
+        final List<LoadingParameters<T>> simple = new ArrayList<>();
+        final List<LoadingParameters<T>> polymorphic = new ArrayList<>();
+        for (LoadingParameters<T> params : new LinkedHashSet<>(loadingParameters)) {
+            if (getEntityType(params.getEntityType()).hasSubtypes()) {
+                polymorphic.add(params);
+            } else {
+                simple.add(params);
+            }
+        }
+        final Map<LoadingParameters<T>, T> loaded = new HashMap<>(loadingParameters.size());
+        if (!simple.isEmpty()) {
+            registerLoaded(simple, defaultInstanceLoader.loadEntities(simple), loaded);
+        }
+        if (!polymorphic.isEmpty()) {
+            registerLoaded(polymorphic, twoStepInstanceLoader.loadEntities(polymorphic), loaded);
+        }
+        final List<T> result = new ArrayList<>(loadingParameters.size());
+        loadingParameters.forEach(p -> result.add(loaded.get(p)));
+        return result;
+    }
+
+    private <T> void registerLoaded(List<LoadingParameters<T>> loadingParameters, List<T> instances,
+                                    Map<LoadingParameters<T>, T> loaded) {
+        for (int i = 0; i < loadingParameters.size(); i++) {
+            final T instance = instances.get(i);
+            if (instance != null) {
+                final LoadingParameters<T> params = loadingParameters.get(i);
+                loaded.put(params, instance);
+                cache.add(params.getIdentifier(), instance, params.getDescriptor());
+            }
+        }
+    }
+
     @Override
     public <T> T loadReference(LoadingParameters<T> loadingParameters) {
         assert loadingParameters != null;
@@ -220,6 +274,11 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
     @Override
     public <T> T getEntityFromCacheOrOntology(Class<T> cls, URI identifier, Descriptor descriptor) {
+        final T existing = getExistingInstance(cls, identifier, descriptor);
+        return existing != null ? existing : loadEntityInternal(new LoadingParameters<>(cls, identifier, descriptor));
+    }
+
+    private <T> T getExistingInstance(Class<T> cls, URI identifier, Descriptor descriptor) {
         final T orig = uow.getManagedOriginal(cls, identifier, descriptor);
         if (orig != null) {
             return orig;
@@ -233,9 +292,31 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
             }
             // This prevents endless cycles in bidirectional relationships
             return cls.cast(existing);
-        } else {
-            return loadEntityInternal(new LoadingParameters<>(cls, identifier, descriptor));
         }
+        return null;
+    }
+
+    @Override
+    public <T> List<T> getEntitiesFromCacheOrOntology(Class<T> cls, List<URI> identifiers, Descriptor descriptor) {
+        final List<T> result = new ArrayList<>(identifiers.size());
+        final List<LoadingParameters<T>> toLoad = new ArrayList<>();
+        for (URI identifier : identifiers) {
+            final T existing = getExistingInstance(cls, identifier, descriptor);
+            result.add(existing);
+            if (existing == null) {
+                toLoad.add(new LoadingParameters<>(cls, identifier, descriptor));
+            }
+        }
+        if (toLoad.isEmpty()) {
+            return result;
+        }
+        final Iterator<T> loaded = loadEntitiesInternal(toLoad).iterator();
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) == null) {
+                result.set(i, loaded.next());
+            }
+        }
+        return result;
     }
 
     @Override
@@ -288,10 +369,16 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         final URI pkUri = EntityPropertiesUtils.getIdentifier(entity, et);
 
         entityBreaker.setReferenceSavingResolver(new ReferenceSavingResolver(this));
+        // Element-level changes are usable only if there are no pending references which could be removed below
+        final boolean writeAll = pendingReferences.hasPendingResources();
         // It is OK to do it like this, because if necessary, the mapping will re-register a pending assertion
         removePendingAssertions(et, field, pkUri);
-        final AxiomValueGatherer axiomBuilder = entityBreaker
-                .mapFieldToAxioms(pkUri, entity, field, et, entityDescriptor);
+        final AxiomValueGatherer axiomBuilder;
+        if (writeAll) {
+            axiomBuilder = entityBreaker.mapFieldToAxioms(pkUri, entity, field, et, entityDescriptor);
+        } else {
+            axiomBuilder = entityBreaker.mapFieldChangesToAxioms(pkUri, entity, field, et, entityDescriptor);
+        }
         axiomBuilder.update(storageConnection);
     }
 
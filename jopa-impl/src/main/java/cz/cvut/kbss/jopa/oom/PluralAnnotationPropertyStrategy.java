@@ -23,11 +23,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
 
-import java.util.Collection;
-import java.util.Objects;
-import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 class PluralAnnotationPropertyStrategy<X> extends PluralDataPropertyStrategy<X> {
 
@@ -47,24 +43,11 @@ class PluralAnnotationPropertyStrategy<X> extends PluralDataPropertyStrategy<X>
     }
 
     @Override
-    void buildAxiomValuesFromInstance(X instance, AxiomValueGatherer valueBuilder) {
-        final Object value = extractFieldValueFromInstance(instance);
-        assert value instanceof Collection || value == null;
-        final Collection<?> valueCollection = (Collection<?>) value;
-        if (valueCollection == null || valueCollection.isEmpty()) {
-            valueBuilder.addValue(createAssertion(), Value.nullValue(), getAttributeContext());
-        } else {
-            final Function<Object, Value<?>> mapper;
-            if (IdentifierTransformer.isValidIdentifierType(elementType) && !elementType
-                    .isAssignableFrom(String.class)) {
-                mapper = v -> new Value<>(NamedResource.create(IdentifierTransformer.valueAsUri(v)));
-            } else {
-                mapper = v -> new Value<>(toAxiomValue(v));
-            }
-            final Set<Value<?>> assertionValues =
-                    valueCollection.stream().filter(Objects::nonNull).map(mapper).collect(Collectors.toSet());
-            valueBuilder.addValues(createAssertion(), assertionValues, getAttributeContext());
+    Function<Object, Value<?>> valueMapper() {
+        if (IdentifierTransformer.isValidIdentifierType(elementType) && !elementType.isAssignableFrom(String.class)) {
+            return v -> new Value<>(NamedResource.create(IdentifierTransformer.valueAsUri(v)));
         }
+        return super.valueMapper();
     }
 
     @Override
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.CollectionDelta;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.AbstractPluralAttribute;
@@ -24,6 +25,7 @@ import cz.cvut.kbss.ontodriver.model.Value;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 class PluralDataPropertyStrategy<X> extends DataPropertyFieldStrategy<AbstractPluralAttribute<? super X, ?, ?>, X> {
@@ -69,9 +71,38 @@ class PluralDataPropertyStrategy<X> extends DataPropertyFieldStrategy<AbstractPl
         } else {
             final Set<Value<?>> assertionValues = valueCollection.stream()
                                                                  .filter(Objects::nonNull)
-                                                                 .map(v -> new Value<>(toAxiomValue(v)))
+                                                                 .map(valueMapper())
                                                                  .collect(Collectors.toSet());
             valueBuilder.addValues(createAssertion(), assertionValues, getAttributeContext());
         }
+        resetDelta(instance, value);
+    }
+
+    @Override
+    void buildAxiomValueChangesFromInstance(X instance, AxiomValueGatherer valueBuilder) {
+        final Object value = extractFieldValueFromInstance(instance);
+        final CollectionDelta<?> delta = getUsableDelta(instance, value);
+        if (delta == null) {
+            buildAxiomValuesFromInstance(instance, valueBuilder);
+            return;
+        }
+        final Collection<?> valueCollection = (Collection<?>) value;
+        final Function<Object, Value<?>> toValue = valueMapper();
+        final Set<Value<?>> added = delta.getAdded().stream().filter(v -> v != null && valueCollection.contains(v))
+                                         .map(toValue).collect(Collectors.toSet());
+        final Set<Value<?>> removed = delta.getRemoved().stream()
+                                           .filter(v -> v != null && !valueCollection.contains(v))
+                                           .map(toValue).collect(Collectors.toSet());
+        valueBuilder.addValueChanges(createAssertion(), added, removed, getAttributeContext());
+        delta.reset();
+    }
+
+    /**
+     * Gets function mapping attribute value elements to assertion values.
+     *
+     * @return Value mapping function
+     */
+    Function<Object, Value<?>> valueMapper() {
+        return v -> new Value<>(toAxiomValue(v));
     }
 }
@@ -26,7 +26,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 abstract class PluralObjectPropertyStrategy<Y extends AbstractPluralAttribute<? super X, ?, ?>, X>
         extends FieldStrategy<Y, X> {
@@ -35,6 +37,11 @@ abstract class PluralObjectPropertyStrategy<Y extends AbstractPluralAttribute<?
 
     private Collection<Object> values;
 
+    /**
+     * Identifiers of referenced entities, which are loaded in one batch when the field value is built.
+     */
+    private final List<URI> referencedIdentifiers = new ArrayList<>();
+
     PluralObjectPropertyStrategy(EntityType<X> et, Y att, Descriptor descriptor, EntityMappingHelper mapper) {
         super(et, att, descriptor, mapper);
         this.values = CollectionFactory.createDefaultCollection(att.getCollectionType());
@@ -47,23 +54,34 @@ abstract class PluralObjectPropertyStrategy<Y extends AbstractPluralAttribute<?
             values.add(IdentifierTransformer
                     .transformToIdentifier(valueIdentifier.getIdentifier(), attribute.getBindableJavaType()));
         } else {
-            final Object value = mapper.getEntityFromCacheOrOntology(attribute.getBindableJavaType(),
-                    valueIdentifier.getIdentifier(), entityDescriptor.getAttributeDescriptor(attribute));
-            if (value != null) {
-                values.add(value);
-            } else {
-                LOG.trace("Value of axiom {} could not be loaded as entity filling attribute {}.", ax, attribute);
-            }
+            referencedIdentifiers.add(valueIdentifier.getIdentifier());
         }
     }
 
     @Override
     void buildInstanceFieldValue(Object instance) {
+        loadReferencedEntities();
         if (!values.isEmpty()) {
             setValueOnInstance(instance, values);
         }
     }
 
+    private void loadReferencedEntities() {
+        if (referencedIdentifiers.isEmpty()) {
+            return;
+        }
+        final List<?> loaded = mapper.getEntitiesFromCacheOrOntology(attribute.getBindableJavaType(),
+                referencedIdentifiers, entityDescriptor.getAttributeDescriptor(attribute));
+        for (int i = 0; i < loaded.size(); i++) {
+            if (loaded.get(i) != null) {
+                values.add(loaded.get(i));
+            } else {
+                LOG.trace("Value {} could not be loaded as entity filling attribute {}.", referencedIdentifiers.get(i),
+                        attribute);
+            }
+        }
+    }
+
     /**
      * Gets the context in which this attribute values are stored.
      * <p>
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.CollectionDelta;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.AbstractPluralAttribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
@@ -27,6 +28,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 class SimpleSetPropertyStrategy<X> extends PluralObjectPropertyStrategy<AbstractPluralAttribute<? super X, ?, ?>, X> {
 
@@ -41,6 +43,24 @@ class SimpleSetPropertyStrategy<X> extends PluralObjectPropertyStrategy<Abstract
         assert value instanceof Collection || value == null;
         final Collection<?> valueCollection = (Collection<?>) value;
         extractValues(valueCollection, valueBuilder);
+        resetDelta(instance, value);
+    }
+
+    @Override
+    void buildAxiomValueChangesFromInstance(X instance, AxiomValueGatherer valueBuilder) {
+        final Object value = extractFieldValueFromInstance(instance);
+        final CollectionDelta<?> delta = getUsableDelta(instance, value);
+        if (delta == null) {
+            buildAxiomValuesFromInstance(instance, valueBuilder);
+            return;
+        }
+        final Collection<?> valueCollection = (Collection<?>) value;
+        final Set<Value<?>> added = resolveAssertionValues(delta.getAdded().stream().filter(valueCollection::contains)
+                                                            .collect(Collectors.toList()), valueBuilder);
+        final Set<Value<?>> removed = resolveRemovedValues(
+                delta.getRemoved().stream().filter(v -> !valueCollection.contains(v)).collect(Collectors.toList()));
+        valueBuilder.addValueChanges(createAssertion(), added, removed, getAttributeContext());
+        delta.reset();
     }
 
     private <T> void extractValues(Collection<T> valueCollection, AxiomValueGatherer valueBuilder) {
@@ -48,6 +68,11 @@ class SimpleSetPropertyStrategy<X> extends PluralObjectPropertyStrategy<Abstract
             valueBuilder.addValue(createAssertion(), Value.nullValue(), getAttributeContext());
             return;
         }
+        valueBuilder.addValues(createAssertion(), resolveAssertionValues(valueCollection, valueBuilder),
+                getAttributeContext());
+    }
+
+    private <T> Set<Value<?>> resolveAssertionValues(Collection<T> valueCollection, AxiomValueGatherer valueBuilder) {
         final Set<Value<?>> assertionValues = new HashSet<>(valueCollection.size());
         if (IdentifierTransformer.isValidIdentifierType(attribute.getBindableJavaType())) {
             valueCollection.stream().filter(Objects::nonNull).forEach(item -> assertionValues
@@ -69,6 +94,24 @@ class SimpleSetPropertyStrategy<X> extends PluralObjectPropertyStrategy<Abstract
                 }
             }
         }
-        valueBuilder.addValues(createAssertion(), assertionValues, getAttributeContext());
+        return assertionValues;
+    }
+
+    private Set<Value<?>> resolveRemovedValues(Collection<?> valueCollection) {
+        final Set<Value<?>> assertionValues = new HashSet<>(valueCollection.size());
+        if (IdentifierTransformer.isValidIdentifierType(attribute.getBindableJavaType())) {
+            valueCollection.stream().filter(Objects::nonNull).forEach(item -> assertionValues
+                    .add(new Value<>(NamedResource.create(IdentifierTransformer.valueAsUri(item)))));
+        } else {
+            final EntityType<?> et = mapper.getEntityType(attribute.getBindableJavaType());
+            for (Object val : valueCollection) {
+                // Instances without identifier could not have been saved
+                final URI valId = val != null ? EntityPropertiesUtils.getIdentifier(val, et) : null;
+                if (valId != null) {
+                    assertionValues.add(new Value<>(NamedResource.create(valId)));
+                }
+            }
+        }
+        return assertionValues;
     }
 }
@@ -20,13 +20,25 @@ import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.oom.exceptions.EntityReconstructionException;
 import cz.cvut.kbss.jopa.oom.metamodel.PolymorphicEntityTypeResolver;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Loads instances of entity types with subtypes.
+ * <p>
+ * Where possible, the explicit types of the individual and the attributes of all the candidate entity types are read
+ * together, the actual entity type is resolved from the types and the instance is reconstructed from the same
+ * axioms. When the candidate entity types cannot be loaded together (see {@link
+ * AxiomDescriptorFactory#createForPolymorphicLoading(LoadingParameters, Collection)}) or when any of them is cached,
+ * the types are loaded first and the instance of the resolved entity type afterwards (possibly from the cache).
+ */
 class TwoStepInstanceLoader extends EntityInstanceLoader {
 
     private TwoStepInstanceLoader(TwoStepInstanceLoaderBuilder builder) {
@@ -36,17 +48,88 @@ class TwoStepInstanceLoader extends EntityInstanceLoader {
     @Override
     <T> T loadEntity(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> rootEt = metamodel.entity(loadingParameters.getEntityType());
+        final Set<EntityTypeImpl<? extends T>> candidates = getCandidateTypes(rootEt);
         try {
-            final EntityType<? extends T> et = resolveEntityType(loadingParameters, rootEt);
-            if (et == null) {
-                return null;
+            final AxiomDescriptor descriptor =
+                    isAnyCached(loadingParameters, candidates) ? null :
+                    descriptorFactory.createForPolymorphicLoading(loadingParameters, candidates);
+            if (descriptor == null) {
+                final EntityType<? extends T> et = resolveEntityType(loadingParameters, rootEt);
+                return et != null ? loadInstance(loadingParameters, et) : null;
             }
-            return loadInstance(loadingParameters, et);
+            final long start = System.nanoTime();
+            final T result = reconstruct(loadingParameters, rootEt, storageConnection.find(descriptor));
+            if (!loadingParameters.shouldBypassCache()) {
+                cache.recordLoad(System.nanoTime() - start);
+            }
+            return result;
         } catch (OntoDriverException e) {
             throw new StorageAccessException(e);
         }
     }
 
+    private <T> Set<EntityTypeImpl<? extends T>> getCandidateTypes(EntityTypeImpl<T> rootEt) {
+        final Set<EntityTypeImpl<? extends T>> candidates =
+                new LinkedHashSet<>(metamodel.getEntityTypeIndex().getConcreteSubtypes(rootEt));
+        if (!rootEt.isAbstract()) {
+            candidates.add(rootEt);
+        }
+        return candidates;
+    }
+
+    /**
+     * If any of the candidates is cached, only types need to be loaded to resolve which of them should be returned.
+     */
+    private <T> boolean isAnyCached(LoadingParameters<T> loadingParameters,
+                                    Set<EntityTypeImpl<? extends T>> candidates) {
+        return candidates.stream().anyMatch(et -> isCached(loadingParameters, et));
+    }
+
+    /**
+     * Resolves the actual entity type of the loaded individual from the specified axioms and reconstructs the instance
+     * from the axioms corresponding to the resolved entity type.
+     */
+    private <T> T reconstruct(LoadingParameters<T> loadingParameters, EntityTypeImpl<T> rootEt,
+                              Collection<Axiom<?>> axioms) {
+        if (axioms.isEmpty()) {
+            return null;
+        }
+        final NamedResource individual = NamedResource.create(loadingParameters.getIdentifier());
+        final Set<URI> types = axioms.stream().filter(MappingUtils::isClassAssertion)
+                                     .map(ax -> URI.create(ax.getValue().stringValue()))
+                                     .collect(Collectors.toSet());
+        final EntityType<? extends T> et = new PolymorphicEntityTypeResolver<>(individual, rootEt, types,
+                metamodel.getEntityTypeIndex()).determineActualEntityType();
+        if (et == null) {
+            return null;
+        }
+        final Collection<Axiom<?>> etAxioms =
+                filterAxioms(axioms, descriptorFactory.createForEntityLoading(loadingParameters, et));
+        try {
+            return entityBuilder.reconstructEntity(loadingParameters.getIdentifier(), et,
+                    loadingParameters.getDescriptor(), etAxioms);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new EntityReconstructionException(e);
+        }
+    }
+
+    /**
+     * Retains only axioms of the assertions in the specified entity type descriptor, i.e., drops values of attributes
+     * of the other candidate entity types.
+     */
+    private static Collection<Axiom<?>> filterAxioms(Collection<Axiom<?>> axioms, AxiomDescriptor etDescriptor) {
+        final Set<URI> properties = new HashSet<>(etDescriptor.getAssertions().size());
+        for (Assertion a : etDescriptor.getAssertions()) {
+            if (a.getType() == Assertion.AssertionType.PROPERTY) {
+                // Unspecified property assertion loads all the property values anyway
+                return axioms;
+            }
+            properties.add(a.getIdentifier());
+        }
+        return axioms.stream().filter(ax -> properties.contains(ax.getAssertion().getIdentifier()))
+                     .collect(Collectors.toList());
+    }
+
     @Override
     <T> T loadReference(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> rootEt = metamodel.entity(loadingParameters.getEntityType());
@@ -60,12 +143,84 @@ class TwoStepInstanceLoader extends EntityInstanceLoader {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Types and candidate attributes of all the instances are loaded in one batch, the actual entity types are resolved
+     * and the instances are reconstructed. Instances whose candidate entity types cannot be loaded together or are
+     * cached have their types loaded in one batch and are then loaded in another batch.
+     */
+    @Override
+    <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters) {
+        final List<T> result = new ArrayList<>(Collections.nCopies(loadingParameters.size(), null));
+        final List<AxiomDescriptor> descriptors = new ArrayList<>(loadingParameters.size());
+        final List<Integer> loaded = new ArrayList<>(loadingParameters.size());
+        final List<Integer> twoStep = new ArrayList<>();
+        for (int i = 0; i < loadingParameters.size(); i++) {
+            final LoadingParameters<T> params = loadingParameters.get(i);
+            final EntityTypeImpl<T> rootEt = metamodel.entity(params.getEntityType());
+            final Set<EntityTypeImpl<? extends T>> candidates = getCandidateTypes(rootEt);
+            final AxiomDescriptor descriptor = isAnyCached(params, candidates) ? null :
+                                               descriptorFactory.createForPolymorphicLoading(params, candidates);
+            if (descriptor != null) {
+                descriptors.add(descriptor);
+                loaded.add(i);
+            } else {
+                twoStep.add(i);
+            }
+        }
+        try {
+            if (!descriptors.isEmpty()) {
+                final long start = System.nanoTime();
+                final Map<URI, List<Axiom<?>>> axioms = groupBySubject(storageConnection.find(descriptors));
+                for (Integer i : loaded) {
+                    final LoadingParameters<T> params = loadingParameters.get(i);
+                    result.set(i, reconstruct(params, metamodel.entity(params.getEntityType()),
+                            axioms.getOrDefault(params.getIdentifier(), Collections.emptyList())));
+                }
+                cache.recordLoad(System.nanoTime() - start);
+            }
+            if (!twoStep.isEmpty()) {
+                final List<LoadingParameters<T>> twoStepParams =
+                        twoStep.stream().map(loadingParameters::get).collect(Collectors.toList());
+                final List<T> twoStepResult = loadEntitiesInTwoSteps(twoStepParams);
+                for (int i = 0; i < twoStep.size(); i++) {
+                    result.set(twoStep.get(i), twoStepResult.get(i));
+                }
+            }
+            return result;
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        }
+    }
+
+    private <T> List<T> loadEntitiesInTwoSteps(List<LoadingParameters<T>> loadingParameters)
+            throws OntoDriverException {
+        final List<AxiomDescriptor> typeDescriptors = loadingParameters.stream()
+                                                                       .map(descriptorFactory::createForTypesLoading)
+                                                                       .collect(Collectors.toList());
+        final Map<URI, List<Axiom<?>>> types = groupBySubject(storageConnection.find(typeDescriptors));
+        final List<EntityType<? extends T>> entityTypes = new ArrayList<>(loadingParameters.size());
+        for (LoadingParameters<T> params : loadingParameters) {
+            final NamedResource individual = NamedResource.create(params.getIdentifier());
+            final Set<URI> individualTypes =
+                    types.getOrDefault(params.getIdentifier(), Collections.emptyList()).stream()
+                         .filter(MappingUtils::isClassAssertion)
+                         .map(ax -> URI.create(ax.getValue().stringValue()))
+                         .collect(Collectors.toSet());
+            entityTypes.add(new PolymorphicEntityTypeResolver<>(individual, metamodel.entity(params.getEntityType()),
+                    individualTypes, metamodel.getEntityTypeIndex()).determineActualEntityType());
+        }
+        return loadInstances(loadingParameters, entityTypes);
+    }
+
     private <T> EntityType<? extends T> resolveEntityType(LoadingParameters<T> loadingParameters,
                                                           EntityTypeImpl<T> rootEt) throws OntoDriverException {
         NamedResource individual = NamedResource.create(loadingParameters.getIdentifier());
         final Set<Axiom<URI>> types = storageConnection.types().getTypes(individual,
                 loadingParameters.getDescriptor().getContext(), false);
-        return new PolymorphicEntityTypeResolver<>(individual, rootEt, types).determineActualEntityType();
+        return new PolymorphicEntityTypeResolver<>(individual, rootEt, types, metamodel.getEntityTypeIndex())
+                .determineActualEntityType();
     }
 
     static TwoStepInstanceLoaderBuilder builder() {
@@ -14,10 +14,9 @@
  */
 package cz.cvut.kbss.jopa.oom.metamodel;
 
-import cz.cvut.kbss.jopa.model.metamodel.AbstractIdentifiableType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
-import cz.cvut.kbss.jopa.model.metamodel.Type;
+import cz.cvut.kbss.jopa.model.metamodel.EntityTypeIndex;
 import cz.cvut.kbss.jopa.oom.exceptions.AmbiguousEntityTypeException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
@@ -33,14 +32,22 @@ public class PolymorphicEntityTypeResolver<T> {
     private final NamedResource individual;
     private final Set<URI> types;
     private final EntityTypeImpl<T> root;
+    private final EntityTypeIndex index;
 
     private final Set<EntityType<? extends T>> matches = new HashSet<>(2);
 
     public PolymorphicEntityTypeResolver(NamedResource individual, EntityTypeImpl<T> root,
-                                         Collection<Axiom<URI>> typeAxioms) {
+                                         Collection<Axiom<URI>> typeAxioms, EntityTypeIndex index) {
+        this(individual, root, typeAxioms.stream().map(a -> a.getValue().getValue()).collect(Collectors.toSet()),
+                index);
+    }
+
+    public PolymorphicEntityTypeResolver(NamedResource individual, EntityTypeImpl<T> root, Set<URI> types,
+                                         EntityTypeIndex index) {
         this.individual = individual;
-        this.types = typeAxioms.stream().map(a -> a.getValue().getValue()).collect(Collectors.toSet());
+        this.types = types;
         this.root = root;
+        this.index = index;
     }
 
     /**
@@ -69,32 +76,29 @@ public class PolymorphicEntityTypeResolver<T> {
     }
 
     /**
-     * The algorithm uses DFS with remembering the path taken. If a matching entity type is found, but there already
-     * exists a more general one (an ancestor of the ET), then the ancestor is removed from the matches, because it is
-     * superseded by the more specific entity type just found.
+     * Looks up entity types of the individual's types in the precomputed index. If a matching entity type is found,
+     * but there already exists a more specific one (a descendant of the ET), it is skipped. Conversely, matches which
+     * are ancestors of the ET just found are removed, because they are superseded by the more specific entity type.
      */
+    @SuppressWarnings("unchecked")
     private void resolveMatchingEntityTypes() {
-        findMatchingEntityType(root, new HashSet<>());
-    }
-
-    private void findMatchingEntityType(AbstractIdentifiableType<? extends T> parent,
-                                        Set<EntityType<? extends T>> ancestors) {
-        for (AbstractIdentifiableType<? extends T> subtype : parent.getSubtypes()) {
-            final Set<EntityType<? extends T>> updatedAncestors = new HashSet<>(ancestors);
-            if (subtype.getPersistenceType() == Type.PersistenceType.ENTITY && !subtype.isAbstract()) {
-                final EntityTypeImpl<? extends T> et = (EntityTypeImpl<? extends T>) subtype;
-                final URI etUri = et.getIRI().toURI();
-                if (types.contains(etUri)) {
-                    addMatchingType(et, ancestors);
+        final Set<EntityTypeImpl<? extends T>> candidates = index.getConcreteSubtypes(root);
+        for (URI type : types) {
+            for (EntityTypeImpl<?> et : index.getEntityTypes(type)) {
+                if (candidates.contains(et)) {
+                    addMatchingType((EntityType<? extends T>) et);
                 }
-                updatedAncestors.add(et);
             }
-            findMatchingEntityType(subtype, updatedAncestors);
         }
     }
 
-    private void addMatchingType(EntityType<? extends T> et, Set<EntityType<? extends T>> ancestors) {
+    private void addMatchingType(EntityType<? extends T> et) {
+        for (EntityType<? extends T> match : matches) {
+            if (index.getAncestors(match).contains(et)) {
+                return;
+            }
+        }
+        matches.removeAll(index.getAncestors(et));
         matches.add(et);
-        ancestors.forEach(matches::remove);
     }
 }
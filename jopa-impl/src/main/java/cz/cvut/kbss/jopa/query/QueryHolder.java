@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.query;
 
 import cz.cvut.kbss.jopa.model.query.Parameter;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -149,4 +150,23 @@ public interface QueryHolder {
      * @return Assembled query
      */
     String assembleQuery();
+
+    /**
+     * Assembles the query, leaving parameters whose values can be bound to query variables by the storage as variables.
+     * <p>
+     * Values of such parameters (in query syntax) are put into the specified map, keyed by the corresponding variable
+     * name. Values of the remaining parameters are inserted into the query string, as in {@link #assembleQuery()}.
+     *
+     * @param bindings Map into which values to bind are put
+     * @return Query string
+     */
+    String assembleQuery(Map<String, String> bindings);
+
+    /**
+     * Gets paths of attributes which should be fetched together with entities loaded from the query results.
+     *
+     * @return Set of attribute paths, possibly empty
+     * @see cz.cvut.kbss.jopa.model.descriptors.Descriptor#addFetchedAttribute(String)
+     */
+    Set<String> getFetchedAttributes();
 }
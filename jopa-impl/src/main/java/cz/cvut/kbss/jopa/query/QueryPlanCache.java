@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query;
+
+import cz.cvut.kbss.jopa.query.sparql.QueryTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Caches parsed query templates in the persistence unit, so that frequently executed queries are not parsed (and, in
+ * case of SOQL, translated) repeatedly.
+ * <p>
+ * The cache is bounded, the least recently used templates are evicted when its capacity is exceeded. A capacity of
+ * {@code 0} disables caching.
+ * <p>
+ * This class is thread-safe.
+ */
+public class QueryPlanCache {
+
+    /**
+     * Default maximum number of cached query templates.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final Map<Key, QueryTemplate> templates;
+
+    public QueryPlanCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueryPlanCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Query plan cache capacity cannot be negative.");
+        }
+        this.capacity = capacity;
+        this.templates = new LinkedHashMap<Key, QueryTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, QueryTemplate> eldest) {
+                return size() > QueryPlanCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets template of the specified native SPARQL query, parsing it with the specified parser if it is not cached.
+     *
+     * @param query  SPARQL query string
+     * @param parser Parses the query into a template
+     * @return Query template
+     */
+    public QueryTemplate getSparqlTemplate(String query, Function<String, QueryTemplate> parser) {
+        return get(new Key(query, false), parser);
+    }
+
+    /**
+     * Gets template of the specified SOQL query, translating and parsing it with the specified parser if it is not
+     * cached.
+     *
+     * @param query  SOQL query string
+     * @param parser Translates and parses the query into a template
+     * @return Query template
+     */
+    public QueryTemplate getSoqlTemplate(String query, Function<String, QueryTemplate> parser) {
+        return get(new Key(query, true), parser);
+    }
+
+    private QueryTemplate get(Key key, Function<String, QueryTemplate> parser) {
+        Objects.requireNonNull(key.query);
+        if (capacity == 0) {
+            return parser.apply(key.query);
+        }
+        synchronized (templates) {
+            final QueryTemplate cached = templates.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Parse outside of the lock, concurrent parsing of the same query yields equivalent templates
+        final QueryTemplate template = parser.apply(key.query);
+        synchronized (templates) {
+            templates.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * Gets the number of currently cached templates.
+     *
+     * @return Number of cached templates
+     */
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    /**
+     * Evicts all templates from the cache.
+     */
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String query;
+        private final boolean soql;
+
+        private Key(String query, boolean soql) {
+            this.query = query;
+            this.soql = soql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return soql == key.soql && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + (soql ? 1 : 0);
+        }
+    }
+}
@@ -16,6 +16,11 @@ package cz.cvut.kbss.jopa.query.parameter;
 
 abstract class AbstractParameterValue implements ParameterValue {
 
+    @Override
+    public boolean isBindable() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return getQueryString();
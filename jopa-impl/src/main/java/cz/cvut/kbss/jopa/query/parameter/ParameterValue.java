@@ -32,4 +32,12 @@ public interface ParameterValue {
      * @return Value as query string
      */
     String getQueryString();
+
+    /**
+     * Whether this value represents a single RDF term, which can be bound to a query variable by the storage instead of
+     * being inserted into the query string.
+     *
+     * @return {@code true} if this value can be bound to a query variable, {@code false} otherwise
+     */
+    boolean isBindable();
 }
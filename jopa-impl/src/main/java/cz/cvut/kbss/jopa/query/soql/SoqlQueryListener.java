@@ -1,5 +1,6 @@
 package cz.cvut.kbss.jopa.query.soql;
 
+import cz.cvut.kbss.jopa.exception.QueryParserException;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
@@ -12,6 +13,8 @@ import org.antlr.v4.runtime.tree.TerminalNode;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class SoqlQueryListener implements SoqlListener {
 
@@ -35,6 +38,8 @@ public class SoqlQueryListener implements SoqlListener {
 
     private HashMap<String, String> objectTypes;
 
+    private Set<String> fetchedAttributes;
+
     private boolean isSelectedParamDistinct = false;
 
     private boolean isSelectedParamCount = false;
@@ -48,6 +53,7 @@ public class SoqlQueryListener implements SoqlListener {
         this.orderAttributes = new ArrayList<>();
         this.groupAttributes = new ArrayList<>();
         this.objectTypes = new HashMap<>();
+        this.fetchedAttributes = new LinkedHashSet<>();
     }
 
     @Override
@@ -257,6 +263,31 @@ public class SoqlQueryListener implements SoqlListener {
     public void exitTableWithName(SoqlParser.TableWithNameContext ctx) {
     }
 
+    @Override
+    public void enterFetchJoin(SoqlParser.FetchJoinContext ctx) {
+    }
+
+    @Override
+    public void exitFetchJoin(SoqlParser.FetchJoinContext ctx) {
+    }
+
+    @Override
+    public void enterFetchJoinPath(SoqlParser.FetchJoinPathContext ctx) {
+        final String owner = getOwnerfromParam(ctx);
+        if (!objectTypes.containsKey(owner)) {
+            throw new QueryParserException("Unknown object " + owner + " in fetch join " + ctx.getText() + ".");
+        }
+        final StringBuilder path = new StringBuilder(ctx.getChild(2).getText());
+        for (int i = 4; i < ctx.getChildCount(); i += 2) {
+            path.append('.').append(ctx.getChild(i).getText());
+        }
+        fetchedAttributes.add(path.toString());
+    }
+
+    @Override
+    public void exitFetchJoinPath(SoqlParser.FetchJoinPathContext ctx) {
+    }
+
     @Override
     public void enterWhereClauses(SoqlParser.WhereClausesContext ctx) {
     }
@@ -545,6 +576,15 @@ public class SoqlQueryListener implements SoqlListener {
         return newQuery;
     }
 
+    /**
+     * Gets paths of attributes fetched together with the query results, as specified by {@code JOIN FETCH} clauses.
+     *
+     * @return Attribute paths relative to the selected object, possibly empty
+     */
+    public Set<String> getFetchedAttributes() {
+        return fetchedAttributes;
+    }
+
 
     //Methods to build new Query
     private void buildString() {
@@ -3,6 +3,9 @@ package cz.cvut.kbss.jopa.query.soql;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.query.QueryHolder;
 import cz.cvut.kbss.jopa.query.QueryParser;
+import cz.cvut.kbss.jopa.query.sparql.QueryTemplate;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryHolder;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryParser;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -11,10 +14,10 @@ import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 public class SoqlQueryParser implements QueryParser {
 
-    private final QueryParser sparqlParser;
+    private final SparqlQueryParser sparqlParser;
     private final MetamodelImpl metamodel;
 
-    public SoqlQueryParser(QueryParser sparqlParser, MetamodelImpl metamodel) {
+    public SoqlQueryParser(SparqlQueryParser sparqlParser, MetamodelImpl metamodel) {
         this.sparqlParser = sparqlParser;
         this.metamodel = metamodel;
     }
@@ -22,6 +25,25 @@ public class SoqlQueryParser implements QueryParser {
 
     @Override
     public QueryHolder parseQuery(String query) {
+        final SoqlQueryListener listener = translate(query);
+        final SparqlQueryHolder holder = sparqlParser.parseQuery(listener.getSoqlQuery());
+        holder.setFetchedAttributes(listener.getFetchedAttributes());
+        return holder;
+    }
+
+    /**
+     * Translates the specified SOQL query into SPARQL and parses the result into a reusable template.
+     *
+     * @param query SOQL query
+     * @return Template of the translated SPARQL query, carrying also attributes fetched by the query
+     */
+    public QueryTemplate parseTemplate(String query) {
+        final SoqlQueryListener listener = translate(query);
+        return sparqlParser.parseTemplate(listener.getSoqlQuery())
+                           .withFetchedAttributes(listener.getFetchedAttributes());
+    }
+
+    private SoqlQueryListener translate(String query) {
         CharStream cs = CharStreams.fromString(query);
         SoqlLexer lexer = new SoqlLexer(cs);
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -32,7 +54,6 @@ public class SoqlQueryParser implements QueryParser {
 
         final ParseTreeWalker walker = new ParseTreeWalker();
         walker.walk(listener, tree);
-
-        return sparqlParser.parseQuery(listener.getSoqlQuery());
+        return listener;
     }
 }
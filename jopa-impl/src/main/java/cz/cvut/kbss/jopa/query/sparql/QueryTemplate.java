@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.query.QueryParameter;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+
+import java.util.*;
+
+/**
+ * Immutable result of parsing a query string.
+ * <p>
+ * The template consists of the query parts and identifiers of parameters in order matching the query parts. It does
+ * not hold any parameter values, so it can be shared by any number of queries. Each query gets its own {@link
+ * SparqlQueryHolder} created by {@link #instantiate(ParameterValueFactory)}.
+ */
+public final class QueryTemplate {
+
+    private final String query;
+    private final List<String> queryParts;
+    // Parameter names or positions, in order matching the query parts. Can appear multiple times in the list
+    private final List<Object> parameterIdentifiers;
+    private final Set<String> fetchedAttributes;
+
+    QueryTemplate(String query, List<String> queryParts, List<Object> parameterIdentifiers) {
+        this(query, queryParts, parameterIdentifiers, Collections.emptySet());
+    }
+
+    private QueryTemplate(String query, List<String> queryParts, List<Object> parameterIdentifiers,
+                          Set<String> fetchedAttributes) {
+        this.query = query;
+        this.queryParts = Collections.unmodifiableList(new ArrayList<>(queryParts));
+        this.parameterIdentifiers = Collections.unmodifiableList(new ArrayList<>(parameterIdentifiers));
+        this.fetchedAttributes = Collections.unmodifiableSet(new LinkedHashSet<>(fetchedAttributes));
+    }
+
+    /**
+     * Gets the query string this template was parsed from.
+     *
+     * @return Query string
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Creates a copy of this template with the specified attributes fetched together with the query results.
+     *
+     * @param fetchedAttributes Paths of the fetched attributes
+     * @return New query template
+     * @see SparqlQueryHolder#getFetchedAttributes()
+     */
+    public QueryTemplate withFetchedAttributes(Set<String> fetchedAttributes) {
+        return new QueryTemplate(query, queryParts, parameterIdentifiers, fetchedAttributes);
+    }
+
+    /**
+     * Creates a new query holder based on this template.
+     * <p>
+     * All parameters of the returned holder are unbound.
+     *
+     * @param valueFactory Factory used to create parameter values
+     * @return New query holder
+     */
+    public SparqlQueryHolder instantiate(ParameterValueFactory valueFactory) {
+        final Map<Object, QueryParameter<?>> uniqueParams = new HashMap<>();
+        final List<QueryParameter<?>> parameters = new ArrayList<>(parameterIdentifiers.size());
+        for (Object identifier : parameterIdentifiers) {
+            parameters.add(uniqueParams.computeIfAbsent(identifier,
+                    id -> id instanceof Integer ? new QueryParameter<>((Integer) id, valueFactory) :
+                          new QueryParameter<>((String) id, valueFactory)));
+        }
+        final SparqlQueryHolder holder = new SparqlQueryHolder(query, queryParts, parameters);
+        holder.setFetchedAttributes(fetchedAttributes);
+        return holder;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryTemplate{" + query + '}';
+    }
+}
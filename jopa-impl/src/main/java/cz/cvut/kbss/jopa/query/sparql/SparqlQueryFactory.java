@@ -12,42 +12,82 @@
  */
 package cz.cvut.kbss.jopa.query.sparql;
 
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.QueryImpl;
 import cz.cvut.kbss.jopa.model.ResultSetMappingQuery;
 import cz.cvut.kbss.jopa.model.TypedQueryImpl;
-import cz.cvut.kbss.jopa.query.QueryParser;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.mapper.SparqlResultMapper;
 import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
 import cz.cvut.kbss.jopa.query.soql.SoqlQueryParser;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.QueryFactory;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 
 public class SparqlQueryFactory implements QueryFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SparqlQueryFactory.class);
+
     private final UnitOfWorkImpl uow;
     private final ConnectionWrapper connection;
 
-    private final QueryParser queryParser;
+    private final int streamChunkSize;
+
+    private final ParameterValueFactory parameterValueFactory;
+    private final SparqlQueryParser queryParser;
     private final SoqlQueryParser soqlQueryParser;
+    private final QueryPlanCache queryPlanCache;
 
     public SparqlQueryFactory(UnitOfWorkImpl uow, ConnectionWrapper connection) {
         assert uow != null;
         assert connection != null;
         this.uow = uow;
         this.connection = connection;
-        this.queryParser = new SparqlQueryParser(new ParameterValueFactory(uow));
+        this.parameterValueFactory = new ParameterValueFactory(uow);
+        this.queryParser = new SparqlQueryParser(parameterValueFactory);
         this.soqlQueryParser = new SoqlQueryParser(queryParser, uow.getMetamodel());
+        this.queryPlanCache = uow.getQueryPlanCache();
+        this.streamChunkSize = resolveStreamChunkSize(uow.getConfiguration());
+    }
+
+    static int resolveStreamChunkSize(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.QUERY_STREAM_CHUNK_SIZE);
+        if (setting == null) {
+            return TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE;
+        }
+        try {
+            final int chunkSize = Integer.parseInt(setting);
+            if (chunkSize > 0) {
+                return chunkSize;
+            }
+            LOG.warn("Invalid query stream chunk size {}. Using default value.", chunkSize);
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query stream chunk size setting. Using default value {}.",
+                    TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE);
+        }
+        return TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE;
+    }
+
+    private SparqlQueryHolder parseSparql(String sparql) {
+        return queryPlanCache.getSparqlTemplate(sparql, queryParser::parseTemplate).instantiate(parameterValueFactory);
+    }
+
+    private SparqlQueryHolder parseSoql(String soql) {
+        return queryPlanCache.getSoqlTemplate(soql, soqlQueryParser::parseTemplate)
+                             .instantiate(parameterValueFactory);
     }
 
     @Override
     public QueryImpl createNativeQuery(String sparql) {
         Objects.requireNonNull(sparql);
 
-        final QueryImpl q = new QueryImpl(queryParser.parseQuery(sparql), connection);
+        final QueryImpl q = new QueryImpl(parseSparql(sparql), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -57,8 +97,9 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(sparql, ErrorUtils.getNPXMessageSupplier("sparql"));
         Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
 
-        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(queryParser.parseQuery(sparql), resultClass, connection, uow);
+        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(parseSparql(sparql), resultClass, connection, uow);
         tq.setUnitOfWork(uow);
+        tq.setStreamChunkSize(streamChunkSize);
         tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return tq;
     }
@@ -69,7 +110,7 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(resultSetMapping, ErrorUtils.getNPXMessageSupplier("resultSetMapping"));
 
         final SparqlResultMapper mapper = uow.getResultSetMappingManager().getMapper(resultSetMapping);
-        final ResultSetMappingQuery q = new ResultSetMappingQuery(queryParser.parseQuery(sparql), connection, mapper,
+        final ResultSetMappingQuery q = new ResultSetMappingQuery(parseSparql(sparql), connection, mapper,
                 uow);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
@@ -79,7 +120,7 @@ public class SparqlQueryFactory implements QueryFactory {
     public QueryImpl createQuery(String query) {
         Objects.requireNonNull(query);
 
-        final QueryImpl q = new QueryImpl(soqlQueryParser.parseQuery(query), connection);
+        final QueryImpl q = new QueryImpl(parseSoql(query), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -89,9 +130,10 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(query, ErrorUtils.getNPXMessageSupplier("query"));
         Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
 
-        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(soqlQueryParser.parseQuery(query), resultClass, connection,
+        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(parseSoql(query), resultClass, connection,
                 uow);
         tq.setUnitOfWork(uow);
+        tq.setStreamChunkSize(streamChunkSize);
         tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return tq;
     }
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.query.sparql;
 import cz.cvut.kbss.jopa.model.query.Parameter;
 import cz.cvut.kbss.jopa.query.QueryHolder;
 import cz.cvut.kbss.jopa.query.QueryParameter;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValue;
 
 import java.util.*;
 
@@ -33,11 +34,15 @@ public class SparqlQueryHolder implements QueryHolder {
     // These parameters are in order matching the query parts and can appear multiple times in the list
     private final List<QueryParameter<?>> parameters;
     private final List<String> queryParts;
+    // Parameters which have to be inserted into the query string regardless of their value
+    private final Set<QueryParameter<?>> unbindableParameters;
 
     private int offset = 0;
 
     private int limit = Integer.MAX_VALUE;
 
+    private Set<String> fetchedAttributes = Collections.emptySet();
+
     public SparqlQueryHolder(String query, List<String> parts, List<QueryParameter<?>> parameters) {
         this.query = query;
         this.parameters = parameters;
@@ -46,6 +51,7 @@ public class SparqlQueryHolder implements QueryHolder {
         parameters.forEach(p -> parameterSet.put(p, p));
         this.identifiersToParameters = new HashMap<>(parameterSet.size());
         parameterSet.values().forEach(p -> identifiersToParameters.put(p.getIdentifier(), p));
+        this.unbindableParameters = new UnbindableParametersResolver().resolve(parts, parameters);
     }
 
     @Override
@@ -140,13 +146,41 @@ public class SparqlQueryHolder implements QueryHolder {
         parameterSet.values().forEach(QueryParameter::resetValue);
     }
 
+    @Override
+    public Set<String> getFetchedAttributes() {
+        return fetchedAttributes;
+    }
+
+    public void setFetchedAttributes(Set<String> fetchedAttributes) {
+        this.fetchedAttributes = Objects.requireNonNull(fetchedAttributes);
+    }
+
     @Override
     public String assembleQuery() {
+        return assembleQuery(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Parameters are bound only if they are named and do not appear in a position where SPARQL requires a constant
+     * (e.g., LIMIT, OFFSET, VALUES data block or a property path), in a subquery, comment or literal. Parameters
+     * projected by a SELECT query (explicitly or using {@code SELECT *}) are not bound either, as the bound variable
+     * would be part of the query result.
+     */
+    @Override
+    public String assembleQuery(Map<String, String> bindings) {
         final StringBuilder sb = new StringBuilder();
         for (int i = 0; i < parameters.size(); i++) {
             sb.append(queryParts.get(i));
-            final String paramValue = parameters.get(i).getValue().getQueryString();
-            sb.append(paramValue);
+            final QueryParameter<?> param = parameters.get(i);
+            final ParameterValue value = param.getValue();
+            if (bindings != null && value.isBindable() && !unbindableParameters.contains(param)) {
+                sb.append('?').append(param.getName());
+                bindings.put(param.getName(), value.getQueryString());
+            } else {
+                sb.append(value.getQueryString());
+            }
         }
         if (queryParts.size() > parameters.size()) {
             sb.append(queryParts.get(parameters.size()));
@@ -51,6 +51,19 @@ public class SparqlQueryParser implements QueryParser {
     }
 
 
+    /**
+     * Parses the specified query string into a template which can be shared by multiple queries.
+     *
+     * @param query The query to parse
+     * @return Query template
+     */
+    public QueryTemplate parseTemplate(String query) {
+        parseQuery(query);
+        final List<Object> identifiers = new ArrayList<>(parameters.size());
+        parameters.forEach(p -> identifiers.add(p.getIdentifier()));
+        return new QueryTemplate(query, queryParts, identifiers);
+    }
+
     @Override
     public SparqlQueryHolder parseQuery(String query) {
         this.query = query;
@@ -70,10 +83,15 @@ public class SparqlQueryParser implements QueryParser {
             final char c = query.charAt(i);
             switch (c) {
                 case '\'':
-                    inSQString = !inSQString;
+                    inSQString = !inDQString && !inSQString;
                     break;
                 case '"':
-                    inDQString = !inDQString;
+                    inDQString = !inSQString && !inDQString;
+                    break;
+                case '\\':
+                    if (inSQString || inDQString) {
+                        i++;    // Skip escaped character
+                    }
                     break;
                 case '$':
                     parameterStart(i, ParamType.POSITIONAL);
@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.query.QueryParameter;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Determines which parameters of a SPARQL query cannot be bound by the storage and have to be inserted into the query
+ * string.
+ * <p>
+ * The resolver scans the query parts surrounding the parameters. It skips string literals, IRIs and comments and
+ * tracks nesting of group graph patterns, so that keywords and operators are recognized only where they are actually
+ * part of the query. A parameter is unbindable if any of its occurrences is:
+ * <ul>
+ * <li>in a position where SPARQL requires a constant, i.e., after LIMIT or OFFSET, in a VALUES clause or in a
+ * property path,</li>
+ * <li>the target of an {@code AS} assignment,</li>
+ * <li>projected by a SELECT (the bound variable would be part of the result) or in its dataset clause,</li>
+ * <li>in a subquery, whose variable scope is separate from the enclosing query,</li>
+ * <li>inside a comment, string literal or IRI.</li>
+ * </ul>
+ * All parameters of a query projecting all variables ({@code SELECT *}) are unbindable.
+ * <p>
+ * Instances are not reusable, a new one has to be created for each query.
+ */
+class UnbindableParametersResolver {
+
+    private static final Pattern VARIABLE_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private static final String PATH_OPERATORS = "/|^";
+    private static final String PATH_MODIFIERS = "*+?";
+    private static final String NON_IRI_CHARACTERS = "<>\"{}|^`\\";
+
+    private static final char VARIABLE = '?';
+    private static final char WORD = 'w';
+    private static final char LITERAL = '"';
+
+    // Depth of group graph patterns
+    private int depth;
+    private int parenthesesDepth;
+    // Depths at which SELECT keywords were found, the top-level query is at depth 0, subqueries are nested deeper
+    private final Deque<Integer> selects = new ArrayDeque<>();
+    private boolean inProjection;
+    private boolean selectAll;
+    // Depth at which the current VALUES clause started, -1 when not in a VALUES clause
+    private int valuesDepth = -1;
+
+    private boolean inComment;
+    private String stringDelimiter;
+    private boolean inIri;
+
+    private final StringBuilder word = new StringBuilder();
+    private char wordPrefix;
+    private String lastKeyword;
+    private char lastSignificant;
+    private char previous;
+
+    /**
+     * Resolves unbindable parameters of a query consisting of the specified parts and parameters.
+     *
+     * @param queryParts Query parts, the parameters appear between them
+     * @param parameters Query parameters in order matching the query parts
+     * @return Set of parameters which cannot be bound
+     */
+    Set<QueryParameter<?>> resolve(List<String> queryParts, List<QueryParameter<?>> parameters) {
+        final Set<QueryParameter<?>> result = new HashSet<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            scan(queryParts.get(i));
+            finishWord(VARIABLE);
+            final QueryParameter<?> param = parameters.get(i);
+            final String next = i + 1 < queryParts.size() ? queryParts.get(i + 1) : "";
+            if (!isBindable(param, next)) {
+                result.add(param);
+            }
+            this.lastSignificant = VARIABLE;
+            this.lastKeyword = null;
+            this.previous = VARIABLE;
+        }
+        if (queryParts.size() > parameters.size()) {
+            scan(queryParts.get(parameters.size()));
+        }
+        return selectAll ? new HashSet<>(parameters) : result;
+    }
+
+    private boolean isBindable(QueryParameter<?> param, String next) {
+        if (param.getName() == null || !VARIABLE_NAME.matcher(param.getName()).matches()) {
+            return false;
+        }
+        if (inComment || stringDelimiter != null || inIri || inProjection || valuesDepth >= 0) {
+            return false;
+        }
+        if (!selects.isEmpty() && selects.peek() > 0) {
+            return false;
+        }
+        if ("LIMIT".equals(lastKeyword) || "OFFSET".equals(lastKeyword) || "AS".equals(lastKeyword)) {
+            return false;
+        }
+        return !isInPropertyPath(next);
+    }
+
+    private boolean isInPropertyPath(String next) {
+        if (PATH_OPERATORS.indexOf(lastSignificant) >= 0) {
+            return true;
+        }
+        if (!next.isEmpty() && PATH_MODIFIERS.indexOf(next.charAt(0)) >= 0) {
+            return true;
+        }
+        final String trimmed = next.trim();
+        return !trimmed.isEmpty() && PATH_OPERATORS.indexOf(trimmed.charAt(0)) >= 0;
+    }
+
+    private void scan(String part) {
+        for (int i = 0; i < part.length(); i++) {
+            final char c = part.charAt(i);
+            if (inComment) {
+                this.inComment = c != '\n' && c != '\r';
+            } else if (stringDelimiter != null) {
+                if (c == '\\') {
+                    i++;
+                } else if (part.startsWith(stringDelimiter, i)) {
+                    i += stringDelimiter.length() - 1;
+                    this.stringDelimiter = null;
+                }
+            } else if (inIri && c == '>') {
+                this.inIri = false;
+                this.lastSignificant = WORD;
+            } else if (!inIri || !isIriCharacter(c)) {
+                this.inIri = false;
+                i = process(part, i);
+            }
+            this.previous = part.charAt(Math.min(i, part.length() - 1));
+        }
+    }
+
+    private int process(String part, int index) {
+        final char c = part.charAt(index);
+        if (Character.isLetterOrDigit(c) || c == '_' || c == '-') {
+            if (word.length() == 0) {
+                this.wordPrefix = previous;
+            }
+            word.append(c);
+            return index;
+        }
+        finishWord(c);
+        if (Character.isWhitespace(c)) {
+            return index;
+        }
+        switch (c) {
+            case '#':
+                this.inComment = true;
+                return index;
+            case '"':
+            case '\'':
+                final String longDelimiter = new String(new char[]{c, c, c});
+                this.stringDelimiter = part.startsWith(longDelimiter, index) ? longDelimiter : String.valueOf(c);
+                index += stringDelimiter.length() - 1;
+                this.lastSignificant = LITERAL;
+                this.lastKeyword = null;
+                return index;
+            case '<':
+                int end = index + 1;
+                while (end < part.length() && isIriCharacter(part.charAt(end))) {
+                    end++;
+                }
+                if (end == part.length()) {
+                    // Either an IRI containing the parameter or an operator, assume the former to be on the safe side
+                    this.inIri = true;
+                    return end - 1;
+                } else if (part.charAt(end) == '>') {
+                    this.lastSignificant = WORD;
+                    this.lastKeyword = null;
+                    return end;
+                }
+                break;
+            case '{':
+                this.depth++;
+                this.inProjection = false;
+                break;
+            case '}':
+                this.depth--;
+                while (!selects.isEmpty() && selects.peek() > depth) {
+                    selects.pop();
+                }
+                if (valuesDepth == depth) {
+                    this.valuesDepth = -1;
+                }
+                break;
+            case '(':
+                this.parenthesesDepth++;
+                break;
+            case ')':
+                this.parenthesesDepth--;
+                break;
+            case '*':
+                if (inProjection && parenthesesDepth == 0 && depth == 0) {
+                    this.selectAll = true;
+                }
+                break;
+            default:
+                break;
+        }
+        this.lastSignificant = c;
+        this.lastKeyword = null;
+        return index;
+    }
+
+    private static boolean isIriCharacter(char c) {
+        return c > ' ' && NON_IRI_CHARACTERS.indexOf(c) < 0;
+    }
+
+    private void finishWord(char next) {
+        if (word.length() == 0) {
+            return;
+        }
+        final String keyword = word.toString().toUpperCase();
+        word.setLength(0);
+        this.lastSignificant = WORD;
+        this.lastKeyword = null;
+        // Variables, prefixed names and language tags are not keywords
+        if (wordPrefix == VARIABLE || wordPrefix == '$' || wordPrefix == ':' || wordPrefix == '@' || next == ':') {
+            return;
+        }
+        switch (keyword) {
+            case "SELECT":
+                selects.push(depth);
+                this.inProjection = true;
+                break;
+            case "WHERE":
+                this.inProjection = false;
+                break;
+            case "VALUES":
+                if (valuesDepth < 0) {
+                    this.valuesDepth = depth;
+                }
+                break;
+            case "LIMIT":
+            case "OFFSET":
+            case "AS":
+                this.lastKeyword = keyword;
+                break;
+            default:
+                break;
+        }
+    }
+}
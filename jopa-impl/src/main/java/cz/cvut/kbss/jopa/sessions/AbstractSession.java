@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import org.slf4j.Logger;
@@ -88,4 +89,11 @@ public abstract class AbstractSession implements Session, MetamodelProvider, Con
      * @return {@link ResultSetMappingManager}
      */
     public abstract ResultSetMappingManager getResultSetMappingManager();
+
+    /**
+     * Gets the cache of parsed query templates in this persistence unit.
+     *
+     * @return {@link QueryPlanCache}
+     */
+    public abstract QueryPlanCache getQueryPlanCache();
 }
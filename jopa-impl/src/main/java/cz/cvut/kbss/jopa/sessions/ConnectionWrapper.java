@@ -21,6 +21,7 @@ import cz.cvut.kbss.jopa.oom.ObjectOntologyMapperImpl;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import cz.cvut.kbss.jopa.utils.Wrapper;
 import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.PreparedStatement;
 import cz.cvut.kbss.ontodriver.Statement;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 
@@ -32,12 +33,14 @@ public class ConnectionWrapper implements Wrapper {
 
     private final Connection connection;
     private ObjectOntologyMapper mapper;
+    private UnitOfWorkImpl uow;
 
     public ConnectionWrapper(Connection connection) {
         this.connection = connection;
     }
 
     void setUnitOfWork(UnitOfWorkImpl uow) {
+        this.uow = uow;
         this.mapper = new ObjectOntologyMapperImpl(uow, connection);
     }
 
@@ -54,6 +57,10 @@ public class ConnectionWrapper implements Wrapper {
         return mapper.loadEntity(loadingParameters);
     }
 
+    public <T> List<T> findAll(List<LoadingParameters<T>> loadingParameters) {
+        return mapper.loadEntities(loadingParameters);
+    }
+
     public <T> T getReference(LoadingParameters<T> loadingParameters) {
         return mapper.loadReference(loadingParameters);
     }
@@ -118,6 +125,10 @@ public class ConnectionWrapper implements Wrapper {
     }
 
     public Statement createStatement() {
+        if (uow != null) {
+            // Statements work with the storage directly, so any deferred changes have to be written first
+            uow.writePendingChanges();
+        }
         try {
             return connection.createStatement();
         } catch (OntoDriverException e) {
@@ -125,6 +136,17 @@ public class ConnectionWrapper implements Wrapper {
         }
     }
 
+    public PreparedStatement prepareStatement(String sparql) {
+        if (uow != null) {
+            uow.writePendingChanges();
+        }
+        try {
+            return connection.prepareStatement(sparql);
+        } catch (OntoDriverException e) {
+            throw new OWLPersistenceException(e);
+        }
+    }
+
     @Override
     public <T> T unwrap(Class<T> cls) {
         try {
@@ -18,8 +18,9 @@ import cz.cvut.kbss.jopa.accessors.DefaultStorageAccessor;
 import cz.cvut.kbss.jopa.accessors.StorageAccessor;
 import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
-import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.sessions.cache.CacheFactory;
 import cz.cvut.kbss.jopa.transactions.EntityTransaction;
@@ -43,6 +44,8 @@ public class ServerSession extends AbstractSession implements Wrapper {
 
     private final MetamodelImpl metamodel;
 
+    private final QueryPlanCache queryPlanCache;
+
     private CacheManager liveObjectCache;
     private StorageAccessor storageAccessor;
 
@@ -51,12 +54,14 @@ public class ServerSession extends AbstractSession implements Wrapper {
     ServerSession() {
         super(new Configuration(Collections.emptyMap()));
         this.metamodel = null;
+        this.queryPlanCache = new QueryPlanCache();
     }
 
     public ServerSession(OntologyStorageProperties storageProperties, Configuration configuration,
                          MetamodelImpl metamodel) {
         super(configuration);
         this.metamodel = metamodel;
+        this.queryPlanCache = new QueryPlanCache(resolveQueryPlanCacheCapacity(configuration));
         initialize(storageProperties, configuration, metamodel);
     }
 
@@ -69,15 +74,33 @@ public class ServerSession extends AbstractSession implements Wrapper {
      * @param metamodel         Metamodel of the managed classes and their attributes.
      */
     private void initialize(OntologyStorageProperties storageProperties, Configuration configuration,
-                            Metamodel metamodel) {
+                            MetamodelImpl metamodel) {
         assert configuration != null;
         assert metamodel != null;
         this.runningTransactions = new ConcurrentHashMap<>();
-        this.liveObjectCache = CacheFactory.createCache(configuration.getProperties());
+        this.liveObjectCache = CacheFactory.createCache(configuration.getProperties(), metamodel);
         liveObjectCache.setInferredClasses(metamodel.getInferredClasses());
         this.storageAccessor = new DefaultStorageAccessor(storageProperties, configuration.getProperties());
     }
 
+    private static int resolveQueryPlanCacheCapacity(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.QUERY_PLAN_CACHE_SIZE);
+        if (setting == null) {
+            return QueryPlanCache.DEFAULT_CAPACITY;
+        }
+        try {
+            final int capacity = Integer.parseInt(setting);
+            if (capacity >= 0) {
+                return capacity;
+            }
+            LOG.warn("Invalid query plan cache size {}. Using default value.", capacity);
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query plan cache size setting. Using default value {}.",
+                    QueryPlanCache.DEFAULT_CAPACITY);
+        }
+        return QueryPlanCache.DEFAULT_CAPACITY;
+    }
+
     @Override
     protected ConnectionWrapper acquireConnection() {
         return new ConnectionWrapper(storageAccessor.acquireConnection());
@@ -149,6 +172,11 @@ public class ServerSession extends AbstractSession implements Wrapper {
         return metamodel.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
     @Override
     public <T> T unwrap(Class<T> cls) {
         Objects.requireNonNull(cls);
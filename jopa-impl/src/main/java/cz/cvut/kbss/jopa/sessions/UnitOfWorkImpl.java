@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.sessions;
 
+import cz.cvut.kbss.jopa.adapters.CollectionDelta;
 import cz.cvut.kbss.jopa.adapters.IndirectCollection;
 import cz.cvut.kbss.jopa.exceptions.EntityNotFoundException;
 import cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException;
@@ -21,6 +22,7 @@ import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.BeanListenerAspect;
 import cz.cvut.kbss.jopa.model.EntityManagerImpl.State;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
@@ -29,6 +31,7 @@ import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
 import cz.cvut.kbss.jopa.sessions.change.ChangeManagerImpl;
@@ -47,7 +50,6 @@ import org.aspectj.lang.Aspects;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.function.Consumer;
 
 import static cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException.individualAlreadyManaged;
@@ -58,11 +60,15 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     // Read-only!!! It is just the keyset of cloneToOriginals
     private final Set<Object> cloneMapping;
     private final Map<Object, Object> cloneToOriginals;
+    // Reverse index of cloneToOriginals, allows constant-time lookup of clone by original
+    private final Map<Object, Object> originalsToClones;
     private final Map<Object, Object> keysToClones = new HashMap<>();
     private final Map<Object, Object> deletedObjects;
     private final Map<Object, Object> newObjectsCloneToOriginal;
     private final Map<Object, Object> newObjectsKeyToClone = new HashMap<>();
     private final Map<Object, InstanceDescriptor> instanceDescriptors;
+    // Attributes changed but not yet written into storage, used when attribute updates are deferred
+    private final Map<Object, Set<FieldSpecification<?, ?>>> pendingAttributeChanges;
     private RepositoryMap repoMap;
 
     private boolean hasChanges;
@@ -71,6 +77,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     private boolean shouldReleaseAfterCommit;
     private boolean shouldClearCacheAfterCommit;
     private boolean useTransactionalOntology;
+    private final boolean deferAttributeUpdates;
 
     private boolean isActive;
     private boolean inCommit;
@@ -96,9 +103,12 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         this.parent = Objects.requireNonNull(parent);
         this.cloneToOriginals = createMap();
         this.cloneMapping = cloneToOriginals.keySet();
+        this.originalsToClones = createMap();
         this.deletedObjects = createMap();
         this.newObjectsCloneToOriginal = createMap();
         this.instanceDescriptors = new IdentityHashMap<>();
+        this.pendingAttributeChanges = new IdentityHashMap<>();
+        this.deferAttributeUpdates = getConfiguration().is(JOPAPersistenceProperties.DEFER_ATTRIBUTE_UPDATES);
         this.repoMap = new RepositoryMap();
         repoMap.initDescriptors();
         this.cloneBuilder = new CloneBuilderImpl(this);
@@ -159,6 +169,51 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         return cls.cast(clone);
     }
 
+    @Override
+    public <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifiers, ErrorUtils.getNPXMessageSupplier("identifiers"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        final List<T> result = new ArrayList<>(identifiers.size());
+        final Map<URI, LoadingParameters<T>> toLoad = new LinkedHashMap<>();
+        for (Object identifier : identifiers) {
+            final T managed = readManagedObject(cls, identifier, descriptor);
+            result.add(managed);
+            if (managed == null) {
+                final URI idUri = getValueAsURI(identifier);
+                toLoad.putIfAbsent(idUri, new LoadingParameters<>(cls, idUri, descriptor));
+            }
+        }
+        if (toLoad.isEmpty()) {
+            return result;
+        }
+        final Map<URI, T> loaded = registerLoadedObjects(new ArrayList<>(toLoad.values()), descriptor);
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) == null) {
+                result.set(i, loaded.get(getValueAsURI(identifiers.get(i))));
+            }
+        }
+        return result;
+    }
+
+    private <T> Map<URI, T> registerLoadedObjects(List<LoadingParameters<T>> loadingParameters, Descriptor descriptor) {
+        final List<T> originals = storage.findAll(loadingParameters);
+        final Map<URI, T> clones = new HashMap<>(originals.size());
+        for (int i = 0; i < originals.size(); i++) {
+            final T original = originals.get(i);
+            if (original == null) {
+                continue;
+            }
+            final Object clone = registerExistingObject(original, descriptor,
+                    Collections.singletonList(new PostLoadInvoker(getMetamodel())));
+            checkForCollections(clone);
+            final LoadingParameters<T> params = loadingParameters.get(i);
+            clones.put(params.getIdentifier(), params.getEntityType().cast(clone));
+        }
+        return clones;
+    }
+
     private <T> T readManagedObject(Class<T> cls, Object identifier, Descriptor descriptor) {
         // First try to find the object among new uncommitted objects
         Object result = newObjectsKeyToClone.get(identifier);
@@ -199,9 +254,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         registerEntityWithPersistenceContext(result);
         registerEntityWithOntologyContext(result, descriptor);
         if (getLiveObjectCache().contains(cls, identifier, descriptor)) {
-            cloneToOriginals.put(result, getLiveObjectCache().get(cls, identifier, descriptor));
+            putCloneOriginalMapping(result, getLiveObjectCache().get(cls, identifier, descriptor));
         } else {
-            cloneToOriginals.put(result, null);
+            putCloneOriginalMapping(result, null);
         }
         keysToClones.put(identifier, result);
         return result;
@@ -252,11 +307,13 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     public void clear() {
         detachAllManagedInstances();
         cloneToOriginals.clear();
+        originalsToClones.clear();
         keysToClones.clear();
         deletedObjects.clear();
         newObjectsCloneToOriginal.clear();
         newObjectsKeyToClone.clear();
         instanceDescriptors.clear();
+        pendingAttributeChanges.clear();
         this.hasChanges = false;
         this.hasDeleted = false;
         this.hasNew = false;
@@ -335,6 +392,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * If there are any changes, commit them to the ontology.
      */
     private void commitToOntology() {
+        writePendingChanges();
         if (this.hasNew || this.hasChanges || this.hasDeleted) {
             calculateChanges();
         }
@@ -355,6 +413,16 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         return new IdentityHashMap<>();
     }
 
+    private void putCloneOriginalMapping(Object clone, Object original) {
+        final Object previousOriginal = cloneToOriginals.put(clone, original);
+        if (previousOriginal != null) {
+            originalsToClones.remove(previousOriginal);
+        }
+        if (original != null) {
+            originalsToClones.put(original, clone);
+        }
+    }
+
     /**
      * Gets current state of the specified entity.
      * <p>
@@ -437,7 +505,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * @return True if the original is managed in this UnitOfWork.
      */
     boolean containsOriginal(Object entity) {
-        return entity != null && cloneToOriginals.containsValue(entity);
+        return entity != null && originalsToClones.containsKey(entity);
     }
 
     /**
@@ -447,13 +515,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * @return The clone or null, if there is none
      */
     public Object getCloneForOriginal(Object original) {
-        for (Entry<Object, Object> entry : cloneToOriginals.entrySet()) {
-            // We use IdentityMap, so we can use ==
-            if (entry.getValue() == original) {
-                return entry.getKey();
-            }
-        }
-        return null;
+        return original != null ? originalsToClones.get(original) : null;
     }
 
     public boolean hasChanges() {
@@ -513,15 +575,56 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (!isInTransaction()) {
             throw new IllegalStateException("This unit of work is not in a transaction.");
         }
-        final Descriptor descriptor = getDescriptor(entity);
         final EntityTypeImpl<Object> et = entityType((Class<Object>) entity.getClass());
-        et.getLifecycleListenerManager().invokePreUpdateCallbacks(entity);
-        storage.merge(entity, f, descriptor);
-        createAndRegisterChangeRecord(entity, et.getFieldSpecification(f.getName()), descriptor);
-        setHasChanges();
-        setIndirectCollectionIfPresent(entity, f);
-        et.getLifecycleListenerManager().invokePostUpdateCallbacks(entity);
-        instanceDescriptors.get(entity).setLoaded(et.getFieldSpecification(f.getName()), LoadState.LOADED);
+        final FieldSpecification<?, ?> fieldSpec = et.getFieldSpecification(f.getName());
+        if (deferAttributeUpdates) {
+            pendingAttributeChanges.computeIfAbsent(entity, e -> new LinkedHashSet<>()).add(fieldSpec);
+            setHasChanges();
+            final boolean replaced = !(EntityPropertiesUtils.getFieldValue(f, entity) instanceof IndirectCollection);
+            setIndirectCollectionIfPresent(entity, f);
+            if (replaced) {
+                // The new collection does not know what the storage contains, so its whole value has to be written
+                invalidateCollectionDelta(entity, f);
+            }
+        } else {
+            final Descriptor descriptor = getDescriptor(entity);
+            et.getLifecycleListenerManager().invokePreUpdateCallbacks(entity);
+            storage.merge(entity, f, descriptor);
+            createAndRegisterChangeRecord(entity, fieldSpec, descriptor);
+            setHasChanges();
+            setIndirectCollectionIfPresent(entity, f);
+            et.getLifecycleListenerManager().invokePostUpdateCallbacks(entity);
+        }
+        instanceDescriptors.get(entity).setLoaded(fieldSpec, LoadState.LOADED);
+    }
+
+    /**
+     * Writes attribute changes which have been deferred so far into the storage.
+     * <p>
+     * Each changed attribute is written only once, regardless of how many times it has been modified since the last
+     * write. Pre- and post-update lifecycle callbacks are invoked once per changed entity.
+     * <p>
+     * This method does nothing if attribute updates are not deferred or there are no pending changes.
+     *
+     * @see JOPAPersistenceProperties#DEFER_ATTRIBUTE_UPDATES
+     */
+    void writePendingChanges() {
+        if (pendingAttributeChanges.isEmpty()) {
+            return;
+        }
+        final List<Object> changed = new ArrayList<>(pendingAttributeChanges.keySet());
+        for (Object entity : changed) {
+            final EntityTypeImpl<Object> et = entityType((Class<Object>) entity.getClass());
+            final Descriptor descriptor = getDescriptor(entity);
+            et.getLifecycleListenerManager().invokePreUpdateCallbacks(entity);
+            // Removed only after the pre-update callbacks, so that attributes they modify are written as well
+            final Set<FieldSpecification<?, ?>> attributes = pendingAttributeChanges.remove(entity);
+            for (FieldSpecification<?, ?> fs : attributes) {
+                storage.merge(entity, fs.getJavaField(), descriptor);
+                createAndRegisterChangeRecord(entity, fs, descriptor);
+            }
+            et.getLifecycleListenerManager().invokePostUpdateCallbacks(entity);
+        }
     }
 
     private void createAndRegisterChangeRecord(Object clone, FieldSpecification<?, ?> fieldSpec,
@@ -531,7 +634,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             return;
         }
         final ChangeRecord record = new ChangeRecordImpl(fieldSpec,
-                EntityPropertiesUtils.getFieldValue(fieldSpec.getJavaField(), clone));
+                EntityPropertiesUtils.getAttributeValue(fieldSpec, clone));
         preventCachingIfReferenceIsNotLoaded(record);
         registerChangeRecord(clone, orig, descriptor, record);
     }
@@ -611,6 +714,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
                     AttributeModificationValidator.verifyCanModify(record.getAttribute());
                     preventCachingIfReferenceIsNotLoaded(record);
                     final Field field = record.getAttribute().getJavaField();
+                    invalidateCollectionDelta(clone, field);
                     storage.merge(clone, field, descriptor);
                 }
                 et.getLifecycleListenerManager().invokePostUpdateCallbacks(clone);
@@ -664,6 +768,11 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         return parent.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return parent.getQueryPlanCache();
+    }
+
     @Override
     public Object registerExistingObject(Object entity, Descriptor descriptor) {
         return registerExistingObject(entity, descriptor, Collections.emptyList());
@@ -674,8 +783,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (entity == null) {
             return null;
         }
-        if (cloneToOriginals.containsValue(entity)) {
-            return getCloneForOriginal(entity);
+        final Object existingClone = getCloneForOriginal(entity);
+        if (existingClone != null) {
+            return existingClone;
         }
         final CloneConfiguration cloneConfig = new CloneConfiguration(descriptor);
         postClone.forEach(cloneConfig::addPostRegisterHandler);
@@ -687,7 +797,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     }
 
     private void registerClone(Object clone, Object original, Descriptor descriptor) {
-        cloneToOriginals.put(clone, original);
+        putCloneOriginalMapping(clone, original);
         final Object identifier = EntityPropertiesUtils.getIdentifier(clone, getMetamodel());
         keysToClones.put(identifier, clone);
         instanceDescriptors
@@ -724,6 +834,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         final ConnectionWrapper connection = acquireConnection();
         try {
             uowChangeSet.cancelObjectChanges(getOriginal(object));
+            pendingAttributeChanges.remove(object);
             T original = connection.find(params);
             if (original == null) {
                 throw new EntityNotFoundException("Entity " + object + " no longer exists in the repository.");
@@ -742,6 +853,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
 
     private <T> void revertTransactionalChanges(T object, Descriptor descriptor, ObjectChangeSet chSet) {
         for (ChangeRecord change : chSet.getChanges()) {
+            invalidateCollectionDelta(object, change.getAttribute().getJavaField());
             storage.merge(object, change.getAttribute().getJavaField(),
                     descriptor.getAttributeDescriptor(change.getAttribute()));
         }
@@ -820,6 +932,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             deletedObjects.put(entity, entity);
             this.hasDeleted = true;
         }
+        pendingAttributeChanges.remove(entity);
         storage.remove(primaryKey, et.getJavaType(), descriptor);
         et.getLifecycleListenerManager().invokePostRemoveCallbacks(entity);
     }
@@ -843,9 +956,13 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             return;
         }
         final Object original = cloneToOriginals.remove(object);
+        if (original != null) {
+            originalsToClones.remove(original);
+        }
         keysToClones.remove(EntityPropertiesUtils.getIdentifier(object, getMetamodel()));
 
         deletedObjects.remove(object);
+        pendingAttributeChanges.remove(object);
         if (hasNew) {
             newObjectsCloneToOriginal.remove(object);
         }
@@ -1049,6 +1166,23 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         }
     }
 
+    /**
+     * Marks element-level changes of the indirect collection in the specified field (if present) as incomplete, so
+     * that the whole collection value is written into the storage.
+     *
+     * @param entity The entity owning the collection
+     * @param field  The field holding the collection
+     */
+    private static void invalidateCollectionDelta(Object entity, Field field) {
+        final Object value = EntityPropertiesUtils.getFieldValue(field, entity);
+        if (value instanceof IndirectCollection) {
+            final CollectionDelta<?> delta = ((IndirectCollection<?>) value).getDelta();
+            if (delta != null) {
+                delta.invalidate();
+            }
+        }
+    }
+
     /**
      * Creates an indirect collection, which wraps the specified collection instance and propagates changes to the
      * persistence context.
@@ -1071,10 +1205,10 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         assert entity != null;
         final EntityType<?> et = entityType(entity.getClass());
         for (FieldSpecification<?, ?> fs : et.getFieldSpecifications()) {
-            final Object value = EntityPropertiesUtils.getFieldValue(fs.getJavaField(), entity);
+            final Object value = EntityPropertiesUtils.getAttributeValue(fs, entity);
             if (value instanceof IndirectCollection) {
                 IndirectCollection<?> indCol = (IndirectCollection<?>) value;
-                EntityPropertiesUtils.setFieldValue(fs.getJavaField(), entity, indCol.getReferencedCollection());
+                EntityPropertiesUtils.setAttributeValue(fs, entity, indCol.getReferencedCollection());
             }
         }
     }
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.sessions.cache;
 
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.sessions.CacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,8 @@ public abstract class CacheFactory {
 
     private static final String LRU_CACHE = "lru";
     private static final String TTL_CACHE = "ttl";
+    private static final String CONCURRENT_CACHE = "concurrent";
+    private static final String WEIGHTED_CACHE = "weighted";
 
     private CacheFactory() {
         throw new AssertionError();
@@ -43,16 +46,30 @@ public abstract class CacheFactory {
      * @return Cache implementation
      */
     public static CacheManager createCache(Map<String, String> properties) {
+        return createCache(properties, null);
+    }
+
+    /**
+     * Creates new cache based on the specified properties.
+     * <p>
+     * The metamodel is used by caches which need information about the cached entities, e.g., to estimate their
+     * size.
+     *
+     * @param properties Configuration of cache
+     * @param metamodel  Persistence unit metamodel, possibly {@code null}
+     * @return Cache implementation
+     */
+    public static CacheManager createCache(Map<String, String> properties, MetamodelImpl metamodel) {
         Objects.requireNonNull(properties);
         final String enabledStr = properties.get(JOPAPersistenceProperties.CACHE_ENABLED);
         if (enabledStr != null && !Boolean.parseBoolean(enabledStr)) {
             LOG.debug("Second level cache is disabled.");
             return new DisabledCacheManager();
         }
-        return createEnabledCache(properties);
+        return createEnabledCache(properties, metamodel);
     }
 
-    private static CacheManager createEnabledCache(Map<String, String> properties) {
+    private static CacheManager createEnabledCache(Map<String, String> properties, MetamodelImpl metamodel) {
         final String cacheType = properties.getOrDefault(JOPAPersistenceProperties.CACHE_TYPE, LRU_CACHE).toLowerCase();
         switch (cacheType) {
             case LRU_CACHE:
@@ -61,6 +78,12 @@ public abstract class CacheFactory {
             case TTL_CACHE:
                 LOG.debug("Using TTL cache.");
                 return new TtlCacheManager(properties);
+            case CONCURRENT_CACHE:
+                LOG.debug("Using concurrent cache.");
+                return new ConcurrentCacheManager(properties);
+            case WEIGHTED_CACHE:
+                LOG.debug("Using weighted cache.");
+                return new WeightedCacheManager(properties, metamodel);
             default:
                 throw new IllegalArgumentException("Invalid second level cache type " + cacheType);
         }
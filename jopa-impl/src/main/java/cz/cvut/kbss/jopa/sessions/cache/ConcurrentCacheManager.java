@@ -0,0 +1,377 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.sessions.CacheStatistics;
+import cz.cvut.kbss.jopa.utils.ErrorUtils;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fixed-size second level cache which does not serialize its readers.
+ * <p>
+ * The cache is split into sections, one per repository context, each of them backed by a concurrent hash map. Reads
+ * and writes thus do not need any cache-wide lock. A cache hit only records the access time on the cache entry.
+ * <p>
+ * The eviction policy is an approximation of LRU. When the total weight of the entries exceeds the maximum weight, a
+ * single thread removes the least recently accessed entries, so that the weight drops below the limit with some
+ * headroom for subsequent additions. By default, each entry weighs one, i.e., the maximum weight is the capacity of the
+ * cache in number of entries. Concurrent readers and writers are not blocked by the eviction, the cache may temporarily
+ * exceed its capacity when entries are added concurrently with an eviction run.
+ * <p>
+ * Capacity is configured by {@link JOPAPersistenceProperties#LRU_CACHE_CAPACITY}.
+ */
+public class ConcurrentCacheManager implements CacheManager {
+
+    /**
+     * Portion of the maximum weight which is freed by one eviction run.
+     */
+    private static final int EVICTION_HEADROOM_DIVISOR = 10;
+
+    /**
+     * Key of the default context section. Not a URI, so that it cannot collide with any named context.
+     */
+    private static final Object DEFAULT_CONTEXT = new Object();
+
+    private final long maxWeight;
+    private final ToLongFunction<Object> weigher;
+
+    private final ConcurrentMap<Object, ContextSection> sections = new ConcurrentHashMap<>();
+    private final AtomicLong totalWeight = new AtomicLong();
+
+    private final Lock evictionLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private volatile Set<Class<?>> inferredClasses = Collections.emptySet();
+
+    ConcurrentCacheManager() {
+        this(Collections.emptyMap());
+    }
+
+    ConcurrentCacheManager(Map<String, String> properties) {
+        this(resolveCapacity(Objects.requireNonNull(properties)), entity -> 1L);
+    }
+
+    /**
+     * Creates a cache bounded by total weight of the cached entities.
+     *
+     * @param maxWeight Maximum total weight of the cached entities
+     * @param weigher   Computes weight of an entity
+     */
+    ConcurrentCacheManager(long maxWeight, ToLongFunction<Object> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    private static int resolveCapacity(Map<String, String> properties) {
+        return properties.containsKey(JOPAPersistenceProperties.LRU_CACHE_CAPACITY) ?
+               LruCacheManager.resolveCapacitySetting(properties) : LruCacheManager.DEFAULT_CAPACITY;
+    }
+
+    int getCapacity() {
+        return (int) Math.min(maxWeight, Integer.MAX_VALUE);
+    }
+
+    long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets the current total weight of the cached entities.
+     *
+     * @return Total weight
+     */
+    long getWeight() {
+        return totalWeight.get();
+    }
+
+    /**
+     * Gets the current number of entries in the cache.
+     *
+     * @return Number of cache entries
+     */
+    int size() {
+        long size = 0;
+        for (ContextSection section : sections.values()) {
+            size += section.entries.size();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static Object resolveContext(URI context) {
+        return context != null ? context : DEFAULT_CONTEXT;
+    }
+
+    @Override
+    public void add(Object identifier, Object entity, Descriptor descriptor) {
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("identifier"));
+        Objects.requireNonNull(entity, ErrorUtils.getNPXMessageSupplier("entity"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        final Object sectionKey = resolveContext(descriptor.getContext());
+        final CacheKey key = new CacheKey(entity.getClass(), identifier);
+        final long weight = weigher.applyAsLong(entity);
+        if (weight > maxWeight) {
+            // The entity would not fit in the cache, so just make sure an outdated version is not cached
+            final ContextSection section = sections.get(sectionKey);
+            if (section != null) {
+                removeEntry(section, key);
+            }
+            return;
+        }
+        final CacheEntry entry = new CacheEntry(entity, descriptor, weight);
+        long currentWeight;
+        while (true) {
+            final ContextSection section = sections.computeIfAbsent(sectionKey, ctx -> new ContextSection());
+            final CacheEntry previous = section.entries.put(key, entry);
+            currentWeight = totalWeight.addAndGet(previous != null ? weight - previous.weight : weight);
+            if (sections.get(sectionKey) == section) {
+                break;
+            }
+            // The section has been evicted concurrently. If the eviction did not remove the entry, roll the addition
+            // back and retry with a new section
+            if (!section.entries.remove(key, entry)) {
+                break;
+            }
+            totalWeight.addAndGet(-weight);
+        }
+        if (currentWeight > maxWeight) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void removeEntry(ContextSection section, CacheKey key) {
+        final CacheEntry removed = section.entries.remove(key);
+        if (removed != null) {
+            totalWeight.addAndGet(-removed.weight);
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            // Another thread is already evicting
+            return;
+        }
+        try {
+            final List<EvictionCandidate> candidates = new ArrayList<>();
+            sections.values().forEach(section -> section.entries.forEach(
+                    (key, entry) -> candidates.add(new EvictionCandidate(section, key, entry))));
+            final long target = maxWeight - maxWeight / EVICTION_HEADROOM_DIVISOR;
+            candidates.sort(Comparator.comparingLong(c -> c.accessTime));
+            for (EvictionCandidate candidate : candidates) {
+                if (totalWeight.get() <= target) {
+                    break;
+                }
+                // Remove only if the entry has not been replaced in the meantime
+                if (candidate.section.entries.remove(candidate.key, candidate.entry)) {
+                    totalWeight.addAndGet(-candidate.entry.weight);
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return null;
+        }
+        final CacheEntry entry = getEntry(cls, identifier, descriptor);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        entry.recordAccess();
+        return cls.cast(entry.entity);
+    }
+
+    private CacheEntry getEntry(Class<?> cls, Object identifier, Descriptor descriptor) {
+        final ContextSection section = sections.get(resolveContext(descriptor.getContext()));
+        if (section == null) {
+            return null;
+        }
+        final CacheEntry entry = section.entries.get(new CacheKey(cls, identifier));
+        return entry != null && entry.descriptor.equals(descriptor) ? entry : null;
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return false;
+        }
+        final boolean result = getEntry(cls, identifier, descriptor) != null;
+        if (!result) {
+            // Hits are counted when the entity is actually retrieved
+            missCount.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+
+        final ContextSection section = sections.get(resolveContext(context));
+        if (section != null) {
+            removeEntry(section, new CacheKey(cls, identifier));
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        Objects.requireNonNull(cls);
+
+        sections.values().forEach(section -> section.entries.forEach((key, entry) -> {
+            if (key.cls.equals(cls) && section.entries.remove(key, entry)) {
+                totalWeight.addAndGet(-entry.weight);
+            }
+        }));
+    }
+
+    @Override
+    public void evict(URI context) {
+        evictSection(resolveContext(context));
+    }
+
+    private void evictSection(Object sectionKey) {
+        final ContextSection section = sections.remove(sectionKey);
+        if (section != null) {
+            // Entries are removed one by one, so that an entry removed concurrently (or rolled back by a concurrent
+            // addition) is not subtracted from the total weight twice
+            section.entries.forEach((key, entry) -> {
+                if (section.entries.remove(key, entry)) {
+                    totalWeight.addAndGet(-entry.weight);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        sections.keySet().forEach(this::evictSection);
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        inferredClasses.forEach(this::evict);
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        this.inferredClasses = inferredClasses != null ? inferredClasses : Collections.emptySet();
+    }
+
+    @Override
+    public void recordLoad(long loadTime) {
+        loadCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), loadCount.sum(),
+                totalLoadTime.sum());
+    }
+
+    @Override
+    public void close() {
+        // No-op
+    }
+
+    static final class ContextSection {
+        final ConcurrentMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    }
+
+    static final class CacheKey {
+        private final Class<?> cls;
+        private final Object identifier;
+
+        CacheKey(Class<?> cls, Object identifier) {
+            this.cls = cls;
+            this.identifier = identifier;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final CacheKey cacheKey = (CacheKey) o;
+            return cls.equals(cacheKey.cls) && identifier.equals(cacheKey.identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cls.hashCode() + identifier.hashCode();
+        }
+    }
+
+    static final class CacheEntry {
+        final Object entity;
+        final Descriptor descriptor;
+        final long weight;
+        // Written without synchronization by readers, a lost update only makes the LRU approximation less precise
+        private volatile long accessTime;
+
+        CacheEntry(Object entity, Descriptor descriptor, long weight) {
+            this.entity = entity;
+            this.descriptor = descriptor;
+            this.weight = weight;
+            this.accessTime = System.nanoTime();
+        }
+
+        void recordAccess() {
+            this.accessTime = System.nanoTime();
+        }
+    }
+
+    private static final class EvictionCandidate {
+        private final ContextSection section;
+        private final CacheKey key;
+        private final CacheEntry entry;
+        private final long accessTime;
+
+        private EvictionCandidate(ContextSection section, CacheKey key, CacheEntry entry) {
+            this.section = section;
+            this.key = key;
+            this.entry = entry;
+            // Snapshot access time, so that concurrent accesses do not break sorting
+            this.accessTime = entry.accessTime;
+        }
+    }
+}
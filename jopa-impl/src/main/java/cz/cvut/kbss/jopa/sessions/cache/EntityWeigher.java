@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Estimates memory footprint of entity instances.
+ * <p>
+ * The estimate is based on the entity's field specifications from the metamodel. Strings and collections (including
+ * types and unmapped properties) are weighed according to their length/size, other values have a fixed weight.
+ * References to other entities are counted as references only, since the referenced entities are cached separately.
+ * <p>
+ * The result is a rough estimate in bytes, it is not meant to be precise, just to distinguish small entities from
+ * large ones.
+ */
+class EntityWeigher implements ToLongFunction<Object> {
+
+    static final long OBJECT_WEIGHT = 16;
+    static final long REFERENCE_WEIGHT = 8;
+    static final long VALUE_WEIGHT = 24;
+    static final long STRING_WEIGHT = 40;
+    static final long COLLECTION_WEIGHT = 48;
+    static final long COLLECTION_ELEMENT_WEIGHT = 32;
+
+    private final MetamodelImpl metamodel;
+
+    EntityWeigher(MetamodelImpl metamodel) {
+        this.metamodel = metamodel;
+    }
+
+    @Override
+    public long applyAsLong(Object entity) {
+        if (metamodel == null || !metamodel.isEntityType(entity.getClass())) {
+            return OBJECT_WEIGHT;
+        }
+        final EntityType<?> et = metamodel.entity(entity.getClass());
+        long weight = OBJECT_WEIGHT;
+        for (FieldSpecification<?, ?> fs : et.getFieldSpecifications()) {
+            weight += REFERENCE_WEIGHT;
+            final Object value = EntityPropertiesUtils.getAttributeValue(fs, entity);
+            weight += weighValue(value, true);
+        }
+        return weight;
+    }
+
+    private long weighValue(Object value, boolean nested) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING_WEIGHT + 2L * ((String) value).length();
+        }
+        if (metamodel.isEntityType(value.getClass())) {
+            // Referenced entities are cached separately
+            return 0;
+        }
+        if (value instanceof Collection) {
+            return weighCollection((Collection<?>) value, nested);
+        }
+        if (value instanceof Map) {
+            long weight = COLLECTION_WEIGHT;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                weight += COLLECTION_ELEMENT_WEIGHT;
+                if (nested) {
+                    weight += weighValue(e.getKey(), false) + weighValue(e.getValue(), false);
+                }
+            }
+            return weight;
+        }
+        return VALUE_WEIGHT;
+    }
+
+    private long weighCollection(Collection<?> collection, boolean nested) {
+        long weight = COLLECTION_WEIGHT + COLLECTION_ELEMENT_WEIGHT * collection.size();
+        if (nested) {
+            for (Object element : collection) {
+                weight += weighValue(element, false);
+            }
+        } else {
+            weight += VALUE_WEIGHT * collection.size();
+        }
+        return weight;
+    }
+}
@@ -68,7 +68,7 @@ public class LruCacheManager implements CacheManager {
         this.entityCache = new LruEntityCache(capacity);
     }
 
-    private static int resolveCapacitySetting(Map<String, String> properties) {
+    static int resolveCapacitySetting(Map<String, String> properties) {
         int capacitySetting = DEFAULT_CAPACITY;
         try {
             capacitySetting = Integer.parseInt(properties.get(JOPAPersistenceProperties.LRU_CACHE_CAPACITY));
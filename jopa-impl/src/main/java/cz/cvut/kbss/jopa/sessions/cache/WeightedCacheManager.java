@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Second level cache bounded by estimated memory footprint of the cached entities.
+ * <p>
+ * Instead of counting entries, each cached entity is weighed based on its attribute values (see {@link
+ * EntityWeigher}), so that entities with large collections or unmapped properties take up a larger portion of the
+ * cache. When the total weight exceeds the configured maximum, least recently used entries are evicted.
+ * <p>
+ * Maximum weight is configured by {@link JOPAPersistenceProperties#CACHE_MAX_WEIGHT}.
+ */
+public class WeightedCacheManager extends ConcurrentCacheManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WeightedCacheManager.class);
+
+    /**
+     * Default maximum weight, roughly corresponds to 64 MB.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+    WeightedCacheManager(Map<String, String> properties, MetamodelImpl metamodel) {
+        super(resolveMaxWeight(Objects.requireNonNull(properties)), new EntityWeigher(metamodel));
+    }
+
+    private static long resolveMaxWeight(Map<String, String> properties) {
+        if (!properties.containsKey(JOPAPersistenceProperties.CACHE_MAX_WEIGHT)) {
+            return DEFAULT_MAX_WEIGHT;
+        }
+        long maxWeight = DEFAULT_MAX_WEIGHT;
+        try {
+            maxWeight = Long.parseLong(properties.get(JOPAPersistenceProperties.CACHE_MAX_WEIGHT));
+            if (maxWeight <= 0) {
+                LOG.warn("Invalid cache maximum weight value {}. Using default value.", maxWeight);
+                maxWeight = DEFAULT_MAX_WEIGHT;
+            }
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse cache maximum weight setting. Using default value {}.", DEFAULT_MAX_WEIGHT);
+        }
+        return maxWeight;
+    }
+}
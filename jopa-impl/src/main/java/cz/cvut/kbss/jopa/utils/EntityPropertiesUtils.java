@@ -17,7 +17,9 @@ package cz.cvut.kbss.jopa.utils;
 import cz.cvut.kbss.jopa.exception.IdentifierNotSetException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.annotations.Transient;
+import cz.cvut.kbss.jopa.model.metamodel.AbstractAttribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.FieldAccessor;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.Identifier;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
@@ -68,15 +70,7 @@ public class EntityPropertiesUtils {
      * @param value    The value to set (may be {@code null})
      */
     public static void setFieldValue(Field field, Object instance, Object value) {
-        Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to set field value.", e);
-        }
+        FieldAccessor.forField(field).setValue(instance, value);
     }
 
     /**
@@ -87,15 +81,7 @@ public class EntityPropertiesUtils {
      * @return Field value
      */
     public static Object getFieldValue(Field field, Object instance) {
-        Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to extract field value.", e);
-        }
+        return FieldAccessor.forField(field).getValue(instance);
     }
 
     /**
@@ -106,9 +92,38 @@ public class EntityPropertiesUtils {
      * @return Attribute value
      */
     public static Object getAttributeValue(FieldSpecification<?, ?> attribute, Object instance) {
+        return getAccessor(attribute).getValue(instance);
+    }
+
+    /**
+     * Sets value of the specified attribute.
+     *
+     * @param attribute Attribute to set value of
+     * @param instance  Target instance
+     * @param value     The value to set (may be {@code null})
+     */
+    public static void setAttributeValue(FieldSpecification<?, ?> attribute, Object instance, Object value) {
+        getAccessor(attribute).setValue(instance, value);
+    }
+
+    /**
+     * Gets accessor of the field represented by the specified attribute.
+     * <p>
+     * Attributes resolve their accessor during metamodel construction, accessors of other field specifications are
+     * resolved (and cached) on first use.
+     *
+     * @param attribute Field specification
+     * @return Field accessor
+     */
+    public static FieldAccessor getAccessor(FieldSpecification<?, ?> attribute) {
         Objects.requireNonNull(attribute);
-        final Field field = attribute.getJavaField();
-        return getFieldValue(field, instance);
+        if (attribute instanceof AbstractAttribute) {
+            final FieldAccessor accessor = ((AbstractAttribute<?, ?>) attribute).getAccessor();
+            if (accessor != null) {
+                return accessor;
+            }
+        }
+        return FieldAccessor.forField(attribute.getJavaField());
     }
 
     /**
@@ -120,7 +135,7 @@ public class EntityPropertiesUtils {
      */
     public static <T> URI getIdentifier(T entity, EntityType<?> et) {
         try {
-            final Object id = getFieldValue(et.getIdentifier().getJavaField(), entity);
+            final Object id = getAttributeValue(et.getIdentifier(), entity);
             if (id == null) {
                 return null;
             }
@@ -142,7 +157,7 @@ public class EntityPropertiesUtils {
         final Field idField = id.getJavaField();
         try {
             final Object assignableId = IdentifierTransformer.transformToIdentifier(identifier, idField.getType());
-            setFieldValue(idField, entity, assignableId);
+            setAttributeValue(id, entity, assignableId);
         } catch (IllegalArgumentException e) {
             throw new UnassignableIdentifierException(e);
         }
@@ -126,6 +126,11 @@ public class DataSourceStub implements DataSource {
             return null;
         }
 
+        @Override
+        public Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) {
+            return null;
+        }
+
         @Override
         public void persist(AxiomValueDescriptor descriptor) {
 
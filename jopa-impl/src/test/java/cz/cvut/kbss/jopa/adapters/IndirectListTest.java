@@ -299,4 +299,38 @@ class IndirectListTest {
         owner.getReferencedList().removeIf(e -> toRemove.contains(e.getUri()));
         verify(uow, times(toRemove.size())).attributeChanged(owner, ownerField);
     }
+
+    @Test
+    void deltaRecordsElementsReplacedBySet() {
+        final OWLClassA added = Generators.generateOwlClassAInstance();
+        final OWLClassA replaced = target.set(2, added);
+        assertEquals(Collections.singleton(added), target.getDelta().getAdded());
+        assertEquals(Collections.singleton(replaced), target.getDelta().getRemoved());
+    }
+
+    @Test
+    void deltaRecordsChangesMadeThroughListIterator() {
+        final OWLClassA added = Generators.generateOwlClassAInstance();
+        final ListIterator<OWLClassA> it = target.listIterator();
+        final OWLClassA removed = it.next();
+        it.remove();
+        it.add(added);
+        assertEquals(Collections.singleton(added), target.getDelta().getAdded());
+        assertEquals(Collections.singleton(removed), target.getDelta().getRemoved());
+    }
+
+    @Test
+    void subListSharesDeltaWithParentList() {
+        final List<OWLClassA> subList = target.subList(0, 3);
+        final OWLClassA removed = subList.remove(0);
+        assertEquals(Collections.singleton(removed), target.getDelta().getRemoved());
+    }
+
+    @Test
+    void deltaRecordsElementsRemovedByRemoveIf() {
+        final Set<OWLClassA> toRemove = new HashSet<>(backupList.subList(0, 4));
+        target.removeIf(toRemove::contains);
+        assertEquals(toRemove, target.getDelta().getRemoved());
+        assertTrue(target.getDelta().getAdded().isEmpty());
+    }
 }
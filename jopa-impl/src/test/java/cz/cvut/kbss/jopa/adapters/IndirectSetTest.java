@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -228,4 +229,50 @@ class IndirectSetTest {
         assertTrue(target.containsAll(backupSet));
         assertTrue(set.containsAll(backupSet));
     }
+
+    @Test
+    void deltaRecordsAddedAndRemovedElements() {
+        final OWLClassA added = Generators.generateOwlClassAInstance();
+        final OWLClassA removed = backupSet.iterator().next();
+        target.add(added);
+        target.remove(removed);
+        assertEquals(Collections.singleton(added), target.getDelta().getAdded());
+        assertEquals(Collections.singleton(removed), target.getDelta().getRemoved());
+        assertTrue(target.getDelta().isComplete());
+    }
+
+    @Test
+    void deltaCancelsOutElementAddedAndRemovedAgain() {
+        final OWLClassA added = Generators.generateOwlClassAInstance();
+        target.add(added);
+        target.remove(added);
+        final OWLClassA removed = backupSet.iterator().next();
+        target.remove(removed);
+        target.add(removed);
+        assertTrue(target.getDelta().isEmpty());
+    }
+
+    @Test
+    void deltaRecordsOnlyElementsActuallyRemovedByRetainAll() {
+        final List<OWLClassA> toRetain = new ArrayList<>(backupSet).subList(0, 5);
+        target.retainAll(toRetain);
+        final Set<OWLClassA> expected = new HashSet<>(backupSet);
+        expected.removeAll(toRetain);
+        assertEquals(expected, target.getDelta().getRemoved());
+        assertTrue(target.getDelta().getAdded().isEmpty());
+    }
+
+    @Test
+    void deltaRecordsElementRemovedThroughIterator() {
+        final Iterator<OWLClassA> it = target.iterator();
+        final OWLClassA removed = it.next();
+        it.remove();
+        assertEquals(Collections.singleton(removed), target.getDelta().getRemoved());
+    }
+
+    @Test
+    void deltaRecordsAllElementsRemovedByClear() {
+        target.clear();
+        assertEquals(backupSet, target.getDelta().getRemoved());
+    }
 }
@@ -18,6 +18,7 @@ import cz.cvut.kbss.jopa.environment.*;
 import cz.cvut.kbss.jopa.environment.listener.AnotherListener;
 import cz.cvut.kbss.jopa.environment.listener.ConcreteListener;
 import cz.cvut.kbss.jopa.environment.listener.ParentListener;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.metamodel.*;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -26,6 +27,7 @@ import java.net.URI;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -270,6 +272,16 @@ public class MetamodelMocks {
         MetamodelFactory.initOwlClassRMock(etR, rStringAtt, rOwlClassAAtt, etS);
         MetamodelFactory.initOwlClassRListeners(etR, etS, concreteListenerMock, anotherListenerMock);
         MetamodelFactory.initOwlClassTMock(etT, tLocalDateAtt, tLocalDateTimeAtt, tOwlClassSAtt, idT);
+        for (EntityTypeImpl<?> et : Arrays
+                .asList(etA, etB, etC, etD, etE, etF, etG, etH, etJ, etK, etL, etM, etN, etO, etP, etQ, etR, etS,
+                        etT)) {
+            initFieldIndex(et);
+        }
+    }
+
+    private static <X> void initFieldIndex(EntityTypeImpl<X> et) {
+        final PropertyFieldIndex<X> fieldIndex = new PropertyFieldIndex<>(et);
+        when(et.getFieldIndex()).thenReturn(fieldIndex);
     }
 
     public void setMocks(Metamodel metamodel) {
@@ -307,6 +319,10 @@ public class MetamodelMocks {
             throw new IllegalArgumentException(
                     "Class " + cls.getName() + " is not a known entity in this persistence unit.");
         });
+        if (metamodel instanceof MetamodelImpl) {
+            final EntityTypeIndex index = new EntityTypeIndex(etMap.values());
+            when(((MetamodelImpl) metamodel).getEntityTypeIndex()).thenReturn(index);
+        }
     }
 
     public OWLClassAMetamodel forOwlClassA() {
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.loaders;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassB;
+import cz.cvut.kbss.jopa.environment.QMappedSuperclass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetamodelIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void isIndexedReturnsTrueForEntityClass() {
+        assertTrue(MetamodelIndex.isIndexed(OWLClassB.class));
+    }
+
+    @Test
+    void isIndexedReturnsFalseForClassesIrrelevantToPersistenceUnit() {
+        assertFalse(MetamodelIndex.isIndexed(String.class));
+        assertFalse(MetamodelIndex.isIndexed(QMappedSuperclass.class));
+    }
+
+    @Test
+    void readReturnsClassNamesWrittenIntoIndex() throws Exception {
+        final Set<String> classNames =
+                new HashSet<>(Arrays.asList(OWLClassA.class.getName(), OWLClassB.class.getName()));
+        MetamodelIndex.write(classNames, tempDir.resolve(MetamodelIndex.LOCATION));
+
+        try (final URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            assertEquals(classNames, MetamodelIndex.read(MetamodelIndex.find(classLoader)));
+        }
+    }
+
+    @Test
+    void readMergesAllAvailableIndexes() throws Exception {
+        final Path dirOne = Files.createDirectory(tempDir.resolve("one"));
+        final Path dirTwo = Files.createDirectory(tempDir.resolve("two"));
+        MetamodelIndex.write(Arrays.asList(OWLClassA.class.getName()), dirOne.resolve(MetamodelIndex.LOCATION));
+        MetamodelIndex.write(Arrays.asList(OWLClassB.class.getName()), dirTwo.resolve(MetamodelIndex.LOCATION));
+
+        try (final URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{dirOne.toUri().toURL(), dirTwo.toUri().toURL()}, null)) {
+            final List<URL> indexes = MetamodelIndex.find(classLoader);
+            assertEquals(2, indexes.size());
+            assertEquals(new HashSet<>(Arrays.asList(OWLClassA.class.getName(), OWLClassB.class.getName())),
+                    MetamodelIndex.read(indexes));
+        }
+    }
+
+    @Test
+    void findReturnsEmptyListWhenNoIndexIsAvailable() throws Exception {
+        try (final URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            assertTrue(MetamodelIndex.find(classLoader).isEmpty());
+        }
+    }
+}
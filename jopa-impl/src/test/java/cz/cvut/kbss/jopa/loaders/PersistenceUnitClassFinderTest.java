@@ -17,7 +17,11 @@ import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMapping;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -112,4 +116,65 @@ public class PersistenceUnitClassFinderTest {
         assertTrue(finder.getResultSetMappings()
                          .contains(OWLClassA.class.getDeclaredAnnotation(SparqlResultSetMapping.class)));
     }
+
+    @Test
+    public void scanClasspathLoadsClassesFromMetamodelIndexWhenItIsEnabled(@TempDir Path indexDir) throws Exception {
+        MetamodelIndex.write(Arrays.asList(OWLClassA.class.getName(), OWLClassB.class.getName()),
+                indexDir.resolve(MetamodelIndex.LOCATION));
+
+        final PersistenceUnitClassFinder sut = scanWithIndex(indexDir, indexProperties("cz.cvut.kbss.jopa.environment"));
+        assertEquals(new HashSet<>(Arrays.asList(OWLClassA.class, OWLClassB.class)), sut.getEntities());
+        assertTrue(sut.getResultSetMappings()
+                      .contains(OWLClassA.class.getDeclaredAnnotation(SparqlResultSetMapping.class)));
+    }
+
+    private static Map<String, String> indexProperties(String scanPackage) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(JOPAPersistenceProperties.SCAN_PACKAGE, scanPackage);
+        properties.put(JOPAPersistenceProperties.USE_METAMODEL_INDEX, Boolean.TRUE.toString());
+        return properties;
+    }
+
+    private static PersistenceUnitClassFinder scanWithIndex(Path indexDir, Map<String, String> properties)
+            throws Exception {
+        final ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (final URLClassLoader classLoader = new URLClassLoader(new URL[]{indexDir.toUri().toURL()}, original)) {
+            // The scanner uses context class loader of the thread which creates it
+            Thread.currentThread().setContextClassLoader(classLoader);
+            final PersistenceUnitClassFinder indexFinder = new PersistenceUnitClassFinder();
+            indexFinder.scanClasspath(new Configuration(properties));
+            return indexFinder;
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    public void scanClasspathSkipsIndexedClassesOutsideOfScanPackage(@TempDir Path indexDir) throws Exception {
+        MetamodelIndex.write(Arrays.asList(OWLClassA.class.getName(), String.class.getName()),
+                indexDir.resolve(MetamodelIndex.LOCATION));
+
+        final PersistenceUnitClassFinder sut = scanWithIndex(indexDir, indexProperties("cz.cvut.kbss.jopa.environment"));
+        assertEquals(Collections.singleton(OWLClassA.class), sut.getEntities());
+    }
+
+    @Test
+    public void scanClasspathScansClasspathWhenNoIndexedClassIsInScanPackage(@TempDir Path indexDir)
+            throws Exception {
+        MetamodelIndex.write(Collections.singleton(String.class.getName()), indexDir.resolve(MetamodelIndex.LOCATION));
+
+        final PersistenceUnitClassFinder sut = scanWithIndex(indexDir, indexProperties("cz.cvut.kbss.jopa.environment"));
+        assertEquals(ENTITY_CLASSES, sut.getEntities());
+    }
+
+    @Test
+    public void scanClasspathIgnoresMetamodelIndexByDefault(@TempDir Path indexDir) throws Exception {
+        MetamodelIndex.write(Collections.singleton(OWLClassA.class.getName()),
+                indexDir.resolve(MetamodelIndex.LOCATION));
+        final Map<String, String> properties = Collections.singletonMap(
+                JOPAPersistenceProperties.SCAN_PACKAGE, "cz.cvut.kbss.jopa.environment");
+
+        final PersistenceUnitClassFinder sut = scanWithIndex(indexDir, properties);
+        assertEquals(ENTITY_CLASSES, sut.getEntities());
+    }
 }
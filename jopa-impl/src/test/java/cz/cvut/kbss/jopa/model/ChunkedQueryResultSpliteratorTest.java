@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.utils.Procedure;
+import cz.cvut.kbss.ontodriver.iteration.ResultRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class ChunkedQueryResultSpliteratorTest {
+
+    @Mock
+    private Function<List<Integer>, List<String>> chunkLoader;
+
+    @Mock
+    private Procedure closer;
+
+    private final List<List<Integer>> loadedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(chunkLoader.apply(any())).thenAnswer(inv -> {
+            final List<Integer> keys = inv.getArgument(0);
+            loadedChunks.add(new ArrayList<>(keys));
+            return keys.stream().map(Object::toString).collect(Collectors.toList());
+        });
+    }
+
+    private ChunkedQueryResultSpliterator<Integer, String> create(int rowCount, int chunkSize) {
+        final List<ResultRow> rows = IntStream.range(0, rowCount).mapToObj(i -> mock(ResultRow.class))
+                                              .collect(Collectors.toList());
+        final Spliterator<ResultRow> resultSetSpliterator = Spliterators.spliteratorUnknownSize(rows.iterator(), 0);
+        return new ChunkedQueryResultSpliterator<>(resultSetSpliterator, rows::indexOf, chunkLoader, chunkSize,
+                closer);
+    }
+
+    @Test
+    void spliteratorLoadsResultsInChunksOfSpecifiedSize() {
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(5, 2);
+        final List<String> result = StreamSupport.stream(sut, false).collect(Collectors.toList());
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"), result);
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Collections.singletonList(4)),
+                loadedChunks);
+    }
+
+    @Test
+    void tryAdvanceLoadsNextChunkOnlyAfterCurrentChunkIsConsumed() {
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(5, 2);
+        final Consumer<String> consumer = mock(Consumer.class);
+        assertTrue(sut.tryAdvance(consumer));
+        assertTrue(sut.tryAdvance(consumer));
+        verify(chunkLoader).apply(any());
+        assertTrue(sut.tryAdvance(consumer));
+        verify(chunkLoader, times(2)).apply(any());
+    }
+
+    @Test
+    void tryAdvanceInvokesClosingProcedureOnceResultSetIsExhausted() {
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(3, 2);
+        final Consumer<String> consumer = mock(Consumer.class);
+        sut.tryAdvance(consumer);
+        verify(closer, never()).execute();
+        sut.tryAdvance(consumer);
+        sut.tryAdvance(consumer);
+        // Result set is exhausted while loading the last chunk, before it is consumed
+        verify(closer).execute();
+        assertFalse(sut.tryAdvance(consumer));
+        verify(closer).execute();
+    }
+
+    @Test
+    void tryAdvanceInvokesClosingProcedureWhenResultSetSizeIsMultipleOfChunkSize() {
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(4, 2);
+        assertEquals(4, StreamSupport.stream(sut, false).count());
+        verify(closer).execute();
+        assertEquals(2, loadedChunks.size());
+    }
+
+    @Test
+    void tryAdvanceSkipsResultsNotLoadedByChunkLoader() {
+        doReturn(Arrays.asList("0", null)).when(chunkLoader).apply(any());
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(2, 2);
+        assertEquals(Collections.singletonList("0"), StreamSupport.stream(sut, false).collect(Collectors.toList()));
+    }
+
+    @Test
+    void tryAdvanceInvokesClosingProcedureWhenChunkLoaderThrowsException() {
+        doThrow(OWLPersistenceException.class).when(chunkLoader).apply(any());
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(5, 2);
+        assertThrows(OWLPersistenceException.class, () -> sut.tryAdvance(mock(Consumer.class)));
+        verify(closer).execute();
+    }
+
+    @Test
+    void closeInvokesClosingProcedureAtMostOnce() {
+        final ChunkedQueryResultSpliterator<Integer, String> sut = create(1, 2);
+        StreamSupport.stream(sut, false).forEach(s -> {
+        });
+        sut.close();
+        verify(closer).execute();
+    }
+}
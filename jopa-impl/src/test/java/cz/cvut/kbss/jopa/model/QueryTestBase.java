@@ -22,9 +22,12 @@ import cz.cvut.kbss.jopa.exceptions.NoResultException;
 import cz.cvut.kbss.jopa.model.query.Parameter;
 import cz.cvut.kbss.jopa.model.query.Query;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.Procedure;
+import cz.cvut.kbss.ontodriver.PreparedStatement;
 import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.Statement;
 import cz.cvut.kbss.ontodriver.iteration.ResultRow;
@@ -55,6 +58,8 @@ abstract class QueryTestBase {
     @Mock
     Statement statementMock;
     @Mock
+    PreparedStatement preparedStatementMock;
+    @Mock
     ResultSet resultSetMock;
     @Mock
     ResultRow resultRow;
@@ -74,6 +79,8 @@ abstract class QueryTestBase {
         MockitoAnnotations.initMocks(this);
         when(connectionWrapperMock.createStatement()).thenReturn(statementMock);
         when(statementMock.executeQuery(any())).thenReturn(resultSetMock);
+        when(connectionWrapperMock.prepareStatement(any())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
         doAnswer((invocationOnMock) -> {
             resultSetMock.close();
             return null;
@@ -82,6 +89,8 @@ abstract class QueryTestBase {
         when(resultSetIterator.next()).thenReturn(resultRow);
         when(resultSetMock.stream()).thenCallRealMethod();
         when(resultSetMock.spliterator()).thenCallRealMethod();
+        when(uowMock.getConfiguration()).thenReturn(new Configuration());
+        when(uowMock.getQueryPlanCache()).thenReturn(new QueryPlanCache());
         this.queryFactory = new SparqlQueryFactory(uowMock, connectionWrapperMock);
     }
 
@@ -104,8 +113,9 @@ abstract class QueryTestBase {
         final Query q = createQuery(query, Object.class);
         q.setParameter("x", "Individual");
         q.getResultList();
-        verify(connectionWrapperMock).createStatement();
-        verify(statementMock).executeQuery("SELECT ?y ?z WHERE { \"Individual\" ?y ?z . ?z ?y \"Individual\" . }");
+        verify(connectionWrapperMock).prepareStatement(query);
+        verify(preparedStatementMock).setObject("x", "\"Individual\"");
+        verify(preparedStatementMock).executeQuery();
     }
 
     @Test
@@ -115,7 +125,8 @@ abstract class QueryTestBase {
         final Parameter<URI> p = (Parameter<URI>) q.getParameter("z");
         q.setParameter(p, URI.create("http://krizik.felk.cvut.cz"));
         q.getResultList();
-        verify(statementMock).executeQuery("SELECT ?x ?y WHERE { ?x ?y <http://krizik.felk.cvut.cz> .}");
+        verify(preparedStatementMock).setObject("z", "<http://krizik.felk.cvut.cz>");
+        verify(preparedStatementMock).executeQuery();
     }
 
     @Test
@@ -125,7 +136,7 @@ abstract class QueryTestBase {
         q.setParameter("z", "Object", "en");
         assertEquals("Object", q.getParameterValue("z"));
         q.getResultList();
-        verify(statementMock).executeQuery("SELECT ?x ?y WHERE { ?x ?y \"Object\"@en .}");
+        verify(preparedStatementMock).setObject("z", "\"Object\"@en");
     }
 
     @Test
@@ -135,7 +146,7 @@ abstract class QueryTestBase {
         final Parameter<String> p = (Parameter<String>) q.getParameter("z");
         q.setParameter(p, "Object", "cs");
         q.getResultList();
-        verify(statementMock).executeQuery("SELECT ?x ?y WHERE { ?x ?y \"Object\"@cs .}");
+        verify(preparedStatementMock).setObject("z", "\"Object\"@cs");
     }
 
     @Test
@@ -287,6 +298,26 @@ abstract class QueryTestBase {
         final AbstractQuery q = createQuery("SELECT ?x WHERE { ?x ?hasA ?a . }", OWLClassD.class);
         q.setParameter("a", a);
         q.getResultList();
-        verify(statementMock).executeQuery("SELECT ?x WHERE { ?x ?hasA <" + a.getUri() + "> . }");
+        verify(preparedStatementMock).setObject("a", "<" + a.getUri() + ">");
+    }
+
+    @Test
+    void setParameterInsertsValueIntoQueryStringWhenParameterIsInPositionRequiringConstant() throws Exception {
+        final String query = "SELECT ?x WHERE { ?x ?y ?z . } LIMIT ?limit";
+        final Query q = createQuery(query, Object.class);
+        q.setParameter("z", URI.create("http://krizik.felk.cvut.cz"));
+        q.setUntypedParameter("limit", 10);
+        q.getResultList();
+        verify(connectionWrapperMock).prepareStatement("SELECT ?x WHERE { ?x ?y ?z . } LIMIT 10");
+        verify(preparedStatementMock).setObject("z", "<http://krizik.felk.cvut.cz>");
+    }
+
+    @Test
+    void closeClosesPreparedStatementUsedForQueryWithBoundParameters() throws Exception {
+        final Query q = createQuery("SELECT ?x WHERE { ?x ?y ?z . }", Object.class);
+        q.setParameter("z", URI.create("http://krizik.felk.cvut.cz"));
+        q.getResultList();
+        verify(preparedStatementMock).close();
+        verify(connectionWrapperMock, never()).createStatement();
     }
 }
@@ -36,7 +36,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -84,14 +86,17 @@ class TypedQueryImplTest extends QueryTestBase {
     private List<String> initDataForQuery(int count) throws Exception {
         final List<String> uris = new ArrayList<>(count);
         final List<Boolean> hasNext = new ArrayList<>(count);
+        final List<URI> identifiers = new ArrayList<>(count);
+        final List<OWLClassA> instances = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             final String u = "http://uri" + i;
             uris.add(u);
-            when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(u)), any()))
-                    .thenReturn(new OWLClassA(URI.create(u)));
+            identifiers.add(URI.create(u));
+            instances.add(new OWLClassA(URI.create(u)));
             hasNext.add(true);
         }
         hasNext.add(false);
+        when(uowMock.readObjects(eq(OWLClassA.class), eq(identifiers), any())).thenReturn(instances);
         when(resultRow.getString(0))
                 .thenReturn(uris.get(0), uris.subList(1, uris.size()).toArray(new String[count]));
         when(resultSetIterator.hasNext())
@@ -195,8 +200,8 @@ class TypedQueryImplTest extends QueryTestBase {
                 Generators.createIndividualIdentifier().toString());
         when(resultRow.isBound(0)).thenReturn(true);
         when(resultRow.getString(0)).thenReturn(uris.get(0), uris.get(1));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(new OWLClassA(URI.create(uris.get(0))), null)));
 
         final TypedQuery<OWLClassA> q = create(SELECT_QUERY, OWLClassA.class);
         final List<OWLClassA> result = q.getResultList();
@@ -345,9 +350,34 @@ class TypedQueryImplTest extends QueryTestBase {
         final List<String> uris = initDataForQuery(count);
         final Descriptor descriptor = new EntityDescriptor(URI.create("http://contextOne"));
         query.setDescriptor(descriptor).getResultList();
-        for (String uri : uris) {
-            verify(uowMock).readObject(OWLClassA.class, URI.create(uri), descriptor);
-        }
+        verify(uowMock).readObjects(OWLClassA.class, uris.stream().map(URI::create).collect(Collectors.toList()),
+                descriptor);
+    }
+
+    @Test
+    void getResultListAddsFetchedAttributesToCopyOfDescriptorWithoutModifyingIt() throws Exception {
+        final TypedQueryImpl<OWLClassA> query = create(SELECT_QUERY, OWLClassA.class);
+        ((SparqlQueryHolder) query.query).setFetchedAttributes(Collections.singleton("types"));
+        final List<String> uris = initDataForQuery(2);
+        final Descriptor descriptor = new EntityDescriptor(URI.create("http://contextOne"));
+        query.setDescriptor(descriptor).getResultList();
+        final ArgumentCaptor<Descriptor> captor = ArgumentCaptor.forClass(Descriptor.class);
+        verify(uowMock).readObjects(eq(OWLClassA.class), eq(uris.stream().map(URI::create).collect(Collectors.toList())),
+                captor.capture());
+        assertNotSame(descriptor, captor.getValue());
+        assertEquals(descriptor, captor.getValue());
+        assertEquals(Collections.singleton("types"), captor.getValue().getFetchedAttributes());
+        assertTrue(descriptor.getFetchedAttributes().isEmpty());
+    }
+
+    @Test
+    void getResultListLoadsEntitiesInOneBatchInsteadOfOneByOne() throws Exception {
+        final TypedQuery<OWLClassA> query = create(SELECT_QUERY, OWLClassA.class);
+        final List<String> uris = initDataForQuery(5);
+        query.getResultList();
+        verify(uowMock).readObjects(eq(OWLClassA.class), eq(uris.stream().map(URI::create).collect(Collectors.toList())),
+                any(Descriptor.class));
+        verify(uowMock, never()).readObject(any(), any(), any());
     }
 
     @Test
@@ -386,10 +416,8 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0), uris.get(1));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(1))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(1))));
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class))).thenAnswer(
+                inv -> ((List<URI>) inv.getArgument(1)).stream().map(OWLClassA::new).collect(Collectors.toList()));
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         final Stream<OWLClassA> result = sut.getResultStream();
         final List<OWLClassA> asList = result.collect(Collectors.toList());
@@ -404,8 +432,8 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class)))
+                .thenReturn(Collections.singletonList(new OWLClassA(URI.create(uris.get(0)))));
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         sut.getResultStream().forEach(a -> assertTrue(uris.contains(a.getUri().toString())));
         verify(statementMock).close();
@@ -418,7 +446,7 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class)))
                 .thenThrow(OWLPersistenceException.class);
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         try {
@@ -428,4 +456,64 @@ class TypedQueryImplTest extends QueryTestBase {
             verify(statementMock).close();
         }
     }
+
+    @Test
+    void getResultStreamLoadsEntitiesInChunksOfConfiguredSize() throws Exception {
+        final List<URI> uris = IntStream.range(0, 5).mapToObj(i -> Generators.createIndividualIdentifier())
+                                        .collect(Collectors.toList());
+        when(resultSetMock.isOpen()).thenReturn(true);
+        when(resultSetMock.hasNext()).thenReturn(true, true, true, true, true, false);
+        when(resultSetMock.isBound(0)).thenReturn(true);
+        when(resultSetMock.getString(0)).thenReturn(uris.get(0).toString(),
+                uris.subList(1, uris.size()).stream().map(URI::toString).toArray(String[]::new));
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class))).thenAnswer(
+                inv -> ((List<URI>) inv.getArgument(1)).stream().map(OWLClassA::new).collect(Collectors.toList()));
+        final TypedQueryImpl<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
+        sut.setStreamChunkSize(2);
+
+        final List<OWLClassA> result = sut.getResultStream().collect(Collectors.toList());
+        assertEquals(uris, result.stream().map(OWLClassA::getUri).collect(Collectors.toList()));
+        verify(uowMock).readObjects(eq(OWLClassA.class), eq(uris.subList(0, 2)), any(Descriptor.class));
+        verify(uowMock).readObjects(eq(OWLClassA.class), eq(uris.subList(2, 4)), any(Descriptor.class));
+        verify(uowMock).readObjects(eq(OWLClassA.class), eq(uris.subList(4, 5)), any(Descriptor.class));
+        verify(uowMock, never()).readObject(any(), any(), any());
+        verify(statementMock).close();
+    }
+
+    @Test
+    void getResultStreamDoesNotLoadNextChunkBeforePreviousIsConsumed() throws Exception {
+        final List<URI> uris = IntStream.range(0, 3).mapToObj(i -> Generators.createIndividualIdentifier())
+                                        .collect(Collectors.toList());
+        when(resultSetMock.isOpen()).thenReturn(true);
+        when(resultSetMock.hasNext()).thenReturn(true, true, true, false);
+        when(resultSetMock.isBound(0)).thenReturn(true);
+        when(resultSetMock.getString(0)).thenReturn(uris.get(0).toString(), uris.get(1).toString(),
+                uris.get(2).toString());
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class))).thenAnswer(
+                inv -> ((List<URI>) inv.getArgument(1)).stream().map(OWLClassA::new).collect(Collectors.toList()));
+        final TypedQueryImpl<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
+        sut.setStreamChunkSize(2);
+
+        final Optional<OWLClassA> first = sut.getResultStream().findFirst();
+        assertTrue(first.isPresent());
+        assertEquals(uris.get(0), first.get().getUri());
+        verify(uowMock).readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class));
+    }
+
+    @Test
+    void closingPartiallyConsumedResultStreamClosesStatement() throws Exception {
+        when(resultSetMock.isOpen()).thenReturn(true);
+        when(resultSetMock.hasNext()).thenReturn(true);
+        when(resultSetMock.isBound(0)).thenReturn(true);
+        when(resultSetMock.getString(0)).thenAnswer(inv -> Generators.createIndividualIdentifier().toString());
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class))).thenAnswer(
+                inv -> ((List<URI>) inv.getArgument(1)).stream().map(OWLClassA::new).collect(Collectors.toList()));
+        final TypedQueryImpl<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
+        sut.setStreamChunkSize(2);
+
+        try (final Stream<OWLClassA> stream = sut.getResultStream()) {
+            assertEquals(3, stream.limit(3).count());
+        }
+        verify(statementMock).close();
+    }
 }
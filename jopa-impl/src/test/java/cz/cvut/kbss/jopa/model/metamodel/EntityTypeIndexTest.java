@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassR;
+import cz.cvut.kbss.jopa.environment.OWLClassS;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.model.IRI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTypeIndexTest {
+
+    private EntityTypeImpl<OWLClassS> etS;
+    private EntityTypeImpl<OWLClassR> etR;
+    private EntityTypeImpl<SubR> etSubR;
+    private EntityTypeImpl<OWLClassA> etA;
+
+    @BeforeEach
+    void setUp() {
+        this.etS = new EntityTypeImpl<>(OWLClassS.class.getName(), OWLClassS.class,
+                IRI.create(OWLClassS.getClassIri()));
+        this.etR = new EntityTypeImpl<>(OWLClassR.class.getName(), OWLClassR.class,
+                IRI.create(OWLClassR.getClassIri()));
+        etR.setSupertype(etS);
+        this.etSubR = new EntityTypeImpl<>(SubR.class.getName(), SubR.class,
+                IRI.create(Generators.createIndividualIdentifier().toString()));
+        etSubR.setSupertype(etR);
+        this.etA = new EntityTypeImpl<>(OWLClassA.class.getName(), OWLClassA.class,
+                IRI.create(OWLClassA.getClassIri()));
+    }
+
+    @Test
+    void getEntityTypesReturnsEntityTypesMappedToClassIri() {
+        final EntityTypeIndex sut = new EntityTypeIndex(Arrays.asList(etA, etS, etR, etSubR));
+
+        assertEquals(Collections.singleton(etR), sut.getEntityTypes(URI.create(OWLClassR.getClassIri())));
+        assertEquals(Collections.singleton(etA), sut.getEntityTypes(URI.create(OWLClassA.getClassIri())));
+        assertTrue(sut.getEntityTypes(Generators.createIndividualIdentifier()).isEmpty());
+    }
+
+    @Test
+    void constructorIndexesSubtypesOfSpecifiedEntityTypes() {
+        final EntityTypeIndex sut = new EntityTypeIndex(Collections.singleton(etS));
+
+        assertEquals(Collections.singleton(etSubR), sut.getEntityTypes(etSubR.getIRI().toURI()));
+        assertEquals(new HashSet<>(Arrays.asList(etS, etR)), sut.getAncestors(etSubR));
+    }
+
+    @Test
+    void getAncestorsReturnsAllEntityAncestorsRegardlessOfIndexingOrder() {
+        final EntityTypeIndex sut = new EntityTypeIndex(Arrays.asList(etSubR, etR, etS));
+
+        assertEquals(new HashSet<>(Arrays.asList(etS, etR)), sut.getAncestors(etSubR));
+        assertEquals(Collections.singleton(etS), sut.getAncestors(etR));
+        assertTrue(sut.getAncestors(etS).isEmpty());
+    }
+
+    @Test
+    void getConcreteSubtypesReturnsTransitiveNonAbstractSubtypes() {
+        final EntityTypeIndex sut = new EntityTypeIndex(Arrays.asList(etA, etS, etR, etSubR));
+
+        assertEquals(new HashSet<>(Arrays.asList(etR, etSubR)), sut.getConcreteSubtypes(etS));
+        assertEquals(Collections.singleton(etSubR), sut.getConcreteSubtypes(etR));
+        assertTrue(sut.getConcreteSubtypes(etA).isEmpty());
+    }
+
+    @Test
+    void getConcreteSubtypesSkipsAbstractSubtypes() {
+        final EntityTypeImpl<AbstractSubR> etAbstract = new EntityTypeImpl<>(AbstractSubR.class.getName(),
+                AbstractSubR.class, IRI.create(Generators.createIndividualIdentifier().toString()));
+        etAbstract.setSupertype(etR);
+        final EntityTypeIndex sut = new EntityTypeIndex(Collections.singleton(etS));
+
+        assertFalse(sut.getConcreteSubtypes(etS).contains(etAbstract));
+        assertFalse(sut.getConcreteSubtypes(etR).contains(etAbstract));
+    }
+
+    public static class SubR extends OWLClassR {
+    }
+
+    public abstract static class AbstractSubR extends OWLClassR {
+    }
+}
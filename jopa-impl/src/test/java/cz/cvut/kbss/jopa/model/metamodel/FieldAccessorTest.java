@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+
+    @Test
+    void forFieldReturnsSameAccessorForSameField() throws Exception {
+        final FieldAccessor first = FieldAccessor.forField(OWLClassA.getStrAttField());
+        final FieldAccessor second = FieldAccessor.forField(OWLClassA.class.getDeclaredField("stringAttribute"));
+        assertSame(first, second);
+    }
+
+    @Test
+    void getValueReturnsFieldValue() throws Exception {
+        final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+        instance.setStringAttribute("test");
+        assertEquals("test", FieldAccessor.forField(OWLClassA.getStrAttField()).getValue(instance));
+    }
+
+    @Test
+    void setValueSetsFieldValue() throws Exception {
+        final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+        FieldAccessor.forField(OWLClassA.getTypesField()).setValue(instance, Collections.singleton("type"));
+        assertEquals(Collections.singleton("type"), instance.getTypes());
+        FieldAccessor.forField(OWLClassA.getTypesField()).setValue(instance, null);
+        assertNull(instance.getTypes());
+    }
+
+    @Test
+    void setValueThrowsIllegalArgumentExceptionWhenValueIsNotAssignableToField() throws Exception {
+        final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+        final FieldAccessor accessor = FieldAccessor.forField(OWLClassA.getStrAttField());
+        assertThrows(IllegalArgumentException.class, () -> accessor.setValue(instance, 117));
+    }
+
+    @Test
+    void getValueThrowsIllegalArgumentExceptionWhenInstanceIsOfDifferentType() throws Exception {
+        final FieldAccessor accessor = FieldAccessor.forField(OWLClassA.getStrAttField());
+        assertThrows(IllegalArgumentException.class, () -> accessor.getValue("notAnEntity"));
+    }
+
+    @Test
+    void getValueThrowsNullPointerExceptionForNullInstanceOfInstanceField() throws Exception {
+        final FieldAccessor accessor = FieldAccessor.forField(OWLClassA.getStrAttField());
+        assertThrows(NullPointerException.class, () -> accessor.getValue(null));
+    }
+
+    @Test
+    void accessorSupportsStaticFields() throws Exception {
+        final FieldAccessor accessor = FieldAccessor.forField(StaticHolder.class.getDeclaredField("value"));
+        accessor.setValue(null, "static");
+        assertEquals("static", accessor.getValue(null));
+        assertEquals("static", StaticHolder.value);
+    }
+
+    private static class StaticHolder {
+        private static String value;
+    }
+}
@@ -25,6 +25,7 @@ import cz.cvut.kbss.jopa.oom.converter.LocalDateConverter;
 import cz.cvut.kbss.jopa.oom.converter.ToIntegerConverter;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.vocabulary.DC;
+import cz.cvut.kbss.jopa.vocabulary.RDF;
 import cz.cvut.kbss.jopa.vocabulary.RDFS;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -237,4 +238,16 @@ class MetamodelBuilderTest {
         @OWLAnnotationProperty(iri = Vocabulary.ATTRIBUTE_BASE + "pluralSimpleLiteral", simpleLiteral = true)
         private Set<String> pluralSimpleLiteral;
     }
+
+    @Test
+    void buildMetamodelInitializesFieldIndexOfEntityTypes() {
+        when(finderMock.getEntities()).thenReturn(Collections.singleton(OWLClassA.class));
+        builder.buildMetamodel(finderMock);
+        final EntityTypeImpl<OWLClassA> result = (EntityTypeImpl<OWLClassA>) builder.entity(OWLClassA.class);
+        final PropertyFieldIndex<OWLClassA> index = result.getFieldIndex();
+        assertNotNull(index);
+        final Attribute<? super OWLClassA, ?> att = result.getAttribute("stringAttribute");
+        assertEquals(att, index.getField(index.positionOf(att.getIRI().toURI())));
+        assertEquals(result.getTypes(), index.getField(index.positionOf(URI.create(RDF.TYPE))));
+    }
 }
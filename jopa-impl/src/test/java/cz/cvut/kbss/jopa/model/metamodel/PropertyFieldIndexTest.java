@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassB;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyFieldIndexTest {
+
+    private MetamodelMocks metamodelMocks;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.metamodelMocks = new MetamodelMocks();
+    }
+
+    @Test
+    void positionOfReturnsPositionOfAttributeMappedToProperty() {
+        final PropertyFieldIndex<OWLClassA> sut = new PropertyFieldIndex<>(metamodelMocks.forOwlClassA().entityType());
+
+        final AbstractAttribute<OWLClassA, String> att = metamodelMocks.forOwlClassA().stringAttribute();
+        final int position = sut.positionOf(att.getIRI().toURI());
+        assertEquals(att, sut.getField(position));
+    }
+
+    @Test
+    void positionOfReturnsPositionOfTypesForRdfType() {
+        final PropertyFieldIndex<OWLClassA> sut = new PropertyFieldIndex<>(metamodelMocks.forOwlClassA().entityType());
+
+        final int position = sut.positionOf(URI.create(RDF.TYPE));
+        assertEquals(metamodelMocks.forOwlClassA().typesSpec(), sut.getField(position));
+    }
+
+    @Test
+    void positionOfReturnsPositionOfPropertiesForUnmappedProperty() {
+        final PropertyFieldIndex<OWLClassB> sut = new PropertyFieldIndex<>(metamodelMocks.forOwlClassB().entityType());
+
+        final int position = sut.positionOf(Generators.createPropertyIdentifier());
+        assertEquals(metamodelMocks.forOwlClassB().propertiesSpec(), sut.getField(position));
+    }
+
+    @Test
+    void positionOfReturnsNegativeValueForUnmappedPropertyWhenEntityHasNoPropertiesField() {
+        final PropertyFieldIndex<OWLClassA> sut = new PropertyFieldIndex<>(metamodelMocks.forOwlClassA().entityType());
+
+        assertTrue(sut.positionOf(Generators.createPropertyIdentifier()) < 0);
+    }
+
+    @Test
+    void isEntityClassComparesIriWithEntityClassIri() {
+        final PropertyFieldIndex<OWLClassA> sut = new PropertyFieldIndex<>(metamodelMocks.forOwlClassA().entityType());
+
+        assertTrue(sut.isEntityClass(OWLClassA.getClassIri()));
+        assertFalse(sut.isEntityClass(OWLClassB.getClassIri()));
+    }
+}
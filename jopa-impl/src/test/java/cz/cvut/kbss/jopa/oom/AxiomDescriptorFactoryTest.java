@@ -36,6 +36,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
@@ -170,6 +171,21 @@ class AxiomDescriptorFactoryTest {
         assertTrue(res.getAssertions().contains(Assertion.createClassAssertion(false)));
     }
 
+    @Test
+    void addForFetchedAttributeAddsAssertionOfLazilyLoadedAttributeInItsContext() throws Exception {
+        when(metamodelMocks.forOwlClassD().owlClassAAtt().getFetchType()).thenReturn(FetchType.LAZY);
+        final Descriptor desc = new EntityDescriptor(false);
+        desc.addAttributeDescriptor(OWLClassD.getOwlClassAField(), new EntityDescriptor(CONTEXT));
+        final AxiomDescriptor res = sut.createForEntityLoading(new LoadingParameters<>(OWLClassD.class, PK, desc),
+                metamodelMocks.forOwlClassD().entityType());
+        final Assertion assertion = Assertion.createObjectPropertyAssertion(owlClassAAttUri, false);
+        assertFalse(res.getAssertions().contains(assertion));
+
+        sut.addForFetchedAttribute(res, desc, metamodelMocks.forOwlClassD().owlClassAAtt());
+        assertTrue(res.getAssertions().contains(assertion));
+        assertEquals(CONTEXT, res.getAssertionContext(assertion));
+    }
+
     @Test
     void testCreateForFieldLoadingDataProperty() throws Exception {
         final Descriptor desc = new EntityDescriptor();
@@ -427,4 +443,27 @@ class AxiomDescriptorFactoryTest {
                 Assertion.createDataPropertyAssertion(URI.create(Vocabulary.p_a_stringAttribute), Generators.LANG, false));
         assertNull(result);
     }
+
+    @Test
+    void createForPolymorphicLoadingContainsClassAssertionAndAttributesOfAllCandidates() {
+        final AxiomDescriptor res = sut.createForPolymorphicLoading(
+                new LoadingParameters<>(OWLClassS.class, PK, descriptorInContext),
+                Arrays.asList(metamodelMocks.forOwlClassS().entityType(), metamodelMocks.forOwlClassR().entityType()));
+        assertNotNull(res);
+        assertEquals(CONTEXT, res.getSubjectContext());
+        final Set<URI> properties =
+                res.getAssertions().stream().map(Assertion::getIdentifier).collect(Collectors.toSet());
+        assertTrue(res.getAssertions().contains(Assertion.createClassAssertion(false)));
+        assertTrue(properties.contains(URI.create(Vocabulary.P_R_STRING_ATTRIBUTE)));
+        assertTrue(properties.contains(URI.create(Vocabulary.P_HAS_A)));
+    }
+
+    @Test
+    void createForPolymorphicLoadingReturnsNullWhenClassAssertionOfCandidateIsInDifferentContext() throws Exception {
+        descriptor.addAttributeContext(OWLClassA.getTypesField(), CONTEXT);
+        final AxiomDescriptor res = sut.createForPolymorphicLoading(
+                new LoadingParameters<>(OWLClassA.class, PK, descriptor),
+                Collections.singleton(metamodelMocks.forOwlClassA().entityType()));
+        assertNull(res);
+    }
 }
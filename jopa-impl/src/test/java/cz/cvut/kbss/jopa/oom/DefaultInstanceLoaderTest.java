@@ -30,8 +30,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -82,6 +85,16 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         verify(connectionMock).find(axiomDescriptor);
     }
 
+    @Test
+    void loadEntityRecordsLoadTimeInCacheWhenEntityIsNotCached() throws Exception {
+        final Collection<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        when(connectionMock.find(axiomDescriptor)).thenReturn(entityAAxioms);
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor, entityAAxioms))
+                .thenReturn(entityA);
+        instanceLoader.loadEntity(loadingParameters);
+        verify(cacheMock).recordLoad(anyLong());
+    }
+
     @Test
     void testLoadEntityUnknown() throws Exception {
         when(connectionMock.find(axiomDescriptor)).thenReturn(Collections.emptyList());
@@ -108,6 +121,38 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         verify(cacheMock, never()).contains(etAMock.getJavaType(), IDENTIFIER, descriptor);
     }
 
+    @Test
+    void loadEntitiesLoadsAxiomsOfAllEntitiesUsingSingleStorageCall() throws Exception {
+        final URI idTwo = Generators.createIndividualIdentifier();
+        final LoadingParameters<OWLClassA> paramsTwo = new LoadingParameters<>(OWLClassA.class, idTwo, descriptor);
+        final AxiomDescriptor axiomDescriptorTwo = new AxiomDescriptor(NamedResource.create(idTwo));
+        when(descriptorFactoryMock.createForEntityLoading(paramsTwo, etAMock)).thenReturn(axiomDescriptorTwo);
+        final Assertion assertion = Assertion.createDataPropertyAssertion(URI.create(Vocabulary.p_a_stringAttribute),
+                false);
+        final Axiom<?> axiomOne = new AxiomImpl<>(INDIVIDUAL, assertion, new Value<>("one"));
+        final Axiom<?> axiomTwo = new AxiomImpl<>(NamedResource.create(idTwo), assertion, new Value<>("two"));
+        when(connectionMock.find(Arrays.asList(axiomDescriptor, axiomDescriptorTwo)))
+                .thenReturn(Arrays.asList(axiomOne, axiomTwo));
+        final OWLClassA entityTwo = new OWLClassA(idTwo);
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor,
+                Collections.singletonList(axiomOne))).thenReturn(entityA);
+        when(entityConstructorMock.reconstructEntity(idTwo, etAMock, descriptor, Collections.singletonList(axiomTwo)))
+                .thenReturn(entityTwo);
+
+        final List<OWLClassA> result = instanceLoader.loadEntities(Arrays.asList(loadingParameters, paramsTwo));
+        assertEquals(Arrays.asList(entityA, entityTwo), result);
+        verify(connectionMock).find(Arrays.asList(axiomDescriptor, axiomDescriptorTwo));
+        verify(connectionMock, never()).find(any(AxiomDescriptor.class));
+    }
+
+    @Test
+    void loadEntitiesReturnsNullForEntitiesWithoutAxioms() throws Exception {
+        when(connectionMock.find(Collections.singletonList(axiomDescriptor))).thenReturn(Collections.emptyList());
+        final List<OWLClassA> result = instanceLoader.loadEntities(Collections.singletonList(loadingParameters));
+        assertEquals(1, result.size());
+        assertNull(result.get(0));
+    }
+
     @Test
     void loadReferenceVerifiesClassAssertionExistenceAndBuildsEntityInstanceWithIdentifier() throws Exception {
         final Axiom<NamedResource> typeAxiom =
@@ -169,4 +214,20 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         assertThrows(StorageAccessException.class, () -> instanceLoader.loadReference(loadingParameters));
         verify(entityConstructorMock, never()).createEntityInstance(IDENTIFIER, etAMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadEntityUsesPrefetchedAxiomsInsteadOfAccessingStorage() throws Exception {
+        final FetchGraphLoader fetchGraphLoaderMock = mock(FetchGraphLoader.class);
+        this.instanceLoader = DefaultInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
+                                                   .descriptorFactory(descriptorFactoryMock).cache(cacheMock)
+                                                   .entityBuilder(entityConstructorMock)
+                                                   .fetchGraphLoader(fetchGraphLoaderMock).build();
+        final List<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        when(fetchGraphLoaderMock.consume(loadingParameters)).thenReturn(entityAAxioms);
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor, entityAAxioms))
+                .thenReturn(entityA);
+
+        assertEquals(entityA, instanceLoader.loadEntity(loadingParameters));
+        verify(connectionMock, never()).find(any(AxiomDescriptor.class));
+    }
+}
@@ -75,6 +75,7 @@ public class EntityConstructorPluralAttributesTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        OOMTestUtils.delegateBatchLoadingToSingleLoading(mapperMock);
         when(mapperMock.getConfiguration()).thenReturn(new Configuration(Collections.emptyMap()));
         this.metamodelMocks = new MetamodelMocks();
         this.simpleListMock = metamodelMocks.forOwlClassC().simpleListAtt();
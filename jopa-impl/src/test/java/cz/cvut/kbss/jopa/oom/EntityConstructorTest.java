@@ -64,6 +64,7 @@ class EntityConstructorTest {
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        OOMTestUtils.delegateBatchLoadingToSingleLoading(mapperMock);
         when(mapperMock.getConfiguration()).thenReturn(new Configuration(Collections.emptyMap()));
         this.mocks = new MetamodelMocks();
         this.descriptor = new EntityDescriptor();
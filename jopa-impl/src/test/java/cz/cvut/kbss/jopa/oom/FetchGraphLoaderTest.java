@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.oom;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassD;
+import cz.cvut.kbss.jopa.environment.Vocabulary;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
+import cz.cvut.kbss.ontodriver.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FetchGraphLoaderTest {
+
+    private static final URI OWNER = Generators.createIndividualIdentifier();
+    private static final URI REFERENCE = Generators.createIndividualIdentifier();
+
+    @Mock
+    private Connection connectionMock;
+
+    @Mock
+    private MetamodelImpl metamodelMock;
+
+    @Mock
+    private AxiomDescriptorFactory descriptorFactoryMock;
+
+    private MetamodelMocks mocks;
+
+    private Set<LoadingParameters<?>> loaded;
+
+    private FetchGraphLoader sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        this.mocks = new MetamodelMocks();
+        mocks.setMocks(metamodelMock);
+        when(metamodelMock.isEntityType(OWLClassA.class)).thenReturn(true);
+        when(metamodelMock.isEntityType(OWLClassD.class)).thenReturn(true);
+        when(descriptorFactoryMock.createForEntityLoading(any(), any()))
+                .thenAnswer(inv -> new AxiomDescriptor(
+                        NamedResource.create(((LoadingParameters<?>) inv.getArgument(0)).getIdentifier())));
+        this.loaded = new HashSet<>();
+        this.sut = new FetchGraphLoader(connectionMock, metamodelMock, descriptorFactoryMock, loaded::contains);
+    }
+
+    @Test
+    void prefetchLoadsOwnerAndReferencedEntityInOneStorageAccessPerGraphLevel() throws Exception {
+        final Descriptor descriptor = new EntityDescriptor().addFetchedAttribute("owlClassA");
+        final LoadingParameters<OWLClassD> ownerParams = new LoadingParameters<>(OWLClassD.class, OWNER, descriptor);
+        final List<Axiom<?>> ownerAxioms = ownerAxioms();
+        final List<Axiom<?>> referenceAxioms = Collections.singletonList(
+                new AxiomImpl<>(NamedResource.create(REFERENCE), Assertion.createClassAssertion(false),
+                        new Value<>(NamedResource.create(Vocabulary.c_OwlClassA))));
+        when(connectionMock.find(anyCollection())).thenReturn(new ArrayList<>(ownerAxioms))
+                                                  .thenReturn(new ArrayList<>(referenceAxioms));
+
+        sut.prefetch(Collections.singletonList(ownerParams));
+        final ArgumentCaptor<Collection<AxiomDescriptor>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectionMock, times(2)).find(captor.capture());
+        assertEquals(NamedResource.create(OWNER), captor.getAllValues().get(0).iterator().next().getSubject());
+        assertEquals(NamedResource.create(REFERENCE), captor.getAllValues().get(1).iterator().next().getSubject());
+        verify(connectionMock, never()).find(any(AxiomDescriptor.class));
+
+        assertEquals(ownerAxioms, sut.consume(ownerParams));
+        final Descriptor referenceDescriptor = descriptor.getAttributeDescriptor(mocks.forOwlClassD().owlClassAAtt());
+        assertEquals(referenceAxioms,
+                sut.consume(new LoadingParameters<>(OWLClassA.class, REFERENCE, referenceDescriptor)));
+    }
+
+    private static List<Axiom<?>> ownerAxioms() {
+        final NamedResource owner = NamedResource.create(OWNER);
+        return Arrays.asList(new AxiomImpl<>(owner, Assertion.createClassAssertion(false),
+                        new Value<>(NamedResource.create(Vocabulary.c_OwlClassD))),
+                new AxiomImpl<>(owner, Assertion.createObjectPropertyAssertion(URI.create(Vocabulary.P_HAS_A), false),
+                        new Value<>(NamedResource.create(REFERENCE))));
+    }
+
+    @Test
+    void prefetchAddsAssertionOfLazilyLoadedFetchedAttributeToOwnerAxiomDescriptor() throws Exception {
+        when(mocks.forOwlClassD().owlClassAAtt().getFetchType()).thenReturn(FetchType.LAZY);
+        final Descriptor descriptor = new EntityDescriptor().addFetchedAttribute("owlClassA");
+        when(connectionMock.find(anyCollection())).thenReturn(new ArrayList<>(ownerAxioms()))
+                                                  .thenReturn(Collections.emptyList());
+
+        sut.prefetch(Collections.singletonList(new LoadingParameters<>(OWLClassD.class, OWNER, descriptor)));
+        final ArgumentCaptor<AxiomDescriptor> captor = ArgumentCaptor.forClass(AxiomDescriptor.class);
+        verify(descriptorFactoryMock).addForFetchedAttribute(captor.capture(), eq(descriptor),
+                eq(mocks.forOwlClassD().owlClassAAtt()));
+        assertEquals(NamedResource.create(OWNER), captor.getValue().getSubject());
+    }
+
+    @Test
+    void prefetchDoesNotAddAssertionOfEagerlyLoadedFetchedAttributeTwice() throws Exception {
+        final Descriptor descriptor = new EntityDescriptor().addFetchedAttribute("owlClassA");
+        when(connectionMock.find(anyCollection())).thenReturn(new ArrayList<>(ownerAxioms()))
+                                                  .thenReturn(Collections.emptyList());
+
+        sut.prefetch(Collections.singletonList(new LoadingParameters<>(OWLClassD.class, OWNER, descriptor)));
+        verify(descriptorFactoryMock, never()).addForFetchedAttribute(any(), any(), any());
+    }
+
+    @Test
+    void prefetchSkipsEntitiesWithoutFetchGraph() throws Exception {
+        sut.prefetch(Collections.singletonList(new LoadingParameters<>(OWLClassD.class, OWNER, new EntityDescriptor())));
+        verify(connectionMock, never()).find(anyCollection());
+    }
+
+    @Test
+    void prefetchSkipsReferencedEntitiesWhichAreAlreadyLoaded() throws Exception {
+        final Descriptor descriptor = new EntityDescriptor().addFetchedAttribute("owlClassA");
+        loaded.add(new LoadingParameters<>(OWLClassA.class, REFERENCE,
+                descriptor.getAttributeDescriptor(mocks.forOwlClassD().owlClassAAtt())));
+        when(connectionMock.find(anyCollection())).thenReturn(new ArrayList<>(ownerAxioms()));
+
+        sut.prefetch(Collections.singletonList(new LoadingParameters<>(OWLClassD.class, OWNER, descriptor)));
+        verify(connectionMock).find(anyCollection());
+    }
+
+    @Test
+    void prefetchThrowsIllegalArgumentExceptionWhenFetchedAttributeIsNotObjectProperty() throws Exception {
+        final Descriptor descriptor = new EntityDescriptor().addFetchedAttribute("stringAttribute");
+        when(connectionMock.find(anyCollection())).thenReturn(Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> sut.prefetch(
+                Collections.singletonList(new LoadingParameters<>(OWLClassA.class, OWNER, descriptor))));
+    }
+
+    @Test
+    void consumeReturnsNullForEntityWhichWasNotPrefetched() {
+        assertNull(sut.consume(new LoadingParameters<>(OWLClassA.class, OWNER, new EntityDescriptor())));
+    }
+}
@@ -47,6 +47,7 @@ class ListPropertyStrategyTestBase {
 
     protected void setUp() throws Exception {
         this.mocks = new MetamodelMocks();
+        OOMTestUtils.delegateBatchLoadingToSingleLoading(mapperMock);
         when(mapperMock.getEntityType(OWLClassA.class)).thenReturn(mocks.forOwlClassA().entityType());
         this.descriptor = new EntityDescriptor();
         this.builder = spy(new AxiomValueGatherer(NamedResource.create(PK), descriptor.getContext()));
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListValueDescriptor;
@@ -25,6 +26,11 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
 
 final class OOMTestUtils {
 
@@ -84,4 +90,18 @@ final class OOMTestUtils {
         propertiesToRemoveField.setAccessible(true);
         return (Map<Assertion, Set<Value<?>>>) propertiesToRemoveField.get(builder);
     }
+
+    /**
+     * Makes batch entity loading on the specified mock delegate to single entity loading, so that tests need to stub
+     * only {@link EntityMappingHelper#getEntityFromCacheOrOntology(Class, URI, Descriptor)}.
+     */
+    static void delegateBatchLoadingToSingleLoading(EntityMappingHelper mapperMock) {
+        when(mapperMock.getEntitiesFromCacheOrOntology(any(), anyList(), any())).thenAnswer(inv -> {
+            final Class<?> cls = inv.getArgument(0);
+            final List<URI> identifiers = inv.getArgument(1);
+            final Descriptor descriptor = inv.getArgument(2);
+            return identifiers.stream().map(id -> mapperMock.getEntityFromCacheOrOntology(cls, id, descriptor))
+                              .collect(Collectors.toList());
+        });
+    }
 }
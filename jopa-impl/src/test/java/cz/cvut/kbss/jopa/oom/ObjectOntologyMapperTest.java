@@ -258,11 +258,11 @@ class ObjectOntologyMapperTest {
     void updatesFieldValueInTheOntology() throws Exception {
         final AxiomValueGatherer axiomBuilderMock = mock(AxiomValueGatherer.class);
         when(
-                entityDeconstructorMock.mapFieldToAxioms(IDENTIFIER, entityA,
+                entityDeconstructorMock.mapFieldChangesToAxioms(IDENTIFIER, entityA,
                         OWLClassA.getStrAttField(), etAMock, aDescriptor)).thenReturn(
                 axiomBuilderMock);
         mapper.updateFieldValue(entityA, OWLClassA.getStrAttField(), aDescriptor);
-        verify(entityDeconstructorMock).mapFieldToAxioms(IDENTIFIER, entityA,
+        verify(entityDeconstructorMock).mapFieldChangesToAxioms(IDENTIFIER, entityA,
                 OWLClassA.getStrAttField(), etAMock, aDescriptor);
         verify(axiomBuilderMock).update(connectionMock);
     }
@@ -534,6 +534,23 @@ class ObjectOntologyMapperTest {
         assertFalse(registry.getPendingResources().contains(entityA));
     }
 
+    @Test
+    void updateFieldValueMapsWholeFieldValueWhenPendingReferencesExist() throws Exception {
+        final OWLClassD owner = new OWLClassD(IDENTIFIER);
+        final Assertion assertion =
+                Assertion.createObjectPropertyAssertion(URI.create(Vocabulary.P_HAS_A), false);
+        final Descriptor descriptor = new EntityDescriptor();
+        mapper.registerPendingAssertion(NamedResource.create(IDENTIFIER), assertion, entityA, null);
+        when(entityDeconstructorMock.mapFieldToAxioms(IDENTIFIER, owner, OWLClassD.getOwlClassAField(),
+                metamodelMock.entity(OWLClassD.class), descriptor))
+                .thenReturn(new AxiomValueGatherer(NamedResource.create(IDENTIFIER), null));
+
+        mapper.updateFieldValue(owner, OWLClassD.getOwlClassAField(), descriptor);
+        verify(entityDeconstructorMock).mapFieldToAxioms(IDENTIFIER, owner, OWLClassD.getOwlClassAField(),
+                metamodelMock.entity(OWLClassD.class), descriptor);
+        verify(entityDeconstructorMock, never()).mapFieldChangesToAxioms(any(), any(), any(), any(), any());
+    }
+
     @Test
     void persistSavesPendingSimpleListContainingPersistedInstance() throws Exception {
         final OWLClassC owner = new OWLClassC(IDENTIFIER);
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.IndirectSet;
 import cz.cvut.kbss.jopa.environment.OWLClassM;
 import cz.cvut.kbss.jopa.environment.Vocabulary;
 import cz.cvut.kbss.jopa.environment.utils.Generators;
@@ -21,11 +22,15 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
 import cz.cvut.kbss.jopa.utils.Configuration;
+import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.Properties;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -33,6 +38,8 @@ import java.net.URI;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PluralDataPropertyStrategyTest {
@@ -140,6 +147,35 @@ class PluralDataPropertyStrategyTest {
         values.forEach(v -> assertTrue(m.getIntegerSet().contains((Integer) v.getValue())));
     }
 
+    @Test
+    void buildAxiomValueChangesFromInstanceAddsOnlyChangedElementsOfIndirectSet() throws Exception {
+        final PluralDataPropertyStrategy<OWLClassM> strategy = createStrategyForM();
+        final OWLClassM m = new OWLClassM();
+        m.initializeTestValues(false);
+        final IndirectSet<Integer> set = new IndirectSet<>(m, OWLClassM.getIntegerSetField(),
+                mock(UnitOfWorkImpl.class), m.getIntegerSet());
+        m.setIntegerSet(set);
+        final Integer removed = set.iterator().next();
+        set.remove(removed);
+        final Integer added = Generators.randomInt();
+        set.add(added);
+
+        strategy.buildAxiomValueChangesFromInstance(m, gatherer);
+        final AxiomValueDescriptor valueDescriptor = OOMTestUtils.getAxiomValueDescriptor(gatherer);
+        // Values of the attribute are not replaced as a whole
+        assertFalse(valueDescriptor.getAssertions().contains(assertionForMIntegerSet()));
+        final Connection connectionMock = mock(Connection.class);
+        final Properties propertiesMock = mock(Properties.class);
+        when(connectionMock.properties()).thenReturn(propertiesMock);
+        gatherer.update(connectionMock);
+        final ArgumentCaptor<AxiomValueDescriptor> captor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).persist(captor.capture());
+        assertEquals(Collections.singletonList(new Value<>(added)),
+                captor.getValue().getAssertionValues(assertionForMIntegerSet()));
+        verify(propertiesMock).removeProperties(INDIVIDUAL, null,
+                Collections.singletonMap(assertionForMIntegerSet(), Collections.singleton(new Value<>(removed))));
+    }
+
     @Test
     void buildAxiomValuesFromInstancesAddsNullValueWhenAttributeValueIsNull() throws Exception {
         final PluralDataPropertyStrategy<OWLClassM> strategy = createStrategyForM();
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.IndirectSet;
 import cz.cvut.kbss.jopa.environment.OWLClassA;
 import cz.cvut.kbss.jopa.environment.OWLClassJ;
 import cz.cvut.kbss.jopa.environment.OWLClassP;
@@ -25,10 +26,14 @@ import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.model.metamodel.AbstractPluralAttribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.Properties;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -41,6 +46,7 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -239,4 +245,51 @@ class SimpleSetPropertyStrategyTest {
         j.getOwlClassA().forEach(a -> verify(
                 referenceResolverMock).registerPendingReference(subject, strategy.createAssertion(), a, null));
     }
+
+    @Test
+    void buildAxiomValueChangesFromInstanceWritesOnlyElementsChangedInIndirectSet() throws Exception {
+        final SimpleSetPropertyStrategy<OWLClassJ> strategy =
+                strategy(mocks.forOwlClassJ().entityType(), mocks.forOwlClassJ().setAttribute());
+        strategy.setReferenceSavingResolver(referenceResolverMock);
+        when(referenceResolverMock.shouldSaveReferenceToItem(any(), eq(null))).thenReturn(true);
+        final OWLClassJ j = new OWLClassJ(PK);
+        final IndirectSet<OWLClassA> set =
+                new IndirectSet<>(j, OWLClassJ.getOwlClassAField(), mock(UnitOfWorkImpl.class), generateSet(true));
+        j.setOwlClassA(set);
+        final OWLClassA removed = set.iterator().next();
+        set.remove(removed);
+        final OWLClassA added = Generators.generateOwlClassAInstance();
+        set.add(added);
+
+        strategy.buildAxiomValueChangesFromInstance(j, gatherer);
+        final Connection connectionMock = mock(Connection.class);
+        final Properties propertiesMock = mock(Properties.class);
+        when(connectionMock.properties()).thenReturn(propertiesMock);
+        gatherer.update(connectionMock);
+        final Assertion assertion = strategy.createAssertion();
+        final ArgumentCaptor<AxiomValueDescriptor> captor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).persist(captor.capture());
+        assertEquals(Collections.singletonList(new Value<>(NamedResource.create(added.getUri()))),
+                captor.getValue().getAssertionValues(assertion));
+        verify(propertiesMock).removeProperties(NamedResource.create(PK), null, Collections.singletonMap(assertion,
+                Collections.singleton(new Value<>(NamedResource.create(removed.getUri())))));
+        assertTrue(set.getDelta().isEmpty());
+    }
+
+    @Test
+    void buildAxiomValueChangesFromInstanceWritesWholeValueWhenDeltaIsIncomplete() throws Exception {
+        final SimpleSetPropertyStrategy<OWLClassJ> strategy =
+                strategy(mocks.forOwlClassJ().entityType(), mocks.forOwlClassJ().setAttribute());
+        strategy.setReferenceSavingResolver(referenceResolverMock);
+        when(referenceResolverMock.shouldSaveReferenceToItem(any(), eq(null))).thenReturn(true);
+        final OWLClassJ j = new OWLClassJ(PK);
+        final IndirectSet<OWLClassA> set =
+                new IndirectSet<>(j, OWLClassJ.getOwlClassAField(), mock(UnitOfWorkImpl.class), generateSet(true));
+        j.setOwlClassA(set);
+        set.getDelta().invalidate();
+
+        strategy.buildAxiomValueChangesFromInstance(j, gatherer);
+        verifyExtractedValues(set.stream().map(OWLClassA::getUri).collect(Collectors.toSet()));
+        assertTrue(set.getDelta().isComplete());
+    }
 }
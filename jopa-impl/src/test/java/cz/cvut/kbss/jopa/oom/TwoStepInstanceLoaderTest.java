@@ -17,14 +17,18 @@ package cz.cvut.kbss.jopa.oom;
 import cz.cvut.kbss.jopa.environment.OWLClassA;
 import cz.cvut.kbss.jopa.environment.OWLClassR;
 import cz.cvut.kbss.jopa.environment.OWLClassS;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
 import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 import cz.cvut.kbss.ontodriver.Types;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.AxiomImpl;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,10 +37,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -50,6 +51,9 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
 
     private LoadingParameters<OWLClassS> loadingParameters;
 
+    private AxiomDescriptor polymorphicDescriptor;
+    private AxiomDescriptor etRDescriptor;
+
     @BeforeAll
     static void setUpBeforeClass() {
         staticSetup();
@@ -62,36 +66,47 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
         final MetamodelMocks mocks = new MetamodelMocks();
         mocks.setMocks(metamodelMock);
         when(connectionMock.types()).thenReturn(typesMock);
+        this.polymorphicDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        when(descriptorFactoryMock.createForPolymorphicLoading(eq(loadingParameters), any()))
+                .thenReturn(polymorphicDescriptor);
+        this.etRDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        etRDescriptor.addAssertion(Assertion.createClassAssertion(false));
         when(descriptorFactoryMock.createForEntityLoading(loadingParameters, mocks.forOwlClassR().entityType()))
-                .thenReturn(axiomDescriptor);
+                .thenReturn(etRDescriptor);
         this.instanceLoader = TwoStepInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
                                                    .cache(cacheMock).descriptorFactory(descriptorFactoryMock)
                                                    .entityBuilder(entityConstructorMock).build();
     }
 
     @Test
-    void loadEntityLoadsTypesAndDeterminesEntityTypeBeforeLoadingInstance() throws Exception {
-        final Set<Axiom<URI>> types = Collections.singleton(
-                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassR.getClassIri()))));
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(types);
+    void loadEntityLoadsTypesAndCandidateAttributesInSingleStorageCall() throws Exception {
+        final Collection<Axiom<?>> axioms = Collections.singleton(classAssertion(OWLClassR.getClassIri()));
+        when(connectionMock.find(polymorphicDescriptor)).thenReturn(axioms);
+
+        final EntityType<OWLClassS> etS = metamodelMock.entity(OWLClassS.class);
+        final EntityType<OWLClassR> etR = metamodelMock.entity(OWLClassR.class);
 
         instanceLoader.loadEntity(loadingParameters);
-        verify(typesMock).getTypes(INDIVIDUAL, null, false);
-        verify(descriptorFactoryMock).createForEntityLoading(loadingParameters, metamodelMock.entity(OWLClassR.class));
+        verify(descriptorFactoryMock)
+                .createForPolymorphicLoading(loadingParameters, new HashSet<>(Arrays.asList(etS, etR)));
+        verify(connectionMock).find(polymorphicDescriptor);
+        verify(connectionMock, never()).types();
+        verify(entityConstructorMock).reconstructEntity(eq(IDENTIFIER), eq(etR), eq(descriptor), any());
+    }
+
+    private static Axiom<NamedResource> classAssertion(String type) {
+        return new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                new Value<>(NamedResource.create(type)));
     }
 
     @Test
-    void loadEntityLoadsEntityFromStorageWhenEntityTypeIsDetermined() throws Exception {
-        final Set<Axiom<URI>> types = Collections.singleton(
-                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassR.getClassIri()))));
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(types);
+    void loadEntityReconstructsEntityOfResolvedTypeFromLoadedAxioms() throws Exception {
+        final Axiom<?> type = classAssertion(OWLClassR.getClassIri());
+        when(connectionMock.find(polymorphicDescriptor)).thenReturn(Collections.singleton(type));
         final OWLClassR entityR = new OWLClassR();
-        final Collection<Axiom<?>> axioms = new HashSet<>(types);
-        when(connectionMock.find(axiomDescriptor)).thenReturn(axioms);
         when(entityConstructorMock
-                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor, axioms))
+                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor,
+                        Collections.singletonList(type)))
                 .thenReturn(entityR);
 
         final OWLClassS result = instanceLoader.loadEntity(loadingParameters);
@@ -99,33 +114,100 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
         assertSame(entityR, result);
     }
 
+    @Test
+    void loadEntityReconstructsEntityOnlyFromAxiomsOfResolvedEntityType() throws Exception {
+        final Axiom<?> type = classAssertion(OWLClassR.getClassIri());
+        final Axiom<?> otherCandidateValue = new AxiomImpl<>(INDIVIDUAL,
+                Assertion.createDataPropertyAssertion(Generators.createPropertyIdentifier(), false), new Value<>("a"));
+        when(connectionMock.find(polymorphicDescriptor)).thenReturn(Arrays.asList(type, otherCandidateValue));
+
+        instanceLoader.loadEntity(loadingParameters);
+        verify(entityConstructorMock).reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor,
+                Collections.singletonList(type));
+    }
+
     @Test
     void loadEntityReturnsNullWhenNoTypesForIndividualAreFound() throws Exception {
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(Collections.emptySet());
+        when(connectionMock.find(polymorphicDescriptor)).thenReturn(Collections.emptySet());
 
         assertNull(instanceLoader.loadEntity(loadingParameters));
+        verify(entityConstructorMock, never()).reconstructEntity(any(), any(), any(), any());
     }
 
     @Test
     void loadEntityReturnsNullWhenNoMatchingEntityTypeIsFound() throws Exception {
+        when(connectionMock.find(polymorphicDescriptor))
+                .thenReturn(Collections.singleton(classAssertion(OWLClassA.getClassIri())));
+
+        assertNull(instanceLoader.loadEntity(loadingParameters));
+        verify(entityConstructorMock, never()).reconstructEntity(any(), any(), any(), any());
+    }
+
+    @Test
+    void loadEntityLoadsOnlyTypesWhenCandidateIsCached() throws Exception {
+        final OWLClassR entityR = new OWLClassR();
+        when(cacheMock.contains(OWLClassR.class, IDENTIFIER, descriptor)).thenReturn(true);
+        when(cacheMock.get(OWLClassR.class, IDENTIFIER, descriptor)).thenReturn(entityR);
+        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(Collections.singleton(
+                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                        new Value<>(URI.create(OWLClassR.getClassIri())))));
+
+        assertSame(entityR, instanceLoader.loadEntity(loadingParameters));
+        verify(typesMock).getTypes(INDIVIDUAL, null, false);
+        verify(connectionMock, never()).find(any(AxiomDescriptor.class));
+    }
+
+    @Test
+    void loadEntityLoadsTypesFirstWhenCandidatesCannotBeLoadedTogether() throws Exception {
+        when(descriptorFactoryMock.createForPolymorphicLoading(eq(loadingParameters), any())).thenReturn(null);
         final Set<Axiom<URI>> types = Collections.singleton(
                 new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassA.getClassIri()))));
+                        new Value<>(URI.create(OWLClassR.getClassIri()))));
         when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(types);
+        final Collection<Axiom<?>> axioms = new HashSet<>(types);
+        when(connectionMock.find(etRDescriptor)).thenReturn(axioms);
 
-        assertNull(instanceLoader.loadEntity(loadingParameters));
+        instanceLoader.loadEntity(loadingParameters);
+        verify(typesMock).getTypes(INDIVIDUAL, null, false);
+        verify(connectionMock).find(etRDescriptor);
+        verify(entityConstructorMock)
+                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor, axioms);
     }
 
     @Test
     void loadEntityThrowsStorageAccessExceptionWhenOntoDriverThrowsException() throws Exception {
         final String msg = "Exception message.";
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenThrow(new OntoDriverException(msg));
+        when(connectionMock.find(polymorphicDescriptor)).thenThrow(new OntoDriverException(msg));
 
         final StorageAccessException ex =
                 assertThrows(StorageAccessException.class, () -> instanceLoader.loadEntity(loadingParameters));
         assertThat(ex.getMessage(), containsString(msg));
     }
 
+    @Test
+    void loadEntitiesLoadsTypesAndCandidateAttributesOfAllInstancesInSingleStorageCall() throws Exception {
+        final URI identifierTwo = Generators.createIndividualIdentifier();
+        final LoadingParameters<OWLClassS> paramsTwo = new LoadingParameters<>(OWLClassS.class, identifierTwo,
+                descriptor);
+        final AxiomDescriptor descriptorTwo = new AxiomDescriptor(NamedResource.create(identifierTwo));
+        when(descriptorFactoryMock.createForPolymorphicLoading(eq(paramsTwo), any())).thenReturn(descriptorTwo);
+        when(descriptorFactoryMock.createForEntityLoading(paramsTwo, metamodelMock.entity(OWLClassR.class)))
+                .thenReturn(etRDescriptor);
+        final Axiom<?> typeTwo = new AxiomImpl<>(NamedResource.create(identifierTwo),
+                Assertion.createClassAssertion(false), new Value<>(NamedResource.create(OWLClassR.getClassIri())));
+        when(connectionMock.find(Arrays.asList(polymorphicDescriptor, descriptorTwo)))
+                .thenReturn(Arrays.asList(classAssertion(OWLClassR.getClassIri()), typeTwo));
+        final OWLClassR entityOne = new OWLClassR();
+        final OWLClassR entityTwo = new OWLClassR();
+        when(entityConstructorMock.reconstructEntity(eq(IDENTIFIER), any(), any(), any())).thenReturn(entityOne);
+        when(entityConstructorMock.reconstructEntity(eq(identifierTwo), any(), any(), any())).thenReturn(entityTwo);
+
+        final List<OWLClassS> result = instanceLoader.loadEntities(Arrays.asList(loadingParameters, paramsTwo));
+        assertEquals(Arrays.asList(entityOne, entityTwo), result);
+        verify(connectionMock).find(Arrays.asList(polymorphicDescriptor, descriptorTwo));
+        verify(connectionMock, never()).types();
+    }
+
     @Test
     void loadReferenceLoadsReferenceFromStorageWhenEntityTypeIsDetermined() throws Exception {
         final Axiom<URI> type = new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
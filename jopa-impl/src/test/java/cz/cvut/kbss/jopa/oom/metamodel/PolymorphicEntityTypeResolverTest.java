@@ -69,7 +69,8 @@ public class PolymorphicEntityTypeResolverTest {
     }
 
     private <T> EntityType<? extends T> execute(EntityTypeImpl<T> root, Collection<Axiom<URI>> types) {
-        return new PolymorphicEntityTypeResolver<>(INDIVIDUAL, root, types).determineActualEntityType();
+        return new PolymorphicEntityTypeResolver<>(INDIVIDUAL, root, types,
+                new EntityTypeIndex(Collections.singleton(root))).determineActualEntityType();
     }
 
     private static Collection<Axiom<URI>> getTypeAxioms(String... types) {
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query;
+
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.query.sparql.QueryTemplate;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryParser;
+import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class QueryPlanCacheTest {
+
+    private static final String QUERY = "SELECT ?x WHERE { ?x a ?type . }";
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    private Function<String, QueryTemplate> parser;
+
+    @BeforeEach
+    void setUp() {
+        final SparqlQueryParser sparqlParser = new SparqlQueryParser(
+                new ParameterValueFactory(mock(MetamodelProvider.class)));
+        this.parser = q -> {
+            parseCount.incrementAndGet();
+            return sparqlParser.parseTemplate(q);
+        };
+    }
+
+    @Test
+    void getSparqlTemplateParsesQueryOnlyOnce() {
+        final QueryPlanCache sut = new QueryPlanCache();
+        final QueryTemplate first = sut.getSparqlTemplate(QUERY, parser);
+        final QueryTemplate second = sut.getSparqlTemplate(QUERY, parser);
+        assertSame(first, second);
+        assertEquals(1, parseCount.get());
+    }
+
+    @Test
+    void sparqlAndSoqlTemplatesOfSameQueryStringAreCachedSeparately() {
+        final QueryPlanCache sut = new QueryPlanCache();
+        sut.getSparqlTemplate(QUERY, parser);
+        sut.getSoqlTemplate(QUERY, parser);
+        assertEquals(2, parseCount.get());
+        assertEquals(2, sut.size());
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedTemplateWhenCapacityIsExceeded() {
+        final QueryPlanCache sut = new QueryPlanCache(2);
+        final String queryTwo = "SELECT ?y WHERE { ?y a ?type . }";
+        final String queryThree = "SELECT ?z WHERE { ?z a ?type . }";
+        sut.getSparqlTemplate(QUERY, parser);
+        sut.getSparqlTemplate(queryTwo, parser);
+        sut.getSparqlTemplate(QUERY, parser);
+        sut.getSparqlTemplate(queryThree, parser);
+        assertEquals(2, sut.size());
+        assertEquals(3, parseCount.get());
+        sut.getSparqlTemplate(QUERY, parser);
+        assertEquals(3, parseCount.get());
+        sut.getSparqlTemplate(queryTwo, parser);
+        assertEquals(4, parseCount.get());
+    }
+
+    @Test
+    void cacheWithZeroCapacityParsesQueryEveryTime() {
+        final QueryPlanCache sut = new QueryPlanCache(0);
+        sut.getSparqlTemplate(QUERY, parser);
+        sut.getSparqlTemplate(QUERY, parser);
+        assertEquals(2, parseCount.get());
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentForNegativeCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryPlanCache(-1));
+    }
+
+    @Test
+    void clearEvictsAllTemplates() {
+        final QueryPlanCache sut = new QueryPlanCache();
+        sut.getSparqlTemplate(QUERY, parser);
+        sut.clear();
+        assertEquals(0, sut.size());
+        sut.getSparqlTemplate(QUERY, parser);
+        assertEquals(2, parseCount.get());
+    }
+}
@@ -15,10 +15,11 @@
 package cz.cvut.kbss.jopa.query.soql;
 
 import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.exception.QueryParserException;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.query.QueryHolder;
-import cz.cvut.kbss.jopa.query.QueryParser;
 import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.query.sparql.QueryTemplate;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryParser;
 import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,7 +27,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -37,7 +43,7 @@ public class SoqlQueryParserTest {
     @Mock
     private MetamodelImpl metamodel;
 
-    private QueryParser sut;
+    private SoqlQueryParser sut;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -482,4 +488,35 @@ public class SoqlQueryParserTest {
         assertEquals(expectedSparqlQuery, holder.getQuery());
         assertEquals(5, holder.getParameters().size());
     }
+
+    @Test
+    public void testParseFindAllWithFetchJoinQuery() {
+        final String jpqlQuery = "SELECT p FROM Person p JOIN FETCH p.phone";
+        final String expectedSparqlQuery = "SELECT ?x WHERE { ?x a <http://www.example.org/Person> . }";
+        final QueryHolder holder = sut.parseQuery(jpqlQuery);
+        assertEquals(expectedSparqlQuery, holder.getQuery());
+        assertEquals(Collections.singleton("phone"), holder.getFetchedAttributes());
+    }
+
+    @Test
+    public void testParseFindByWithMultipleFetchJoinsQuery() {
+        final String jpqlQuery =
+                "SELECT p FROM Person p JOIN FETCH p.phone JOIN FETCH p.phone.number WHERE p.age > :age";
+        final String expectedSparqlQuery = "SELECT ?x WHERE { ?x a <http://www.example.org/Person> . ?x <http://www.example.org/age> ?pAge . FILTER (?pAge > ?age) }";
+        final QueryHolder holder = sut.parseQuery(jpqlQuery);
+        assertEquals(expectedSparqlQuery, holder.getQuery());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("phone", "phone.number")), holder.getFetchedAttributes());
+    }
+
+    @Test
+    public void parseTemplateCarriesFetchedAttributesToInstantiatedQueries() {
+        final QueryTemplate template = sut.parseTemplate("SELECT p FROM Person p JOIN FETCH p.phone");
+        final QueryHolder holder = template.instantiate(new ParameterValueFactory(mock(MetamodelProvider.class)));
+        assertEquals(Collections.singleton("phone"), holder.getFetchedAttributes());
+    }
+
+    @Test
+    public void parseQueryThrowsQueryParserExceptionWhenFetchJoinReferencesUnknownObject() {
+        assertThrows(QueryParserException.class, () -> sut.parseQuery("SELECT p FROM Person p JOIN FETCH x.phone"));
+    }
 }
@@ -185,4 +185,42 @@ public class NamedParameterSparqlQueryHolderTest {
         final String result = holder.assembleQuery();
         assertFalse(result.contains("?craft"));
     }
+
+    @Test
+    public void assembleQueryWithBindingsLeavesBoundParametersInQueryAsVariables() {
+        holder.setParameter(holder.getParameter("homepage"), URI.create("http://kbss.felk.cvut.cz"));
+        final Map<String, String> bindings = new HashMap<>();
+        assertEquals(QUERY, holder.assembleQuery(bindings));
+        assertEquals(Collections.singletonMap("homepage", "<http://kbss.felk.cvut.cz>"), bindings);
+    }
+
+    @Test
+    public void assembleQueryWithBindingsInsertsUntypedParameterValuesIntoQuery() {
+        holder.setUntypedParameter(holder.getParameter("homepage"), "<http://kbss.felk.cvut.cz>");
+        final Map<String, String> bindings = new HashMap<>();
+        assertEquals(QUERY.replace("?homepage", "<http://kbss.felk.cvut.cz>"), holder.assembleQuery(bindings));
+        assertTrue(bindings.isEmpty());
+    }
+
+    @Test
+    public void assembleQueryWithBindingsInsertsProjectedParameterValuesIntoQuery() {
+        holder.setParameter(holder.getParameter("craft"), URI.create("http://kbss.felk.cvut.cz/apollo7"));
+        final Map<String, String> bindings = new HashMap<>();
+        final String result = holder.assembleQuery(bindings);
+        assertFalse(result.contains("?craft"));
+        assertTrue(bindings.isEmpty());
+    }
+
+    @Test
+    public void assembleQueryWithBindingsInsertsParameterValuesIntoQueryProjectingAllVariables() {
+        final String query = "SELECT * WHERE { ?craft foaf:homepage ?homepage . }";
+        final QueryParameter<?> homepage = new QueryParameter<>("homepage", paramValueFactory);
+        final QueryParameter<?> craft = new QueryParameter<>("craft", paramValueFactory);
+        final SparqlQueryHolder sut = new SparqlQueryHolder(query,
+                Arrays.asList("SELECT * WHERE { ", " foaf:homepage ", " . }"), Arrays.asList(craft, homepage));
+        sut.setParameter(homepage, URI.create("http://kbss.felk.cvut.cz"));
+        final Map<String, String> bindings = new HashMap<>();
+        assertEquals(query.replace("?homepage", "<http://kbss.felk.cvut.cz>"), sut.assembleQuery(bindings));
+        assertTrue(bindings.isEmpty());
+    }
 }
@@ -14,20 +14,26 @@ package cz.cvut.kbss.jopa.query.sparql;
 
 import cz.cvut.kbss.jopa.environment.OWLClassA;
 import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.query.Query;
+import cz.cvut.kbss.jopa.model.TypedQueryImpl;
 import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.query.mapper.SparqlResultMapper;
+import cz.cvut.kbss.jopa.query.QueryPlanCache;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.mockito.Mockito.*;
 
 public class SparqlQueryFactoryTest {
@@ -56,6 +62,8 @@ public class SparqlQueryFactoryTest {
         final MetamodelImpl metamodel = mock(MetamodelImpl.class);
         new MetamodelMocks().setMocks(metamodel);
         when(uowMock.getMetamodel()).thenReturn(metamodel);
+        when(uowMock.getConfiguration()).thenReturn(new Configuration());
+        when(uowMock.getQueryPlanCache()).thenReturn(new QueryPlanCache());
         this.factory = new SparqlQueryFactory(uowMock, connectionMock);
     }
 
@@ -153,4 +161,33 @@ public class SparqlQueryFactoryTest {
         assertNotNull(q);
         verify(namedQueryManagerMock).getQuery(queryName);
     }
+
+    @Test
+    public void resolveStreamChunkSizeReturnsConfiguredValue() {
+        final Configuration config = new Configuration();
+        config.set(JOPAPersistenceProperties.QUERY_STREAM_CHUNK_SIZE, "5");
+        assertEquals(5, SparqlQueryFactory.resolveStreamChunkSize(config));
+    }
+
+    @Test
+    public void resolveStreamChunkSizeReturnsDefaultForMissingOrInvalidValue() {
+        final Configuration config = new Configuration();
+        assertEquals(TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE, SparqlQueryFactory.resolveStreamChunkSize(config));
+        config.set(JOPAPersistenceProperties.QUERY_STREAM_CHUNK_SIZE, "0");
+        assertEquals(TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE, SparqlQueryFactory.resolveStreamChunkSize(config));
+        config.set(JOPAPersistenceProperties.QUERY_STREAM_CHUNK_SIZE, "abc");
+        assertEquals(TypedQueryImpl.DEFAULT_STREAM_CHUNK_SIZE, SparqlQueryFactory.resolveStreamChunkSize(config));
+    }
+
+    @Test
+    public void createNativeQueryReusesCachedQueryTemplate() {
+        final QueryPlanCache cache = new QueryPlanCache();
+        when(uowMock.getQueryPlanCache()).thenReturn(cache);
+        this.factory = new SparqlQueryFactory(uowMock, connectionMock);
+        final Query first = factory.createNativeQuery(QUERY);
+        final Query second = factory.createNativeQuery(QUERY);
+        assertEquals(1, cache.size());
+        assertNotSame(first, second);
+        assertEquals(first.getParameters(), second.getParameters());
+    }
 }
@@ -23,6 +23,8 @@ import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
@@ -252,6 +254,15 @@ public class SparqlQueryParserTest {
         assertNotNull(holder.getParameter("type"));
     }
 
+    @Test
+    void parsesQueryWithEscapedQuotesAndApostrophesInStringLiterals() {
+        final String query = "SELECT ?x WHERE {?x rdfs:label \"O'Brien \\\" ?label\" ; rdfs:comment ?comment .}";
+        final QueryHolder holder = queryParser.parseQuery(query);
+        assertEquals(2, holder.getParameters().size());
+        assertNotNull(holder.getParameter("x"));
+        assertNotNull(holder.getParameter("comment"));
+    }
+
     @Test
     public void parsesQueryWithPropertyPathOneOrMore() {
         final String query = "SELECT ?x WHERE {?x ?hasPart+ ?part . }";
@@ -298,4 +309,27 @@ public class SparqlQueryParserTest {
         assertNotNull(holder.getParameter("hasQuestion"));
         assertNotNull(holder.getParameter("part"));
     }
+
+    @Test
+    void parseTemplateCreatesTemplateWhoseInstancesHaveIndependentParameterValues() {
+        final String query = "SELECT ?x WHERE { ?x ?p ?y . ?y ?p ?z . }";
+        final QueryTemplate template = ((SparqlQueryParser) queryParser).parseTemplate(query);
+        final SparqlQueryHolder first = template.instantiate(valueFactory);
+        final SparqlQueryHolder second = template.instantiate(valueFactory);
+        assertEquals(query, first.assembleQuery());
+        assertEquals(first.getParameters(), second.getParameters());
+
+        first.setParameter(first.getParameter("p"), URI.create("http://a"));
+        assertEquals("SELECT ?x WHERE { ?x <http://a> ?y . ?y <http://a> ?z . }", first.assembleQuery());
+        assertEquals(query, second.assembleQuery());
+    }
+
+    @Test
+    void parseTemplateSupportsPositionalParameters() {
+        final String query = "SELECT ?x WHERE { ?x $1 $2 . }";
+        final SparqlQueryHolder holder = ((SparqlQueryParser) queryParser).parseTemplate(query)
+                                                                        .instantiate(valueFactory);
+        holder.setParameter(holder.getParameter(2), "test", "en");
+        assertEquals("SELECT ?x WHERE { ?x $1 \"test\"@en . }", holder.assembleQuery());
+    }
 }
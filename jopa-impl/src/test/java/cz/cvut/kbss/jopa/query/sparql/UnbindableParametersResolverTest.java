@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class UnbindableParametersResolverTest {
+
+    private static final URI VALUE = URI.create("http://krizik.felk.cvut.cz/ontologies/jopa#entityA");
+
+    private SparqlQueryParser parser;
+
+    @BeforeEach
+    void setUp() {
+        this.parser = new SparqlQueryParser(new ParameterValueFactory(mock(MetamodelProvider.class)));
+    }
+
+    /**
+     * Sets the specified parameter and assembles the query with bindings.
+     *
+     * @return Whether the parameter was bound
+     */
+    private boolean isBound(String query, String parameter) {
+        final SparqlQueryHolder holder = parser.parseQuery(query);
+        holder.setParameter(holder.getParameter(parameter), VALUE);
+        final Map<String, String> bindings = new HashMap<>();
+        final String result = holder.assembleQuery(bindings);
+        assertEquals(bindings.containsKey(parameter), result.contains("?" + parameter));
+        return bindings.containsKey(parameter);
+    }
+
+    @Test
+    void parameterInBasicGraphPatternIsBound() {
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p ?y . }", "y"));
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p ?y . }", "p"));
+    }
+
+    @Test
+    void projectedParameterIsNotBound() {
+        assertFalse(isBound("SELECT ?x ?y WHERE { ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void parametersOfQueryProjectingAllVariablesAreNotBound() {
+        assertFalse(isBound("SELECT DISTINCT * WHERE { ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void wildcardInAggregateDoesNotPreventBinding() {
+        assertTrue(isBound("SELECT (COUNT(*) AS ?count) WHERE { ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void parameterInLimitOrOffsetIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p ?y . } LIMIT ?limit", "limit"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p ?y . } OFFSET ?offset", "offset"));
+    }
+
+    @Test
+    void parameterInValuesClauseIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { VALUES ?z { ?y } ?x ?p ?z . }", "y"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p ?z . } VALUES (?z ?w) { (?y 1) }", "y"));
+        assertTrue(isBound("SELECT ?x WHERE { VALUES ?z { 1 } ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void parameterInPropertyPathIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p/<http://b> ?z . }", "p"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x <http://b> / ?p ?z . }", "p"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p | <http://b> ?z . }", "p"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p+ ?z . }", "p"));
+        assertFalse(isBound("SELECT ?x WHERE { ?x ^?p ?z . }", "p"));
+    }
+
+    @Test
+    void parameterAssignedByBindIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p ?z . BIND (?z AS ?y) }", "y"));
+    }
+
+    @Test
+    void parameterInSubqueryIsNotBound() {
+        final String query = "SELECT ?x WHERE { ?x ?p ?z . { SELECT ?z WHERE { ?z ?q ?y . } } }";
+        assertFalse(isBound(query, "y"));
+        assertFalse(isBound(query, "z"));
+    }
+
+    @Test
+    void parameterAfterSubqueryIsBound() {
+        assertTrue(isBound("SELECT ?x WHERE { { SELECT ?x WHERE { ?x ?q ?z . } LIMIT 10 } ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void subqueryProjectingAllVariablesDoesNotPreventBindingInEnclosingQuery() {
+        assertTrue(isBound("SELECT ?x WHERE { { SELECT * WHERE { ?x ?q ?z . } } ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void keywordsInCommentsAreIgnored() {
+        assertTrue(isBound("SELECT ?x # LIMIT VALUES { SELECT *\nWHERE { ?x ?p ?y . }", "y"));
+        assertTrue(isBound("# SELECT *\nSELECT ?x WHERE { ?x ?p ?y . }", "y"));
+    }
+
+    @Test
+    void parameterInCommentIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { ?x ?p ?z . # ?y\n ?x ?q ?y . }", "y"));
+    }
+
+    @Test
+    void keywordsAndBracesInStringLiteralsAreIgnored() {
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p \"LIMIT {\" . ?x ?q ?y . }", "y"));
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p 'VALUES { ' . ?x ?q ?y . }", "y"));
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p \"\"\"SELECT ?a\nWHERE {\"\"\" . ?x ?q ?y . }", "y"));
+    }
+
+    @Test
+    void escapedQuoteDoesNotEndStringLiteral() {
+        assertTrue(isBound("SELECT ?x WHERE { ?x ?p \"a \\\" SELECT\" . ?x ?q ?y . }", "y"));
+    }
+
+    @Test
+    void keywordsInIrisAndPrefixedNamesAreIgnored() {
+        assertTrue(isBound("PREFIX limit: <http://example.org/select#> SELECT ?x WHERE { ?x limit:values ?y . }", "y"));
+        assertTrue(isBound("SELECT ?x WHERE { ?x <http://example.org/values#limit> ?y . }", "y"));
+    }
+
+    @Test
+    void parameterInIriIsNotBound() {
+        assertFalse(isBound("SELECT ?x WHERE { ?x <http://example.org/page?y> ?z . }", "y"));
+    }
+}
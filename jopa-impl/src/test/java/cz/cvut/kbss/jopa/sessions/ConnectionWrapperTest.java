@@ -22,6 +22,7 @@ import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -63,6 +64,18 @@ class ConnectionWrapperTest {
         verify(connectionMock).unwrap(Object.class);
     }
 
+    @Test
+    void createStatementWritesPendingChangesOfUnitOfWorkBeforeCreatingStatement() throws Exception {
+        final UnitOfWorkImpl uowMock = mock(UnitOfWorkImpl.class);
+        final Field uowField = ConnectionWrapper.class.getDeclaredField("uow");
+        uowField.setAccessible(true);
+        uowField.set(connectionWrapper, uowMock);
+        connectionWrapper.createStatement();
+        final InOrder inOrder = inOrder(uowMock, connectionMock);
+        inOrder.verify(uowMock).writePendingChanges();
+        inOrder.verify(connectionMock).createStatement();
+    }
+
     @Test
     void throwsPersistenceExceptionWhenUnwrapCallFailsOnConnection() throws Exception {
         when(connectionMock.unwrap(Object.class)).thenThrow(new OntoDriverException());
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassD;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures how registration of interlinked entities in a {@link UnitOfWorkImpl} scales with the size of the
+ * persistence context.
+ * <p>
+ * Each registered {@link OWLClassD} references an {@link OWLClassA}, so cloning it requires a clone-for-original lookup
+ * of the referenced instance. Registration time per entity should stay roughly constant as the number of registered
+ * entities grows.
+ * <p>
+ * Note that the metamodel is mocked, so absolute numbers are dominated by the mocking overhead, only the trend is
+ * relevant. The benchmark is not part of the regular build, run it with {@code mvn test
+ * -Dtest=UnitOfWorkRegistrationBenchmark -Djopa.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "jopa.benchmark", matches = "true")
+class UnitOfWorkRegistrationBenchmark extends UnitOfWorkTestBase {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UnitOfWorkRegistrationBenchmark.class);
+
+    private static final int[] SIZES = {500, 1000, 2000, 4000, 8000};
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Maximum allowed ratio of per-entity registration time of the largest and the smallest persistence context.
+     * <p>
+     * Linear lookup would make the ratio grow with the size ratio (16), constant-time lookup keeps it close to one.
+     */
+    private static final double MAX_SLOWDOWN = 4.0;
+
+    @Test
+    void registrationTimePerEntityDoesNotGrowWithPersistenceContextSize() throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(SIZES[0]);
+        }
+        final double[] perEntity = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            final long duration = run(SIZES[i]);
+            perEntity[i] = duration / 1000.0 / SIZES[i];
+            LOG.info("Registered {} entities in {} ms ({} us/entity).", SIZES[i],
+                    TimeUnit.NANOSECONDS.toMillis(duration), String.format("%.2f", perEntity[i]));
+        }
+        final double slowdown = perEntity[SIZES.length - 1] / perEntity[0];
+        assertTrue(slowdown <= MAX_SLOWDOWN, "Per-entity registration time grew " + slowdown + " times.");
+    }
+
+    private long run(int size) throws Exception {
+        setUp();
+        final List<OWLClassD> originals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final OWLClassD d = new OWLClassD(Generators.createIndividualIdentifier());
+            d.setOwlClassA(new OWLClassA(Generators.createIndividualIdentifier()));
+            originals.add(d);
+        }
+        final long start = System.nanoTime();
+        for (OWLClassD d : originals) {
+            uow.registerExistingObject(d, descriptor);
+            uow.registerExistingObject(d.getOwlClassA(), descriptor);
+        }
+        final long duration = System.nanoTime() - start;
+        uow.clear();
+        return duration;
+    }
+}
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.sessions;
 
+import cz.cvut.kbss.jopa.adapters.IndirectCollection;
 import cz.cvut.kbss.jopa.adapters.IndirectMap;
 import cz.cvut.kbss.jopa.adapters.IndirectSet;
 import cz.cvut.kbss.jopa.environment.*;
@@ -24,6 +25,7 @@ import cz.cvut.kbss.jopa.exceptions.EntityNotFoundException;
 import cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.EntityManagerImpl.State;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
@@ -105,6 +107,29 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         verify(storageMock, never()).find(any());
     }
 
+    @Test
+    void readObjectsLoadsUnmanagedObjectsFromStorageInOneBatch() {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        final OWLClassA another = new OWLClassA(Generators.createIndividualIdentifier());
+        final URI unknown = Generators.createIndividualIdentifier();
+        final List<LoadingParameters<OWLClassA>> expectedParams = Arrays.asList(
+                new LoadingParameters<>(OWLClassA.class, another.getUri(), descriptor),
+                new LoadingParameters<>(OWLClassA.class, unknown, descriptor));
+        when(storageMock.findAll(expectedParams)).thenReturn(Arrays.asList(another, null));
+
+        final List<OWLClassA> result =
+                uow.readObjects(OWLClassA.class, Arrays.asList(entityA.getUri(), another.getUri(), unknown),
+                        descriptor);
+        assertEquals(3, result.size());
+        assertSame(clone, result.get(0));
+        assertNotNull(result.get(1));
+        assertEquals(another.getUri(), result.get(1).getUri());
+        assertTrue(uow.contains(result.get(1)));
+        assertNull(result.get(2));
+        verify(storageMock).findAll(expectedParams);
+        verify(storageMock, never()).find(any());
+    }
+
     @Test
     void testCalculateNewObjects() {
         uow.registerNewObject(entityA, descriptor);
@@ -382,6 +407,23 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         assertFalse(uow.contains(managed));
     }
 
+    @Test
+    void getCloneForOriginalReturnsCloneOfRegisteredOriginal() {
+        final OWLClassA managed = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        assertSame(managed, uow.getCloneForOriginal(entityA));
+        assertTrue(uow.containsOriginal(entityA));
+        assertNull(uow.getCloneForOriginal(entityB));
+        assertNull(uow.getCloneForOriginal(null));
+    }
+
+    @Test
+    void unregisterObjectRemovesItFromOriginalToCloneMapping() {
+        final OWLClassA managed = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.unregisterObject(managed);
+        assertNull(uow.getCloneForOriginal(entityA));
+        assertFalse(uow.containsOriginal(entityA));
+    }
+
     @Test
     void unregisterObjectRemovesItFromCloneBuilderCache() {
         final OWLClassA managed = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
@@ -647,6 +689,7 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
 
         uow.clear();
         assertTrue(getMap("cloneToOriginals") == null || getMap("cloneToOriginals").isEmpty());
+        assertTrue(getMap("originalsToClones") == null || getMap("originalsToClones").isEmpty());
         assertTrue(getMap("keysToClones") == null || getMap("keysToClones").isEmpty());
         assertTrue(getMap("deletedObjects") == null || getMap("deletedObjects").isEmpty());
         assertTrue(getMap("newObjectsCloneToOriginal") == null || getMap("newObjectsCloneToOriginal").isEmpty());
@@ -1043,6 +1086,78 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         assertTrue(changeSet.getExistingObjectsChanges().isEmpty());
     }
 
+    @Test
+    void attributeChangedDefersStorageUpdateUntilCommitWhenAttributeUpdatesAreDeferred() throws Exception {
+        final UnitOfWorkImpl deferringUow = createDeferringUnitOfWork();
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+        final OWLClassA clone = (OWLClassA) deferringUow.registerExistingObject(entityA, descriptor);
+        final Field strField = OWLClassA.getStrAttField();
+        for (int i = 0; i < 5; i++) {
+            clone.setStringAttribute("update" + i);
+            deferringUow.attributeChanged(clone, strField);
+        }
+        verify(storageMock, never()).merge(any(), any(), any());
+        assertTrue(deferringUow.hasChanges());
+
+        deferringUow.commit();
+        verify(storageMock).merge(clone, strField, descriptor);
+        verify(storageMock).commit();
+    }
+
+    @Test
+    void writePendingChangesRegistersChangeRecordWithLatestAttributeValue() throws Exception {
+        final UnitOfWorkImpl deferringUow = createDeferringUnitOfWork();
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+        final OWLClassA clone = (OWLClassA) deferringUow.registerExistingObject(entityA, descriptor);
+        clone.setStringAttribute("first");
+        deferringUow.attributeChanged(clone, OWLClassA.getStrAttField());
+        clone.setStringAttribute("second");
+        deferringUow.attributeChanged(clone, OWLClassA.getStrAttField());
+
+        deferringUow.writePendingChanges();
+        verify(storageMock).merge(clone, OWLClassA.getStrAttField(), descriptor);
+        final ObjectChangeSet changeSet = deferringUow.getUowChangeSet().getExistingObjectChanges(entityA);
+        assertNotNull(changeSet);
+        assertEquals(1, changeSet.getChanges().size());
+        assertEquals("second", changeSet.getChanges().iterator().next().getNewValue());
+        deferringUow.writePendingChanges();
+        verify(storageMock).merge(any(), any(), any());
+    }
+
+    @Test
+    void removeObjectDiscardsPendingAttributeChangesWhenAttributeUpdatesAreDeferred() throws Exception {
+        final UnitOfWorkImpl deferringUow = createDeferringUnitOfWork();
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+        final OWLClassA clone = (OWLClassA) deferringUow.registerExistingObject(entityA, descriptor);
+        clone.setStringAttribute("update");
+        deferringUow.attributeChanged(clone, OWLClassA.getStrAttField());
+        deferringUow.removeObject(clone);
+
+        deferringUow.writePendingChanges();
+        verify(storageMock, never()).merge(any(), any(), any());
+    }
+
+    @Test
+    void attributeChangedInvalidatesDeltaOfCollectionReplacedBySetterWhenAttributeUpdatesAreDeferred()
+            throws Exception {
+        final UnitOfWorkImpl deferringUow = createDeferringUnitOfWork();
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+        final OWLClassA clone = (OWLClassA) deferringUow.registerExistingObject(entityA, descriptor);
+        clone.setTypes(new HashSet<>(Collections.singleton(Generators.createIndividualIdentifier().toString())));
+        deferringUow.attributeChanged(clone, OWLClassA.getTypesField());
+
+        assertTrue(clone.getTypes() instanceof IndirectCollection);
+        assertFalse(((IndirectCollection<?>) clone.getTypes()).getDelta().isComplete());
+    }
+
+    private UnitOfWorkImpl createDeferringUnitOfWork() {
+        serverSessionStub.getConfiguration()
+                         .set(JOPAPersistenceProperties.DEFER_ATTRIBUTE_UPDATES, Boolean.TRUE.toString());
+        final UnitOfWorkImpl result = new UnitOfWorkImpl(serverSessionStub);
+        result.setEntityManager(emMock);
+        return result;
+    }
+
     @Test
     void getManagedOriginalThrowsEntityExistsExceptionWhenIndividualIsManagedAsDifferentType() {
         when(transactionMock.isActive()).thenReturn(true);
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.sessions.CacheStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentCacheManagerTest extends AbstractCacheManagerTest<ConcurrentCacheManager> {
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        this.manager = new ConcurrentCacheManager();
+    }
+
+    @Override
+    Map<?, ?> extractDescriptors() throws Exception {
+        final Field sectionsField = ConcurrentCacheManager.class.getDeclaredField("sections");
+        sectionsField.setAccessible(true);
+        final Map<?, ?> sections = (Map<?, ?>) sectionsField.get(manager);
+        final Map<Object, Descriptor> descriptors = new IdentityHashMap<>();
+        for (Object section : sections.values()) {
+            final ConcurrentCacheManager.ContextSection contextSection = (ConcurrentCacheManager.ContextSection) section;
+            contextSection.entries.values().forEach(e -> descriptors.put(e.entity, e.descriptor));
+        }
+        return descriptors;
+    }
+
+    @Test
+    public void initializationUsesDefaultCapacityWhenNoneIsConfigured() {
+        assertEquals(LruCacheManager.DEFAULT_CAPACITY, manager.getCapacity());
+    }
+
+    @Test
+    public void initializationUsesConfiguredCapacity() {
+        this.manager = new ConcurrentCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, "117"));
+        assertEquals(117, manager.getCapacity());
+    }
+
+    @Test
+    public void addEvictsEntriesWhenCapacityIsExceeded() {
+        final int capacity = 20;
+        this.manager = new ConcurrentCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        for (int i = 0; i < capacity * 5; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            manager.add(a.getUri(), a, descriptor(i % 2 == 0 ? CONTEXT_ONE : null));
+            assertTrue(manager.size() <= capacity);
+        }
+    }
+
+    @Test
+    public void evictionRemovesLeastRecentlyUsedEntries() throws Exception {
+        final int capacity = 10;
+        this.manager = new ConcurrentCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        final Descriptor descriptor = descriptor(null);
+        final List<OWLClassA> instances = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            instances.add(a);
+            manager.add(a.getUri(), a, descriptor);
+        }
+        // Make sure access times differ
+        Thread.sleep(1);
+        final OWLClassA recentlyUsed = instances.get(0);
+        assertNotNull(manager.get(OWLClassA.class, recentlyUsed.getUri(), descriptor));
+        Thread.sleep(1);
+        final OWLClassA added = new OWLClassA(Generators.createIndividualIdentifier());
+        manager.add(added.getUri(), added, descriptor);
+
+        assertTrue(manager.contains(OWLClassA.class, recentlyUsed.getUri(), descriptor));
+        assertTrue(manager.contains(OWLClassA.class, added.getUri(), descriptor));
+        assertFalse(manager.contains(OWLClassA.class, instances.get(1).getUri(), descriptor));
+    }
+
+    @Test
+    public void concurrentReadersAndWritersDoNotCorruptCache() throws Exception {
+        final int capacity = 100;
+        this.manager = new ConcurrentCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        final List<OWLClassA> instances = new ArrayList<>();
+        for (int i = 0; i < capacity * 2; i++) {
+            instances.add(new OWLClassA(Generators.createIndividualIdentifier()));
+        }
+        final int threadCount = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        final OWLClassA a = instances.get((i + offset) % instances.size());
+                        if (i % 3 == 0) {
+                            manager.add(a.getUri(), a, descriptor);
+                        } else {
+                            final OWLClassA result = manager.get(OWLClassA.class, a.getUri(), descriptor);
+                            assertTrue(result == null || result == a);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(manager.size() <= capacity + threadCount);
+    }
+
+    @Test
+    public void concurrentAdditionsAndContextEvictionsKeepWeightConsistent() throws Exception {
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        final int writerCount = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(writerCount + 1);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final CountDownLatch writersDone = new CountDownLatch(writerCount);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < writerCount; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        for (int i = 0; i < 20000; i++) {
+                            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+                            manager.add(a.getUri(), a, descriptor);
+                        }
+                    } finally {
+                        writersDone.countDown();
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (writersDone.getCount() > 0) {
+                    manager.evict(CONTEXT_ONE);
+                }
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Each entry weighs one
+        assertEquals(manager.size(), manager.getWeight());
+        manager.evictAll();
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Test
+    public void defaultContextEntriesAreNotAffectedByEvictionOfAnyNamedContext() {
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        final Descriptor descriptor = descriptor(null);
+        manager.add(a.getUri(), a, descriptor);
+
+        manager.evict(URI.create("http://defaultContext"));
+        assertTrue(manager.contains(OWLClassA.class, a.getUri(), descriptor));
+        manager.evict((URI) null);
+        assertFalse(manager.contains(OWLClassA.class, a.getUri(), descriptor));
+    }
+
+    @Test
+    public void cacheFactoryCreatesConcurrentCacheWhenConfigured() {
+        final CacheManager result = CacheFactory.createCache(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_TYPE, "concurrent"));
+        assertTrue(result instanceof ConcurrentCacheManager);
+    }
+
+    @Test
+    public void statisticsCountHitsAndMisses() {
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        manager.add(testA.getUri(), testA, descriptor);
+        assertNotNull(manager.get(OWLClassA.class, testA.getUri(), descriptor));
+        assertNotNull(manager.get(OWLClassA.class, testA.getUri(), descriptor));
+        assertNull(manager.get(OWLClassA.class, Generators.createIndividualIdentifier(), descriptor));
+        assertFalse(manager.contains(OWLClassA.class, testA.getUri(), descriptor(CONTEXT_TWO)));
+
+        final CacheStatistics statistics = manager.getStatistics();
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(0.5, statistics.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void statisticsCountEvictionsDueToCapacity() {
+        final int capacity = 10;
+        this.manager = new ConcurrentCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        for (int i = 0; i < capacity + 1; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            manager.add(a.getUri(), a, descriptor(null));
+        }
+        manager.evictAll();
+        assertEquals(capacity + 1 - manager.getCapacity() + manager.getCapacity() / 10,
+                manager.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void statisticsRecordLoadTime() {
+        manager.recordLoad(100L);
+        manager.recordLoad(300L);
+        final CacheStatistics statistics = manager.getStatistics();
+        assertEquals(2, statistics.getLoadCount());
+        assertEquals(400L, statistics.getTotalLoadTime());
+        assertEquals(200.0, statistics.getAverageLoadTime(), 0.001);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+public class WeightedCacheManagerTest extends AbstractCacheManagerTest<WeightedCacheManager> {
+
+    @Mock
+    private MetamodelImpl metamodelMock;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        MockitoAnnotations.initMocks(this);
+        new MetamodelMocks().setMocks(metamodelMock);
+        when(metamodelMock.isEntityType(OWLClassA.class)).thenReturn(true);
+        this.manager = new WeightedCacheManager(Collections.emptyMap(), metamodelMock);
+    }
+
+    @Override
+    Map<?, ?> extractDescriptors() throws Exception {
+        final Field sectionsField = ConcurrentCacheManager.class.getDeclaredField("sections");
+        sectionsField.setAccessible(true);
+        final Map<?, ?> sections = (Map<?, ?>) sectionsField.get(manager);
+        final Map<Object, Descriptor> descriptors = new IdentityHashMap<>();
+        for (Object section : sections.values()) {
+            final ConcurrentCacheManager.ContextSection contextSection = (ConcurrentCacheManager.ContextSection) section;
+            contextSection.entries.values().forEach(e -> descriptors.put(e.entity, e.descriptor));
+        }
+        return descriptors;
+    }
+
+    @Test
+    public void initializationUsesDefaultMaxWeightWhenNoneIsConfigured() {
+        assertEquals(WeightedCacheManager.DEFAULT_MAX_WEIGHT, manager.getMaxWeight());
+    }
+
+    @Test
+    public void initializationUsesDefaultMaxWeightWhenConfiguredValueIsInvalid() {
+        this.manager = new WeightedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_MAX_WEIGHT, "-1"), metamodelMock);
+        assertEquals(WeightedCacheManager.DEFAULT_MAX_WEIGHT, manager.getMaxWeight());
+    }
+
+    @Test
+    public void entityWeightGrowsWithSizeOfItsCollections() {
+        final EntityWeigher weigher = new EntityWeigher(metamodelMock);
+        final OWLClassA small = new OWLClassA(Generators.createIndividualIdentifier());
+        final OWLClassA large = new OWLClassA(Generators.createIndividualIdentifier());
+        large.setTypes(generateTypes(1000));
+        assertTrue(weigher.applyAsLong(large) > weigher.applyAsLong(small) + 1000 *
+                EntityWeigher.COLLECTION_ELEMENT_WEIGHT);
+    }
+
+    private static Set<String> generateTypes(int count) {
+        final Set<String> types = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            types.add(Generators.createIndividualIdentifier().toString());
+        }
+        return types;
+    }
+
+    @Test
+    public void addTracksTotalWeightOfCachedEntities() {
+        final EntityWeigher weigher = new EntityWeigher(metamodelMock);
+        manager.add(testA.getUri(), testA, descriptor(CONTEXT_ONE));
+        assertEquals(weigher.applyAsLong(testA), manager.getWeight());
+        manager.evict(OWLClassA.class, testA.getUri(), CONTEXT_ONE);
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Test
+    public void addingLargeEntityEvictsLeastRecentlyUsedEntitiesToFitMaxWeight() {
+        final EntityWeigher weigher = new EntityWeigher(metamodelMock);
+        final OWLClassA large = new OWLClassA(Generators.createIndividualIdentifier());
+        large.setTypes(generateTypes(100));
+        final long maxWeight = weigher.applyAsLong(large) * 2;
+        this.manager = new WeightedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_MAX_WEIGHT, Long.toString(maxWeight)),
+                metamodelMock);
+        final List<OWLClassA> small = new ArrayList<>();
+        long smallWeight = 0;
+        while (smallWeight < maxWeight - weigher.applyAsLong(large) / 2) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            small.add(a);
+            smallWeight += weigher.applyAsLong(a);
+            manager.add(a.getUri(), a, descriptor(null));
+        }
+        assertEquals(small.size(), manager.size());
+
+        manager.add(large.getUri(), large, descriptor(null));
+        assertTrue(manager.contains(OWLClassA.class, large.getUri(), descriptor(null)));
+        assertTrue(manager.getWeight() <= maxWeight);
+        assertTrue(manager.size() < small.size() + 1);
+        assertTrue(manager.getStatistics().getEvictionCount() > 0);
+    }
+
+    @Test
+    public void addDoesNotCacheEntityHeavierThanMaxWeight() {
+        this.manager = new WeightedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_MAX_WEIGHT, "100"), metamodelMock);
+        final OWLClassA large = new OWLClassA(Generators.createIndividualIdentifier());
+        large.setTypes(generateTypes(100));
+        manager.add(large.getUri(), large, descriptor(null));
+        assertFalse(manager.contains(OWLClassA.class, large.getUri(), descriptor(null)));
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Test
+    public void cacheFactoryCreatesWeightedCacheWhenConfigured() {
+        final CacheManager result = CacheFactory.createCache(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_TYPE, "weighted"), metamodelMock);
+        assertTrue(result instanceof WeightedCacheManager);
+    }
+}
@@ -35,6 +35,7 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.jupiter.api.Assertions.*;
 
 public abstract class QueryRunner extends BaseQueryRunner {
@@ -124,6 +125,21 @@ public abstract class QueryRunner extends BaseQueryRunner {
         }
     }
 
+    @Test
+    void selectAllDoesNotReturnValuesOfParameters() {
+        final OWLClassA a = QueryTestEnvironment.getData(OWLClassA.class).get(0);
+        final Query q = getEntityManager().createNativeQuery("SELECT * WHERE { ?instance a ?x . }");
+        q.setParameter("instance", a.getUri());
+
+        final List res = q.getResultList();
+        assertFalse(res.isEmpty());
+        // Only the unbound variable is projected, so the rows are single values instead of arrays
+        for (Object row : res) {
+            assertThat(row, instanceOf(URI.class));
+        }
+        assertTrue(res.contains(URI.create(a.getClass().getAnnotation(OWLClass.class).iri())));
+    }
+
     @Test
     void testSetMaxResults() {
         final Query q = getEntityManager().createNativeQuery(SELECT_E_BY_TYPE);
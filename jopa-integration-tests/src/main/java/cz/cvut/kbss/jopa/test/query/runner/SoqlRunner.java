@@ -90,6 +90,21 @@ public abstract class SoqlRunner extends BaseQueryRunner {
         assertEquals(expected.getOwlClassA().getUri(), result.getOwlClassA().getUri());
     }
 
+    @Test
+    public void testFindAllWithFetchJoinLoadsReferencedEntities() {
+        final List<OWLClassD> expected = QueryTestEnvironment.getData(OWLClassD.class);
+        final List<OWLClassD> result = getEntityManager()
+                .createQuery("SELECT d FROM OWLClassD d JOIN FETCH d.owlClassA", OWLClassD.class).getResultList();
+        assertEquals(expected.size(), result.size());
+        for (OWLClassD d : result) {
+            final OWLClassD exp = expected.stream().filter(dd -> dd.getUri().equals(d.getUri())).findAny()
+                                          .orElseThrow(AssertionError::new);
+            assertNotNull(d.getOwlClassA());
+            assertEquals(exp.getOwlClassA().getUri(), d.getOwlClassA().getUri());
+            assertEquals(exp.getOwlClassA().getStringAttribute(), d.getOwlClassA().getStringAttribute());
+        }
+    }
+
     @Test
     public void testFindByConjunctionOfAttributes() {
         final OWLClassT sample = Generators.getRandomItem(QueryTestEnvironment.getData(OWLClassT.class));
@@ -43,7 +43,7 @@ class BugTest extends IntegrationTestBase {
     @Test
     void hashCodeWithAttributeDoesNotCauseInfiniteLoop() throws Exception {
         final URI uri = Generators.generateUri();
-        when(connectionMock.find(any())).thenReturn(initAxiomsForR(uri));
+        when(connectionMock.find(any(AxiomDescriptor.class))).thenReturn(initAxiomsForR(uri));
 
         final OWLClassR r = em.find(OWLClassR.class, uri);
         assertNotEquals(0, r.hashCode());
@@ -18,6 +18,7 @@ import cz.cvut.kbss.jopa.model.query.Query;
 import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.jopa.test.OWLClassA;
 import cz.cvut.kbss.jopa.test.Vocabulary;
+import cz.cvut.kbss.ontodriver.PreparedStatement;
 import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.Statement;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +38,8 @@ public class NamedQueryTest extends IntegrationTestBase {
     @Mock
     private Statement statementMock;
     @Mock
+    private PreparedStatement preparedStatementMock;
+    @Mock
     private ResultSet resultSetMock;
 
     @BeforeEach
@@ -55,13 +58,15 @@ public class NamedQueryTest extends IntegrationTestBase {
     }
 
     @Test
-    void testNamedNativeQueryWithParameterReplace() throws Exception {
-        when(statementMock.executeQuery(anyString())).thenReturn(resultSetMock);
+    void testNamedNativeQueryWithParameterBinding() throws Exception {
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
         final Query query = em.createNamedQuery("OWLClassA.findByString");
         assertNotNull(query);
         query.setParameter("str", "Test", "en").getResultList();
-        verify(statementMock)
-                .executeQuery("SELECT ?x WHERE { ?x <" + Vocabulary.P_A_STRING_ATTRIBUTE + "> \"Test\"@en . }");
+        verify(connectionMock)
+                .prepareStatement("SELECT ?x WHERE { ?x <" + Vocabulary.P_A_STRING_ATTRIBUTE + "> ?str . }");
+        verify(preparedStatementMock).setObject("str", "\"Test\"@en");
     }
 
     @Test
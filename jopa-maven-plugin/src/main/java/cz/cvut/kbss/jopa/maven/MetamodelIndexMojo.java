@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven;
+
+import cz.cvut.kbss.jopa.loaders.MetamodelIndex;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates index of persistence unit classes, so that JOPA does not need to scan the classpath at startup.
+ * <p>
+ * The compiled classes of the project are inspected and the relevant ones (entities and classes declaring result set
+ * mappings) are listed in {@link MetamodelIndex#LOCATION} in the project output directory.
+ * <p>
+ * JOPA uses the index only when {@link cz.cvut.kbss.jopa.model.JOPAPersistenceProperties#USE_METAMODEL_INDEX} is
+ * enabled.
+ */
+@Mojo(name = "generate-metamodel-index", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class MetamodelIndexMojo extends AbstractMojo {
+
+    private static final String PACKAGE_PARAM = "package";
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    /**
+     * Package whose classes should be indexed. If not specified, all the project classes are inspected.
+     */
+    @Parameter(alias = PACKAGE_PARAM)
+    private String pPackage;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!classesDirectory.isDirectory()) {
+            getLog().info("No compiled classes found, skipping metamodel index generation.");
+            return;
+        }
+        try (final URLClassLoader classLoader = createClassLoader()) {
+            final List<String> indexed = new ArrayList<>();
+            for (String className : findClassNames()) {
+                if (isIndexed(className, classLoader)) {
+                    indexed.add(className);
+                }
+            }
+            final Path target = classesDirectory.toPath().resolve(MetamodelIndex.LOCATION);
+            MetamodelIndex.write(indexed, target);
+            getLog().info("Metamodel index of " + indexed.size() + " classes written to " + target + ".");
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to generate metamodel index.", e);
+        }
+    }
+
+    /**
+     * The plugin class loader is the parent, so that the JOPA annotations of the inspected classes are the ones the
+     * index uses to recognize them.
+     */
+    private URLClassLoader createClassLoader() throws MalformedURLException {
+        final List<URL> urls = new ArrayList<>(classpathElements.size() + 1);
+        urls.add(classesDirectory.toURI().toURL());
+        for (String element : classpathElements) {
+            urls.add(new File(element).toURI().toURL());
+        }
+        return new URLClassLoader(urls.toArray(new URL[0]), getClass().getClassLoader());
+    }
+
+    private List<String> findClassNames() throws IOException {
+        final Path root = classesDirectory.toPath();
+        try (final Stream<Path> files = Files.walk(root)) {
+            return files.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX))
+                        .map(p -> toClassName(root.relativize(p)))
+                        .filter(this::shouldInspect)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private static String toClassName(Path classFile) {
+        final String name = classFile.toString().replace(File.separatorChar, '.');
+        return name.substring(0, name.length() - CLASS_FILE_SUFFIX.length());
+    }
+
+    private boolean shouldInspect(String className) {
+        if (className.endsWith("package-info") || className.endsWith("module-info")) {
+            return false;
+        }
+        return pPackage == null || className.startsWith(pPackage + '.');
+    }
+
+    private boolean isIndexed(String className, ClassLoader classLoader) {
+        try {
+            return MetamodelIndex.isIndexed(Class.forName(className, false, classLoader));
+        } catch (ClassNotFoundException | LinkageError e) {
+            getLog().debug("Unable to load class " + className + ", it will not be indexed.", e);
+            return false;
+        }
+    }
+}
@@ -35,6 +35,8 @@ public class OWL2JavaMojo extends AbstractMojo {
     private static final String IGNORE_FAILED_IMPORTS_PARAM = "ignore-failed-imports";
     private static final String PROPERTIES_TYPE = "properties-type";
     private static final String GENERATE_JAVADOC = "javadoc-from-rdfs-comment";
+    private static final String USE_CACHE = "use-cache";
+    private static final String CACHE_FILE = "cache-file";
 
     @Parameter(alias = MAPPING_FILE_PARAM)
     private String pMappingFile;
@@ -69,6 +71,20 @@ public class OWL2JavaMojo extends AbstractMojo {
     @Parameter(alias = GENERATE_JAVADOC, defaultValue = "true")
     private boolean generateJavadoc;
 
+    /**
+     * Whether to skip generation when neither the ontology nor the configuration have changed since the last run and
+     * the previously generated files are intact.
+     */
+    @Parameter(alias = USE_CACHE, defaultValue = "false")
+    private boolean pUseCache;
+
+    /**
+     * File storing digest of the ontology and configuration of the last generation. Used only when {@code use-cache}
+     * is enabled.
+     */
+    @Parameter(alias = CACHE_FILE, defaultValue = "${project.build.directory}/owl2java/generation-cache")
+    private String pCacheFile;
+
     @Override
     public void execute() {
         OWL2JavaTransformer owl2java = new OWL2JavaTransformer();
@@ -98,6 +114,10 @@ public class OWL2JavaMojo extends AbstractMojo {
             builder.propertiesType(PropertiesType.valueOf(pPropertiesType));
         }
 
+        if (pUseCache) {
+            builder.cacheFile(pCacheFile);
+        }
+
         final TransformationConfiguration config =
                 builder.packageName(pPackage).targetDir(pOutputDirectory).addOwlapiIris(pWithOWLAPI)
                        .generateJavadoc(generateJavadoc).build();
@@ -123,5 +143,7 @@ public class OWL2JavaMojo extends AbstractMojo {
         getLog().info(IGNORE_FAILED_IMPORTS_PARAM + ": " + ignoreFailedImports);
         getLog().info(PROPERTIES_TYPE + ": " + pPropertiesType);
         getLog().info(GENERATE_JAVADOC + ": " + generateJavadoc);
+        getLog().info(USE_CACHE + ": " + pUseCache);
+        getLog().info(CACHE_FILE + ": " + pCacheFile);
     }
 }
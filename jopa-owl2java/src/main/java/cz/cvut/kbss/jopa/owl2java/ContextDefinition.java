@@ -43,9 +43,7 @@ class ContextDefinition {
 
     void parse() {
         final IntegrityConstraintParser parser = new IntegrityConstraintParser();
-        for (final OWLAxiom a : axioms) {
-            a.accept(parser);
-        }
+        parser.parse(axioms);
         this.set = parser.getClassIntegrityConstraintSet();
     }
 
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owl2java;
+
+import cz.cvut.kbss.jopa.owl2java.cli.Option;
+import cz.cvut.kbss.jopa.owl2java.config.TransformationConfiguration;
+import cz.cvut.kbss.jopa.owl2java.exception.OWL2JavaException;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Allows to skip generation when neither the ontology nor the configuration have changed since the last run.
+ * <p>
+ * A digest of the ontology axioms and the configuration is stored in the cache file configured by {@link
+ * Option#CACHE_FILE} after a successful generation, together with digests of the generated files. The next run
+ * compares the digest with the stored one and verifies that the generated files still exist and have not been
+ * modified.
+ */
+class GenerationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GenerationCache.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Path cacheFile;
+    private final Path targetDir;
+    private final String digest;
+
+    private GenerationCache(Path cacheFile, Path targetDir, String digest) {
+        this.cacheFile = cacheFile;
+        this.targetDir = targetDir;
+        this.digest = digest;
+    }
+
+    /**
+     * Creates cache for generation with the specified configuration.
+     *
+     * @param config    Generation configuration
+     * @param ontology  Ontology from which the code is generated
+     * @param operation Type of the generation (model or vocabulary only)
+     * @return Generation cache, empty if no cache file is configured
+     */
+    static Optional<GenerationCache> create(TransformationConfiguration config, OWLOntology ontology,
+                                            String operation) {
+        if (config.getCacheFile() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new GenerationCache(Paths.get(config.getCacheFile()),
+                Paths.get(config.getTargetDir()).toAbsolutePath(), computeDigest(config, ontology, operation)));
+    }
+
+    private static String computeDigest(TransformationConfiguration config, OWLOntology ontology, String operation) {
+        final MessageDigest md = createDigest();
+        final Object classNameAnnotation = config.getCliParams().valueOf(Option.JAVA_CLASSNAME_ANNOTATION.arg);
+        update(md, Constants.VERSION, operation, config.getContext(), config.getPackageName(), config.getTargetDir(),
+                config.shouldGenerateOwlapiIris(), config.shouldGenerateJavadoc(), config.getPropertiesType(),
+                classNameAnnotation);
+        // Ontology IRIs are used for constants in the vocabulary
+        ontology.getOWLOntologyManager().ontologies().map(o -> o.getOntologyID().toString()).sorted()
+                .forEachOrdered(id -> update(md, id));
+        // Sorting the string representations gives an ordering independent of the ontology loading order
+        final Iterator<String> axioms = ontology.axioms().parallel().map(Object::toString).sorted().iterator();
+        while (axioms.hasNext()) {
+            update(md, axioms.next());
+        }
+        return toHex(md.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new OWL2JavaException("Unable to compute generation cache digest.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static String fileDigest(Path file) throws IOException {
+        return toHex(createDigest().digest(Files.readAllBytes(file)));
+    }
+
+    private static void update(MessageDigest md, Object... values) {
+        for (Object value : values) {
+            md.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) '\n');
+        }
+    }
+
+    /**
+     * Checks whether the output generated by the last run corresponds to the current ontology and configuration.
+     * <p>
+     * This also requires that all the files generated by the last run exist and have not been modified.
+     *
+     * @return {@code true} if generation can be skipped, {@code false} otherwise
+     */
+    boolean isUpToDate() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return false;
+        }
+        try {
+            final List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !digest.equals(lines.get(0).trim())) {
+                return false;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                final int separator = line.indexOf(' ');
+                final Path file = targetDir.resolve(line.substring(separator + 1));
+                if (!Files.isRegularFile(file) || !fileDigest(file).equals(line.substring(0, separator))) {
+                    LOG.debug("Generated file {} is missing or has been modified.", file);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to read generation cache file {}.", cacheFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stores the digest of the current ontology and configuration in the cache file.
+     *
+     * @param generatedFiles Files written by the generation, their digests are stored as well
+     */
+    void store(List<File> generatedFiles) {
+        try {
+            final List<String> lines = new ArrayList<>(generatedFiles.size() + 1);
+            lines.add(digest);
+            for (File f : generatedFiles) {
+                final Path file = f.toPath().toAbsolutePath();
+                lines.add(fileDigest(file) + ' ' + targetDir.relativize(file));
+            }
+            final Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(cacheFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Unable to write generation cache file {}.", cacheFile, e);
+        }
+    }
+}
@@ -14,15 +14,23 @@
  */
 package cz.cvut.kbss.jopa.owl2java;
 
+import cz.cvut.kbss.jopa.ic.api.IntegrityConstraint;
 import cz.cvut.kbss.jopa.owl2java.exception.UnsupportedICException;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Parses integrity constraints from axioms.
+ * <p>
+ * Subclass axioms are not processed immediately on visit. They are grouped by their subclass and processed when the
+ * constraint set is requested, so that all property ranges are known at that point. Constraints of individual classes
+ * are then parsed in parallel.
+ */
 public class IntegrityConstraintParser implements OWLAxiomVisitor {
 
     private static final Logger LOG = LoggerFactory.getLogger(OWL2JavaTransformer.class);
@@ -32,6 +40,17 @@ public class IntegrityConstraintParser implements OWLAxiomVisitor {
     private Map<OWLObjectProperty, OWLClass> opRanges = new HashMap<>();
     private Map<OWLDataProperty, OWLDatatype> dpRanges = new HashMap<>();
 
+    private final Map<OWLClass, List<OWLClassExpression>> superClasses = new LinkedHashMap<>();
+
+    /**
+     * Parses integrity constraints from the specified axioms.
+     *
+     * @param axioms Axioms to parse
+     */
+    public void parse(Collection<? extends OWLAxiom> axioms) {
+        axioms.forEach(a -> a.accept(this));
+    }
+
     @Override
     public void visit(OWLAnnotationPropertyRangeAxiom axiom) {
         notSupported(axiom);
@@ -265,14 +284,10 @@ public class IntegrityConstraintParser implements OWLAxiomVisitor {
 
     @Override
     public void visit(OWLSubClassOfAxiom axiom) {
-        try {
-            if (!axiom.getSubClass().isAnonymous()) {
-                processSubClassConstraintCandidate(axiom.getSubClass().asOWLClass(),
-                        axiom.getSuperClass());
-            } else {
-                notSupported(axiom);
-            }
-        } catch (UnsupportedICException e) {
+        if (!axiom.getSubClass().isAnonymous()) {
+            superClasses.computeIfAbsent(axiom.getSubClass().asOWLClass(), k -> new ArrayList<>())
+                        .add(axiom.getSuperClass());
+        } else {
             notSupported(axiom);
         }
     }
@@ -312,8 +327,21 @@ public class IntegrityConstraintParser implements OWLAxiomVisitor {
         LOG.info("Ignoring Unsupported Axiom : {}", o);
     }
 
-    private void processSubClassConstraintCandidate(final OWLClass subjClass,
-                                                    final OWLClassExpression superClass) {
+    private List<IntegrityConstraint> processSubClassConstraintCandidates(final OWLClass subjClass,
+                                                                          final List<OWLClassExpression> supers) {
+        final List<IntegrityConstraint> result = new ArrayList<>();
+        for (OWLClassExpression superClass : supers) {
+            try {
+                result.addAll(processSubClassConstraintCandidate(subjClass, superClass));
+            } catch (UnsupportedICException e) {
+                notSupported(superClass);
+            }
+        }
+        return result;
+    }
+
+    private Set<IntegrityConstraint> processSubClassConstraintCandidate(final OWLClass subjClass,
+                                                                       final OWLClassExpression superClass) {
         final IntegrityConstraintClassParser icp = new IntegrityConstraintClassParser(subjClass);
         superClass.accept(icp);
 
@@ -329,10 +357,26 @@ public class IntegrityConstraintParser implements OWLAxiomVisitor {
                 OWLManager.getOWLDataFactory().getOWLDataAllValuesFrom(property, entry.getValue()).accept(icp);
             }
         }
-        icp.getIntegrityConstraints().forEach(ic -> integrityConstraintSet.addIntegrityConstraint(ic));
+        return icp.getIntegrityConstraints();
     }
 
+    /**
+     * Gets the set of parsed integrity constraints.
+     * <p>
+     * Pending subclass axioms are processed before the set is returned.
+     *
+     * @return Integrity constraint set
+     */
     public IntegrityConstraintSet getClassIntegrityConstraintSet() {
+        if (!superClasses.isEmpty()) {
+            final List<Map.Entry<OWLClass, List<OWLClassExpression>>> entries = new ArrayList<>(
+                    superClasses.entrySet());
+            // Constraints are added sequentially in the original order, the parallel stream keeps encounter order
+            final List<List<IntegrityConstraint>> constraints = entries.parallelStream().map(
+                    e -> processSubClassConstraintCandidates(e.getKey(), e.getValue())).collect(Collectors.toList());
+            constraints.forEach(ics -> ics.forEach(integrityConstraintSet::addIntegrityConstraint));
+            superClasses.clear();
+        }
         return integrityConstraintSet;
     }
 }
@@ -38,6 +38,7 @@ import java.io.Serializable;
 import java.text.Normalizer;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static cz.cvut.kbss.jopa.owl2java.Constants.*;
@@ -218,19 +219,11 @@ public class JavaTransformer {
 
     private void generateObjectProperty(final OWLOntology ontology,
                                         final JCodeModel cm,
-                                        final ContextDefinition context,
                                         final String pkg,
-                                        final OWLClass clazz,
                                         final JDefinedClass subj,
                                         final org.semanticweb.owlapi.model.OWLObjectProperty prop,
+                                        final ClassObjectPropertyComputer comp,
                                         final PropertiesType propertiesType) {
-        final ClassObjectPropertyComputer comp = new ClassObjectPropertyComputer(
-                clazz,
-                prop,
-                context.set,
-                ontology
-        );
-
         if (Card.NO != comp.getCard()) {
             JClass filler = ensureCreated(pkg, cm, comp.getFiller(), ontology, propertiesType);
             final String fieldName = validJavaIDForIRI(prop.getIRI());
@@ -281,17 +274,9 @@ public class JavaTransformer {
 
     private void generateDataProperty(final OWLOntology ontology,
                                       final JCodeModel cm,
-                                      final ContextDefinition context,
-                                      final OWLClass clazz,
                                       final JDefinedClass subj,
-                                      final org.semanticweb.owlapi.model.OWLDataProperty prop) {
-        final ClassDataPropertyComputer comp = new ClassDataPropertyComputer(
-                clazz,
-                prop,
-                context.set,
-                ontology
-        );
-
+                                      final org.semanticweb.owlapi.model.OWLDataProperty prop,
+                                      final ClassDataPropertyComputer comp) {
         if (Card.NO != comp.getCard()) {
 
             final JType obj = cm._ref(DatatypeTransformer.transformOWLType(comp.getFiller()));
@@ -335,6 +320,11 @@ public class JavaTransformer {
 
         context.classes.add(ontology.getOWLOntologyManager().getOWLDataFactory().getOWLThing());
 
+        // Property computation only reads the ontology and constraints, so it can run in parallel. The code model is
+        // not thread-safe, so classes are generated sequentially afterwards
+        final Map<OWLClass, ClassProperties> properties = context.classes.parallelStream().collect(
+                Collectors.toConcurrentMap(Function.identity(), cls -> computeProperties(ontology, context, cls)));
+
         for (final OWLClass clazz : context.classes) {
             LOG.info("  Generating class '{}'.", clazz);
             final JDefinedClass subj = ensureCreated(pkg, cm, clazz, ontology, propertiesType);
@@ -350,14 +340,39 @@ public class JavaTransformer {
 
             if (!extendClass.get())
             	addCommonClassFields(cm, subj, propertiesType);
-            for (final org.semanticweb.owlapi.model.OWLObjectProperty prop : context.objectProperties) {
-                generateObjectProperty(ontology, cm, context, pkg, clazz, subj, prop, propertiesType);
-            }
+            final ClassProperties classProperties = properties.get(clazz);
+            classProperties.objectProperties.forEach(
+                    (prop, comp) -> generateObjectProperty(ontology, cm, pkg, subj, prop, comp, propertiesType));
+            classProperties.dataProperties.forEach((prop, comp) -> generateDataProperty(ontology, cm, subj, prop, comp));
+        }
+    }
 
-            for (org.semanticweb.owlapi.model.OWLDataProperty prop : context.dataProperties) {
-                generateDataProperty(ontology, cm, context, clazz, subj, prop);
+    private static ClassProperties computeProperties(OWLOntology ontology, ContextDefinition context,
+                                                     OWLClass clazz) {
+        final ClassProperties result = new ClassProperties();
+        for (final org.semanticweb.owlapi.model.OWLObjectProperty prop : context.objectProperties) {
+            final ClassObjectPropertyComputer comp = new ClassObjectPropertyComputer(clazz, prop, context.set, ontology);
+            if (Card.NO != comp.getCard()) {
+                result.objectProperties.put(prop, comp);
             }
         }
+        for (final org.semanticweb.owlapi.model.OWLDataProperty prop : context.dataProperties) {
+            final ClassDataPropertyComputer comp = new ClassDataPropertyComputer(clazz, prop, context.set, ontology);
+            if (Card.NO != comp.getCard()) {
+                result.dataProperties.put(prop, comp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Properties of a class to generate, in the order in which they should be generated.
+     */
+    private static final class ClassProperties {
+        private final Map<org.semanticweb.owlapi.model.OWLObjectProperty, ClassObjectPropertyComputer>
+                objectProperties = new LinkedHashMap<>();
+        private final Map<org.semanticweb.owlapi.model.OWLDataProperty, ClassDataPropertyComputer> dataProperties =
+                new LinkedHashMap<>();
     }
 
     private void generateVocabulary(final OWLOntology o, final JCodeModel cm, ContextDefinition context) {
@@ -93,8 +93,6 @@ public class OWL2JavaTransformer {
     public void setOntology(final String owlOntologyName, final String mappingFile) {
         this.ontology = getWholeOntology(owlOntologyName, mappingFile);
 
-        LOG.debug("Parsing integrity constraints");
-
         ontology.axioms().forEach(a -> {
             defaultContext.addAxiom(a);
             for (final String icContextName : getContexts(a)) {
@@ -103,13 +101,7 @@ public class OWL2JavaTransformer {
             }
         });
         registerEntitiesInContexts();
-
-        defaultContext.parse();
-        for (final ContextDefinition ctx : contexts.values()) {
-            ctx.parse();
-        }
-
-        LOG.debug("Integrity constraints successfully parsed.");
+        // Integrity constraints are parsed only for the context which is actually transformed
     }
 
     private void registerEntitiesInContexts() {
@@ -173,9 +165,20 @@ public class OWL2JavaTransformer {
 
     public void transform(TransformationConfiguration transformConfig) {
         final ContextDefinition def = getValidContext(transformConfig);
+        final Optional<GenerationCache> cache = GenerationCache.create(transformConfig, ontology, "transform");
+        if (cache.isPresent() && cache.get().isUpToDate()) {
+            LOG.info("Ontology and configuration unchanged since the last transformation, skipping it.");
+            return;
+        }
+        if (def.set == null) {
+            LOG.debug("Parsing integrity constraints");
+            def.parse();
+            LOG.debug("Integrity constraints successfully parsed.");
+        }
         LOG.info("Transforming context ...");
         final ObjectModel result = new JavaTransformer(transformConfig).generateModel(ontology, def);
-        result.writeModel(transformConfig.getTargetDir());
+        final List<File> written = result.writeModel(transformConfig.getTargetDir());
+        cache.ifPresent(c -> c.store(written));
         LOG.info("Transformation SUCCESSFUL.");
     }
 
@@ -199,8 +202,14 @@ public class OWL2JavaTransformer {
         LOG.info("Generating vocabulary ...");
 
         ContextDefinition def = getValidContext(transformConfig);
+        final Optional<GenerationCache> cache = GenerationCache.create(transformConfig, ontology, "vocabulary");
+        if (cache.isPresent() && cache.get().isUpToDate()) {
+            LOG.info("Ontology and configuration unchanged since the last vocabulary generation, skipping it.");
+            return;
+        }
         final ObjectModel result = new JavaTransformer(transformConfig).generateVocabulary(ontology, def);
-        result.writeModel(transformConfig.getTargetDir());
+        final List<File> written = result.writeModel(transformConfig.getTargetDir());
+        cache.ifPresent(c -> c.store(written));
     }
 
     private static class ValidContextAnnotationValueVisitor implements OWLAnnotationValueVisitor {
@@ -15,11 +15,18 @@
 package cz.cvut.kbss.jopa.owl2java;
 
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.writer.FileCodeWriter;
+import com.sun.codemodel.writer.ProgressCodeWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Wraps the generated object model, allowing to access it in memory or write it out to the file system.
@@ -42,17 +49,38 @@ class ObjectModel {
      * Writes out the object model.
      *
      * @param targetDir Target directory for the object model
+     * @return Files written
      */
-    void writeModel(String targetDir) {
+    List<File> writeModel(String targetDir) {
         try {
             final File file = new File(targetDir);
             final boolean result = file.mkdirs();
             if (!result && !file.exists()) {
                 LOG.error("Unable to create target directory structure.");
             }
-            codeModel.build(file);
+            final RecordingFileCodeWriter writer = new RecordingFileCodeWriter(file);
+            final PrintStream status = System.out;
+            codeModel.build(status != null ? new ProgressCodeWriter(writer, status) : writer);
+            return writer.written;
         } catch (IOException e) {
             LOG.error("Unable to write out the generated object model.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static class RecordingFileCodeWriter extends FileCodeWriter {
+
+        private final List<File> written = new ArrayList<>();
+
+        private RecordingFileCodeWriter(File target) throws IOException {
+            super(target);
+        }
+
+        @Override
+        protected File getFile(JPackage pkg, String fileName) throws IOException {
+            final File file = super.getFile(pkg, fileName);
+            written.add(file);
+            return file;
         }
     }
 }
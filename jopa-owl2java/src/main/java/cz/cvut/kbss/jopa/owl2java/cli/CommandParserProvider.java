@@ -48,6 +48,7 @@ public final class CommandParserProvider {
          .defaultsTo(Defaults.JAVA_CLASSNAME_ANNOTATION);
         p.accepts(PROPERTIES_TYPE).withRequiredArg().ofType(String.class).defaultsTo(Defaults.PROPERTIES_TYPE);
         p.accepts(GENERATE_JAVADOC_FROM_COMMENT).withOptionalArg().ofType(Boolean.class).defaultsTo(true);
+        p.accepts(CACHE_FILE).withRequiredArg().ofType(String.class);
         return p;
     }
 
@@ -65,6 +66,7 @@ public final class CommandParserProvider {
         p.accepts(WHOLE_ONTOLOGY_AS_IC).withOptionalArg().ofType(Boolean.class).defaultsTo(true);
         p.accepts(IGNORE_FAILED_IMPORTS).withOptionalArg().ofType(Boolean.class).defaultsTo(true);
         p.accepts(GENERATE_JAVADOC_FROM_COMMENT).withOptionalArg().ofType(Boolean.class).defaultsTo(true);
+        p.accepts(CACHE_FILE).withRequiredArg().ofType(String.class);
         return p;
     }
 }
@@ -85,7 +85,15 @@ public enum Option {
      * By default, OWL2Java will generate Javadoc from the first rdfs:comment it finds for each axioms. This leads to
      * documentation being created for classes, their attributes and vocabulary constants.
      */
-    GENERATE_JAVADOC_FROM_COMMENT("doc", "generate Javadoc from rdfs:comment annotations");
+    GENERATE_JAVADOC_FROM_COMMENT("doc", "generate Javadoc from rdfs:comment annotations"),
+    /**
+     * Path to a file storing digest of the ontology and configuration of the last successful generation.
+     * <p>
+     * When specified and neither the ontology nor the configuration have changed since the last run, the
+     * transformation/vocabulary generation is skipped. Generation is not skipped when any of the previously generated
+     * files is missing or has been modified. By default, no cache is used.
+     */
+    CACHE_FILE("cache", "generation cache file, generation is skipped if ontology and configuration are unchanged");
 
     public final String arg;
     final String description;
@@ -32,6 +32,8 @@ public class TransformationConfiguration {
 
     private final PropertiesType propertiesType;
 
+    private final String cacheFile;
+
     private final CliParams cliParams;
 
     private TransformationConfiguration(TransformationConfigurationBuilder builder) {
@@ -41,6 +43,7 @@ public class TransformationConfiguration {
         this.generateOwlapiIris = builder.owlapiIris;
         this.generateJavadoc = builder.generateJavadoc;
         this.propertiesType = builder.propertiesType;
+        this.cacheFile = builder.cacheFile;
         this.cliParams = CliParams.empty();
     }
 
@@ -54,6 +57,8 @@ public class TransformationConfiguration {
         this.generateJavadoc = cliParams
                 .is(Option.GENERATE_JAVADOC_FROM_COMMENT.arg, Defaults.GENERATE_JAVADOC_FROM_COMMENT);
         this.propertiesType = PropertiesType.fromParam(cliParams.valueOf(Option.PROPERTIES_TYPE.arg));
+        this.cacheFile =
+                cliParams.has(Option.CACHE_FILE.arg) ? cliParams.valueOf(Option.CACHE_FILE.arg).toString() : null;
     }
 
     public String getContext() {
@@ -84,6 +89,16 @@ public class TransformationConfiguration {
         return propertiesType;
     }
 
+    /**
+     * Gets path to the generation cache file.
+     *
+     * @return Cache file path, {@code null} if no cache should be used
+     * @see Option#CACHE_FILE
+     */
+    public String getCacheFile() {
+        return cacheFile;
+    }
+
     public CliParams getCliParams() {
         return cliParams;
     }
@@ -103,6 +118,7 @@ public class TransformationConfiguration {
         private PropertiesType propertiesType = PropertiesType.valueOf(Defaults.PROPERTIES_TYPE);
         private boolean owlapiIris = Defaults.WITH_IRIS;
         private boolean generateJavadoc = Defaults.GENERATE_JAVADOC_FROM_COMMENT;
+        private String cacheFile;
 
         public TransformationConfigurationBuilder context(String context) {
             this.context = context;
@@ -134,6 +150,11 @@ public class TransformationConfiguration {
             return this;
         }
 
+        public TransformationConfigurationBuilder cacheFile(String cacheFile) {
+            this.cacheFile = cacheFile;
+            return this;
+        }
+
         public TransformationConfiguration build() {
             return new TransformationConfiguration(this);
         }
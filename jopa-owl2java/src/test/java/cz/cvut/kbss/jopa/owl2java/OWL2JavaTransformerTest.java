@@ -40,6 +40,7 @@ import java.util.stream.Collectors;
 
 import static cz.cvut.kbss.jopa.owl2java.TestUtils.*;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -463,6 +464,66 @@ public class OWL2JavaTransformerTest {
         }
     }
 
+    @Test
+    public void transformSkipsGenerationWhenOntologyAndConfigurationAreUnchanged() throws Exception {
+        this.targetDir = getTempDirectory();
+        final String cacheFile = new File(targetDir, "generation-cache").getAbsolutePath();
+        transformer.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        transformer.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        final File vocabFile = new File(targetDir.getAbsolutePath() + File.separator + VOCABULARY_FILE);
+        assertTrue(vocabFile.setLastModified(1000L));
+
+        final OWL2JavaTransformer sut = new OWL2JavaTransformer();
+        sut.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        sut.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        assertEquals(1000L, vocabFile.lastModified());
+    }
+
+    @Test
+    public void transformRegeneratesModelWhenGeneratedFileWasDeleted() throws Exception {
+        this.targetDir = getTempDirectory();
+        final String cacheFile = new File(targetDir, "generation-cache").getAbsolutePath();
+        transformer.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        transformer.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        final File vocabFile = new File(targetDir.getAbsolutePath() + File.separator + VOCABULARY_FILE);
+        assertTrue(vocabFile.delete());
+
+        final OWL2JavaTransformer sut = new OWL2JavaTransformer();
+        sut.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        sut.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        assertTrue(vocabFile.exists());
+    }
+
+    @Test
+    public void transformRegeneratesModelWhenGeneratedFileWasModified() throws Exception {
+        this.targetDir = getTempDirectory();
+        final String cacheFile = new File(targetDir, "generation-cache").getAbsolutePath();
+        transformer.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        transformer.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        final File vocabFile = new File(targetDir.getAbsolutePath() + File.separator + VOCABULARY_FILE);
+        Files.write(vocabFile.toPath(), "// edited".getBytes());
+
+        final OWL2JavaTransformer sut = new OWL2JavaTransformer();
+        sut.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        sut.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        assertThat(readFile(vocabFile), not(containsString("// edited")));
+    }
+
+    @Test
+    public void transformRegeneratesModelWhenConfigurationChanges() throws Exception {
+        this.targetDir = getTempDirectory();
+        final String cacheFile = new File(targetDir, "generation-cache").getAbsolutePath();
+        transformer.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        transformer.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), false).cacheFile(cacheFile).build());
+        final File vocabFile = new File(targetDir.getAbsolutePath() + File.separator + VOCABULARY_FILE);
+        assertTrue(vocabFile.delete());
+
+        final OWL2JavaTransformer sut = new OWL2JavaTransformer();
+        sut.setOntology(IC_ONTOLOGY_IRI, mappingFilePath);
+        sut.transform(config(CONTEXT, "", targetDir.getAbsolutePath(), true).cacheFile(cacheFile).build());
+        assertTrue(vocabFile.exists());
+    }
+
     @Test
     public void generateVocabularyDoesNotGenerateDuplicateConstantsForImportedOntologies() throws Exception {
         this.targetDir = getTempDirectory();
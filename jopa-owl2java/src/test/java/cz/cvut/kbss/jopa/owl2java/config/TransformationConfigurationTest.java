@@ -19,6 +19,7 @@ import cz.cvut.kbss.jopa.owl2java.cli.CommandParserProvider;
 import joptsimple.OptionSet;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class TransformationConfigurationTest {
@@ -29,4 +30,18 @@ public class TransformationConfigurationTest {
         final TransformationConfiguration config = TransformationConfiguration.config(new CliParams(optionSet));
         assertNull(config.getContext());
     }
+
+    @Test
+    public void configReadsCacheFileFromCommandLine() {
+        final OptionSet optionSet = CommandParserProvider.getCommandTransform().parse("-c", "test", "-cache", "cache");
+        final TransformationConfiguration config = TransformationConfiguration.config(new CliParams(optionSet));
+        assertEquals("cache", config.getCacheFile());
+    }
+
+    @Test
+    public void configHasNoCacheFileByDefault() {
+        final OptionSet optionSet = CommandParserProvider.getCommandTransform().parse("-c", "test");
+        final TransformationConfiguration config = TransformationConfiguration.config(new CliParams(optionSet));
+        assertNull(config.getCacheFile());
+    }
 }
@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.semanticweb.owlapi.model.*;
+
+import java.util.*;
+
+/**
+ * Indexes axioms of an ontology by their subjects and objects.
+ * <p>
+ * This allows the identity reasoner to answer queries without iterating over all axioms of the ontology. The index is
+ * maintained incrementally by {@link #add(OWLAxiom)} and {@link #remove(OWLAxiom)}.
+ */
+class AxiomIndex {
+
+    final Index<OWLClassExpression, OWLSubClassOfAxiom> subClassesBySuperClass = new Index<>();
+    final Index<OWLClassExpression, OWLSubClassOfAxiom> superClassesBySubClass = new Index<>();
+    final Index<OWLClassExpression, OWLEquivalentClassesAxiom> equivalentClasses = new Index<>();
+
+    final Index<OWLClassExpression, OWLClassAssertionAxiom> instancesByClass = new Index<>();
+    final Index<OWLIndividual, OWLClassAssertionAxiom> typesByIndividual = new Index<>();
+    final Index<OWLIndividual, OWLObjectPropertyAssertionAxiom> objectPropertyValuesBySubject = new Index<>();
+    final Index<OWLIndividual, OWLDataPropertyAssertionAxiom> dataPropertyValuesBySubject = new Index<>();
+    final Index<OWLIndividual, OWLSameIndividualAxiom> sameIndividuals = new Index<>();
+    final Index<OWLIndividual, OWLDifferentIndividualsAxiom> differentIndividuals = new Index<>();
+
+    final Index<OWLObjectPropertyExpression, OWLSubObjectPropertyOfAxiom> subObjectPropertiesBySuperProperty =
+            new Index<>();
+    final Index<OWLObjectPropertyExpression, OWLSubObjectPropertyOfAxiom> superObjectPropertiesBySubProperty =
+            new Index<>();
+    final Index<OWLObjectPropertyExpression, OWLEquivalentObjectPropertiesAxiom> equivalentObjectProperties =
+            new Index<>();
+    final Index<OWLObjectPropertyExpression, OWLInverseObjectPropertiesAxiom> inverseObjectProperties = new Index<>();
+    final Index<OWLObjectPropertyExpression, OWLObjectPropertyDomainAxiom> objectPropertyDomains = new Index<>();
+    final Index<OWLObjectPropertyExpression, OWLObjectPropertyRangeAxiom> objectPropertyRanges = new Index<>();
+
+    final Index<OWLDataPropertyExpression, OWLSubDataPropertyOfAxiom> subDataPropertiesBySuperProperty =
+            new Index<>();
+    final Index<OWLDataPropertyExpression, OWLSubDataPropertyOfAxiom> superDataPropertiesBySubProperty =
+            new Index<>();
+    final Index<OWLDataPropertyExpression, OWLEquivalentDataPropertiesAxiom> equivalentDataProperties = new Index<>();
+    final Index<OWLDataPropertyExpression, OWLDataPropertyDomainAxiom> dataPropertyDomains = new Index<>();
+
+    private final IndexUpdater adder = new IndexUpdater(true);
+    private final IndexUpdater remover = new IndexUpdater(false);
+
+    /**
+     * Creates index of axioms of the specified ontology.
+     * <p>
+     * Imports closure of the ontology is not indexed.
+     *
+     * @param ontology The ontology to index
+     */
+    AxiomIndex(OWLOntology ontology) {
+        ontology.axioms().forEach(this::add);
+    }
+
+    void add(OWLAxiom axiom) {
+        axiom.accept(adder);
+    }
+
+    void remove(OWLAxiom axiom) {
+        axiom.accept(remover);
+    }
+
+    void clear() {
+        Arrays.asList(subClassesBySuperClass, superClassesBySubClass, equivalentClasses, instancesByClass,
+                typesByIndividual, objectPropertyValuesBySubject, dataPropertyValuesBySubject, sameIndividuals,
+                differentIndividuals, subObjectPropertiesBySuperProperty, superObjectPropertiesBySubProperty,
+                equivalentObjectProperties, inverseObjectProperties, objectPropertyDomains, objectPropertyRanges,
+                subDataPropertiesBySuperProperty, superDataPropertiesBySubProperty, equivalentDataProperties,
+                dataPropertyDomains).forEach(Index::clear);
+    }
+
+    /**
+     * Maps keys to axioms in which they occur in the indexed position.
+     * <p>
+     * Axioms are stored (instead of just the related entities), so that removal of one of several axioms relating the
+     * same entities (e.g., an annotated and a plain version of an axiom) is handled correctly.
+     *
+     * @param <K> Key type
+     * @param <A> Axiom type
+     */
+    static final class Index<K, A extends OWLAxiom> {
+
+        private final Map<K, Set<A>> map = new HashMap<>();
+
+        /**
+         * Gets axioms indexed under the specified key.
+         *
+         * @param key The key
+         * @return Set of axioms, possibly empty
+         */
+        Set<A> get(K key) {
+            return map.getOrDefault(key, Collections.emptySet());
+        }
+
+        private void update(K key, A axiom, boolean add) {
+            if (add) {
+                map.computeIfAbsent(key, k -> new HashSet<>()).add(axiom);
+            } else {
+                final Set<A> axioms = map.get(key);
+                if (axioms != null && axioms.remove(axiom) && axioms.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+
+        private void clear() {
+            map.clear();
+        }
+    }
+
+    private final class IndexUpdater implements OWLAxiomVisitor {
+
+        private final boolean add;
+
+        private IndexUpdater(boolean add) {
+            this.add = add;
+        }
+
+        @Override
+        public void visit(OWLSubClassOfAxiom axiom) {
+            subClassesBySuperClass.update(axiom.getSuperClass(), axiom, add);
+            superClassesBySubClass.update(axiom.getSubClass(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLEquivalentClassesAxiom axiom) {
+            axiom.classExpressions().forEach(ce -> equivalentClasses.update(ce, axiom, add));
+        }
+
+        @Override
+        public void visit(OWLClassAssertionAxiom axiom) {
+            instancesByClass.update(axiom.getClassExpression(), axiom, add);
+            typesByIndividual.update(axiom.getIndividual(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyAssertionAxiom axiom) {
+            objectPropertyValuesBySubject.update(axiom.getSubject(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLDataPropertyAssertionAxiom axiom) {
+            dataPropertyValuesBySubject.update(axiom.getSubject(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLSameIndividualAxiom axiom) {
+            axiom.individuals().forEach(ind -> sameIndividuals.update(ind, axiom, add));
+        }
+
+        @Override
+        public void visit(OWLDifferentIndividualsAxiom axiom) {
+            axiom.individuals().forEach(ind -> differentIndividuals.update(ind, axiom, add));
+        }
+
+        @Override
+        public void visit(OWLSubObjectPropertyOfAxiom axiom) {
+            subObjectPropertiesBySuperProperty.update(axiom.getSuperProperty(), axiom, add);
+            superObjectPropertiesBySubProperty.update(axiom.getSubProperty(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLEquivalentObjectPropertiesAxiom axiom) {
+            axiom.properties().forEach(p -> equivalentObjectProperties.update(p, axiom, add));
+        }
+
+        @Override
+        public void visit(OWLInverseObjectPropertiesAxiom axiom) {
+            inverseObjectProperties.update(axiom.getFirstProperty(), axiom, add);
+            inverseObjectProperties.update(axiom.getSecondProperty(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyDomainAxiom axiom) {
+            objectPropertyDomains.update(axiom.getProperty(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyRangeAxiom axiom) {
+            objectPropertyRanges.update(axiom.getProperty(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLSubDataPropertyOfAxiom axiom) {
+            subDataPropertiesBySuperProperty.update(axiom.getSuperProperty(), axiom, add);
+            superDataPropertiesBySubProperty.update(axiom.getSubProperty(), axiom, add);
+        }
+
+        @Override
+        public void visit(OWLEquivalentDataPropertiesAxiom axiom) {
+            axiom.properties().forEach(p -> equivalentDataProperties.update(p, axiom, add));
+        }
+
+        @Override
+        public void visit(OWLDataPropertyDomainAxiom axiom) {
+            dataPropertyDomains.update(axiom.getProperty(), axiom, add);
+        }
+    }
+}
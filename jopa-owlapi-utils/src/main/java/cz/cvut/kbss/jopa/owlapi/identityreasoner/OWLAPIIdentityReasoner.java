@@ -17,32 +17,71 @@ package cz.cvut.kbss.jopa.owlapi.identityreasoner;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.reasoner.*;
 import org.semanticweb.owlapi.reasoner.impl.*;
-import org.semanticweb.owlapi.search.EntitySearcher;
 import org.semanticweb.owlapi.util.Version;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
+/**
+ * Answers queries using only axioms asserted in the root ontology.
+ * <p>
+ * Axioms are indexed by their subjects and objects, the index is maintained incrementally based on changes of the
+ * ontology. In {@link BufferingMode#BUFFERING} mode, changes are applied to the index only on {@link #flush()}.
+ */
 @Deprecated
 class OWLAPIIdentityReasoner implements OWLReasoner {
 
     private final OWLOntology o;
 
+    private final BufferingMode bufferingMode;
+    private final List<OWLOntologyChange> pendingChanges = new ArrayList<>();
+
+    private final AxiomIndex index;
+    private final OWLOntologyChangeListener changeListener = this::ontologiesChanged;
+
     public OWLAPIIdentityReasoner(final OWLOntology o) {
+        this(o, BufferingMode.NON_BUFFERING);
+    }
+
+    public OWLAPIIdentityReasoner(final OWLOntology o, final BufferingMode bufferingMode) {
         this.o = o;
+        this.bufferingMode = bufferingMode;
+        this.index = new AxiomIndex(o);
+        o.getOWLOntologyManager().addOntologyChangeListener(changeListener);
+    }
+
+    private void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        for (OWLOntologyChange change : changes) {
+            if (!change.isAxiomChange() || !change.getOntology().equals(o)) {
+                continue;
+            }
+            if (bufferingMode == BufferingMode.BUFFERING) {
+                pendingChanges.add(change);
+            } else {
+                applyChange(change);
+            }
+        }
+    }
+
+    private void applyChange(OWLOntologyChange change) {
+        if (change.isAddAxiom()) {
+            index.add(change.getAxiom());
+        } else {
+            index.remove(change.getAxiom());
+        }
     }
 
 
     public void dispose() {
-        // do nothing
+        o.getOWLOntologyManager().removeOntologyChangeListener(changeListener);
+        pendingChanges.clear();
+        index.clear();
     }
 
 
     public void flush() {
-        // do nothing
+        pendingChanges.forEach(this::applyChange);
+        pendingChanges.clear();
     }
 
 
@@ -69,7 +108,7 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
 
     @Nonnull
     public BufferingMode getBufferingMode() {
-        return BufferingMode.NON_BUFFERING;
+        return bufferingMode;
     }
 
 
@@ -80,9 +119,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                            TimeOutException {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLDataPropertyDomainAxiom a : o
-                .getAxioms(AxiomType.DATA_PROPERTY_DOMAIN)) {
-            if (a.getProperty().equals(pe) && !a.getDomain().isAnonymous()) {
+        for (final OWLDataPropertyDomainAxiom a : index.dataPropertyDomains.get(pe)) {
+            if (!a.getDomain().isAnonymous()) {
                 s.addEntity(a.getDomain().asOWLClass());
             }
         }
@@ -98,12 +136,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                                      TimeOutException {
         final Set<OWLLiteral> literals = new HashSet<>();
 
-        for (final OWLDataPropertyAssertionAxiom a : o
-                .getAxioms(AxiomType.DATA_PROPERTY_ASSERTION)) {
-            if (a.getProperty().equals(pe) && a.getSubject().equals(ind)) {
-                // if (a.getObject().isNamed()) {
-                // pn.addEntity(a.getObject().asOWLNamedIndividual());
-                // }
+        for (final OWLDataPropertyAssertionAxiom a : index.dataPropertyValuesBySubject.get(ind)) {
+            if (a.getProperty().equals(pe)) {
                 literals.add(a.getObject());
             }
         }
@@ -118,15 +152,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                     ReasonerInterruptedException, TimeOutException {
         final OWLNamedIndividualNodeSet pn = new OWLNamedIndividualNodeSet();
 
-        for (final OWLDifferentIndividualsAxiom a : o
-                .getAxioms(AxiomType.DIFFERENT_INDIVIDUALS)) {
-            if (a.getIndividuals().contains(ind)) {
-                for (OWLIndividual e : a.getIndividuals()) {
-                    if (e.isNamed()) {
-                        pn.addEntity(e.asOWLNamedIndividual());
-                    }
-                }
-            }
+        for (final OWLDifferentIndividualsAxiom a : index.differentIndividuals.get(ind)) {
+            a.individuals().filter(OWLIndividual::isNamed).forEach(e -> pn.addEntity(e.asOWLNamedIndividual()));
         }
 
         return pn;
@@ -201,15 +228,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLClassNode pn = new OWLClassNode();
 
-        for (final OWLEquivalentClassesAxiom a : o
-                .getAxioms(AxiomType.EQUIVALENT_CLASSES)) {
-            if (a.getClassExpressions().contains(ce)) {
-                for (OWLClassExpression e : a.getClassExpressions()) {
-                    if (!e.isAnonymous()) {
-                        pn.add(e.asOWLClass());
-                    }
-                }
-            }
+        for (final OWLEquivalentClassesAxiom a : index.equivalentClasses.get(ce)) {
+            a.classExpressions().filter(e -> !e.isAnonymous()).forEach(e -> pn.add(e.asOWLClass()));
         }
 
         return pn;
@@ -222,8 +242,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLDataPropertyNode pn = new OWLDataPropertyNode(pe);
 
-        EntitySearcher.getEquivalentProperties(pe, o).filter(p -> !p.isAnonymous())
-                      .forEach(p -> pn.add(p.asOWLDataProperty()));
+        for (final OWLEquivalentDataPropertiesAxiom a : index.equivalentDataProperties.get(pe)) {
+            a.properties().filter(p -> !p.isAnonymous()).forEach(p -> pn.add(p.asOWLDataProperty()));
+        }
 
         pn.add(pe);
 
@@ -238,15 +259,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLObjectPropertyNode pn = new OWLObjectPropertyNode();
 
-        for (final OWLEquivalentObjectPropertiesAxiom a : o
-                .getAxioms(AxiomType.EQUIVALENT_OBJECT_PROPERTIES)) {
-            if (a.getProperties().contains(pe)) {
-                for (OWLObjectPropertyExpression e : a.getProperties()) {
-                    if (!e.isAnonymous()) {
-                        pn.add(e.asOWLObjectProperty());
-                    }
-                }
-            }
+        for (final OWLEquivalentObjectPropertiesAxiom a : index.equivalentObjectProperties.get(pe)) {
+            a.properties().filter(e -> !e.isAnonymous()).forEach(e -> pn.add(e.asOWLObjectProperty()));
         }
 
         return pn;
@@ -267,10 +281,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                            TimeOutException {
         final OWLNamedIndividualNodeSet s = new OWLNamedIndividualNodeSet();
 
-        for (final OWLClassAssertionAxiom a : o
-                .getAxioms(AxiomType.CLASS_ASSERTION)) {
-            if (a.getClassExpression().equals(ce)
-                    && a.getIndividual().isNamed()) {
+        for (final OWLClassAssertionAxiom a : index.instancesByClass.get(ce)) {
+            if (a.getIndividual().isNamed()) {
                 s.addEntity(a.getIndividual().asOWLNamedIndividual());
             }
         }
@@ -286,8 +298,7 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLObjectPropertyNode s = new OWLObjectPropertyNode();
 
-        for (final OWLInverseObjectPropertiesAxiom a : o
-                .getAxioms(AxiomType.INVERSE_OBJECT_PROPERTIES)) {
+        for (final OWLInverseObjectPropertiesAxiom a : index.inverseObjectProperties.get(pe)) {
             if (a.getFirstProperty().equals(pe)) {
                 if (!a.getSecondProperty().isAnonymous()) {
                     s.add(a.getSecondProperty().asOWLObjectProperty());
@@ -310,9 +321,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLObjectPropertyDomainAxiom a : o
-                .getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-            if (a.getProperty().equals(pe) && !a.getDomain().isAnonymous()) {
+        for (final OWLObjectPropertyDomainAxiom a : index.objectPropertyDomains.get(pe)) {
+            if (!a.getDomain().isAnonymous()) {
                 s.addEntity(a.getDomain().asOWLClass());
             }
         }
@@ -328,9 +338,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLObjectPropertyRangeAxiom a : o
-                .getAxioms(AxiomType.OBJECT_PROPERTY_RANGE)) {
-            if (a.getProperty().equals(pe) && !a.getRange().isAnonymous()) {
+        for (final OWLObjectPropertyRangeAxiom a : index.objectPropertyRanges.get(pe)) {
+            if (!a.getRange().isAnonymous()) {
                 s.addEntity(a.getRange().asOWLClass());
             }
         }
@@ -346,19 +355,11 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLNamedIndividualNodeSet pn = new OWLNamedIndividualNodeSet();
 
-        EntitySearcher.getObjectPropertyValues(ind, pe, o).filter(OWLIndividual::isNamed)
-                      .forEach(i -> pn.addEntity(i.asOWLNamedIndividual()));
-        //
-        // o.getOWLOntologyManager().getOWLDataFactory().getOWLNamedIndividual(iri)
-        //
-        // for (final OWLObjectPropertyAssertionAxiom a : o
-        // .getAxioms(AxiomType.OBJECT_PROPERTY_ASSERTION)) {
-        // if (a.getProperty().equals(pe) && a.getSubject().equals(ind)) {
-        // if (a.getObject().isNamed()) {
-        // pn.addEntity(a.getObject().asOWLNamedIndividual());
-        // }
-        // }
-        // }
+        for (final OWLObjectPropertyAssertionAxiom a : index.objectPropertyValuesBySubject.get(ind)) {
+            if (a.getProperty().equals(pe) && a.getObject().isNamed()) {
+                pn.addEntity(a.getObject().asOWLNamedIndividual());
+            }
+        }
 
         return pn;
     }
@@ -366,19 +367,34 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
 
     @Nonnull
     public Set<OWLAxiom> getPendingAxiomAdditions() {
-        return Collections.emptySet();
+        return getPendingAxioms(true);
     }
 
 
     @Nonnull
     public Set<OWLAxiom> getPendingAxiomRemovals() {
-        return Collections.emptySet();
+        return getPendingAxioms(false);
+    }
+
+    private Set<OWLAxiom> getPendingAxioms(boolean added) {
+        final Set<OWLAxiom> additions = new HashSet<>();
+        final Set<OWLAxiom> removals = new HashSet<>();
+        for (OWLOntologyChange change : pendingChanges) {
+            if (change.isAddAxiom()) {
+                if (!removals.remove(change.getAxiom())) {
+                    additions.add(change.getAxiom());
+                }
+            } else if (!additions.remove(change.getAxiom())) {
+                removals.add(change.getAxiom());
+            }
+        }
+        return added ? additions : removals;
     }
 
 
     @Nonnull
     public List<OWLOntologyChange> getPendingChanges() {
-        return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<>(pendingChanges));
     }
 
 
@@ -406,15 +422,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLNamedIndividualNode pn = new OWLNamedIndividualNode();
 
-        for (final OWLSameIndividualAxiom a : o
-                .getAxioms(AxiomType.SAME_INDIVIDUAL)) {
-            if (a.getIndividuals().contains(ind)) {
-                for (OWLIndividual e : a.getIndividuals()) {
-                    if (e.isNamed()) {
-                        pn.add(e.asOWLNamedIndividual());
-                    }
-                }
-            }
+        for (final OWLSameIndividualAxiom a : index.sameIndividuals.get(ind)) {
+            a.individuals().filter(OWLIndividual::isNamed).forEach(e -> pn.add(e.asOWLNamedIndividual()));
         }
 
         return pn;
@@ -425,11 +434,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public NodeSet<OWLClass> getSubClasses(@Nonnull OWLClassExpression ce, boolean direct) {
         final OWLClassNodeSet pn = new OWLClassNodeSet();
 
-        for (final OWLSubClassOfAxiom a : o.getAxioms(AxiomType.SUBCLASS_OF)) {
-            if (a.getSuperClass().equals(ce)) {
-                if (!a.getSubClass().isAnonymous()) {
-                    pn.addEntity(a.getSubClass().asOWLClass());
-                }
+        for (final OWLSubClassOfAxiom a : index.subClassesBySuperClass.get(ce)) {
+            if (!a.getSubClass().isAnonymous()) {
+                pn.addEntity(a.getSubClass().asOWLClass());
             }
         }
 
@@ -444,12 +451,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                                 TimeOutException {
         final OWLDataPropertyNodeSet pn = new OWLDataPropertyNodeSet();
 
-        for (final OWLSubDataPropertyOfAxiom a : o
-                .getAxioms(AxiomType.SUB_DATA_PROPERTY)) {
-            if (a.getSuperProperty().equals(pe)) {
-                if (!a.getSubProperty().isAnonymous()) {
-                    pn.addEntity(a.getSubProperty().asOWLDataProperty());
-                }
+        for (final OWLSubDataPropertyOfAxiom a : index.subDataPropertiesBySuperProperty.get(pe)) {
+            if (!a.getSubProperty().isAnonymous()) {
+                pn.addEntity(a.getSubProperty().asOWLDataProperty());
             }
         }
 
@@ -464,12 +468,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLObjectPropertyNodeSet pn = new OWLObjectPropertyNodeSet();
 
-        for (final OWLSubObjectPropertyOfAxiom a : o
-                .getAxioms(AxiomType.SUB_OBJECT_PROPERTY)) {
-            if (a.getSuperProperty().equals(pe)) {
-                if (!a.getSubProperty().isAnonymous()) {
-                    pn.addEntity(a.getSubProperty().asOWLObjectProperty());
-                }
+        for (final OWLSubObjectPropertyOfAxiom a : index.subObjectPropertiesBySuperProperty.get(pe)) {
+            if (!a.getSubProperty().isAnonymous()) {
+                pn.addEntity(a.getSubProperty().asOWLObjectProperty());
             }
         }
 
@@ -485,11 +486,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                     TimeOutException {
         final OWLClassNodeSet pn = new OWLClassNodeSet();
 
-        for (final OWLSubClassOfAxiom a : o.getAxioms(AxiomType.SUBCLASS_OF)) {
-            if (a.getSubClass().equals(ce)) {
-                if (!a.getSuperClass().isAnonymous()) {
-                    pn.addEntity(a.getSuperClass().asOWLClass());
-                }
+        for (final OWLSubClassOfAxiom a : index.superClassesBySubClass.get(ce)) {
+            if (!a.getSuperClass().isAnonymous()) {
+                pn.addEntity(a.getSuperClass().asOWLClass());
             }
         }
 
@@ -504,12 +503,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                                                   TimeOutException {
         final OWLDataPropertyNodeSet pn = new OWLDataPropertyNodeSet();
 
-        for (final OWLSubDataPropertyOfAxiom a : o
-                .getAxioms(AxiomType.SUB_DATA_PROPERTY)) {
-            if (a.getSubProperty().equals(pe)) {
-                if (!a.getSuperProperty().isAnonymous()) {
-                    pn.addEntity(a.getSuperProperty().asOWLDataProperty());
-                }
+        for (final OWLSubDataPropertyOfAxiom a : index.superDataPropertiesBySubProperty.get(pe)) {
+            if (!a.getSuperProperty().isAnonymous()) {
+                pn.addEntity(a.getSuperProperty().asOWLDataProperty());
             }
         }
 
@@ -524,12 +520,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLObjectPropertyNodeSet pn = new OWLObjectPropertyNodeSet();
 
-        for (final OWLSubObjectPropertyOfAxiom a : o
-                .getAxioms(AxiomType.SUB_OBJECT_PROPERTY)) {
-            if (a.getSubProperty().equals(pe)) {
-                if (!a.getSuperProperty().isAnonymous()) {
-                    pn.addEntity(a.getSuperProperty().asOWLObjectProperty());
-                }
+        for (final OWLSubObjectPropertyOfAxiom a : index.superObjectPropertiesBySubProperty.get(pe)) {
+            if (!a.getSuperProperty().isAnonymous()) {
+                pn.addEntity(a.getSuperProperty().asOWLObjectProperty());
             }
         }
 
@@ -570,15 +563,11 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    TimeOutException {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        // for (final OWLClassAssertionAxiom a : o
-        // .getAxioms(AxiomType.CLASS_ASSERTION)) {
-        // if (a.getIndividual().equals(ce)
-        // && a.getIndividual().isNamed()) {
-        // s.addEntity(a.getIndividual().asOWLNamedIndividual());
-        // }
-        // }
-
-        EntitySearcher.getTypes(ind, o).filter(ce -> !ce.isAnonymous()).forEach(ce -> s.addEntity(ce.asOWLClass()));
+        for (final OWLClassAssertionAxiom a : index.typesByIndividual.get(ind)) {
+            if (!a.getClassExpression().isAnonymous()) {
+                s.addEntity(a.getClassExpression().asOWLClass());
+            }
+        }
 
         return s;
     }
@@ -606,7 +595,18 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
             throws ReasonerInterruptedException,
                    UnsupportedEntailmentTypeException, TimeOutException,
                    AxiomNotInProfileException {
-        return o.containsAxiom(axiom);
+        return isAsserted(axiom);
+    }
+
+    /**
+     * Checks whether the specified axiom is asserted in the ontology, disregarding changes not yet flushed.
+     */
+    private boolean isAsserted(OWLAxiom axiom) {
+        if (pendingChanges.isEmpty()) {
+            return o.containsAxiom(axiom);
+        }
+        return getPendingAxiomRemovals().contains(axiom) ||
+                o.containsAxiom(axiom) && !getPendingAxiomAdditions().contains(axiom);
     }
 
 
@@ -615,7 +615,7 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                    UnsupportedEntailmentTypeException, TimeOutException,
                    AxiomNotInProfileException {
         for (final OWLAxiom a : axioms) {
-            if (!o.containsAxiom(a)) {
+            if (!isAsserted(a)) {
                 return false;
             }
         }
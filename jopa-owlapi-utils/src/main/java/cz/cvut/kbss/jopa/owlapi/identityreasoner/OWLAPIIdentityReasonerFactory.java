@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.owlapi.identityreasoner;
 
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -32,7 +33,7 @@ public class OWLAPIIdentityReasonerFactory implements OWLReasonerFactory {
     @Nonnull
     public OWLReasoner createNonBufferingReasoner(@Nonnull OWLOntology ontology,
                                                   @Nonnull OWLReasonerConfiguration config) {
-        return new OWLAPIIdentityReasoner(ontology);
+        return new OWLAPIIdentityReasoner(ontology, BufferingMode.NON_BUFFERING);
     }
 
     @Nonnull
@@ -43,7 +44,7 @@ public class OWLAPIIdentityReasonerFactory implements OWLReasonerFactory {
     @Nonnull
     public OWLReasoner createReasoner(@Nonnull OWLOntology ontology,
                                       @Nonnull OWLReasonerConfiguration config) {
-        return new OWLAPIIdentityReasoner(ontology);
+        return new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
     }
 
     @Nonnull
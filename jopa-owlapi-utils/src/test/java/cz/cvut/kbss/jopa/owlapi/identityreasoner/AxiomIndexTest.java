@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AxiomIndexTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa/identity#";
+
+    private OWLOntology ontology;
+    private OWLDataFactory df;
+
+    private OWLClass superClass;
+    private OWLClass subClass;
+    private OWLNamedIndividual individual;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        this.ontology = manager.createOntology(IRI.create(BASE));
+        this.df = manager.getOWLDataFactory();
+        this.superClass = df.getOWLClass(IRI.create(BASE + "SuperClass"));
+        this.subClass = df.getOWLClass(IRI.create(BASE + "SubClass"));
+        this.individual = df.getOWLNamedIndividual(IRI.create(BASE + "individual"));
+    }
+
+    @Test
+    void constructorIndexesAxiomsOfOntology() {
+        final OWLSubClassOfAxiom subClassOf = df.getOWLSubClassOfAxiom(subClass, superClass);
+        final OWLClassAssertionAxiom classAssertion = df.getOWLClassAssertionAxiom(subClass, individual);
+        ontology.add(subClassOf, classAssertion);
+
+        final AxiomIndex sut = new AxiomIndex(ontology);
+        assertEquals(Collections.singleton(subClassOf), sut.subClassesBySuperClass.get(superClass));
+        assertEquals(Collections.singleton(subClassOf), sut.superClassesBySubClass.get(subClass));
+        assertEquals(Collections.singleton(classAssertion), sut.instancesByClass.get(subClass));
+        assertEquals(Collections.singleton(classAssertion), sut.typesByIndividual.get(individual));
+    }
+
+    @Test
+    void addIndexesAxiomUnderAllItsIndexedEntities() {
+        final AxiomIndex sut = new AxiomIndex(ontology);
+        final OWLNamedIndividual other = df.getOWLNamedIndividual(IRI.create(BASE + "other"));
+        final OWLSameIndividualAxiom sameAs = df.getOWLSameIndividualAxiom(individual, other);
+
+        sut.add(sameAs);
+        assertEquals(Collections.singleton(sameAs), sut.sameIndividuals.get(individual));
+        assertEquals(Collections.singleton(sameAs), sut.sameIndividuals.get(other));
+        assertTrue(sut.differentIndividuals.get(individual).isEmpty());
+    }
+
+    @Test
+    void removeKeepsOtherAxiomsRelatingTheSameEntities() {
+        final OWLSubClassOfAxiom plain = df.getOWLSubClassOfAxiom(subClass, superClass);
+        final OWLSubClassOfAxiom annotated = df.getOWLSubClassOfAxiom(subClass, superClass,
+                Collections.singleton(df.getRDFSComment("Annotated")));
+        final AxiomIndex sut = new AxiomIndex(ontology);
+        sut.add(plain);
+        sut.add(annotated);
+
+        sut.remove(plain);
+        assertEquals(Collections.singleton(annotated), sut.subClassesBySuperClass.get(superClass));
+        sut.remove(annotated);
+        assertTrue(sut.subClassesBySuperClass.get(superClass).isEmpty());
+        assertTrue(sut.superClassesBySubClass.get(subClass).isEmpty());
+    }
+
+    @Test
+    void removeOfAxiomWhichIsNotIndexedDoesNothing() {
+        final OWLSubClassOfAxiom subClassOf = df.getOWLSubClassOfAxiom(subClass, superClass);
+        ontology.add(subClassOf);
+        final AxiomIndex sut = new AxiomIndex(ontology);
+
+        sut.remove(df.getOWLSubClassOfAxiom(superClass, subClass));
+        assertEquals(Collections.singleton(subClassOf), sut.subClassesBySuperClass.get(superClass));
+    }
+
+    @Test
+    void inverseObjectPropertiesAreIndexedUnderBothProperties() {
+        final OWLObjectProperty first = df.getOWLObjectProperty(IRI.create(BASE + "first"));
+        final OWLObjectProperty second = df.getOWLObjectProperty(IRI.create(BASE + "second"));
+        final OWLInverseObjectPropertiesAxiom inverse = df.getOWLInverseObjectPropertiesAxiom(first, second);
+        final AxiomIndex sut = new AxiomIndex(ontology);
+
+        sut.add(inverse);
+        assertEquals(Collections.singleton(inverse), sut.inverseObjectProperties.get(first));
+        assertEquals(Collections.singleton(inverse), sut.inverseObjectProperties.get(second));
+    }
+
+    @Test
+    void clearRemovesAllIndexedAxioms() {
+        ontology.add(df.getOWLSubClassOfAxiom(subClass, superClass),
+                df.getOWLClassAssertionAxiom(subClass, individual));
+        final AxiomIndex sut = new AxiomIndex(ontology);
+
+        sut.clear();
+        assertTrue(sut.subClassesBySuperClass.get(superClass).isEmpty());
+        assertTrue(sut.instancesByClass.get(subClass).isEmpty());
+        assertTrue(sut.typesByIndividual.get(individual).isEmpty());
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OWLAPIIdentityReasonerTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa/identity#";
+
+    private OWLOntologyManager manager;
+    private OWLOntology ontology;
+    private OWLDataFactory df;
+
+    private OWLClass superClass;
+    private OWLClass subClass;
+    private OWLSubClassOfAxiom subClassOf;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.manager = OWLManager.createOWLOntologyManager();
+        this.ontology = manager.createOntology(IRI.create(BASE));
+        this.df = manager.getOWLDataFactory();
+        this.superClass = df.getOWLClass(IRI.create(BASE + "SuperClass"));
+        this.subClass = df.getOWLClass(IRI.create(BASE + "SubClass"));
+        this.subClassOf = df.getOWLSubClassOfAxiom(subClass, superClass);
+    }
+
+    @Test
+    void nonBufferingReasonerReflectsAddedAxiomImmediately() {
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.NON_BUFFERING);
+
+        ontology.add(subClassOf);
+        assertTrue(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+        assertTrue(sut.getSubClasses(superClass, true).containsEntity(subClass));
+        assertTrue(sut.getPendingChanges().isEmpty());
+    }
+
+    @Test
+    void nonBufferingReasonerReflectsRemovedAxiomImmediately() {
+        ontology.add(subClassOf);
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.NON_BUFFERING);
+        assertTrue(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+
+        ontology.remove(subClassOf);
+        assertFalse(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+    }
+
+    @Test
+    void reasonerIgnoresChangesOfOtherOntologies() throws Exception {
+        final OWLOntology other = manager.createOntology(IRI.create(BASE + "other"));
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.NON_BUFFERING);
+
+        other.add(subClassOf);
+        assertFalse(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+    }
+
+    @Test
+    void bufferingReasonerAppliesAddedAxiomOnFlush() {
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        ontology.add(subClassOf);
+        assertFalse(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+        assertEquals(Collections.singleton(subClassOf), sut.getPendingAxiomAdditions());
+        assertTrue(sut.getPendingAxiomRemovals().isEmpty());
+        assertEquals(1, sut.getPendingChanges().size());
+
+        sut.flush();
+        assertTrue(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+        assertTrue(sut.getPendingChanges().isEmpty());
+        assertTrue(sut.getPendingAxiomAdditions().isEmpty());
+    }
+
+    @Test
+    void bufferingReasonerAppliesRemovedAxiomOnFlush() {
+        ontology.add(subClassOf);
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        ontology.remove(subClassOf);
+        assertTrue(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+        assertEquals(Collections.singleton(subClassOf), sut.getPendingAxiomRemovals());
+        assertTrue(sut.getPendingAxiomAdditions().isEmpty());
+
+        sut.flush();
+        assertFalse(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+        assertTrue(sut.getPendingAxiomRemovals().isEmpty());
+    }
+
+    @Test
+    void pendingAdditionAndRemovalOfSameAxiomCancelOut() {
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        ontology.add(subClassOf);
+        ontology.remove(subClassOf);
+        assertTrue(sut.getPendingAxiomAdditions().isEmpty());
+        assertTrue(sut.getPendingAxiomRemovals().isEmpty());
+        assertEquals(2, sut.getPendingChanges().size());
+    }
+
+    @Test
+    void isEntailedDisregardsPendingAddition() {
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        ontology.add(subClassOf);
+        assertFalse(sut.isEntailed(subClassOf));
+        sut.flush();
+        assertTrue(sut.isEntailed(subClassOf));
+    }
+
+    @Test
+    void isEntailedDisregardsPendingRemoval() {
+        ontology.add(subClassOf);
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        ontology.remove(subClassOf);
+        assertTrue(sut.isEntailed(subClassOf));
+        assertTrue(sut.isEntailed(Collections.singleton(subClassOf)));
+        sut.flush();
+        assertFalse(sut.isEntailed(subClassOf));
+    }
+
+    @Test
+    void disposeUnregistersOntologyChangeListener() {
+        final OWLReasoner sut = new OWLAPIIdentityReasoner(ontology, BufferingMode.BUFFERING);
+
+        sut.dispose();
+        ontology.add(subClassOf);
+        assertTrue(sut.getPendingChanges().isEmpty());
+        sut.flush();
+        assertFalse(sut.getSuperClasses(subClass, true).containsEntity(superClass));
+    }
+
+    @Test
+    void factoryCreatesBufferingReasonerByDefault() {
+        final OWLAPIIdentityReasonerFactory factory = new OWLAPIIdentityReasonerFactory();
+
+        assertEquals(BufferingMode.BUFFERING, factory.createReasoner(ontology).getBufferingMode());
+        assertEquals(BufferingMode.NON_BUFFERING, factory.createNonBufferingReasoner(ontology).getBufferingMode());
+    }
+}
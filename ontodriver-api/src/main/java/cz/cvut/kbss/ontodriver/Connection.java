@@ -137,6 +137,21 @@ public interface Connection extends AutoCloseable, Wrapper {
      */
     Collection<Axiom<?>> find(AxiomDescriptor descriptor) throws OntoDriverException;
 
+    /**
+     * Finds axioms corresponding to the specified descriptors.
+     * <p>
+     * This is a batch version of {@link #find(AxiomDescriptor)}, which allows the driver to load axioms for multiple
+     * subjects in as few storage accesses as possible. The result contains axioms of all the subjects, they can be
+     * distinguished by their subject.
+     *
+     * @param descriptors Loading descriptors, each specifying subject, properties to load and possible contexts to work
+     *                    with
+     * @return Collection of axioms matching the specified criteria
+     * @throws OntoDriverException   If an ontology access error occurs
+     * @throws IllegalStateException If called on a closed connection
+     */
+    Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) throws OntoDriverException;
+
     /**
      * Persists new individual and its property values specified by the descriptor.
      *
@@ -30,7 +30,12 @@ public enum DriverConfigParam implements ConfigurationParameter {
     @Deprecated
     ONTOLOGY_LANGUAGE(OntoDriverProperties.ONTOLOGY_LANGUAGE),
     USE_TRANSACTIONAL_ONTOLOGY(OntoDriverProperties.USE_TRANSACTIONAL_ONTOLOGY),
-    MODULE_EXTRACTION_SIGNATURE(OntoDriverProperties.MODULE_EXTRACTION_SIGNATURE);
+    MODULE_EXTRACTION_SIGNATURE(OntoDriverProperties.MODULE_EXTRACTION_SIGNATURE),
+    FILE_FLUSH_INTERVAL(OntoDriverProperties.FILE_FLUSH_INTERVAL),
+    FILE_FLUSH_THRESHOLD(OntoDriverProperties.FILE_FLUSH_THRESHOLD),
+    FILE_CHANGE_JOURNAL(OntoDriverProperties.FILE_CHANGE_JOURNAL),
+    IDENTIFIER_GENERATOR(OntoDriverProperties.IDENTIFIER_GENERATOR),
+    IDENTIFIER_BLOCK_SIZE(OntoDriverProperties.IDENTIFIER_BLOCK_SIZE);
 
     private final String name;
 
@@ -76,6 +76,57 @@ public final class OntoDriverProperties {
      */
     public static final String SIGNATURE_DELIMITER = "|";
 
+    /**
+     * Interval (in milliseconds) in which changes committed to a file-based storage are written into the file.
+     * <p>
+     * If set (together with or instead of {@link #FILE_FLUSH_THRESHOLD}), commits only schedule writing of the storage
+     * file and multiple commits are written out together by a background thread. If neither is set, the file is
+     * written on each commit.
+     * <p>
+     * Applies to file-based storage of the OWL API and Jena drivers.
+     */
+    public static final String FILE_FLUSH_INTERVAL = "cz.cvut.kbss.ontodriver.file.flush-interval";
+
+    /**
+     * Number of commits after which a file-based storage is written out immediately, regardless of {@link
+     * #FILE_FLUSH_INTERVAL}.
+     */
+    public static final String FILE_FLUSH_THRESHOLD = "cz.cvut.kbss.ontodriver.file.flush-threshold";
+
+    /**
+     * Whether changes committed to a file-based storage should be recorded in an append-only journal until they are
+     * written into the storage file.
+     * <p>
+     * The journal is stored next to the storage file and it is replayed when the storage is opened, so that committed
+     * changes are not lost when the application terminates before they are written out. Relevant only when writing of
+     * the file is deferred (see {@link #FILE_FLUSH_INTERVAL}).
+     */
+    public static final String FILE_CHANGE_JOURNAL = "cz.cvut.kbss.ontodriver.file.change-journal";
+
+    /**
+     * Strategy used to generate identifiers of new individuals.
+     * <p>
+     * Supported values are:
+     * <ul>
+     * <li>{@code random} - random integer appended to the class URI, checked for uniqueness in the storage (default),</li>
+     * <li>{@code uuid} - random UUID appended to the class URI, no storage access,</li>
+     * <li>{@code time-ordered} - time-ordered UUID appended to the class URI, no storage access,</li>
+     * <li>{@code block} - counter values reserved in blocks from a per-class counter kept in the storage,</li>
+     * <li>fully qualified name of a class implementing {@link cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator}
+     * with a public no-arg constructor.</li>
+     * </ul>
+     */
+    public static final String IDENTIFIER_GENERATOR = "cz.cvut.kbss.ontodriver.identifier-generator";
+
+    /**
+     * Number of identifiers reserved at once by the {@code block} identifier generation strategy.
+     * <p>
+     * Defaults to 100.
+     *
+     * @see #IDENTIFIER_GENERATOR
+     */
+    public static final String IDENTIFIER_BLOCK_SIZE = "cz.cvut.kbss.ontodriver.identifier-block-size";
+
     private OntoDriverProperties() {
         throw new AssertionError();
     }
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.util.IdentifierUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates identifiers from per-class counters kept in the storage.
+ * <p>
+ * Counter values are reserved in blocks, so the storage is accessed only once per {@code blockSize} generated
+ * identifiers of a class. Values of a reserved block which are not used (e.g., because the application terminates)
+ * are skipped, so the generated identifiers are unique, but not necessarily contiguous.
+ */
+public class BlockIdentifierGenerator implements IdentifierGenerator {
+
+    /**
+     * Default number of values reserved at once.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private final int blockSize;
+
+    private final Map<URI, Block> blocks = new ConcurrentHashMap<>();
+
+    public BlockIdentifierGenerator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockIdentifierGenerator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive, got " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public URI generateIdentifier(URI classUri, IdentifierStorage storage) throws OntoDriverException {
+        final Block block = blocks.computeIfAbsent(classUri, cls -> new Block());
+        return IdentifierUtils.createIdentifier(classUri, Long.toString(block.next(classUri, storage)));
+    }
+
+    private final class Block {
+        private long next;
+        private long end;
+
+        private synchronized long next(URI classUri, IdentifierStorage storage) throws OntoDriverException {
+            if (next == end) {
+                this.next = storage.reserveBlock(classUri, blockSize);
+                this.end = next + blockSize;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+
+import java.net.URI;
+
+/**
+ * Generates identifiers of new individuals.
+ * <p>
+ * A generator is shared by all connections of a driver, so implementations have to be thread-safe. Access to the
+ * storage is provided by the {@link IdentifierStorage} passed in by the driver.
+ *
+ * @see IdentifierGenerators
+ */
+public interface IdentifierGenerator {
+
+    /**
+     * Generates a new identifier for an instance of the specified class.
+     *
+     * @param classUri Class URI, used as the identifier base
+     * @param storage  Access to the storage the identifier is generated for
+     * @return New identifier
+     * @throws OntoDriverException If the storage cannot be accessed
+     * @throws cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException If no unique identifier can be generated
+     */
+    URI generateIdentifier(URI classUri, IdentifierStorage storage) throws OntoDriverException;
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
+
+/**
+ * Creates identifier generators based on driver configuration.
+ *
+ * @see cz.cvut.kbss.ontodriver.config.OntoDriverProperties#IDENTIFIER_GENERATOR
+ */
+public class IdentifierGenerators {
+
+    public static final String RANDOM = "random";
+    public static final String UUID = "uuid";
+    public static final String TIME_ORDERED = "time-ordered";
+    public static final String BLOCK = "block";
+
+    private IdentifierGenerators() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates identifier generator configured by the specified driver configuration.
+     * <p>
+     * If no generator is configured, {@link RandomIdentifierGenerator} is used.
+     *
+     * @param configuration Driver configuration
+     * @return New identifier generator
+     * @throws OntoDriverInitializationException If the configured generator or block size is not valid
+     */
+    public static IdentifierGenerator create(DriverConfiguration configuration) {
+        final String strategy = configuration.getProperty(DriverConfigParam.IDENTIFIER_GENERATOR, RANDOM).trim();
+        switch (strategy) {
+            case RANDOM:
+                return new RandomIdentifierGenerator();
+            case UUID:
+                return new UuidIdentifierGenerator();
+            case TIME_ORDERED:
+                return new TimeOrderedIdentifierGenerator();
+            case BLOCK:
+                return new BlockIdentifierGenerator(getBlockSize(configuration));
+            default:
+                return instantiate(strategy);
+        }
+    }
+
+    private static int getBlockSize(DriverConfiguration configuration) {
+        final String value = configuration.getProperty(DriverConfigParam.IDENTIFIER_BLOCK_SIZE,
+                Integer.toString(BlockIdentifierGenerator.DEFAULT_BLOCK_SIZE));
+        try {
+            final int size = Integer.parseInt(value.trim());
+            if (size < 1) {
+                throw new OntoDriverInitializationException("Identifier block size must be positive, got " + value);
+            }
+            return size;
+        } catch (NumberFormatException e) {
+            throw new OntoDriverInitializationException("Invalid identifier block size value " + value, e);
+        }
+    }
+
+    private static IdentifierGenerator instantiate(String className) {
+        try {
+            final Class<?> cls = Class.forName(className);
+            if (!IdentifierGenerator.class.isAssignableFrom(cls)) {
+                throw new OntoDriverInitializationException(
+                        "Class " + className + " is not an implementation of " + IdentifierGenerator.class.getName());
+            }
+            return (IdentifierGenerator) cls.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new OntoDriverInitializationException("Unable to create identifier generator " + className, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+
+import java.net.URI;
+
+/**
+ * Storage operations needed by identifier generators.
+ * <p>
+ * Implemented by the drivers.
+ */
+public interface IdentifierStorage {
+
+    /**
+     * Checks whether the specified identifier is already used by an instance of the specified class.
+     * <p>
+     * Uncommitted changes of the current transaction are taken into account.
+     *
+     * @param identifier Candidate identifier
+     * @param classUri   Class URI
+     * @return {@code true} if the identifier is already used, {@code false} otherwise
+     * @throws OntoDriverException If the storage cannot be accessed
+     */
+    boolean isUsed(URI identifier, URI classUri) throws OntoDriverException;
+
+    /**
+     * Reserves the specified number of counter values for instances of the specified class.
+     * <p>
+     * The reservation is committed to the storage immediately, independently of the current transaction, so that the
+     * reserved values are never handed out again, even if the current transaction is rolled back.
+     *
+     * @param classUri Class URI
+     * @param size     Number of values to reserve
+     * @return The first reserved value, the reserved range is {@code [result, result + size)}
+     * @throws OntoDriverException If the storage cannot be accessed
+     */
+    long reserveBlock(URI classUri, int size) throws OntoDriverException;
+}
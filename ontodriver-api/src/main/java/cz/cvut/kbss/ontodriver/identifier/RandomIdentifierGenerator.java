@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.util.IdentifierUtils;
+
+import java.net.URI;
+
+/**
+ * Generates random integer identifiers, checking each candidate for uniqueness in the storage.
+ * <p>
+ * This is the default strategy. It keeps identifiers short, but costs a storage access per generated identifier.
+ *
+ * @see IdentifierUtils#generateIdentifier(URI)
+ */
+public class RandomIdentifierGenerator implements IdentifierGenerator {
+
+    /**
+     * Maximum number of attempts to generate a unique identifier.
+     */
+    static final int GENERATION_THRESHOLD = 64;
+
+    @Override
+    public URI generateIdentifier(URI classUri, IdentifierStorage storage) throws OntoDriverException {
+        for (int i = 0; i < GENERATION_THRESHOLD; i++) {
+            final URI id = IdentifierUtils.generateIdentifier(classUri);
+            if (!storage.isUsed(id, classUri)) {
+                return id;
+            }
+        }
+        throw new IdentifierGenerationException(
+                "Unable to generate a unique identifier for an instance of " + classUri + " in " +
+                        GENERATION_THRESHOLD + " attempts.");
+    }
+}
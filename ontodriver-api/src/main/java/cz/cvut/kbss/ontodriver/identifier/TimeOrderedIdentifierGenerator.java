@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.util.IdentifierUtils;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates identifiers containing a time-ordered UUID.
+ * <p>
+ * The UUID starts with the generation timestamp in milliseconds followed by random bits (the layout of UUID version 7),
+ * so identifiers of a class sort lexicographically by the time they were generated. The storage is not checked for
+ * existing identifiers.
+ */
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public URI generateIdentifier(URI classUri, IdentifierStorage storage) {
+        return IdentifierUtils.createIdentifier(classUri, timeOrderedUuid(System.currentTimeMillis()).toString());
+    }
+
+    static UUID timeOrderedUuid(long timestamp) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = (timestamp << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        final long lsb = (random.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
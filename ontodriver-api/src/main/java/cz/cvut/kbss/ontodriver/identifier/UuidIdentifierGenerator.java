@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.util.IdentifierUtils;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates identifiers containing a random (version 4) UUID.
+ * <p>
+ * The probability of a collision is negligible, so the storage is not checked for existing identifiers.
+ */
+public class UuidIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public URI generateIdentifier(URI classUri, IdentifierStorage storage) {
+        return IdentifierUtils.createIdentifier(classUri, randomUuid().toString());
+    }
+
+    /**
+     * Unlike {@link UUID#randomUUID()}, does not use the shared {@link java.security.SecureRandom} instance, so
+     * concurrent generation does not contend on it.
+     */
+    static UUID randomUuid() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final long lsb = (random.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files atomically.
+ * <p>
+ * The content is first written into a temporary file in the same directory as the target file, which then replaces
+ * the target file. Therefore, readers (and the storage after a crash) see either the original or the new content of
+ * the file, never a partially written one.
+ */
+public final class AtomicFileWriter {
+
+    /**
+     * Writes content into an output stream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFileWriter() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Replaces content of the specified file with content written by the specified writer.
+     *
+     * @param target Target file
+     * @param writer Writes the new content
+     * @throws IOException If writing of the temporary file or its moving to the target location fails
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        final Path dir = target.toAbsolutePath().getParent();
+        final Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (final FileOutputStream fos = new FileOutputStream(tmp.toFile());
+                 final BufferedOutputStream out = new BufferedOutputStream(fos)) {
+                writer.writeTo(out);
+                out.flush();
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of changes committed to a file-based storage.
+ * <p>
+ * The journal is used by storages which write their file lazily. Each commit appends a record describing its changes,
+ * so that the changes can be replayed after a crash, before the storage file was written. The content of records is
+ * opaque to the journal.
+ * <p>
+ * The journal is split into segments stored next to the storage file. Before the storage file is written, the
+ * current segment is closed by {@link #rotate()}. Once the file has been written, segments whose changes it contains
+ * are discarded by {@link #discard(long)}.
+ * <p>
+ * Each record is checksummed, an incomplete record at the end of a segment (e.g., when the application crashed while
+ * appending it) is ignored when reading the journal.
+ */
+public class ChangeJournal implements Closeable {
+
+    private static final String SEGMENT_INFIX = ".journal.";
+
+    private final Path directory;
+    private final String segmentPrefix;
+
+    private long currentSegment;
+    private FileOutputStream segmentFile;
+    private DataOutputStream out;
+
+    /**
+     * Creates journal for the specified storage file.
+     * <p>
+     * Existing journal segments are kept, new records are appended to a new segment.
+     *
+     * @param storageFile Storage file whose changes are journaled
+     */
+    public ChangeJournal(Path storageFile) {
+        Objects.requireNonNull(storageFile);
+        this.directory = storageFile.toAbsolutePath().getParent();
+        this.segmentPrefix = storageFile.getFileName().toString() + SEGMENT_INFIX;
+        this.currentSegment = listSegments().keySet().stream().mapToLong(Long::longValue).max().orElse(0L) + 1;
+    }
+
+    private TreeMap<Long, Path> listSegments() {
+        final TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, segmentPrefix + "*")) {
+            for (Path p : stream) {
+                final String suffix = p.getFileName().toString().substring(segmentPrefix.length());
+                try {
+                    segments.put(Long.parseLong(suffix), p);
+                } catch (NumberFormatException e) {
+                    // Not a journal segment
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list journal segments in " + directory, e);
+        }
+        return segments;
+    }
+
+    /**
+     * Appends the specified record to the journal.
+     * <p>
+     * The record is forced to the storage device before this method returns.
+     *
+     * @param record Record to append
+     * @throws IOException If writing of the record fails
+     */
+    public synchronized void append(byte[] record) throws IOException {
+        Objects.requireNonNull(record);
+        if (out == null) {
+            this.segmentFile = new FileOutputStream(segmentPath(currentSegment).toFile(), true);
+            this.out = new DataOutputStream(new BufferedOutputStream(segmentFile));
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        out.writeInt(record.length);
+        out.writeLong(crc.getValue());
+        out.write(record);
+        out.flush();
+        segmentFile.getFD().sync();
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(segmentPrefix + segment);
+    }
+
+    /**
+     * Closes the current journal segment, subsequent records will be appended to a new one.
+     *
+     * @return Identifier of the closed segment, which can be used to discard it (together with all the older ones)
+     * @throws IOException If the current segment cannot be closed
+     */
+    public synchronized long rotate() throws IOException {
+        closeSegment();
+        return currentSegment++;
+    }
+
+    private void closeSegment() throws IOException {
+        if (out != null) {
+            out.close();
+            this.out = null;
+            this.segmentFile = null;
+        }
+    }
+
+    /**
+     * Deletes the specified journal segment and all the segments preceding it.
+     *
+     * @param segment Identifier of the last segment to discard, as returned by {@link #rotate()}
+     * @throws IOException If a segment cannot be deleted
+     */
+    public synchronized void discard(long segment) throws IOException {
+        for (Path p : listSegments().headMap(segment, true).values()) {
+            Files.deleteIfExists(p);
+        }
+    }
+
+    /**
+     * Reads all complete records in the journal, in the order in which they were appended.
+     *
+     * @return List of records, possibly empty
+     * @throws IOException If reading of the journal fails
+     */
+    public synchronized List<byte[]> read() throws IOException {
+        final List<byte[]> records = new ArrayList<>();
+        for (Path p : listSegments().values()) {
+            readSegment(p, records);
+        }
+        return records;
+    }
+
+    private static void readSegment(Path segment, List<byte[]> records) throws IOException {
+        final long size = Files.size(segment);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                final byte[] record;
+                final long checksum;
+                try {
+                    final int length = in.readInt();
+                    checksum = in.readLong();
+                    if (length < 0 || length > size) {
+                        return;
+                    }
+                    record = new byte[length];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    // Incomplete record at the end of the segment
+                    return;
+                }
+                final CRC32 crc = new CRC32();
+                crc.update(record);
+                if (crc.getValue() != checksum) {
+                    return;
+                }
+                records.add(record);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+}
@@ -16,15 +16,13 @@ package cz.cvut.kbss.ontodriver.util;
 
 import java.net.URI;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility for automatic identifier generation.
  */
 public class IdentifierUtils {
 
-    private static final Random RANDOM = new Random();
-
     private IdentifierUtils() {
         throw new AssertionError();
     }
@@ -39,15 +37,29 @@ public class IdentifierUtils {
      * @return Generated identifier
      */
     public static URI generateIdentifier(URI classUri) {
+        return createIdentifier(classUri, Integer.toString(ThreadLocalRandom.current().nextInt()));
+    }
+
+    /**
+     * Creates an identifier based on the specified class URI and instance-specific suffix.
+     * <p>
+     * The identifier is formed in the same way as in {@link #generateIdentifier(URI)}, only the specified suffix is
+     * used instead of the random integer.
+     *
+     * @param classUri   Class URI used as identifier base
+     * @param instanceId Instance-specific identifier suffix
+     * @return Identifier
+     */
+    public static URI createIdentifier(URI classUri, String instanceId) {
         Objects.requireNonNull(classUri);
         if (classUri.getFragment() != null) {
-            return URI.create(classUri.toString() + "_instance" + RANDOM.nextInt());
+            return URI.create(classUri.toString() + "_instance" + instanceId);
         } else {
             String base = classUri.toString();
             if (base.endsWith("/")) {
-                return URI.create(base + "instance" + RANDOM.nextInt());
+                return URI.create(base + "instance" + instanceId);
             } else {
-                return URI.create(base + "/instance" + RANDOM.nextInt());
+                return URI.create(base + "/instance" + instanceId);
             }
         }
     }
@@ -45,6 +45,11 @@ public class StatementHolder {
         int paramStartIndex = 0;
         for (int i = 0; i < statement.length(); i++) {
             final char c = statement.charAt(i);
+            if (inParam && !isVariableNameChar(c)) {
+                lastParamEndIndex = i;
+                paramNames.add(statement.substring(paramStartIndex, i));
+                inParam = false;
+            }
             switch (c) {
                 case '\'':
                     inSQString = !inSQString;
@@ -59,35 +64,24 @@ public class StatementHolder {
                         inParam = true;
                     }
                     break;
-                case '<':
-                case '>':
-                case ',':
-                case '\n':
-                case ')':
-                case ' ':
-                case '.':
-                case ';':
-                case '{':
-                case '}':
-                case '[':
-                case ']':
-                    if (inParam) {
-                        lastParamEndIndex = i;
-                        final String param = statement.substring(paramStartIndex, i);
-                        paramNames.add(param);
-                        inParam = false;
-                    }
-                    break;
                 default:
                     break;
             }
         }
+        if (inParam) {
+            lastParamEndIndex = statement.length();
+            paramNames.add(statement.substring(paramStartIndex));
+        }
         statementParts.add(statement.substring(lastParamEndIndex));
         this.paramValues = new HashMap<>(paramNames.size());
 
         assert statementParts.size() == paramNames.size() + 1;
     }
 
+    private static boolean isVariableNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
     public void setParameter(String parameterName, String value) {
         ensureState();
         if (!paramNames.contains(parameterName)) {
@@ -18,6 +18,17 @@ public class Vocabulary {
 
     public static final String RDF_TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
 
+    /**
+     * Property holding the last identifier counter value reserved for instances of a class.
+     */
+    public static final String IDENTIFIER_COUNTER = "http://onto.fel.cvut.cz/ontologies/jopa/identifier-counter";
+
+    /**
+     * Context in which identifier counters are stored, so that they do not mix with application data.
+     */
+    public static final String IDENTIFIER_COUNTERS_CONTEXT =
+            "http://onto.fel.cvut.cz/ontologies/jopa/identifier-counters";
+
     private Vocabulary() {
         throw new AssertionError();
     }
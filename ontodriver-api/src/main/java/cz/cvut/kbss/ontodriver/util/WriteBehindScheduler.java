@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces changes of a storage into deferred writes performed by a background thread.
+ * <p>
+ * Each committed change is announced using {@link #changed()}. The first change after a write schedules the next one
+ * after the configured flush interval, so that all the changes committed in the meantime are written at once. When the
+ * number of changes reaches the configured threshold, the write is performed immediately.
+ * <p>
+ * The actual writing is done by the {@link FlushTask} provided by the storage. Flushes are never executed
+ * concurrently.
+ *
+ * @see DriverConfigParam#FILE_FLUSH_INTERVAL
+ * @see DriverConfigParam#FILE_FLUSH_THRESHOLD
+ */
+public class WriteBehindScheduler implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBehindScheduler.class);
+
+    /**
+     * Delay (in milliseconds) before retrying a failed flush when no flush interval is configured.
+     */
+    private static final long RETRY_DELAY = 1000L;
+
+    private final FlushTask task;
+    private final long flushInterval;
+    private final int flushThreshold;
+
+    private final ScheduledExecutorService executor;
+
+    private int pendingChanges;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean open = true;
+
+    private final Object flushLock = new Object();
+
+    /**
+     * Writes out the current state of the storage.
+     */
+    @FunctionalInterface
+    public interface FlushTask {
+        void flush() throws IOException;
+    }
+
+    public WriteBehindScheduler(FlushTask task, long flushInterval, int flushThreshold, String threadName) {
+        if (flushInterval <= 0 && flushThreshold <= 0) {
+            throw new IllegalArgumentException("Either flush interval or flush threshold has to be positive.");
+        }
+        this.task = task;
+        this.flushInterval = flushInterval;
+        this.flushThreshold = flushThreshold;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Creates a scheduler configured by the specified driver configuration.
+     *
+     * @param configuration Driver configuration
+     * @param task          Task writing out the storage
+     * @param threadName    Name of the background writer thread
+     * @return New scheduler
+     * @throws OntoDriverInitializationException If the configuration contains invalid flush interval or threshold
+     * @see #isEnabled(DriverConfiguration)
+     */
+    public static WriteBehindScheduler create(DriverConfiguration configuration, FlushTask task, String threadName) {
+        return new WriteBehindScheduler(task, getFlushInterval(configuration), getFlushThreshold(configuration),
+                threadName);
+    }
+
+    /**
+     * Checks whether deferred writing is enabled by the specified configuration.
+     *
+     * @param configuration Driver configuration
+     * @return {@code true} if flush interval or flush threshold are configured
+     */
+    public static boolean isEnabled(DriverConfiguration configuration) {
+        return getFlushInterval(configuration) > 0 || getFlushThreshold(configuration) > 0;
+    }
+
+    private static long getFlushInterval(DriverConfiguration configuration) {
+        final String value = configuration.getProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "0");
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new OntoDriverInitializationException("Invalid flush interval value " + value, e);
+        }
+    }
+
+    private static int getFlushThreshold(DriverConfiguration configuration) {
+        final String value = configuration.getProperty(DriverConfigParam.FILE_FLUSH_THRESHOLD, "0");
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new OntoDriverInitializationException("Invalid flush threshold value " + value, e);
+        }
+    }
+
+    /**
+     * Announces a committed change of the storage.
+     * <p>
+     * Schedules a flush, unless one is already scheduled.
+     */
+    public synchronized void changed() {
+        if (!open) {
+            throw new IllegalStateException("The write-behind scheduler is closed.");
+        }
+        pendingChanges++;
+        if (flushThreshold > 0 && pendingChanges >= flushThreshold) {
+            reschedule(0);
+        } else if (scheduledFlush == null && flushInterval > 0) {
+            reschedule(flushInterval);
+        }
+    }
+
+    private void reschedule(long delay) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        this.scheduledFlush = executor.schedule(this::flushInBackground, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the number of changes which have not been written out, yet.
+     *
+     * @return Number of pending changes
+     */
+    public synchronized int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Unable to write out storage changes, will retry.", e);
+            synchronized (this) {
+                if (open && scheduledFlush == null) {
+                    reschedule(flushInterval > 0 ? flushInterval : RETRY_DELAY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes out pending changes immediately.
+     * <p>
+     * Does nothing if there are no pending changes.
+     *
+     * @throws IOException If the flush task fails
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            final int flushed;
+            synchronized (this) {
+                flushed = pendingChanges;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    this.scheduledFlush = null;
+                }
+                this.pendingChanges = 0;
+            }
+            if (flushed == 0) {
+                return;
+            }
+            try {
+                task.flush();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    this.pendingChanges += flushed;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops the background writer and writes out pending changes.
+     *
+     * @throws IOException If the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            this.open = false;
+        }
+        try {
+            flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
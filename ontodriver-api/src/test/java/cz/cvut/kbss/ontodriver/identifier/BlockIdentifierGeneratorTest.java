@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlockIdentifierGeneratorTest {
+
+    private static final URI CLASS_URI = URI.create("http://onto.fel.cvut.cz/ontologies/jopa/ClassA");
+
+    @Mock
+    private IdentifierStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void generateIdentifierReservesBlockOnlyWhenCurrentBlockIsExhausted() throws Exception {
+        when(storage.reserveBlock(CLASS_URI, 3)).thenReturn(0L, 3L);
+        final BlockIdentifierGenerator sut = new BlockIdentifierGenerator(3);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(URI.create(CLASS_URI + "/instance" + i), sut.generateIdentifier(CLASS_URI, storage));
+        }
+        verify(storage, times(2)).reserveBlock(CLASS_URI, 3);
+        verify(storage, never()).isUsed(any(), any());
+    }
+
+    @Test
+    void generateIdentifierKeepsSeparateBlocksForDifferentClasses() throws Exception {
+        final URI otherClass = URI.create("http://onto.fel.cvut.cz/ontologies/jopa/ClassB");
+        when(storage.reserveBlock(any(), anyInt())).thenReturn(10L);
+        final BlockIdentifierGenerator sut = new BlockIdentifierGenerator();
+        assertEquals(URI.create(CLASS_URI + "/instance10"), sut.generateIdentifier(CLASS_URI, storage));
+        assertEquals(URI.create(otherClass + "/instance10"), sut.generateIdentifier(otherClass, storage));
+        verify(storage).reserveBlock(CLASS_URI, BlockIdentifierGenerator.DEFAULT_BLOCK_SIZE);
+        verify(storage).reserveBlock(otherClass, BlockIdentifierGenerator.DEFAULT_BLOCK_SIZE);
+    }
+
+    @Test
+    void concurrentGenerationProducesUniqueIdentifiers() throws Exception {
+        final long[] counter = {0};
+        when(storage.reserveBlock(eq(CLASS_URI), anyInt())).thenAnswer(inv -> {
+            synchronized (counter) {
+                final long start = counter[0];
+                counter[0] += inv.getArgument(1, Integer.class);
+                return start;
+            }
+        });
+        final BlockIdentifierGenerator sut = new BlockIdentifierGenerator(7);
+        final Set<URI> generated = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        generated.add(sut.generateIdentifier(CLASS_URI, storage));
+                    }
+                    return null;
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(400, generated.size());
+    }
+
+    @Test
+    void constructorThrowsIllegalArgumentExceptionForNonPositiveBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockIdentifierGenerator(0));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdentifierGeneratorsTest {
+
+    private final DriverConfiguration configuration = new DriverConfiguration(
+            OntologyStorageProperties.physicalUri(URI.create("file:/tmp/storage.owl")).driver("driver").build());
+
+    @Test
+    void createReturnsRandomIdentifierGeneratorByDefault() {
+        assertThat(IdentifierGenerators.create(configuration), instanceOf(RandomIdentifierGenerator.class));
+    }
+
+    @Test
+    void createReturnsGeneratorOfConfiguredStrategy() {
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, IdentifierGenerators.UUID);
+        assertThat(IdentifierGenerators.create(configuration), instanceOf(UuidIdentifierGenerator.class));
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, IdentifierGenerators.TIME_ORDERED);
+        assertThat(IdentifierGenerators.create(configuration), instanceOf(TimeOrderedIdentifierGenerator.class));
+    }
+
+    @Test
+    void createReturnsBlockGeneratorWithConfiguredBlockSize() {
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, IdentifierGenerators.BLOCK);
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_BLOCK_SIZE, "25");
+        final IdentifierGenerator result = IdentifierGenerators.create(configuration);
+        assertThat(result, instanceOf(BlockIdentifierGenerator.class));
+        assertEquals(25, ((BlockIdentifierGenerator) result).getBlockSize());
+    }
+
+    @Test
+    void createThrowsInitializationExceptionForInvalidBlockSize() {
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, IdentifierGenerators.BLOCK);
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_BLOCK_SIZE, "-1");
+        assertThrows(OntoDriverInitializationException.class, () -> IdentifierGenerators.create(configuration));
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_BLOCK_SIZE, "abc");
+        assertThrows(OntoDriverInitializationException.class, () -> IdentifierGenerators.create(configuration));
+    }
+
+    @Test
+    void createInstantiatesConfiguredGeneratorClass() {
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, UuidIdentifierGenerator.class.getName());
+        assertThat(IdentifierGenerators.create(configuration), instanceOf(UuidIdentifierGenerator.class));
+    }
+
+    @Test
+    void createThrowsInitializationExceptionForUnknownGenerator() {
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, String.class.getName());
+        assertThrows(OntoDriverInitializationException.class, () -> IdentifierGenerators.create(configuration));
+        configuration.setProperty(DriverConfigParam.IDENTIFIER_GENERATOR, "unknown");
+        assertThrows(OntoDriverInitializationException.class, () -> IdentifierGenerators.create(configuration));
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.URI;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RandomIdentifierGeneratorTest {
+
+    private static final URI CLASS_URI = URI.create("http://onto.fel.cvut.cz/ontologies/jopa/ClassA");
+
+    @Mock
+    private IdentifierStorage storage;
+
+    private final RandomIdentifierGenerator sut = new RandomIdentifierGenerator();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void generateIdentifierReturnsIdentifierNotUsedInStorage() throws Exception {
+        final URI result = sut.generateIdentifier(CLASS_URI, storage);
+        assertThat(result.toString(), containsString(CLASS_URI + "/instance"));
+        verify(storage).isUsed(result, CLASS_URI);
+    }
+
+    @Test
+    void generateIdentifierRetriesWhenCandidateIsAlreadyUsed() throws Exception {
+        when(storage.isUsed(any(), eq(CLASS_URI))).thenReturn(true, false);
+        final URI result = sut.generateIdentifier(CLASS_URI, storage);
+        assertNotNull(result);
+        verify(storage, times(2)).isUsed(any(), eq(CLASS_URI));
+    }
+
+    @Test
+    void generateIdentifierThrowsIdentifierGenerationExceptionWhenThresholdIsReached() throws Exception {
+        when(storage.isUsed(any(), eq(CLASS_URI))).thenReturn(true);
+        assertThrows(IdentifierGenerationException.class, () -> sut.generateIdentifier(CLASS_URI, storage));
+        verify(storage, times(RandomIdentifierGenerator.GENERATION_THRESHOLD)).isUsed(any(), eq(CLASS_URI));
+    }
+}
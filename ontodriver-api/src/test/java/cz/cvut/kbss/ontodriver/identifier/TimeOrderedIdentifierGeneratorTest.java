@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdentifierGeneratorTest {
+
+    private static final URI CLASS_URI = URI.create("http://onto.fel.cvut.cz/ontologies/jopa/ClassA/");
+
+    private final TimeOrderedIdentifierGenerator sut = new TimeOrderedIdentifierGenerator();
+
+    @Test
+    void generateIdentifierAppendsTimeOrderedUuidToClassUri() {
+        final URI result = sut.generateIdentifier(CLASS_URI, null);
+        final String prefix = CLASS_URI + "instance";
+        assertTrue(result.toString().startsWith(prefix));
+        final UUID uuid = UUID.fromString(result.toString().substring(prefix.length()));
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void identifiersGeneratedLaterSortAfterIdentifiersGeneratedEarlier() {
+        final long now = System.currentTimeMillis();
+        final String earlier = TimeOrderedIdentifierGenerator.timeOrderedUuid(now).toString();
+        final String later = TimeOrderedIdentifierGenerator.timeOrderedUuid(now + 1).toString();
+        assertTrue(earlier.compareTo(later) < 0);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.identifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class UuidIdentifierGeneratorTest {
+
+    private static final URI CLASS_URI = URI.create("http://onto.fel.cvut.cz/ontologies/jopa#ClassA");
+
+    private final UuidIdentifierGenerator sut = new UuidIdentifierGenerator();
+
+    @Test
+    void generateIdentifierAppendsRandomUuidToClassUriWithoutAccessingStorage() {
+        final IdentifierStorage storage = mock(IdentifierStorage.class);
+        final URI result = sut.generateIdentifier(CLASS_URI, storage);
+        final String prefix = CLASS_URI + "_instance";
+        assertTrue(result.toString().startsWith(prefix));
+        final UUID uuid = UUID.fromString(result.toString().substring(prefix.length()));
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+        verifyNoMoreInteractions(storage);
+    }
+
+    @Test
+    void generateIdentifierGeneratesDistinctIdentifiers() {
+        final Set<URI> generated = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(generated.add(sut.generateIdentifier(CLASS_URI, null)));
+        }
+    }
+}
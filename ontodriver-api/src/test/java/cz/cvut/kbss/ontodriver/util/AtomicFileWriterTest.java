@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileWriterTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("atomic-writer-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(p -> p.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void writeReplacesContentOfTargetFile() throws IOException {
+        final Path target = directory.resolve("target.ttl");
+        Files.write(target, "original".getBytes(StandardCharsets.UTF_8));
+
+        AtomicFileWriter.write(target, out -> out.write("updated".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("updated", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void writeKeepsOriginalContentWhenWriterFails() throws IOException {
+        final Path target = directory.resolve("target.ttl");
+        Files.write(target, "original".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> AtomicFileWriter.write(target, out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Failure");
+        }));
+        assertEquals("original", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeJournalTest {
+
+    private Path directory;
+    private Path storageFile;
+
+    private ChangeJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("journal-test");
+        this.storageFile = directory.resolve("storage.ttl");
+        this.journal = new ChangeJournal(storageFile);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path p : files.collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void readReturnsAppendedRecordsInOrder() throws IOException {
+        journal.append(bytes("one"));
+        journal.rotate();
+        journal.append(bytes("two"));
+        journal.append(bytes("three"));
+
+        final List<byte[]> result = journal.read();
+        assertEquals(3, result.size());
+        assertEquals("one", string(result.get(0)));
+        assertEquals("two", string(result.get(1)));
+        assertEquals("three", string(result.get(2)));
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void discardDeletesRotatedSegmentsAndKeepsNewerRecords() throws IOException {
+        journal.append(bytes("one"));
+        final long segment = journal.rotate();
+        journal.append(bytes("two"));
+        journal.discard(segment);
+
+        final List<byte[]> result = journal.read();
+        assertEquals(1, result.size());
+        assertEquals("two", string(result.get(0)));
+    }
+
+    @Test
+    void readIgnoresIncompleteRecordAtEndOfSegment() throws IOException {
+        journal.append(bytes("one"));
+        journal.append(bytes("two"));
+        journal.close();
+        final File segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.getFileName().toString().startsWith("storage.ttl.journal.")).findAny()
+                           .orElseThrow(AssertionError::new).toFile();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        final List<byte[]> result = journal.read();
+        assertEquals(1, result.size());
+        assertEquals("one", string(result.get(0)));
+    }
+
+    @Test
+    void newJournalAppendsToNewSegmentAndReadsExistingRecords() throws IOException {
+        journal.append(bytes("one"));
+        journal.close();
+        this.journal = new ChangeJournal(storageFile);
+        journal.append(bytes("two"));
+
+        final List<byte[]> result = journal.read();
+        assertEquals(2, result.size());
+        assertEquals("one", string(result.get(0)));
+        assertEquals("two", string(result.get(1)));
+    }
+
+    @Test
+    void readReturnsEmptyListForEmptyJournal() throws IOException {
+        assertTrue(journal.read().isEmpty());
+    }
+}
@@ -20,6 +20,7 @@ import java.net.URI;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class IdentifierUtilsTest {
 
@@ -43,4 +44,10 @@ class IdentifierUtilsTest {
         final URI result = IdentifierUtils.generateIdentifier(clsUri);
         assertThat(result.toString(), containsString("/instance"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createIdentifierAppendsSpecifiedInstanceIdentifier() {
+        final URI clsUri = URI.create("http://onto.fel.cvut.cz/ontologies/jopa#ClassA");
+        assertEquals(URI.create(clsUri + "_instance117"), IdentifierUtils.createIdentifier(clsUri, "117"));
+    }
+}
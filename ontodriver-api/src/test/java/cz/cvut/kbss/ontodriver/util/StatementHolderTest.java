@@ -138,4 +138,22 @@ class StatementHolderTest {
         holder.analyzeStatement();
         assertThrows(IllegalArgumentException.class, () -> holder.setParameter("z", "someValue@en"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void analyzeStatementRecognizesParametersEndedByOperator() {
+        final String query = "SELECT ?x WHERE { ?x <http://property> ?y . FILTER (?y=?z) }";
+        final StatementHolder holder = new StatementHolder(query);
+        holder.analyzeStatement();
+        holder.setParameter("z", "\"Bill\"");
+        assertEquals("SELECT ?x WHERE { ?x <http://property> ?y . FILTER (?y=\"Bill\") }", holder.assembleStatement());
+    }
+
+    @Test
+    void analyzeStatementRecognizesParameterAtStatementEnd() {
+        final String query = "SELECT ?x WHERE { ?x <http://property> ?y . } LIMIT ?limit";
+        final StatementHolder holder = new StatementHolder(query);
+        holder.analyzeStatement();
+        holder.setParameter("limit", "10");
+        assertEquals("SELECT ?x WHERE { ?x <http://property> ?y . } LIMIT 10", holder.assembleStatement());
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindSchedulerTest {
+
+    private final AtomicInteger flushCount = new AtomicInteger();
+
+    private WriteBehindScheduler scheduler;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void changesWithinFlushIntervalAreCoalescedIntoSingleFlush() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        this.scheduler = new WriteBehindScheduler(() -> {
+            flushCount.incrementAndGet();
+            latch.countDown();
+        }, 100, 0, "test-writer");
+        for (int i = 0; i < 10; i++) {
+            scheduler.changed();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(1, flushCount.get());
+        assertEquals(0, scheduler.getPendingChanges());
+    }
+
+    @Test
+    void reachingFlushThresholdFlushesImmediately() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        this.scheduler = new WriteBehindScheduler(() -> {
+            flushCount.incrementAndGet();
+            latch.countDown();
+        }, TimeUnit.HOURS.toMillis(1), 3, "test-writer");
+        scheduler.changed();
+        scheduler.changed();
+        assertEquals(0, flushCount.get());
+        scheduler.changed();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, flushCount.get());
+    }
+
+    @Test
+    void closeFlushesPendingChanges() throws Exception {
+        this.scheduler =
+                new WriteBehindScheduler(flushCount::incrementAndGet, TimeUnit.HOURS.toMillis(1), 0, "test-writer");
+        scheduler.changed();
+        scheduler.close();
+        assertEquals(1, flushCount.get());
+        assertThrows(IllegalStateException.class, () -> scheduler.changed());
+    }
+
+    @Test
+    void flushDoesNothingWhenThereAreNoPendingChanges() throws Exception {
+        this.scheduler =
+                new WriteBehindScheduler(flushCount::incrementAndGet, TimeUnit.HOURS.toMillis(1), 0, "test-writer");
+        scheduler.flush();
+        assertEquals(0, flushCount.get());
+    }
+
+    @Test
+    void failedFlushKeepsChangesPending() {
+        this.scheduler = new WriteBehindScheduler(() -> {
+            throw new IOException("Failure");
+        }, TimeUnit.HOURS.toMillis(1), 0, "test-writer");
+        scheduler.changed();
+        assertThrows(IOException.class, () -> scheduler.flush());
+        assertEquals(1, scheduler.getPendingChanges());
+        assertThrows(IOException.class, () -> scheduler.close());
+        this.scheduler = null;
+    }
+
+    @Test
+    void isEnabledReturnsTrueWhenFlushIntervalIsConfigured() {
+        final DriverConfiguration configuration = new DriverConfiguration(
+                OntologyStorageProperties.physicalUri(URI.create("file:/tmp/storage.owl")).driver("driver").build());
+        assertFalse(WriteBehindScheduler.isEnabled(configuration));
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "1000");
+        assertTrue(WriteBehindScheduler.isEnabled(configuration));
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena;
+
+import cz.cvut.kbss.ontodriver.jena.connector.ConnectorFactory;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
+import org.apache.jena.rdf.model.*;
+
+import java.net.URI;
+
+/**
+ * Reserves blocks of identifier counter values in the storage.
+ * <p>
+ * The counter of a class is stored as the next value to reserve. It is kept in the default graph, because file-based
+ * storage persists only the default graph. Each reservation reads and updates the counter atomically in a separate
+ * write transaction on the storage (see {@link ConnectorFactory#executeAtomically(java.util.function.Function)}), so
+ * that it does not depend on the outcome of the transaction in which the identifiers are used and concurrent
+ * reservations by other drivers sharing the same storage cannot obtain overlapping blocks.
+ */
+class IdentifierCounters {
+
+    private static final Property COUNTER = ResourceFactory.createProperty(Vocabulary.IDENTIFIER_COUNTER);
+
+    private final ConnectorFactory connectorFactory;
+
+    IdentifierCounters(ConnectorFactory connectorFactory) {
+        this.connectorFactory = connectorFactory;
+    }
+
+    /**
+     * Reserves the specified number of counter values for instances of the specified class.
+     *
+     * @param classUri Class URI
+     * @param size     Number of values to reserve
+     * @return The first reserved value
+     * @throws JenaDriverException When storage access error occurs
+     */
+    long reserve(URI classUri, int size) throws JenaDriverException {
+        return connectorFactory.executeAtomically(dataset -> {
+            final Model model = dataset.getDefaultModel();
+            final Resource subject = model.createResource(classUri.toString());
+            long start = 0;
+            for (Statement s : model.listStatements(subject, COUNTER, (RDFNode) null).toList()) {
+                if (s.getObject().isLiteral()) {
+                    start = Math.max(start, s.getLiteral().getLong());
+                }
+            }
+            model.removeAll(subject, COUNTER, null);
+            model.addLiteral(subject, COUNTER, start + size);
+            return start;
+        });
+    }
+}
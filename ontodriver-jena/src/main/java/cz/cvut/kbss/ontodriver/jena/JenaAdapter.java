@@ -16,16 +16,22 @@ package cz.cvut.kbss.ontodriver.jena;
 
 import cz.cvut.kbss.ontodriver.Wrapper;
 import cz.cvut.kbss.ontodriver.descriptor.*;
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierStorage;
+import cz.cvut.kbss.ontodriver.identifier.RandomIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.jena.connector.InferredStorageConnector;
 import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.jena.list.ListHandler;
 import cz.cvut.kbss.ontodriver.jena.query.JenaPreparedStatement;
 import cz.cvut.kbss.ontodriver.jena.query.JenaStatement;
-import cz.cvut.kbss.ontodriver.jena.util.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.jena.query.ParsedQueryCache;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.util.Transaction;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
+import org.apache.jena.rdf.model.ResourceFactory;
 
 import java.net.URI;
 import java.util.Collection;
@@ -48,9 +54,21 @@ public class JenaAdapter implements Wrapper {
     private final StorageConnector connector;
     private final InferredStorageConnector inferenceConnector;
 
+    private final IdentifierGenerator identifierGenerator;
+    private final IdentifierStorage identifierStorage;
+
+    private final ParsedQueryCache queryCache = new ParsedQueryCache();
+
     JenaAdapter(StorageConnector connector, InferredStorageConnector inferenceConnector) {
+        this(connector, inferenceConnector, new RandomIdentifierGenerator(), null);
+    }
+
+    JenaAdapter(StorageConnector connector, InferredStorageConnector inferenceConnector,
+                IdentifierGenerator identifierGenerator, IdentifierCounters identifierCounters) {
         this.connector = connector;
         this.inferenceConnector = inferenceConnector;
+        this.identifierGenerator = identifierGenerator;
+        this.identifierStorage = new AdapterIdentifierStorage(identifierCounters);
     }
 
     void commit() throws JenaDriverException {
@@ -86,6 +104,11 @@ public class JenaAdapter implements Wrapper {
         return new MainAxiomLoader(connector, inferenceConnector).find(descriptor);
     }
 
+    Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) {
+        beginTransactionIfNotActive();
+        return new MainAxiomLoader(connector, inferenceConnector).find(descriptors);
+    }
+
     boolean contains(Axiom<?> axiom, URI context) {
         beginTransactionIfNotActive();
         return new MainAxiomLoader(connector, inferenceConnector).contains(axiom, context);
@@ -98,7 +121,11 @@ public class JenaAdapter implements Wrapper {
 
     URI generateIdentifier(URI classUri) {
         beginTransactionIfNotActive();
-        return new IdentifierGenerator(connector).generateIdentifier(classUri);
+        try {
+            return identifierGenerator.generateIdentifier(classUri, identifierStorage);
+        } catch (OntoDriverException e) {
+            throw new IdentifierGenerationException("Unable to generate identifier for an instance of " + classUri, e);
+        }
     }
 
     boolean isConsistent(URI context) {
@@ -139,12 +166,12 @@ public class JenaAdapter implements Wrapper {
 
     JenaStatement createStatement() {
         beginTransactionIfNotActive();
-        return new JenaStatement(inferenceConnector);
+        return new JenaStatement(inferenceConnector, queryCache);
     }
 
     JenaPreparedStatement prepareStatement(String sparql) {
         beginTransactionIfNotActive();
-        return new JenaPreparedStatement(inferenceConnector, sparql);
+        return new JenaPreparedStatement(inferenceConnector, sparql, queryCache);
     }
 
     void close() throws JenaDriverException {
@@ -158,4 +185,28 @@ public class JenaAdapter implements Wrapper {
         }
         return connector.unwrap(cls);
     }
+
+    private class AdapterIdentifierStorage implements IdentifierStorage {
+
+        private final IdentifierCounters counters;
+
+        private AdapterIdentifierStorage(IdentifierCounters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public boolean isUsed(URI identifier, URI classUri) {
+            return connector.contains(ResourceFactory.createResource(identifier.toString()),
+                    ResourceFactory.createProperty(Vocabulary.RDF_TYPE),
+                    ResourceFactory.createResource(classUri.toString()), null);
+        }
+
+        @Override
+        public long reserveBlock(URI classUri, int size) throws JenaDriverException {
+            if (counters == null) {
+                throw new JenaDriverException("Identifier counters are not available in this connection.");
+            }
+            return counters.reserve(classUri, size);
+        }
+    }
 }
@@ -134,6 +134,17 @@ public class JenaConnection implements Connection {
         }
     }
 
+    @Override
+    public Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) throws JenaDriverException {
+        ensureOpen();
+        Objects.requireNonNull(descriptors);
+        try {
+            return adapter.find(descriptors);
+        } catch (RuntimeException e) {
+            throw new JenaDriverException(e);
+        }
+    }
+
     @Override
     public void persist(AxiomValueDescriptor descriptor) throws JenaDriverException {
         ensureOpen();
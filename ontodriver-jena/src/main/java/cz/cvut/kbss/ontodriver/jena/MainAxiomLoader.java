@@ -22,9 +22,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 class MainAxiomLoader {
 
@@ -65,6 +63,20 @@ class MainAxiomLoader {
         return result;
     }
 
+    /**
+     * Loads axioms corresponding to the specified descriptors.
+     * <p>
+     * All the descriptors are processed by the same loaders within the current transaction.
+     *
+     * @param descriptors Descriptors of axioms to load
+     * @return Matching axioms of all the descriptor subjects
+     */
+    Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) {
+        final List<Axiom<?>> result = new ArrayList<>();
+        descriptors.forEach(d -> result.addAll(find(d)));
+        return result;
+    }
+
     private static void mapAssertions(AxiomDescriptor descriptor, Map<String, Assertion> asserted,
                                       Map<String, Assertion> inferred) {
         for (Assertion a : descriptor.getAssertions()) {
@@ -18,6 +18,8 @@ import cz.cvut.kbss.ontodriver.Closeable;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import org.apache.jena.query.Dataset;
 
+import java.util.function.Function;
+
 public abstract class ConnectorFactory implements Closeable {
 
     private volatile boolean open = true;
@@ -58,6 +60,19 @@ public abstract class ConnectorFactory implements Closeable {
         return new DummyInferredStorageConnector(connector);
     }
 
+    /**
+     * Executes the specified read-modify-write operation atomically on the underlying storage.
+     * <p>
+     * The operation runs in a separate write transaction, independent of any transaction of connectors created by this
+     * factory. No other writer can modify the storage while the operation runs.
+     *
+     * @param operation Operation to execute. It receives the dataset to read from and modify
+     * @param <T>       Operation result type
+     * @return Result of the operation
+     * @throws JenaDriverException When changes made by the operation cannot be written into the storage
+     */
+    public abstract <T> T executeAtomically(Function<Dataset, T> operation) throws JenaDriverException;
+
     /**
      * Reloads data from storage if it is a file-based one.
      * <p>
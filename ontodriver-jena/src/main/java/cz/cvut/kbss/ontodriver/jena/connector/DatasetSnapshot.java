@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a specific version of the central dataset.
+ * <p>
+ * The snapshot does not contain any data itself, it reads data from the central dataset via the {@link
+ * VersionedDataset} it was acquired from.
+ * <p>
+ * Snapshot has to be released when it is no longer needed, so that data kept for it can be discarded.
+ */
+class DatasetSnapshot {
+
+    private final VersionedDataset source;
+    private final VersionedDataset.Epoch epoch;
+    private final long version;
+
+    private List<Node> graphNames;
+    private boolean released;
+
+    DatasetSnapshot(VersionedDataset source, VersionedDataset.Epoch epoch, long version) {
+        this.source = source;
+        this.epoch = epoch;
+        this.version = version;
+    }
+
+    VersionedDataset.Epoch getEpoch() {
+        return epoch;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets read-only view of the specified graph in this snapshot.
+     *
+     * @param graphName Graph name, {@link Quad#defaultGraphIRI} represents the default graph
+     * @return Graph view
+     */
+    SnapshotGraph graph(Node graphName) {
+        return new SnapshotGraph(graphName);
+    }
+
+    /**
+     * Gets names of non-empty named graphs in this snapshot.
+     *
+     * @return List of graph names
+     */
+    synchronized List<Node> graphNames() {
+        if (graphNames == null) {
+            this.graphNames = Collections.unmodifiableList(source.listGraphNames(epoch, version));
+        }
+        return graphNames;
+    }
+
+    /**
+     * Creates another snapshot of the same version of the central dataset.
+     *
+     * @return New snapshot, it has to be released independently of this one
+     */
+    DatasetSnapshot retain() {
+        return source.retain(this);
+    }
+
+    /**
+     * Gets changes committed to the central dataset between the specified versions.
+     *
+     * @param from Version after which the changes were committed
+     * @param to   Last version to include
+     * @return List of change layers, ordered by version
+     */
+    List<VersionedDataset.ChangeLayer> changesBetween(long from, long to) {
+        return source.changesBetween(epoch, from, to);
+    }
+
+    /**
+     * Releases this snapshot.
+     * <p>
+     * The snapshot should not be used after release.
+     */
+    synchronized void release() {
+        if (!released) {
+            source.release(this);
+            this.released = true;
+        }
+    }
+
+    /**
+     * Read-only graph view of the snapshot data.
+     */
+    class SnapshotGraph extends GraphBase {
+
+        private final Node graphName;
+
+        private SnapshotGraph(Node graphName) {
+            this.graphName = graphName;
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+            return WrappedIterator.create(source.find(epoch, version, graphName, triplePattern).iterator());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty(epoch, version, graphName);
+        }
+    }
+}
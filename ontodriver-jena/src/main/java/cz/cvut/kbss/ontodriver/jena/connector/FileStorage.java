@@ -14,33 +14,84 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import cz.cvut.kbss.ontodriver.util.AtomicFileWriter;
+import cz.cvut.kbss.ontodriver.util.ChangeJournal;
+import cz.cvut.kbss.ontodriver.util.WriteBehindScheduler;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RiotNotFoundException;
+import org.apache.jena.sparql.core.DatasetChanges;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.QuadAction;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
 import org.apache.jena.util.FileUtils;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * File storage accessor.
  * <p>
  * Note that currently this accessor does not support working with datasets. Only single graph can be present in the file.
+ * <p>
+ * By default, the file is written on each commit. If deferred writing is configured (see {@link
+ * DriverConfigParam#FILE_FLUSH_INTERVAL}), commits only schedule writing of the file and a background thread writes
+ * out changes of multiple commits at once. Changes of the default graph can be additionally recorded in a change
+ * journal (see {@link DriverConfigParam#FILE_CHANGE_JOURNAL}), which is replayed when the storage is initialized.
  */
 class FileStorage extends Storage {
 
+    private static final String ADDED = "+ ";
+    private static final String REMOVED = "- ";
+
     private final String location;
+    private final Path path;
+
+    private final WriteBehindScheduler scheduler;
+    private final ChangeJournal journal;
+
+    /**
+     * Changes of the default graph not written into the journal, yet. Value {@code true} means addition.
+     */
+    private final Map<Triple, Boolean> pendingChanges = new LinkedHashMap<>();
 
     FileStorage(DriverConfiguration configuration) {
         super(configuration);
         this.location = configuration.getStorageProperties().getPhysicalURI().toString();
+        this.path = resolvePath(configuration.getStorageProperties().getPhysicalURI());
+        if (WriteBehindScheduler.isEnabled(configuration)) {
+            this.scheduler = WriteBehindScheduler.create(configuration, this::flush, "jena-file-storage-writer");
+            this.journal =
+                    configuration.is(DriverConfigParam.FILE_CHANGE_JOURNAL) ? new ChangeJournal(path) : null;
+        } else {
+            this.scheduler = null;
+            this.journal = null;
+        }
+    }
+
+    private static Path resolvePath(URI physicalUri) {
+        return physicalUri.getScheme() != null && "file".equals(physicalUri.getScheme()) ? Paths.get(physicalUri) :
+               Paths.get(physicalUri.toString());
     }
 
     @Override
@@ -51,7 +102,8 @@ class FileStorage extends Storage {
             } catch (RiotNotFoundException e) {
                 tryCreatingFile();
             }
-        } catch (RuntimeException e) {
+            replayJournal();
+        } catch (RuntimeException | IOException e) {
             throw new OntoDriverInitializationException("Unable to initialize file storage at " + location, e);
         }
     }
@@ -73,25 +125,227 @@ class FileStorage extends Storage {
         initDataset();
     }
 
+    private void replayJournal() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        final List<byte[]> records = journal.read();
+        if (records.isEmpty()) {
+            return;
+        }
+        LOG.debug("Replaying {} journaled commits of file storage {}.", records.size(), location);
+        final Graph graph = dataset.asDatasetGraph().getDefaultGraph();
+        for (byte[] record : records) {
+            readRecord(record, graph);
+        }
+        final long segment = journal.rotate();
+        writeFile(graph);
+        journal.discard(segment);
+    }
+
+    private static void readRecord(byte[] record, Graph target) throws IOException {
+        final StringBuilder added = new StringBuilder();
+        final StringBuilder removed = new StringBuilder();
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(record), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                (line.startsWith(ADDED) ? added : removed).append(line.substring(ADDED.length())).append('\n');
+            }
+        }
+        GraphUtil.deleteFrom(target, parseTriples(removed));
+        GraphUtil.addInto(target, parseTriples(added));
+    }
+
+    private static Graph parseTriples(StringBuilder nTriples) {
+        final Graph graph = GraphFactory.createGraphMem();
+        RDFDataMgr.read(graph, new StringReader(nTriples.toString()), null, Lang.NTRIPLES);
+        return graph;
+    }
+
+    @Override
+    void add(List<Statement> statements, String context) {
+        super.add(statements, context);
+        if (journal != null && context == null) {
+            recordChanges(statements, true);
+        }
+    }
+
+    private void recordChanges(List<Statement> statements, boolean added) {
+        synchronized (pendingChanges) {
+            statements.forEach(s -> pendingChanges.put(s.asTriple(), added));
+        }
+    }
+
+    @Override
+    void remove(List<Statement> statements, String context) {
+        super.remove(statements, context);
+        if (journal != null && context == null) {
+            recordChanges(statements, false);
+        }
+    }
+
+    @Override
+    DatasetChanges changeListener() {
+        if (journal == null) {
+            return null;
+        }
+        return new DatasetChanges() {
+            @Override
+            public void start() {
+                // Do nothing
+            }
+
+            @Override
+            public void change(QuadAction qaction, Node g, Node s, Node p, Node o) {
+                if (!Quad.isDefaultGraph(g)) {
+                    return;
+                }
+                synchronized (pendingChanges) {
+                    if (qaction == QuadAction.ADD) {
+                        pendingChanges.put(Triple.create(s, p, o), true);
+                    } else if (qaction == QuadAction.DELETE) {
+                        pendingChanges.put(Triple.create(s, p, o), false);
+                    }
+                }
+            }
+
+            @Override
+            public void finish() {
+                // Do nothing
+            }
+
+            @Override
+            public void reset() {
+                // Do nothing
+            }
+        };
+    }
+
+    @Override
+    void rollback() {
+        super.rollback();
+        synchronized (pendingChanges) {
+            pendingChanges.clear();
+        }
+    }
+
     @Override
     void writeChanges() throws JenaDriverException {
-        try (final BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(location))) {
-            final String language = FileUtils.guessLang(location);
-            RDFDataMgr.write(out, dataset.getDefaultModel(), RDFLanguages.nameToLang(language));
+        try {
+            if (scheduler == null) {
+                writeFile(dataset.getDefaultModel().getGraph());
+                return;
+            }
+            if (journal != null) {
+                appendJournalRecord();
+            }
+            scheduler.changed();
         } catch (IOException e) {
             throw new JenaDriverException("Unable to write out dataset changes.", e);
         }
     }
 
+    private void appendJournalRecord() throws IOException {
+        final List<Triple> added = new ArrayList<>();
+        final List<Triple> removed = new ArrayList<>();
+        synchronized (pendingChanges) {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            pendingChanges.forEach((t, a) -> (a ? added : removed).add(t));
+            pendingChanges.clear();
+        }
+        final StringBuilder record = new StringBuilder();
+        writeTriples(record, REMOVED, removed);
+        writeTriples(record, ADDED, added);
+        journal.append(record.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the specified triples in N-Triples, one per line, each line starting with the specified prefix.
+     */
+    private static void writeTriples(StringBuilder out, String prefix, List<Triple> triples) {
+        if (triples.isEmpty()) {
+            return;
+        }
+        final ByteArrayOutputStream nTriples = new ByteArrayOutputStream();
+        RDFDataMgr.writeTriples(nTriples, triples.iterator());
+        for (String line : new String(nTriples.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                out.append(prefix).append(line).append('\n');
+            }
+        }
+    }
+
+    private void writeFile(Graph graph) throws IOException {
+        final String language = FileUtils.guessLang(location);
+        AtomicFileWriter.write(path, out -> RDFDataMgr.write(out, graph, RDFLanguages.nameToLang(language)));
+    }
+
+    /**
+     * Writes out the current state of the storage.
+     * <p>
+     * The state is copied in a read transaction, which cannot overlap with a commit, the copy is then written without
+     * blocking other transactions.
+     */
+    private void flush() throws IOException {
+        final Graph copy = GraphFactory.createGraphMem();
+        final long segment = Txn.calculateRead(dataset, () -> {
+            GraphUtil.addInto(copy, dataset.asDatasetGraph().getDefaultGraph());
+            try {
+                return journal != null ? journal.rotate() : 0L;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeFile(copy);
+        if (journal != null) {
+            journal.discard(segment);
+        }
+    }
+
     /**
      * Reloads data from the underlying file.
+     * <p>
+     * If writing of the file is deferred, changes committed so far are written out first.
      */
     @Override
-    synchronized void reload() {
+    void reload() {
         if (dataset.isInTransaction()) {
             throw new IllegalStateException("Cannot reload storage which is in transaction.");
         }
-        dataset.close();
-        initialize();
+        flushPending();
+        synchronized (this) {
+            dataset.close();
+            initialize();
+        }
+    }
+
+    private void flushPending() {
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            scheduler.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write out storage changes to " + location, e);
+        }
+    }
+
+    @Override
+    void close() {
+        try {
+            if (scheduler != null) {
+                scheduler.close();
+            }
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException e) {
+            LOG.error("Unable to write out storage changes to {}.", location, e);
+        } finally {
+            super.close();
+        }
     }
 }
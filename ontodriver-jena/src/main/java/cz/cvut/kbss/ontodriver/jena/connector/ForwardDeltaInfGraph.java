@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.reasoner.BaseInfGraph;
+import org.apache.jena.reasoner.Derivation;
+import org.apache.jena.reasoner.Finder;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.ReasonerException;
+import org.apache.jena.reasoner.TriplePattern;
+import org.apache.jena.reasoner.rulesys.BasicForwardRuleInfGraph;
+import org.apache.jena.reasoner.rulesys.ClauseEntry;
+import org.apache.jena.reasoner.rulesys.FBRuleReasoner;
+import org.apache.jena.reasoner.rulesys.ForwardRuleInfGraphI;
+import org.apache.jena.reasoner.rulesys.Functor;
+import org.apache.jena.reasoner.rulesys.RETERuleInfGraph;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.reasoner.rulesys.impl.FRuleEngine;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inferred graph extending the closure of another inferred graph with statements added on top of it.
+ * <p>
+ * Rules are fired only for the added statements, their bodies are matched against the base closure, the added
+ * statements and the deductions made so far. Adding a statement thus costs work proportional to the inferences it
+ * triggers, not to the size of the base graph.
+ * <p>
+ * This is sound only for forward chaining rule reasoners with monotonic rules (see {@link #supports(InfGraph)}), and
+ * only as long as the base closure does not change. Statements cannot be removed from this graph, removal may
+ * invalidate deductions and requires computing the closure again.
+ */
+class ForwardDeltaInfGraph extends BaseInfGraph implements ForwardRuleInfGraphI {
+
+    /**
+     * Builtins whose result may change when statements are added or which remove statements
+     */
+    private static final Set<String> NON_MONOTONIC_BUILTINS = new HashSet<>(Arrays.asList("noValue", "remove", "drop"));
+
+    private final Graph base;
+    private final Graph baseDeductions;
+    private final Graph deductions = GraphFactory.createGraphMem();
+    private final FRuleEngine engine;
+
+    /**
+     * @param reasoner       Reasoner which computed the base closure
+     * @param base           Base closure, i.e., data and deductions of the base inferred graph
+     * @param baseDeductions Deductions of the base inferred graph
+     */
+    ForwardDeltaInfGraph(FBRuleReasoner reasoner, Graph base, Graph baseDeductions) {
+        super(GraphFactory.createGraphMem(), reasoner);
+        this.base = base;
+        this.baseDeductions = baseDeductions;
+        final List<Rule> rules = reasoner.getRules();
+        this.engine = new FRuleEngine(this, rules);
+        engine.compile(rules, true);
+        // Axioms and consequences of the base data are already in the base closure
+        setPreparedState(true);
+    }
+
+    /**
+     * Checks whether the closure of the specified inferred graph can be extended by {@link ForwardDeltaInfGraph}.
+     * <p>
+     * This is the case for inferred graphs of forward chaining rule reasoners whose rules are monotonic and produce
+     * only plain statements. Hybrid and backward chaining reasoners (e.g., the RDFS and OWL reasoners) are not
+     * supported.
+     *
+     * @param graph The graph to check
+     * @return {@code true} if the closure can be extended, {@code false} otherwise
+     */
+    static boolean supports(InfGraph graph) {
+        if (graph instanceof ForwardDeltaInfGraph) {
+            return true;
+        }
+        if (graph.getClass() != BasicForwardRuleInfGraph.class && graph.getClass() != RETERuleInfGraph.class) {
+            return false;
+        }
+        final BasicForwardRuleInfGraph forwardGraph = (BasicForwardRuleInfGraph) graph;
+        if (forwardGraph.shouldLogDerivations() || forwardGraph.getSchemaGraph() != null ||
+                !(graph.getReasoner() instanceof FBRuleReasoner)) {
+            return false;
+        }
+        return ((FBRuleReasoner) graph.getReasoner()).getRules().stream().allMatch(ForwardDeltaInfGraph::isMonotonic);
+    }
+
+    private static boolean isMonotonic(Rule rule) {
+        if (rule.isBackward()) {
+            return false;
+        }
+        for (ClauseEntry head : rule.getHead()) {
+            if (!(head instanceof TriplePattern) || Functor.isFunctor(((TriplePattern) head).getObject())) {
+                return false;
+            }
+        }
+        for (ClauseEntry clause : rule.getBody()) {
+            if (clause instanceof Functor && NON_MONOTONIC_BUILTINS.contains(((Functor) clause).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void performAdd(Triple t) {
+        final Graph additions = fdata.getGraph();
+        if (base.contains(t) || additions.contains(t)) {
+            return;
+        }
+        additions.add(t);
+        if (deductions.contains(t)) {
+            // Consequences of the statement have already been derived
+            deductions.delete(t);
+            return;
+        }
+        engine.add(t);
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+        throw new DeleteDeniedException("Statements cannot be removed from an extension of inferred graph.", t);
+    }
+
+    @Override
+    public synchronized void rebind(Graph data) {
+        throw new UnsupportedOperationException("Extension of inferred graph cannot be rebound.");
+    }
+
+    @Override
+    public synchronized void rebind() {
+        throw new UnsupportedOperationException("Extension of inferred graph cannot be rebound.");
+    }
+
+    @Override
+    public void reset() {
+        throw new UnsupportedOperationException("Extension of inferred graph cannot be reset.");
+    }
+
+    @Override
+    public ExtendedIterator<Triple> findWithContinuation(TriplePattern pattern, Finder continuation) {
+        final ExtendedIterator<Triple> result =
+                base.find(pattern.asTripleMatch()).andThen(deductions.find(pattern.asTripleMatch()));
+        return continuation != null ? result.andThen(continuation.find(pattern)) : result;
+    }
+
+    @Override
+    public ExtendedIterator<Triple> findDataMatches(Node subject, Node predicate, Node object) {
+        return base.find(subject, predicate, object).andThen(fdata.getGraph().find(subject, predicate, object))
+                   .andThen(deductions.find(subject, predicate, object));
+    }
+
+    @Override
+    public void addDeduction(Triple t) {
+        deductions.add(t);
+    }
+
+    @Override
+    public void silentAdd(Triple t) {
+        if (!base.contains(t)) {
+            fdata.getGraph().add(t);
+        }
+    }
+
+    @Override
+    public Graph getDeductionsGraph() {
+        return baseDeductions != null ? new Union(deductions, baseDeductions) : deductions;
+    }
+
+    @Override
+    public Graph getCurrentDeductionsGraph() {
+        return getDeductionsGraph();
+    }
+
+    @Override
+    public Graph getSchemaGraph() {
+        return null;
+    }
+
+    @Override
+    public boolean shouldTrace() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldLogDerivations() {
+        return false;
+    }
+
+    @Override
+    public void logDerivation(Triple t, Derivation derivation) {
+        // Derivation logging is not supported
+    }
+
+    @Override
+    public void addBRule(Rule brule) {
+        throw new ReasonerException("Extension of inferred graph does not support backward rules.");
+    }
+
+    @Override
+    public void deleteBRule(Rule brule) {
+        throw new ReasonerException("Extension of inferred graph does not support backward rules.");
+    }
+
+    @Override
+    public void setFunctorFiltering(boolean param) {
+        // Functors are never derived by supported rules
+    }
+}
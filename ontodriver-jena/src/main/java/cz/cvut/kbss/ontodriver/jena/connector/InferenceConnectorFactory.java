@@ -15,6 +15,8 @@
 package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.query.Dataset;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +25,11 @@ public class InferenceConnectorFactory extends SharedConnectorBasedConnectorFact
 
     private final Map<String, String> reasonerConfig;
 
+    /**
+     * Inferred graphs shared by connectors created by this factory
+     */
+    private final SharedInferenceCache inferenceCache = new SharedInferenceCache();
+
     public InferenceConnectorFactory(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
         super(configuration);
         this.reasonerConfig = new HashMap<>(reasonerConfig);
@@ -31,7 +38,7 @@ public class InferenceConnectorFactory extends SharedConnectorBasedConnectorFact
     @Override
     public StorageConnector createConnector() {
         ensureOpen();
-        return new SnapshotStorageConnectorWithInference(centralConnector, reasonerConfig);
+        return new SnapshotStorageConnectorWithInference(centralConnector, reasonerConfig, inferenceCache);
     }
 
     @Override
@@ -39,4 +46,22 @@ public class InferenceConnectorFactory extends SharedConnectorBasedConnectorFact
         assert connector instanceof SnapshotStorageConnectorWithInference;
         return (InferredStorageConnector) connector;
     }
+
+    @Override
+    public synchronized void reloadStorage() {
+        super.reloadStorage();
+        inferenceCache.clear();
+    }
+
+    @Override
+    public void setDataset(Dataset dataset) {
+        super.setDataset(dataset);
+        inferenceCache.clear();
+    }
+
+    @Override
+    public synchronized void close() throws JenaDriverException {
+        inferenceCache.clear();
+        super.close();
+    }
 }
@@ -18,6 +18,8 @@ import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import org.apache.jena.query.Dataset;
 
+import java.util.function.Function;
+
 /**
  * Abstracts code common to connector factories which use one central connector and create transactional connectors on demand.
  */
@@ -35,6 +37,12 @@ abstract class SharedConnectorBasedConnectorFactory extends ConnectorFactory {
         centralConnector.reloadStorage();
     }
 
+    @Override
+    public <T> T executeAtomically(Function<Dataset, T> operation) throws JenaDriverException {
+        ensureOpen();
+        return centralConnector.executeAtomically(operation);
+    }
+
     @Override
     public void setDataset(Dataset dataset) {
         ensureOpen();
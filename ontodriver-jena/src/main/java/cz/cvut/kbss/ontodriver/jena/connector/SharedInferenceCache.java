@@ -0,0 +1,354 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.rulesys.FBRuleReasoner;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Inferred graphs shared by transactions of connectors with inference.
+ * <p>
+ * For each graph of the central dataset, the cache holds at most one inferred graph, which corresponds to a particular
+ * version of the central dataset. Transactions whose snapshot contains the same data in the graph reuse the inferred
+ * graph instead of running the reasoner over the whole graph again.
+ * <p>
+ * When changes to the graph are committed, the cached inferred graph is brought up to date lazily. For forward chaining
+ * rule reasoners (see {@link ForwardDeltaInfGraph#supports(InfGraph)}), statements added by the commits are processed
+ * incrementally on top of the closure computed for an older version - in place if no transaction is using the
+ * inferred graph, otherwise in a new entry extending the same closure. The closure is computed from scratch only when
+ * statements are removed from the graph or too many statements have been added since it was computed. Other reasoners
+ * process the committed changes in place when no transaction is using the inferred graph, otherwise a new inferred
+ * graph is created.
+ */
+class SharedInferenceCache {
+
+    /**
+     * Maximum number of statements an entry may add on top of the closure it extends. Beyond that, the closure is
+     * computed from scratch, so that neither the extensions nor the changes retained for the extended version grow
+     * without bounds.
+     */
+    static final int MAX_EXTENSION_SIZE = 10000;
+
+    private final Map<Node, Entry> entries = new HashMap<>();
+
+    /**
+     * Gets inferred graph corresponding to the specified graph in the specified snapshot.
+     * <p>
+     * The returned entry has to be released when no longer needed.
+     *
+     * @param snapshot         Snapshot of the central dataset
+     * @param graphName        Graph name
+     * @param reasonerSupplier Supplies reasoner in case a new inferred graph has to be created
+     * @return Cache entry holding the inferred graph
+     */
+    Entry acquire(DatasetSnapshot snapshot, Node graphName, Supplier<Reasoner> reasonerSupplier) {
+        Entry extended = null;
+        Graph additions = null;
+        synchronized (this) {
+            final Entry existing = entries.get(graphName);
+            if (existing != null) {
+                if (existing.catchUp(snapshot)) {
+                    existing.references++;
+                    return existing;
+                }
+                additions = existing.additionsUntil(snapshot);
+                if (additions != null) {
+                    extended = existing.root();
+                    extended.references++;
+                }
+            }
+        }
+        final Entry created;
+        try {
+            created = extended != null ? new Entry(snapshot, extended, additions) :
+                      new Entry(snapshot, graphName, reasonerSupplier.get());
+        } catch (RuntimeException e) {
+            if (extended != null) {
+                release(extended);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            final Entry existing = entries.get(graphName);
+            if (existing == null || existing.isOlderThan(created)) {
+                if (existing != null) {
+                    existing.evict();
+                }
+                entries.put(graphName, created);
+            } else {
+                created.evicted = true;
+            }
+            created.references++;
+            return created;
+        }
+    }
+
+    synchronized void release(Entry entry) {
+        entry.references--;
+        if (entry.references == 0 && entry.evicted) {
+            entry.dispose();
+        }
+    }
+
+    /**
+     * Discards all cached inferred graphs.
+     * <p>
+     * Graphs currently in use are discarded once they are released.
+     */
+    synchronized void clear() {
+        entries.values().forEach(Entry::evict);
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Inferred graph corresponding to a graph in a specific version of the central dataset.
+     */
+    class Entry {
+
+        private final Node graphName;
+        private final InfGraph graph;
+
+        /**
+         * Entry whose closure this entry extends, {@code null} if the closure of this entry was computed from scratch
+         */
+        private final Entry base;
+
+        /**
+         * Whether the closure can be extended with added statements
+         */
+        private final boolean extensible;
+
+        /**
+         * Keeps changes committed after the version of this entry available
+         */
+        private DatasetSnapshot snapshot;
+
+        private int references;
+        private boolean evicted;
+
+        private Entry(DatasetSnapshot snapshot, Node graphName, Reasoner reasoner) {
+            this.snapshot = snapshot.retain();
+            this.graphName = graphName;
+            this.base = null;
+            final InfGraph bound = reasoner.bind(this.snapshot.graph(graphName));
+            this.extensible = ForwardDeltaInfGraph.supports(bound);
+            if (extensible) {
+                // The closure is never updated in place, so the reasoner can work directly with the snapshot data
+                this.graph = bound;
+            } else {
+                final Graph data = GraphFactory.createGraphMem();
+                GraphUtil.addInto(data, snapshot.graph(graphName));
+                this.graph = reasoner.bind(data);
+            }
+            graph.prepare();
+        }
+
+        private Entry(DatasetSnapshot snapshot, Entry base, Graph additions) {
+            this.snapshot = snapshot.retain();
+            this.graphName = base.graphName;
+            this.base = base;
+            this.extensible = true;
+            this.graph = base.createExtension();
+            additions.find().forEachRemaining(graph::add);
+        }
+
+        /**
+         * Reads data from the inferred graph.
+         * <p>
+         * Inferred graphs are not thread-safe, so the reader should not let the results escape without copying them.
+         *
+         * @param reader Performs the read
+         * @param <T>    Result type
+         * @return Read result
+         */
+        synchronized <T> T read(Function<InfGraph, T> reader) {
+            return reader.apply(graph);
+        }
+
+        /**
+         * Whether the inferred graph of this entry can be extended by {@link #createExtension()}.
+         *
+         * @return Extensibility status
+         */
+        boolean isExtensible() {
+            return extensible;
+        }
+
+        /**
+         * Creates an inferred graph extending the closure of this entry with statements added to it.
+         * <p>
+         * The closure of this entry is read, not copied, so this entry has to be held while the extension is in use.
+         *
+         * @return New inferred graph
+         */
+        ForwardDeltaInfGraph createExtension() {
+            assert extensible;
+            return new ForwardDeltaInfGraph((FBRuleReasoner) graph.getReasoner(), new View(g -> g),
+                    new View(InfGraph::getDeductionsGraph));
+        }
+
+        /**
+         * Attempts to make this entry correspond to the state of the graph in the specified snapshot.
+         *
+         * @param target Snapshot this entry should correspond to
+         * @return Whether this entry can be used by a transaction working with the specified snapshot
+         */
+        private boolean catchUp(DatasetSnapshot target) {
+            if (target.getEpoch() != snapshot.getEpoch()) {
+                return false;
+            }
+            final long version = snapshot.getVersion();
+            final List<VersionedDataset.ChangeLayer> changes =
+                    target.changesBetween(Math.min(version, target.getVersion()),
+                            Math.max(version, target.getVersion())).stream()
+                          .filter(layer -> layer.touches(graphName)).collect(Collectors.toList());
+            if (changes.isEmpty()) {
+                return true;
+            }
+            if (target.getVersion() < version || references > 0) {
+                return false;
+            }
+            if (extensible && !canExtendInPlace(changes)) {
+                return false;
+            }
+            synchronized (this) {
+                if (changes.stream().anyMatch(layer -> layer.hasRemovals(graphName))) {
+                    // Forward rule inferred graphs do not retract deductions on delete, so compute the closure again
+                    final Graph data = graph.getRawGraph();
+                    changes.forEach(layer -> {
+                        layer.findRemoved(graphName, Triple.ANY).forEachRemaining(data::delete);
+                        layer.findAdded(graphName, Triple.ANY).forEachRemaining(data::add);
+                    });
+                    graph.rebind();
+                } else {
+                    changes.forEach(layer -> layer.findAdded(graphName, Triple.ANY).forEachRemaining(graph::add));
+                }
+            }
+            final DatasetSnapshot previous = snapshot;
+            this.snapshot = target.retain();
+            previous.release();
+            return true;
+        }
+
+        /**
+         * Closure computed from scratch is bound directly to the snapshot data and cannot be modified. Extensions can
+         * be modified as long as only statements are added and the extension does not grow too large.
+         */
+        private boolean canExtendInPlace(List<VersionedDataset.ChangeLayer> changes) {
+            if (base == null || changes.stream().anyMatch(layer -> layer.hasRemovals(graphName))) {
+                return false;
+            }
+            long size = graph.getRawGraph().size();
+            for (VersionedDataset.ChangeLayer layer : changes) {
+                size += Iter.count(layer.findAdded(graphName, Triple.ANY));
+            }
+            return size <= MAX_EXTENSION_SIZE;
+        }
+
+        /**
+         * Collects statements added to the graph after the version of the closure this entry is based on, up to the
+         * version of the specified snapshot.
+         *
+         * @param target Snapshot the extension should correspond to
+         * @return Added statements, {@code null} if the closure cannot be extended to the target version
+         */
+        private Graph additionsUntil(DatasetSnapshot target) {
+            final Entry root = root();
+            if (!extensible || target.getEpoch() != root.snapshot.getEpoch() ||
+                    target.getVersion() < root.snapshot.getVersion()) {
+                return null;
+            }
+            final Graph additions = GraphFactory.createGraphMem();
+            for (VersionedDataset.ChangeLayer layer : target
+                    .changesBetween(root.snapshot.getVersion(), target.getVersion())) {
+                if (layer.hasRemovals(graphName)) {
+                    return null;
+                }
+                layer.findAdded(graphName, Triple.ANY).forEachRemaining(additions::add);
+                if (additions.size() > MAX_EXTENSION_SIZE) {
+                    return null;
+                }
+            }
+            return additions;
+        }
+
+        private Entry root() {
+            return base != null ? base : this;
+        }
+
+        private boolean isOlderThan(Entry other) {
+            if (snapshot.getEpoch() != other.snapshot.getEpoch()) {
+                return snapshot.getEpoch().isFrozen();
+            }
+            return snapshot.getVersion() < other.snapshot.getVersion();
+        }
+
+        private void evict() {
+            this.evicted = true;
+            if (references == 0) {
+                dispose();
+            }
+        }
+
+        private void dispose() {
+            snapshot.release();
+            if (base != null) {
+                release(base);
+            }
+        }
+
+        /**
+         * Read-only view of the inferred graph of this entry.
+         */
+        private class View extends GraphBase {
+
+            private final Function<InfGraph, Graph> selector;
+
+            private View(Function<InfGraph, Graph> selector) {
+                this.selector = selector;
+            }
+
+            @Override
+            protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+                return WrappedIterator.create(read(g -> {
+                    final Graph target = selector.apply(g);
+                    return target != null ? target.find(triplePattern).toList() : Collections.<Triple>emptyList();
+                }).iterator());
+            }
+        }
+    }
+}
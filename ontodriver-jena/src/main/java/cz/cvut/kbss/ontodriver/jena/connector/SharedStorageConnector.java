@@ -20,8 +20,12 @@ import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
 import cz.cvut.kbss.ontodriver.jena.query.AskResultSet;
 import cz.cvut.kbss.ontodriver.jena.query.SelectResultSet;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.sparql.core.DatasetChanges;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphMonitor;
 import org.apache.jena.system.Txn;
 import org.apache.jena.update.UpdateAction;
 
@@ -29,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Main storage connector using the {@link cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties#READ_COMMITTED}
@@ -44,6 +49,8 @@ import java.util.List;
  */
 public class SharedStorageConnector extends AbstractStorageConnector {
 
+    private VersionedDataset versionedDataset;
+
     SharedStorageConnector(DriverConfiguration configuration) {
         super(configuration);
     }
@@ -51,13 +58,33 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     @Override
     void initialize() {
         this.storage = Storage.create(configuration);
+        this.versionedDataset = new VersionedDataset(() -> storage.getDataset(),
+                configuration.is(JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION));
+    }
+
+    /**
+     * Creates a snapshot of the current state of the storage.
+     * <p>
+     * The snapshot does not copy the data, it only remembers the version of the storage it was created at.
+     *
+     * @return Snapshot of the storage, it has to be released when no longer needed
+     */
+    DatasetSnapshot snapshot() {
+        ensureOpen();
+        return versionedDataset.acquire();
     }
 
     @Override
     public synchronized void begin() {
         ensureOpen();
         transaction.begin();
-        storage.begin(ReadWrite.WRITE);
+        versionedDataset.startWrite();
+        try {
+            storage.begin(ReadWrite.WRITE);
+        } catch (RuntimeException e) {
+            versionedDataset.abortWrite();
+            throw e;
+        }
     }
 
     @Override
@@ -65,7 +92,7 @@ public class SharedStorageConnector extends AbstractStorageConnector {
         ensureTransactionalState();
         transaction.commit();
         storage.writeChanges();
-        storage.commit();
+        versionedDataset.commitWrite(storage::commit);
         transaction.afterCommit();
     }
 
@@ -78,7 +105,11 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     public void rollback() {
         ensureOpen();
         transaction.rollback();
-        storage.rollback();
+        try {
+            storage.rollback();
+        } finally {
+            versionedDataset.abortWrite();
+        }
         transaction.afterRollback();
     }
 
@@ -113,23 +144,24 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     @Override
     public void add(List<Statement> statements, String context) {
         ensureTransactionalState();
+        versionedDataset.beforeAdd(statements, context);
         storage.add(statements, context);
     }
 
     @Override
     public void remove(List<Statement> statements, String context) {
         ensureTransactionalState();
+        versionedDataset.beforeRemove(statements, context);
         storage.remove(statements, context);
     }
 
     @Override
     public void remove(Resource subject, Property property, RDFNode object, String context) {
         ensureTransactionalState();
-        if (context != null) {
-            storage.remove(storage.getNamedGraph(context).listStatements(subject, property, object), context);
-        } else {
-            storage.remove(storage.getDefaultGraph().listStatements(subject, property, object), null);
-        }
+        final Model target = context != null ? storage.getNamedGraph(context) : storage.getDefaultGraph();
+        final List<Statement> toRemove = target.listStatements(subject, property, object).toList();
+        versionedDataset.beforeRemove(toRemove, context);
+        storage.remove(toRemove, context);
     }
 
     @Override
@@ -162,13 +194,82 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     @Override
     public void executeUpdate(String query, StatementOntology target) throws JenaDriverException {
         ensureOpen();
+        if (transaction.isActive()) {
+            executeUpdateRecordingChanges(query);
+        } else {
+            synchronized (this) {
+                versionedDataset.startWrite();
+                try {
+                    executeUpdateRecordingChanges(query);
+                } catch (JenaDriverException | RuntimeException e) {
+                    versionedDataset.abortWrite();
+                    throw e;
+                }
+                versionedDataset.commitWrite(() -> {
+                    // Changes have already been written
+                });
+            }
+        }
+    }
+
+    private void executeUpdateRecordingChanges(String query) throws JenaDriverException {
         try {
-            UpdateAction.parseExecute(query, storage.getDataset());
+            UpdateAction.parseExecute(query, recordingDataset());
         } catch (RuntimeException e) {
             throw queryFailed(query, e);
         }
     }
 
+    /**
+     * Gets the central dataset wrapped so that changes made to it directly are recorded for active snapshots and
+     * propagated to the storage.
+     */
+    private Dataset recordingDataset() {
+        DatasetGraph dsg = storage.getDataset().asDatasetGraph();
+        final DatasetChanges storageListener = storage.changeListener();
+        if (storageListener != null) {
+            dsg = new DatasetGraphMonitor(dsg, storageListener, true);
+        }
+        return DatasetFactory.wrap(new DatasetGraphMonitor(dsg, versionedDataset.changeRecorder(), true));
+    }
+
+    /**
+     * Executes the specified operation atomically in a write transaction on the underlying storage.
+     * <p>
+     * The write transaction is independent of the transaction of this connector. Other writers, including drivers
+     * sharing the same storage, cannot modify data until the operation finishes, so data read by the operation cannot
+     * change before its modifications are committed. The operation should therefore be short.
+     *
+     * @param operation Operation to execute. It receives the dataset to read from and modify
+     * @param <T>       Operation result type
+     * @return Result of the operation
+     * @throws JenaDriverException When changes made by the operation cannot be written into the storage
+     */
+    <T> T executeAtomically(Function<Dataset, T> operation) throws JenaDriverException {
+        ensureOpen();
+        versionedDataset.startWrite();
+        try {
+            storage.begin(ReadWrite.WRITE);
+        } catch (RuntimeException e) {
+            versionedDataset.abortWrite();
+            throw e;
+        }
+        final T result;
+        try {
+            result = operation.apply(recordingDataset());
+            storage.writeChanges();
+        } catch (JenaDriverException | RuntimeException e) {
+            try {
+                storage.rollback();
+            } finally {
+                versionedDataset.abortWrite();
+            }
+            throw e;
+        }
+        versionedDataset.commitWrite(storage::commit);
+        return result;
+    }
+
     @Override
     public synchronized void close() {
         if (!isOpen()) {
@@ -187,7 +288,13 @@ public class SharedStorageConnector extends AbstractStorageConnector {
      */
     public synchronized void reloadStorage() {
         ensureOpen();
-        storage.reload();
+        versionedDataset.startWrite();
+        try {
+            versionedDataset.freeze();
+            storage.reload();
+        } finally {
+            versionedDataset.abortWrite();
+        }
     }
 
     /**
@@ -199,6 +306,12 @@ public class SharedStorageConnector extends AbstractStorageConnector {
      */
     public synchronized void setDataset(Dataset dataset) {
         ensureOpen();
-        storage.setDataset(dataset);
+        versionedDataset.startWrite();
+        try {
+            versionedDataset.freeze();
+            storage.setDataset(dataset);
+        } finally {
+            versionedDataset.abortWrite();
+        }
     }
 }
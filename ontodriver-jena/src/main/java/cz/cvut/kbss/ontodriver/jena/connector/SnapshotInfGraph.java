@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.reasoner.Derivation;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.ValidityReport;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Inferred graph of a transaction snapshot.
+ * <p>
+ * As long as the transaction does not modify the graph, inferences are read from the inferred graph shared via {@link
+ * SharedInferenceCache}. When the transaction adds statements and the shared closure can be extended (forward chaining
+ * rule reasoners, see {@link ForwardDeltaInfGraph#supports(InfGraph)}), a transaction-local {@link
+ * ForwardDeltaInfGraph} derives only the consequences of the added statements on top of the shared closure.
+ * <p>
+ * Otherwise, i.e., for other reasoners or once the transaction removes a statement, a transaction-local inferred graph
+ * is created on top of the raw snapshot data (containing the transaction changes) and used from then on. This makes
+ * the reasoner compute the closure of the whole graph. Modifications which do not change the snapshot data do not
+ * create the local inferred graph.
+ */
+class SnapshotInfGraph extends GraphBase implements InfGraph {
+
+    private final Node graphName;
+    private final Graph raw;
+    private final DatasetSnapshot snapshot;
+    private final SharedInferenceCache cache;
+    private final Supplier<Reasoner> reasonerSupplier;
+
+    private SharedInferenceCache.Entry shared;
+    private InfGraph local;
+
+    SnapshotInfGraph(Node graphName, Graph raw, DatasetSnapshot snapshot, SharedInferenceCache cache,
+                     Supplier<Reasoner> reasonerSupplier) {
+        this.graphName = graphName;
+        this.raw = raw;
+        this.snapshot = snapshot;
+        this.cache = cache;
+        this.reasonerSupplier = reasonerSupplier;
+    }
+
+    private synchronized <T> T read(Function<InfGraph, T> reader) {
+        if (local != null) {
+            return reader.apply(local);
+        }
+        if (shared == null) {
+            this.shared = cache.acquire(snapshot, graphName, reasonerSupplier);
+        }
+        return shared.read(reader);
+    }
+
+    private InfGraph local() {
+        return local(false);
+    }
+
+    /**
+     * Gets the transaction-local inferred graph, creating it if necessary.
+     *
+     * @param additionOnly Whether the graph will be used only to add statements, in which case it may extend the
+     *                     shared closure
+     * @return Local inferred graph
+     */
+    private synchronized InfGraph local(boolean additionOnly) {
+        if (local != null && (additionOnly || !(local instanceof ForwardDeltaInfGraph))) {
+            return local;
+        }
+        if (local == null && additionOnly) {
+            if (shared == null) {
+                this.shared = cache.acquire(snapshot, graphName, reasonerSupplier);
+            }
+            if (shared.isExtensible()) {
+                this.local = shared.createExtension();
+                return local;
+            }
+        }
+        // Raw contains all the statements added to the extension of the shared closure, if there is any
+        this.local = reasonerSupplier.get().bind(raw);
+        releaseShared();
+        return local;
+    }
+
+    private void releaseShared() {
+        if (shared != null) {
+            cache.release(shared);
+            this.shared = null;
+        }
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+        return WrappedIterator.create(read(g -> g.find(triplePattern).toList()).iterator());
+    }
+
+    @Override
+    public void performAdd(Triple t) {
+        if (local == null && raw.contains(t)) {
+            // Already present, no need to create local inferred graph
+            return;
+        }
+        final InfGraph graph = local(true);
+        if (graph instanceof ForwardDeltaInfGraph) {
+            // Extension of the shared closure does not contain the snapshot data
+            raw.add(t);
+        }
+        graph.add(t);
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+        if (local == null && !raw.contains(t)) {
+            // Nothing to remove, no need to create local inferred graph
+            return;
+        }
+        final InfGraph graph = local();
+        raw.delete(t);
+        // Forward rule inferred graphs do not retract deductions on delete, so let the closure be computed again
+        graph.rebind();
+    }
+
+    @Override
+    public Graph getRawGraph() {
+        return raw;
+    }
+
+    @Override
+    public Reasoner getReasoner() {
+        return read(InfGraph::getReasoner);
+    }
+
+    @Override
+    public void rebind(Graph data) {
+        local().rebind(data);
+    }
+
+    @Override
+    public void rebind() {
+        local().rebind();
+    }
+
+    @Override
+    public void prepare() {
+        read(g -> {
+            g.prepare();
+            return null;
+        });
+    }
+
+    @Override
+    public void reset() {
+        local().reset();
+    }
+
+    @Override
+    public Node getGlobalProperty(Node property) {
+        return read(g -> g.getGlobalProperty(property));
+    }
+
+    @Override
+    public boolean testGlobalProperty(Node property) {
+        return read(g -> g.testGlobalProperty(property));
+    }
+
+    @Override
+    public ValidityReport validate() {
+        return read(InfGraph::validate);
+    }
+
+    @Override
+    public ExtendedIterator<Triple> find(Node subject, Node property, Node object, Graph param) {
+        return WrappedIterator.create(read(g -> g.find(subject, property, object, param).toList()).iterator());
+    }
+
+    @Override
+    public void setDerivationLogging(boolean logOn) {
+        local().setDerivationLogging(logOn);
+    }
+
+    @Override
+    public Iterator<Derivation> getDerivation(Triple triple) {
+        return read(g -> WrappedIterator.create(g.getDerivation(triple)).toList()).iterator();
+    }
+
+    @Override
+    public Graph getDeductionsGraph() {
+        return read(g -> {
+            final Graph deductions = g.getDeductionsGraph();
+            if (deductions == null) {
+                return null;
+            }
+            final Graph copy = GraphFactory.createGraphMem();
+            GraphUtil.addInto(copy, deductions);
+            return copy;
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        releaseShared();
+        super.close();
+    }
+}
@@ -15,14 +15,24 @@
 package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.compose.Delta;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.system.Txn;
 
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 class SnapshotStorage extends Storage {
 
+    private DatasetSnapshot snapshot;
+
     SnapshotStorage(DriverConfiguration configuration) {
         super(configuration);
     }
@@ -32,6 +42,18 @@ class SnapshotStorage extends Storage {
         this.dataset = DatasetFactory.create();
     }
 
+    /**
+     * Initializes this storage as a copy-on-write view of the specified snapshot of the central dataset.
+     * <p>
+     * No data are copied, changes made to this storage are kept locally on top of the snapshot.
+     *
+     * @param snapshot Snapshot of the central dataset, released when this storage is closed
+     */
+    void initialize(DatasetSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.dataset = DatasetFactory.wrap(new SnapshotDatasetGraph(snapshot));
+    }
+
     void addCentralData(Dataset central) {
         Txn.executeRead(central, () -> {
             final Iterator<String> it = central.listNames();
@@ -42,4 +64,50 @@ class SnapshotStorage extends Storage {
             dataset.setDefaultModel(central.getDefaultModel());
         });
     }
+
+    @Override
+    void close() {
+        try {
+            super.close();
+        } finally {
+            if (snapshot != null) {
+                snapshot.release();
+            }
+        }
+    }
+
+    /**
+     * Dataset whose graphs record local changes on top of the corresponding graphs of a snapshot.
+     */
+    private static class SnapshotDatasetGraph extends DatasetGraphMapLink {
+
+        private final DatasetSnapshot snapshot;
+
+        private SnapshotDatasetGraph(DatasetSnapshot snapshot) {
+            super(new Delta(snapshot.graph(Quad.defaultGraphIRI)));
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected Graph getGraphCreate(Node graphNode) {
+            return new Delta(snapshot.graph(graphNode));
+        }
+
+        @Override
+        public boolean containsGraph(Node graphNode) {
+            return super.containsGraph(graphNode) || snapshot.graphNames().contains(graphNode);
+        }
+
+        @Override
+        public Iterator<Node> listGraphNodes() {
+            final Set<Node> names = new LinkedHashSet<>(snapshot.graphNames());
+            super.listGraphNodes().forEachRemaining(names::add);
+            return names.iterator();
+        }
+
+        @Override
+        public long size() {
+            return Iter.count(listGraphNodes());
+        }
+    }
 }
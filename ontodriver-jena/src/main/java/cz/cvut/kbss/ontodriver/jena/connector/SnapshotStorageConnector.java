@@ -37,16 +37,21 @@ import java.util.List;
  */
 public class SnapshotStorageConnector extends SharedStorageConnector {
 
-    final AbstractStorageConnector centralConnector;
+    final SharedStorageConnector centralConnector;
 
     private LocalModel transactionalChanges;
     private List<String> transactionalUpdates;
 
-    SnapshotStorageConnector(AbstractStorageConnector centralConnector) {
+    SnapshotStorageConnector(SharedStorageConnector centralConnector) {
         super(centralConnector.configuration);
         this.centralConnector = centralConnector;
     }
 
+    @Override
+    void initialize() {
+        // Storage is created at transaction start as a view of the central storage snapshot
+    }
+
     @Override
     public void begin() {
         ensureOpen();
@@ -61,8 +66,7 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
 
     void snapshotCentralDataset() {
         final SnapshotStorage s = new SnapshotStorage(configuration);
-        s.initialize();
-        s.addCentralData(centralConnector.getStorage().getDataset());
+        s.initialize(centralConnector.snapshot());
         this.storage = s;
     }
 
@@ -112,6 +116,9 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
     }
 
     private void cleanup() {
+        if (storage != null) {
+            storage.close();
+        }
         this.storage = null;
         this.transactionalChanges = null;
         this.transactionalUpdates = null;
@@ -204,4 +211,12 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
             centralConnector.executeUpdate(query, target);
         }
     }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        if (storage == null && cls.isAssignableFrom(Dataset.class)) {
+            return centralConnector.unwrap(cls);
+        }
+        return super.unwrap(cls);
+    }
 }
@@ -29,18 +29,20 @@ class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector imp
 
     //    private SnapshotStorageWithInference storage;
     private final Map<String, String> reasonerConfig;
+    private final SharedInferenceCache inferenceCache;
 
-    SnapshotStorageConnectorWithInference(AbstractStorageConnector centralConnector,
-                                          Map<String, String> reasonerConfig) {
+    SnapshotStorageConnectorWithInference(SharedStorageConnector centralConnector,
+                                          Map<String, String> reasonerConfig, SharedInferenceCache inferenceCache) {
         super(centralConnector);
         this.reasonerConfig = reasonerConfig;
+        this.inferenceCache = inferenceCache;
     }
 
     @Override
     void snapshotCentralDataset() {
-        final SnapshotStorageWithInference s = new SnapshotStorageWithInference(configuration, reasonerConfig);
-        s.initialize();
-        s.addCentralData(centralConnector.getStorage().getDataset());
+        final SnapshotStorageWithInference s =
+                new SnapshotStorageWithInference(configuration, reasonerConfig, inferenceCache);
+        s.initialize(centralConnector.snapshot());
         this.storage = s;
     }
 
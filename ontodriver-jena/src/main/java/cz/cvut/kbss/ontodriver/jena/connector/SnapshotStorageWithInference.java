@@ -17,6 +17,10 @@ package cz.cvut.kbss.ontodriver.jena.connector;
 import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.jena.exception.ReasonerInitializationException;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.InfModel;
@@ -24,9 +28,13 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.reasoner.IllegalParameterException;
+import org.apache.jena.reasoner.InfGraph;
 import org.apache.jena.reasoner.Reasoner;
 import org.apache.jena.reasoner.ReasonerFactory;
 import org.apache.jena.reasoner.ValidityReport;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.system.Txn;
 import org.apache.jena.vocabulary.ReasonerVocabulary;
 
@@ -59,8 +67,19 @@ class SnapshotStorageWithInference extends SnapshotStorage {
 
     private Map<String, InfModel> inferredGraphs = new HashMap<>();
 
+    /**
+     * Shared inferred graphs, used when this storage is initialized from a snapshot
+     */
+    private final SharedInferenceCache inferenceCache;
+
     SnapshotStorageWithInference(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
+        this(configuration, reasonerConfig, null);
+    }
+
+    SnapshotStorageWithInference(DriverConfiguration configuration, Map<String, String> reasonerConfig,
+                                 SharedInferenceCache inferenceCache) {
         super(configuration);
+        this.inferenceCache = inferenceCache;
         this.reasonerFactory = initReasonerFactory(configuration);
         this.reasonerConfig = reasonerConfig.entrySet().stream()
                                             .filter(e -> SUPPORTED_CONFIG.contains(e.getKey()))
@@ -91,6 +110,21 @@ class SnapshotStorageWithInference extends SnapshotStorage {
         this.dataset = DatasetFactory.createGeneral();
     }
 
+    /**
+     * Initializes this storage as a view of the specified snapshot of the central dataset.
+     * <p>
+     * Inferred graphs are taken from the shared inference cache, so that the reasoner does not have to process the
+     * whole dataset at transaction start. Graphs modified by the transaction get their own inferred graphs.
+     *
+     * @param snapshot Snapshot of the central dataset, released when this storage is closed
+     */
+    @Override
+    void initialize(DatasetSnapshot snapshot) {
+        assert inferenceCache != null;
+        super.initialize(snapshot);
+        this.dataset = DatasetFactory.wrap(new InferredDatasetGraph(dataset.asDatasetGraph(), snapshot));
+    }
+
     @Override
     void addCentralData(Dataset central) {
         Txn.executeRead(central, () -> {
@@ -114,6 +148,10 @@ class SnapshotStorageWithInference extends SnapshotStorage {
 
     @Override
     InfModel getDefaultGraph() {
+        if (inferenceCache != null) {
+            return inferredGraphs.computeIfAbsent(null, c -> ModelFactory
+                    .createInfModel((InfGraph) dataset.asDatasetGraph().getDefaultGraph()));
+        }
         return inferredGraphs.get(null);
     }
 
@@ -131,11 +169,18 @@ class SnapshotStorageWithInference extends SnapshotStorage {
     }
 
     Model getRawDefaultGraph() {
+        if (inferenceCache != null) {
+            return getDefaultGraph().getRawModel();
+        }
         return inferredGraphs.containsKey(null) ? inferredGraphs.get(null).getRawModel() : dataset.getDefaultModel();
     }
 
     @Override
     InfModel getNamedGraph(String context) {
+        if (inferenceCache != null) {
+            return inferredGraphs.computeIfAbsent(context, c -> ModelFactory
+                    .createInfModel((InfGraph) dataset.asDatasetGraph().getGraph(NodeFactory.createURI(c))));
+        }
         return inferredGraphs.computeIfAbsent(context, c -> {
             // If the context does not exist, we need to create it, so that the default Dataset behavior is preserved
             final InfModel model = ModelFactory.createInfModel(createReasoner(), ModelFactory.createDefaultModel());
@@ -145,6 +190,9 @@ class SnapshotStorageWithInference extends SnapshotStorage {
     }
 
     Model getRawNamedGraph(String context) {
+        if (inferenceCache != null) {
+            return getNamedGraph(context).getRawModel();
+        }
         return inferredGraphs.containsKey(context) ? inferredGraphs.get(context).getRawModel() :
                 dataset.getNamedModel(context);
     }
@@ -152,4 +200,44 @@ class SnapshotStorageWithInference extends SnapshotStorage {
     ValidityReport checkConsistency(String context) {
         return context != null ? getNamedGraph(context).validate() : getDefaultGraph().validate();
     }
+
+    /**
+     * Dataset consisting of inferred graphs on top of the raw snapshot data.
+     */
+    private class InferredDatasetGraph extends DatasetGraphMapLink {
+
+        private final DatasetGraph raw;
+        private final DatasetSnapshot snapshot;
+
+        private InferredDatasetGraph(DatasetGraph raw, DatasetSnapshot snapshot) {
+            super(new SnapshotInfGraph(Quad.defaultGraphIRI, raw.getDefaultGraph(), snapshot, inferenceCache,
+                    SnapshotStorageWithInference.this::createReasoner));
+            this.raw = raw;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected Graph getGraphCreate(Node graphNode) {
+            return new SnapshotInfGraph(graphNode, raw.getGraph(graphNode), snapshot, inferenceCache,
+                    SnapshotStorageWithInference.this::createReasoner);
+        }
+
+        @Override
+        public boolean containsGraph(Node graphNode) {
+            return super.containsGraph(graphNode) || raw.containsGraph(graphNode);
+        }
+
+        @Override
+        public Iterator<Node> listGraphNodes() {
+            final Set<Node> names = new LinkedHashSet<>();
+            raw.listGraphNodes().forEachRemaining(names::add);
+            super.listGraphNodes().forEachRemaining(names::add);
+            return names.iterator();
+        }
+
+        @Override
+        public long size() {
+            return Iter.count(listGraphNodes());
+        }
+    }
 }
@@ -25,6 +25,7 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.sparql.core.DatasetChanges;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,6 +114,16 @@ abstract class Storage {
         // Do nothing by default
     }
 
+    /**
+     * Gets listener to be notified of changes made to the dataset directly, bypassing this storage (e.g., by SPARQL
+     * Update).
+     *
+     * @return Change listener, {@code null} if the storage does not need to be notified
+     */
+    DatasetChanges changeListener() {
+        return null;
+    }
+
     /**
      * Sets the dataset on this storage.
      *
@@ -0,0 +1,593 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.DatasetChanges;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.QuadAction;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Provides versioned read-only views of the central dataset.
+ * <p>
+ * Instead of copying the central dataset at transaction start, snapshots remember the version of the central dataset
+ * they were created at. Every write transaction on the central dataset publishes the changes it effectively made as a
+ * new change layer. A snapshot then reads the current central data and reverts changes from layers published after
+ * the snapshot was created. Layers are kept only as long as there exists a snapshot which needs them.
+ * <p>
+ * Changes whose effect cannot be tracked (e.g. storage reload or dataset replacement) cause the data currently seen by
+ * active snapshots to be copied, so that these snapshots remain isolated.
+ * <p>
+ * Reads are not performed while changes are being written into the central dataset.
+ */
+class VersionedDataset {
+
+    private final Supplier<Dataset> central;
+    private final boolean defaultAsUnion;
+
+    /**
+     * Number of the last published version
+     */
+    private long version;
+
+    private Epoch currentEpoch = new Epoch(null);
+
+    /**
+     * Epochs whose data were frozen but which are still used by some snapshots
+     */
+    private final Set<Epoch> frozenEpochs = new HashSet<>();
+
+    private Thread writer;
+    /**
+     * Incremented when writing starts and when it ends, so that readers are able to detect concurrent writes
+     */
+    private volatile long writeStamp;
+    /**
+     * Whether the current write has to be recorded, i.e., whether there are snapshots which may need its changes
+     */
+    private volatile boolean tracking;
+
+    /**
+     * Prior state of statements changed by the current write, indexed by graph name
+     */
+    private final Map<Node, Map<Triple, Boolean>> priorState = new HashMap<>();
+
+    VersionedDataset(Supplier<Dataset> central, boolean defaultAsUnion) {
+        this.central = central;
+        this.defaultAsUnion = defaultAsUnion;
+    }
+
+    /**
+     * Creates a snapshot of the current version of the central dataset.
+     * <p>
+     * This operation does not copy any data.
+     *
+     * @return New snapshot, it has to be released when no longer needed
+     */
+    synchronized DatasetSnapshot acquire() {
+        awaitWriteEnd();
+        currentEpoch.register(version);
+        return new DatasetSnapshot(this, currentEpoch, version);
+    }
+
+    /**
+     * Creates a new snapshot of the same version as the specified one.
+     * <p>
+     * The new snapshot has to be released independently of the original.
+     *
+     * @param snapshot Snapshot to duplicate, must not be released
+     * @return New snapshot
+     */
+    synchronized DatasetSnapshot retain(DatasetSnapshot snapshot) {
+        snapshot.getEpoch().register(snapshot.getVersion());
+        return new DatasetSnapshot(this, snapshot.getEpoch(), snapshot.getVersion());
+    }
+
+    synchronized void release(DatasetSnapshot snapshot) {
+        final Epoch epoch = snapshot.getEpoch();
+        epoch.unregister(snapshot.getVersion());
+        if (epoch != currentEpoch && !epoch.isInUse()) {
+            frozenEpochs.remove(epoch);
+        } else {
+            epoch.prune();
+        }
+    }
+
+    synchronized int getActiveSnapshotCount() {
+        return currentEpoch.getActiveCount() + frozenEpochs.stream().mapToInt(Epoch::getActiveCount).sum();
+    }
+
+    /**
+     * Marks start of writing into the central dataset.
+     * <p>
+     * Should be called once a write transaction is started on the central dataset.
+     */
+    synchronized void startWrite() {
+        awaitWriteEnd();
+        this.writer = Thread.currentThread();
+        this.tracking = currentEpoch.isInUse();
+        writeStamp++;
+    }
+
+    private void awaitWriteEnd() {
+        boolean interrupted = false;
+        while (writer != null && writer != Thread.currentThread()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records state of the specified statements before they are added into the central dataset.
+     *
+     * @param statements Statements to add
+     * @param context    Target context, {@code null} represents the default graph
+     */
+    void beforeAdd(List<Statement> statements, String context) {
+        if (!tracking) {
+            return;
+        }
+        final DatasetGraph dsg = central.get().asDatasetGraph();
+        final Node graphName = graphName(context);
+        statements.forEach(s -> recordPriorState(dsg, graphName, s.asTriple()));
+    }
+
+    /**
+     * Records state of the specified statements before they are removed from the central dataset.
+     *
+     * @param statements Statements to remove
+     * @param context    Target context, {@code null} represents the default graph (and all named graphs if default is
+     *                   treated as union)
+     */
+    void beforeRemove(List<Statement> statements, String context) {
+        if (!tracking) {
+            return;
+        }
+        final DatasetGraph dsg = central.get().asDatasetGraph();
+        final List<Node> graphNames = new ArrayList<>();
+        graphNames.add(graphName(context));
+        if (context == null && defaultAsUnion) {
+            dsg.listGraphNodes().forEachRemaining(graphNames::add);
+        }
+        for (Node graphName : graphNames) {
+            statements.forEach(s -> recordPriorState(dsg, graphName, s.asTriple()));
+        }
+    }
+
+    private static Node graphName(String context) {
+        return context != null ? NodeFactory.createURI(context) : Quad.defaultGraphIRI;
+    }
+
+    private synchronized void recordPriorState(DatasetGraph dsg, Node graphName, Triple triple) {
+        assert writer == Thread.currentThread();
+        final Map<Triple, Boolean> graphState = priorState.computeIfAbsent(graphName, k -> new HashMap<>());
+        if (!graphState.containsKey(triple)) {
+            graphState.put(triple, contains(dsg, graphName, triple));
+        }
+    }
+
+    private static boolean contains(DatasetGraph dsg, Node graphName, Triple triple) {
+        return Quad.isDefaultGraph(graphName) ? dsg.getDefaultGraph().contains(triple) :
+                dsg.getGraph(graphName).contains(triple);
+    }
+
+    /**
+     * Gets a change listener which records state of statements changed by SPARQL Update operations.
+     * <p>
+     * The listener expects to be notified only of effective changes.
+     *
+     * @return Dataset change listener
+     */
+    DatasetChanges changeRecorder() {
+        return new ChangeRecorder();
+    }
+
+    /**
+     * Finishes writing into the central dataset and publishes the effective changes.
+     *
+     * @param commit Performs the actual commit of the central dataset
+     */
+    synchronized void commitWrite(Runnable commit) {
+        assert writer == Thread.currentThread();
+        try {
+            final ChangeLayer layer = tracking ? createChangeLayer(version + 1) : null;
+            commit.run();
+            this.version++;
+            if (layer != null && !layer.isEmpty()) {
+                currentEpoch.addLayer(layer);
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    private ChangeLayer createChangeLayer(long layerVersion) {
+        final DatasetGraph dsg = central.get().asDatasetGraph();
+        final ChangeLayer layer = new ChangeLayer(layerVersion);
+        priorState.forEach((graphName, states) -> states.forEach((triple, wasPresent) -> {
+            final boolean isPresent = contains(dsg, graphName, triple);
+            if (wasPresent && !isPresent) {
+                layer.removed(graphName).add(triple);
+            } else if (!wasPresent && isPresent) {
+                layer.added(graphName).add(triple);
+            }
+        }));
+        return layer;
+    }
+
+    /**
+     * Finishes writing into the central dataset without publishing any changes.
+     */
+    synchronized void abortWrite() {
+        endWrite();
+    }
+
+    private void endWrite() {
+        priorState.clear();
+        this.writer = null;
+        this.tracking = false;
+        writeStamp++;
+        notifyAll();
+    }
+
+    /**
+     * Copies the current central data for the active snapshots, so that they are not affected by changes which cannot
+     * be tracked.
+     * <p>
+     * Has to be called within a write (see {@link #startWrite()}) before such change is made.
+     */
+    synchronized void freeze() {
+        assert writer == Thread.currentThread();
+        if (currentEpoch.isInUse()) {
+            final Dataset dataset = central.get();
+            final DatasetGraph copy = DatasetGraphFactory.create();
+            Txn.executeRead(dataset, () -> dataset.asDatasetGraph().find().forEachRemaining(copy::add));
+            currentEpoch.freeze(copy);
+            frozenEpochs.add(currentEpoch);
+        }
+        this.currentEpoch = new Epoch(null);
+        this.tracking = false;
+        priorState.clear();
+        this.version++;
+    }
+
+    /**
+     * Finds triples matching the specified pattern in the specified version of the dataset.
+     */
+    List<Triple> find(Epoch epoch, long atVersion, Node graphName, Triple pattern) {
+        while (true) {
+            final long stamp = beforeRead();
+            final List<ChangeLayer> layers = layersAfter(epoch, atVersion);
+            final List<Triple> current = epoch.read(central, dsg -> graph(dsg, graphName).find(pattern).toList());
+            if (afterRead(stamp, epoch)) {
+                return revert(current, graphName, pattern, layers);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the specified version of the graph contains at least one triple.
+     */
+    boolean isEmpty(Epoch epoch, long atVersion, Node graphName) {
+        while (true) {
+            final long stamp = beforeRead();
+            final List<ChangeLayer> layers = layersAfter(epoch, atVersion);
+            final boolean empty = epoch.read(central, dsg -> {
+                final ExtendedIterator<Triple> it = graph(dsg, graphName).find();
+                try {
+                    while (it.hasNext()) {
+                        if (isPresentAtVersion(it.next(), graphName, layers, true)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } finally {
+                    it.close();
+                }
+            });
+            if (afterRead(stamp, epoch)) {
+                return empty && layers.stream().noneMatch(l -> l.hasRemovals(graphName));
+            }
+        }
+    }
+
+    /**
+     * Lists names of graphs present in the specified version of the dataset.
+     */
+    List<Node> listGraphNames(Epoch epoch, long atVersion) {
+        while (true) {
+            final long stamp = beforeRead();
+            final List<ChangeLayer> layers = layersAfter(epoch, atVersion);
+            final Set<Node> names = new LinkedHashSet<>(epoch.read(central, dsg -> Iter.toList(dsg.listGraphNodes())));
+            if (afterRead(stamp, epoch)) {
+                layers.forEach(l -> names.addAll(l.removedGraphs()));
+                names.removeIf(Quad::isDefaultGraph);
+                final List<Node> result = new ArrayList<>(names.size());
+                names.forEach(n -> {
+                    if (!isEmpty(epoch, atVersion, n)) {
+                        result.add(n);
+                    }
+                });
+                return result;
+            }
+        }
+    }
+
+    private synchronized long beforeRead() {
+        awaitWriteEnd();
+        return writeStamp;
+    }
+
+    private boolean afterRead(long stamp, Epoch epoch) {
+        return epoch.isFrozen() || writer == Thread.currentThread() || writeStamp == stamp;
+    }
+
+    private synchronized List<ChangeLayer> layersAfter(Epoch epoch, long atVersion) {
+        return epoch.layersAfter(atVersion);
+    }
+
+    /**
+     * Gets changes committed after version {@code from} up to and including version {@code to}.
+     * <p>
+     * Only changes retained for active snapshots are available, so both versions should be held by some snapshots.
+     */
+    synchronized List<ChangeLayer> changesBetween(Epoch epoch, long from, long to) {
+        final List<ChangeLayer> result = new ArrayList<>(epoch.layersAfter(from));
+        result.removeIf(l -> l.getVersion() > to);
+        return result;
+    }
+
+    private static Graph graph(DatasetGraph dsg, Node graphName) {
+        return Quad.isDefaultGraph(graphName) ? dsg.getDefaultGraph() : dsg.getGraph(graphName);
+    }
+
+    private static List<Triple> revert(List<Triple> current, Node graphName, Triple pattern,
+                                       List<ChangeLayer> layers) {
+        if (layers.isEmpty()) {
+            return current;
+        }
+        final Set<Triple> result = new LinkedHashSet<>(current.size());
+        current.forEach(t -> {
+            if (isPresentAtVersion(t, graphName, layers, true)) {
+                result.add(t);
+            }
+        });
+        layers.forEach(l -> l.findRemoved(graphName, pattern).forEachRemaining(t -> {
+            if (isPresentAtVersion(t, graphName, layers, false)) {
+                result.add(t);
+            }
+        }));
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Determines whether the triple was present before changes in the specified layers were made.
+     * <p>
+     * The first layer which changed the triple decides.
+     */
+    private static boolean isPresentAtVersion(Triple triple, Node graphName, List<ChangeLayer> layers,
+                                              boolean presentNow) {
+        for (ChangeLayer layer : layers) {
+            if (layer.wasAdded(graphName, triple)) {
+                return false;
+            }
+            if (layer.wasRemoved(graphName, triple)) {
+                return true;
+            }
+        }
+        return presentNow;
+    }
+
+    /**
+     * Records prior state of statements changed by a SPARQL Update.
+     */
+    private class ChangeRecorder implements DatasetChanges {
+
+        @Override
+        public void start() {
+            // Do nothing
+        }
+
+        @Override
+        public void change(QuadAction qaction, Node g, Node s, Node p, Node o) {
+            if (!tracking) {
+                return;
+            }
+            final Node graphName = g == null || Quad.isDefaultGraph(g) ? Quad.defaultGraphIRI : g;
+            final Triple triple = Triple.create(s, p, o);
+            synchronized (VersionedDataset.this) {
+                final Map<Triple, Boolean> graphState = priorState.computeIfAbsent(graphName, k -> new HashMap<>());
+                if (qaction == QuadAction.ADD) {
+                    graphState.putIfAbsent(triple, false);
+                } else if (qaction == QuadAction.DELETE) {
+                    graphState.putIfAbsent(triple, true);
+                }
+            }
+        }
+
+        @Override
+        public void finish() {
+            // Do nothing
+        }
+
+        @Override
+        public void reset() {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Changes effectively made to the central dataset by one write.
+     */
+    static class ChangeLayer {
+
+        private final long version;
+        private final Map<Node, Graph> added = new HashMap<>();
+        private final Map<Node, Graph> removed = new HashMap<>();
+
+        ChangeLayer(long version) {
+            this.version = version;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        Graph added(Node graphName) {
+            return added.computeIfAbsent(graphName, k -> GraphFactory.createGraphMem());
+        }
+
+        Graph removed(Node graphName) {
+            return removed.computeIfAbsent(graphName, k -> GraphFactory.createGraphMem());
+        }
+
+        boolean wasAdded(Node graphName, Triple triple) {
+            final Graph g = added.get(graphName);
+            return g != null && g.contains(triple);
+        }
+
+        boolean wasRemoved(Node graphName, Triple triple) {
+            final Graph g = removed.get(graphName);
+            return g != null && g.contains(triple);
+        }
+
+        boolean touches(Node graphName) {
+            return added.containsKey(graphName) || removed.containsKey(graphName);
+        }
+
+        boolean hasRemovals(Node graphName) {
+            final Graph g = removed.get(graphName);
+            return g != null && !g.isEmpty();
+        }
+
+        Set<Node> removedGraphs() {
+            return removed.keySet();
+        }
+
+        Iterator<Triple> findAdded(Node graphName, Triple pattern) {
+            final Graph g = added.get(graphName);
+            return g != null ? g.find(pattern) : Collections.emptyIterator();
+        }
+
+        Iterator<Triple> findRemoved(Node graphName, Triple pattern) {
+            final Graph g = removed.get(graphName);
+            return g != null ? g.find(pattern) : Collections.emptyIterator();
+        }
+
+        boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    /**
+     * Sequence of versions sharing the same source data.
+     * <p>
+     * The current epoch reads the live central dataset, older epochs read a frozen copy of the data.
+     */
+    static class Epoch {
+
+        private DatasetGraph frozen;
+        private final List<ChangeLayer> layers = new ArrayList<>();
+        /**
+         * Number of active snapshots per version
+         */
+        private final TreeMap<Long, Integer> activeSnapshots = new TreeMap<>();
+
+        Epoch(DatasetGraph frozen) {
+            this.frozen = frozen;
+        }
+
+        boolean isFrozen() {
+            return frozen != null;
+        }
+
+        void freeze(DatasetGraph data) {
+            this.frozen = data;
+        }
+
+        <T> T read(Supplier<Dataset> central, java.util.function.Function<DatasetGraph, T> reader) {
+            if (frozen != null) {
+                return reader.apply(frozen);
+            }
+            final Dataset dataset = central.get();
+            return Txn.calculateRead(dataset, () -> reader.apply(dataset.asDatasetGraph()));
+        }
+
+        void register(long version) {
+            activeSnapshots.merge(version, 1, Integer::sum);
+        }
+
+        void unregister(long version) {
+            activeSnapshots.computeIfPresent(version, (k, v) -> v > 1 ? v - 1 : null);
+        }
+
+        boolean isInUse() {
+            return !activeSnapshots.isEmpty();
+        }
+
+        int getActiveCount() {
+            return activeSnapshots.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        void addLayer(ChangeLayer layer) {
+            layers.add(layer);
+        }
+
+        List<ChangeLayer> layersAfter(long version) {
+            if (layers.isEmpty() || layers.get(layers.size() - 1).getVersion() <= version) {
+                return Collections.emptyList();
+            }
+            final List<ChangeLayer> result = new ArrayList<>();
+            for (ChangeLayer layer : layers) {
+                if (layer.getVersion() > version) {
+                    result.add(layer);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Removes layers which are not needed by any active snapshot.
+         */
+        void prune() {
+            if (activeSnapshots.isEmpty()) {
+                layers.clear();
+            } else {
+                final long oldest = activeSnapshots.firstKey();
+                layers.removeIf(l -> l.getVersion() <= oldest);
+            }
+        }
+    }
+}
@@ -24,8 +24,9 @@ import org.apache.jena.rdf.model.Statement;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.jena.rdf.model.ResourceFactory.*;
 
@@ -53,30 +54,36 @@ class ReferencedListHandler extends ListHandler<ReferencedListDescriptor, Refere
         final Property hasNext = createProperty(descriptor.getNextNode().getIdentifier().toString());
         final Property hasContent = createProperty(descriptor.getNodeContent().getIdentifier().toString());
         final String context = descriptor.getContext() != null ? descriptor.getContext().toString() : null;
+        final Set<Resource> generatedNodes = new HashSet<>();
         for (; i < descriptor.getValues().size(); i++) {
             lastNode =
                     appendNode(lastNode, descriptor.getValues().get(i), i == 0 ? hasList : hasNext, hasContent, context,
-                            toAdd);
+                            toAdd, generatedNodes);
         }
         connector.add(toAdd, context);
     }
 
     private Resource appendNode(Resource previousNode, NamedResource value, Property link, Property hasContent,
-                                String context, List<Statement> statements) {
-        final Resource node = generateNewListNode(value.getIdentifier(), context);
+                                String context, List<Statement> statements, Set<Resource> generatedNodes) {
+        final Resource node = generateNewListNode(value.getIdentifier(), context, generatedNodes);
         statements.add(createStatement(previousNode, link, node));
         statements.add(createStatement(node, hasContent, createResource(value.getIdentifier().toString())));
         return node;
     }
 
-    private Resource generateNewListNode(URI baseUri, String context) {
+    /**
+     * Generates a unique list node identifier.
+     * <p>
+     * Nodes generated earlier for the same list are skipped without consulting the storage, since they are not
+     * saved yet.
+     */
+    private Resource generateNewListNode(URI baseUri, String context, Set<Resource> generatedNodes) {
         Resource node;
         int index = 0;
-        Collection<Statement> statements;
         do {
             node = createResource(baseUri.toString() + "-SEQ_" + index++);
-            statements = connector.find(node, null, null, context);
-        } while (!statements.isEmpty());
+        } while (generatedNodes.contains(node) || !connector.find(node, null, null, context).isEmpty());
+        generatedNodes.add(node);
         return node;
     }
 }
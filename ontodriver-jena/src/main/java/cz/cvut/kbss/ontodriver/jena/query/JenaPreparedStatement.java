@@ -19,15 +19,40 @@ import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.jena.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.util.StatementHolder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
+/**
+ * Prepared statement which binds parameter values to variables of the parsed query.
+ * <p>
+ * Parameter values which represent a single IRI or literal are substituted for the query variables in the parsed
+ * query, so the query string is parsed only once regardless of the parameter values. If any parameter value cannot be
+ * bound this way, all parameter values are inserted into the query string instead.
+ */
 public class JenaPreparedStatement extends JenaStatement implements PreparedStatement {
 
     private final StatementHolder holder;
 
+    private final Map<Var, Node> bindings = new HashMap<>();
+    // Parameters whose values have to be inserted into the query string
+    private final Set<String> substitutedParameters = new HashSet<>();
+
     public JenaPreparedStatement(StatementExecutor executor, String sparql) {
-        super(executor);
+        this(executor, sparql, new ParsedQueryCache());
+    }
+
+    public JenaPreparedStatement(StatementExecutor executor, String sparql, ParsedQueryCache queryCache) {
+        super(executor, queryCache);
         this.holder = new StatementHolder(sparql);
         if (holder.getStatement().isEmpty()) {
             throw new IllegalArgumentException("Statement cannot be empty.");
@@ -38,7 +63,12 @@ public class JenaPreparedStatement extends JenaStatement implements PreparedStat
     @Override
     public ResultSet executeQuery() throws JenaDriverException {
         ensureOpen();
-        return executeQuery(holder.assembleStatement());
+        if (!substitutedParameters.isEmpty()) {
+            return executeQuery(holder.assembleStatement());
+        }
+        final Query query = parseQuery(holder.getStatement());
+        // The transformation creates a new query, leaving the cached one intact
+        return executeQuery(bindings.isEmpty() ? query : QueryTransformOps.transform(query, bindings));
     }
 
     @Override
@@ -52,12 +82,40 @@ public class JenaPreparedStatement extends JenaStatement implements PreparedStat
         ensureOpen();
         Objects.requireNonNull(binding);
         Objects.requireNonNull(value);
-        holder.setParameter(binding, value.toString());
+        final String strValue = value.toString();
+        holder.setParameter(binding, strValue);
+        final Node node = parseNode(strValue);
+        if (node != null) {
+            bindings.put(Var.alloc(binding), node);
+            substitutedParameters.remove(binding);
+        } else {
+            bindings.remove(Var.alloc(binding));
+            substitutedParameters.add(binding);
+        }
+    }
+
+    /**
+     * Parses the specified value as a single IRI or literal.
+     * <p>
+     * Prefixed names are not resolved, as the prefixes are declared by the query.
+     *
+     * @param value Value in query syntax
+     * @return Parsed node, {@code null} if the value does not represent a single IRI or literal
+     */
+    private static Node parseNode(String value) {
+        try {
+            final Node node = NodeFactoryExtra.parseNode(value, PrefixMapFactory.emptyPrefixMap());
+            return node.isURI() || node.isLiteral() ? node : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     @Override
     public void clearParameters() {
         ensureOpen();
         holder.clearParameters();
+        bindings.clear();
+        substitutedParameters.clear();
     }
 }
@@ -19,14 +19,13 @@ import cz.cvut.kbss.ontodriver.Statement;
 import cz.cvut.kbss.ontodriver.jena.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryFactory;
-import org.apache.jena.query.QueryParseException;
 
 import java.util.Objects;
 
 public class JenaStatement implements Statement {
 
     private final StatementExecutor executor;
+    private final ParsedQueryCache queryCache;
 
     private StatementOntology targetOntology = StatementOntology.CENTRAL;
     private boolean open = true;
@@ -34,13 +33,21 @@ public class JenaStatement implements Statement {
     private AbstractResultSet currentResultSet;
 
     public JenaStatement(StatementExecutor executor) {
+        this(executor, new ParsedQueryCache());
+    }
+
+    public JenaStatement(StatementExecutor executor, ParsedQueryCache queryCache) {
         this.executor = executor;
+        this.queryCache = queryCache;
     }
 
     @Override
     public ResultSet executeQuery(String sparql) throws JenaDriverException {
         ensureOpen();
-        final Query query = parseQuery(Objects.requireNonNull(sparql));
+        return executeQuery(parseQuery(Objects.requireNonNull(sparql)));
+    }
+
+    ResultSet executeQuery(Query query) throws JenaDriverException {
         closeCurrentResultSet();
         final AbstractResultSet resultSet;
         if (query.isAskType()) {
@@ -59,12 +66,8 @@ public class JenaStatement implements Statement {
         }
     }
 
-    private Query parseQuery(String sparql) throws JenaDriverException {
-        try {
-            return QueryFactory.create(sparql);
-        } catch (QueryParseException e) {
-            throw new JenaDriverException("Unable to parse query " + sparql, e);
-        }
+    Query parseQuery(String sparql) throws JenaDriverException {
+        return queryCache.parse(sparql);
     }
 
     private void closeCurrentResultSet() throws JenaDriverException {
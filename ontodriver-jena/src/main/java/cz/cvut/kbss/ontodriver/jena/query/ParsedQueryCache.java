@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.query;
+
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryParseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches parsed SPARQL queries, so that repeated executions of the same query string do not have to parse it again.
+ * <p>
+ * The cached queries must not be modified. This class is not thread-safe, it is intended to be used by a single
+ * connection.
+ */
+public class ParsedQueryCache {
+
+    /**
+     * Maximum number of distinct queries whose parsed form is retained.
+     */
+    static final int CACHE_SIZE = 64;
+
+    private final Map<String, Query> cache = new LinkedHashMap<String, Query>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Gets parsed form of the specified query, parsing it if it is not cached yet.
+     *
+     * @param sparql Query string
+     * @return Parsed query
+     * @throws JenaDriverException If the query cannot be parsed
+     */
+    public Query parse(String sparql) throws JenaDriverException {
+        Query query = cache.get(sparql);
+        if (query == null) {
+            try {
+                query = QueryFactory.create(sparql);
+            } catch (QueryParseException e) {
+                throw new JenaDriverException("Unable to parse query " + sparql, e);
+            }
+            cache.put(sparql, query);
+        }
+        return query;
+    }
+}
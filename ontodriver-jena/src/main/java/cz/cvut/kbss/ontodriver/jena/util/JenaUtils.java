@@ -23,6 +23,8 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.ResourceFactory;
 
 import java.net.URL;
+import java.util.Date;
+import java.util.GregorianCalendar;
 
 /**
  * Utility methods for working with Jena API.
@@ -58,6 +60,9 @@ public class JenaUtils {
 
     /**
      * Transforms the specified value to an {@link RDFNode}, be it a resource or a literal.
+     * <p>
+     * {@link Date} values are transformed to {@code xsd:dateTime} literals, i.e., the same way data property values are
+     * stored, so that the node matches the stored statement.
      *
      * @param assertion Assertion representing the asserted property
      * @param value     Value to transform
@@ -66,10 +71,15 @@ public class JenaUtils {
     public static RDFNode valueToRdfNode(Assertion assertion, Value<?> value) {
         if (JenaUtils.isResourceIdentifier(value.getValue())) {
             return ResourceFactory.createResource(value.stringValue());
+        } else if (assertion.hasLanguage() && value.getValue() instanceof String) {
+            return ResourceFactory.createLangLiteral(value.stringValue(), assertion.getLanguage());
+        } else if (value.getValue() instanceof Date) {
+            // Jena does not like java.util.Date, it works with Calendar values
+            final GregorianCalendar cal = new GregorianCalendar();
+            cal.setTime((Date) value.getValue());
+            return ResourceFactory.createTypedLiteral(cal);
         } else {
-            return assertion.hasLanguage() ?
-                   ResourceFactory.createLangLiteral(value.stringValue(), assertion.getLanguage()) :
-                   ResourceFactory.createTypedLiteral(value.getValue());
+            return ResourceFactory.createTypedLiteral(value.getValue());
         }
     }
 
@@ -19,6 +19,7 @@ import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.model.Value;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.junit.Before;
@@ -27,6 +28,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
 
 import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
 import static org.mockito.Mockito.verify;
@@ -78,4 +82,15 @@ public class EpistemicAxiomRemoverTest {
         verify(connectorMock).remove(SUBJECT_RESOURCE, createProperty(ap.getIdentifier().toString()), null,
                 assertionContext.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void removeValuesRemovesDateValueRepresentedAsStoredDateTimeLiteral() {
+        final Assertion dp = Assertion.createDataPropertyAssertion(Generator.generateUri(), false);
+        final Date date = new Date();
+        remover.remove(SUBJECT, Collections.singletonMap(dp, Collections.singleton(new Value<>(date))), null);
+        final GregorianCalendar cal = new GregorianCalendar();
+        cal.setTime(date);
+        verify(connectorMock).remove(SUBJECT_RESOURCE, createProperty(dp.getIdentifier().toString()),
+                ResourceFactory.createTypedLiteral(cal), null);
+    }
+}
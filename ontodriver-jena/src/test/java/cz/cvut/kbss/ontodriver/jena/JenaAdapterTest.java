@@ -16,12 +16,17 @@ package cz.cvut.kbss.ontodriver.jena;
 
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import cz.cvut.kbss.ontodriver.identifier.BlockIdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.UuidIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.jena.connector.InferredStorageConnector;
 import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.jena.query.JenaPreparedStatement;
 import cz.cvut.kbss.ontodriver.jena.query.JenaStatement;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.model.*;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
@@ -34,12 +39,12 @@ import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
 import java.net.URI;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -184,6 +189,31 @@ class JenaAdapterTest {
         verify(connectorMock).find(SUBJECT_RESOURCE, null, null, null);
     }
 
+    @Test
+    void findForMultipleDescriptorsLoadsAxiomsOfAllSubjects() {
+        final Assertion assertion = Assertion.createObjectPropertyAssertion(Generator.generateUri(), false);
+        final NamedResource otherSubject = NamedResource.create(Generator.generateUri());
+        final Resource otherSubjectResource = ResourceFactory.createResource(otherSubject.getIdentifier().toString());
+        final List<AxiomDescriptor> descriptors = new ArrayList<>();
+        for (NamedResource subject : Arrays.asList(SUBJECT, otherSubject)) {
+            final AxiomDescriptor descriptor = new AxiomDescriptor(subject);
+            descriptor.addAssertion(assertion);
+            descriptors.add(descriptor);
+        }
+        final Resource value = ResourceFactory.createResource(Generator.generateUri().toString());
+        when(connectorMock.find(SUBJECT_RESOURCE, null, null, null)).thenReturn(Collections.singletonList(
+                ResourceFactory.createStatement(SUBJECT_RESOURCE, assertionToProperty(assertion), value)));
+        when(connectorMock.find(otherSubjectResource, null, null, null)).thenReturn(Collections.singletonList(
+                ResourceFactory.createStatement(otherSubjectResource, assertionToProperty(assertion), value)));
+
+        final Collection<Axiom<?>> result = adapter.find(descriptors);
+        assertEquals(2, result.size());
+        final Set<NamedResource> subjects = result.stream().map(Axiom::getSubject).collect(Collectors.toSet());
+        assertTrue(subjects.contains(SUBJECT));
+        assertTrue(subjects.contains(otherSubject));
+        verify(connectorMock).begin();
+    }
+
     private Property assertionToProperty(Assertion assertion) {
         return ResourceFactory.createProperty(assertion.getIdentifier().toString());
     }
@@ -263,4 +293,60 @@ class JenaAdapterTest {
         verify(connectorMock).begin();
         verify(inferredConnectorMock).isConsistent(context.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void generateIdentifierCreatesIdentifierBasedOnClassUri() {
+        final URI typeUri = Generator.generateUri();
+        final URI result = adapter.generateIdentifier(typeUri);
+        assertNotNull(result);
+        assertTrue(result.toString().contains(typeUri.toString()));
+    }
+
+    @Test
+    void generateIdentifierChecksForExistenceOfNewlyGeneratedIdentifier() {
+        final URI typeUri = Generator.generateUri();
+        when(connectorMock.contains(any(), any(), any(), any())).thenReturn(false);
+        final URI result = adapter.generateIdentifier(typeUri);
+        assertNotNull(result);
+        verify(connectorMock)
+                .contains(ResourceFactory.createResource(result.toString()), ResourceFactory.createProperty(
+                        Vocabulary.RDF_TYPE), ResourceFactory.createResource(typeUri.toString()), null);
+    }
+
+    @Test
+    void generateIdentifierThrowsIdentifierGenerationExceptionWhenMaximumAttemptsToGenerateAreExceeded() {
+        when(connectorMock.contains(any(), any(), any(), any())).thenReturn(true);
+        assertThrows(IdentifierGenerationException.class, () -> adapter.generateIdentifier(Generator.generateUri()));
+    }
+
+    @Test
+    void generateIdentifierWithUuidGeneratorDoesNotCheckStorage() {
+        this.adapter = new JenaAdapter(connectorMock, inferredConnectorMock, new UuidIdentifierGenerator(), null);
+        final URI typeUri = Generator.generateUri();
+        final URI result = adapter.generateIdentifier(typeUri);
+        assertTrue(result.toString().startsWith(typeUri.toString()));
+        verify(connectorMock, never()).contains(any(), any(), any(), any());
+    }
+
+    @Test
+    void generateIdentifierWithBlockGeneratorReservesBlockUsingIdentifierCounters() throws Exception {
+        final IdentifierCounters counters = mock(IdentifierCounters.class);
+        final URI typeUri = URI.create("http://onto.fel.cvut.cz/ontologies/jopa/ClassA");
+        when(counters.reserve(typeUri, 2)).thenReturn(0L, 2L);
+        this.adapter = new JenaAdapter(connectorMock, inferredConnectorMock, new BlockIdentifierGenerator(2), counters);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(URI.create(typeUri + "/instance" + i), adapter.generateIdentifier(typeUri));
+        }
+        verify(counters, times(2)).reserve(typeUri, 2);
+    }
+
+    @Test
+    void generateIdentifierWrapsCounterReservationFailureInIdentifierGenerationException() throws Exception {
+        final IdentifierCounters counters = mock(IdentifierCounters.class);
+        when(counters.reserve(any(), anyInt())).thenThrow(new JenaDriverException("Commit failed."));
+        this.adapter = new JenaAdapter(connectorMock, inferredConnectorMock, new BlockIdentifierGenerator(), counters);
+        final IdentifierGenerationException ex = assertThrows(IdentifierGenerationException.class,
+                () -> adapter.generateIdentifier(Generator.generateUri()));
+        assertThat(ex.getCause(), instanceOf(JenaDriverException.class));
+    }
+}
@@ -31,6 +31,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -236,6 +237,14 @@ public class JenaConnectionTest {
         verify(adapterMock).find(descriptor);
     }
 
+    @Test
+    public void findForMultipleDescriptorsCallsAdapterWithDescriptors() throws Exception {
+        final List<AxiomDescriptor> descriptors = Arrays.asList(new AxiomDescriptor(SUBJECT),
+                new AxiomDescriptor(NamedResource.create(Generator.generateUri())));
+        connection.find(descriptors);
+        verify(adapterMock).find(descriptors);
+    }
+
     @Test
     public void findThrowsIllegalStateExceptionForClosedConnection() throws Exception {
         connection.close();
@@ -18,15 +18,18 @@ import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
 import cz.cvut.kbss.ontodriver.PreparedStatement;
 import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.config.OntoDriverProperties;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerators;
 import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.jena.connector.*;
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
@@ -44,10 +47,12 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
 import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
 import static org.hamcrest.CoreMatchers.isA;
@@ -87,6 +92,10 @@ public class JenaDriverTest {
     }
 
     private ConnectorFactory getConnectorFactory() throws Exception {
+        return getConnectorFactory(driver);
+    }
+
+    private static ConnectorFactory getConnectorFactory(JenaDriver driver) throws Exception {
         final Field factoryField = JenaDriver.class.getDeclaredField("connectorFactory");
         factoryField.setAccessible(true);
         return (ConnectorFactory) factoryField.get(driver);
@@ -118,6 +127,70 @@ public class JenaDriverTest {
         assertTrue(connection.isOpen());
     }
 
+    @Test
+    public void blockIdentifierGeneratorReservesCounterValuesSharedByAllConnections() throws Exception {
+        properties.put(OntoDriverProperties.IDENTIFIER_GENERATOR, IdentifierGenerators.BLOCK);
+        properties.put(OntoDriverProperties.IDENTIFIER_BLOCK_SIZE, "2");
+        this.driver = new JenaDriver(storageProps, properties);
+        final URI typeUri = Generator.generateUri();
+        final JenaConnection connectionOne = driver.acquireConnection();
+        final JenaConnection connectionTwo = driver.acquireConnection();
+        final Set<URI> generated = new HashSet<>();
+        generated.add(connectionOne.generateIdentifier(typeUri));
+        generated.add(connectionTwo.generateIdentifier(typeUri));
+        generated.add(connectionTwo.generateIdentifier(typeUri));
+        connectionTwo.rollback();
+        connectionOne.close();
+        connectionTwo.close();
+        assertEquals(3, generated.size());
+
+        final StorageConnector connector = getConnectorFactory().createConnector();
+        connector.begin();
+        final Collection<Statement> counter = connector
+                .find(createResource(typeUri.toString()), createProperty(Vocabulary.IDENTIFIER_COUNTER), null, null);
+        connector.close();
+        assertEquals(1, counter.size());
+        assertEquals(4L, counter.iterator().next().getLong());
+    }
+
+    @Test
+    public void concurrentCounterReservationsOfDriversSharingDatasetDoNotOverlap() throws Exception {
+        this.driver = new JenaDriver(storageProps, properties);
+        final JenaDriver otherDriver = new JenaDriver(storageProps, properties);
+        final Dataset dataset = DatasetFactory.createTxnMem();
+        driver.setDataset(dataset);
+        otherDriver.setDataset(dataset);
+        final URI typeUri = Generator.generateUri();
+        final int blockSize = 3;
+        final int reservations = 10;
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            for (JenaDriver d : Arrays.asList(driver, otherDriver)) {
+                final IdentifierCounters counters = new IdentifierCounters(getConnectorFactory(d));
+                results.add(executor.submit(() -> {
+                    final List<Long> starts = new ArrayList<>();
+                    for (int i = 0; i < reservations; i++) {
+                        starts.add(counters.reserve(typeUri, blockSize));
+                    }
+                    return starts;
+                }));
+            }
+            final Set<Long> starts = new HashSet<>();
+            for (Future<List<Long>> f : results) {
+                starts.addAll(f.get());
+            }
+            final Set<Long> expected = new HashSet<>();
+            for (long i = 0; i < 2 * reservations; i++) {
+                expected.add(i * blockSize);
+            }
+            assertEquals(expected, starts);
+        } finally {
+            executor.shutdownNow();
+            otherDriver.close();
+        }
+    }
+
     @Test
     public void closeClosesAllOpenConnectionsAndConnectorFactory() throws Exception {
         this.driver = new JenaDriver(storageProps, properties);
@@ -14,6 +14,8 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.Model;
@@ -28,6 +30,7 @@ import org.junit.rules.ExpectedException;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.util.Collections;
 import java.util.List;
 
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
@@ -132,4 +135,84 @@ public class FileStorageTest extends StorageTestUtil {
         storage.begin(ReadWrite.WRITE);
         storage.reload();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void writeChangesWithFlushIntervalDefersWritingOfFile() throws Exception {
+        final File file = Files.createTempFile("jena-onto", ".ttl").toFile();
+        file.deleteOnExit();
+        final DriverConfiguration configuration = createConfiguration(file.getAbsolutePath());
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "3600000");
+        final Storage storage = new FileStorage(configuration);
+        storage.initialize();
+        storage.begin(ReadWrite.WRITE);
+        storage.add(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        storage.writeChanges();
+        storage.commit();
+        assertFalse(RDFDataMgr.loadModel(file.getAbsolutePath()).contains(createResource(SUBJECT), RDF.type,
+                createResource(TYPE_ONE)));
+
+        storage.close();
+        assertTrue(RDFDataMgr.loadModel(file.getAbsolutePath()).contains(createResource(SUBJECT), RDF.type,
+                createResource(TYPE_ONE)));
+    }
+
+    @Test
+    public void writeChangesWithFlushThresholdWritesFileWhenThresholdIsReached() throws Exception {
+        final File file = Files.createTempFile("jena-onto", ".ttl").toFile();
+        file.deleteOnExit();
+        final DriverConfiguration configuration = createConfiguration(file.getAbsolutePath());
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_THRESHOLD, "2");
+        final Storage storage = new FileStorage(configuration);
+        storage.initialize();
+        commitStatement(storage, statement(SUBJECT, RDF.type.getURI(), TYPE_ONE));
+        commitStatement(storage, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO));
+
+        final long end = System.currentTimeMillis() + 5000;
+        Model content = RDFDataMgr.loadModel(file.getAbsolutePath());
+        while (content.size() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+            content = RDFDataMgr.loadModel(file.getAbsolutePath());
+        }
+        assertEquals(2, content.size());
+        storage.close();
+    }
+
+    private static void commitStatement(Storage storage, org.apache.jena.rdf.model.Statement statement)
+            throws Exception {
+        storage.begin(ReadWrite.WRITE);
+        storage.add(Collections.singletonList(statement), null);
+        storage.writeChanges();
+        storage.commit();
+    }
+
+    @Test
+    public void initializeReplaysChangeJournalWhenChangesWereNotWrittenOut() throws Exception {
+        final File file = Files.createTempFile("jena-onto", ".ttl").toFile();
+        file.deleteOnExit();
+        final DriverConfiguration configuration = createConfiguration(file.getAbsolutePath());
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "3600000");
+        configuration.setProperty(DriverConfigParam.FILE_CHANGE_JOURNAL, Boolean.TRUE.toString());
+        final Storage storage = new FileStorage(configuration);
+        storage.initialize();
+        commitStatement(storage, statement(SUBJECT, RDF.type.getURI(), TYPE_ONE));
+        commitStatement(storage, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO));
+        storage.begin(ReadWrite.WRITE);
+        storage.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        storage.writeChanges();
+        storage.commit();
+        // Simulate crash - the storage is not closed, so the changes are not written into the file
+        assertTrue(RDFDataMgr.loadModel(file.getAbsolutePath()).isEmpty());
+
+        final Storage recovered = new FileStorage(configuration);
+        recovered.initialize();
+        final Model content = RDFDataMgr.loadModel(file.getAbsolutePath());
+        assertEquals(1, content.size());
+        assertTrue(content.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        assertTrue(recovered.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        recovered.close();
+        final File[] journalSegments =
+                file.getParentFile().listFiles((dir, name) -> name.startsWith(file.getName() + ".journal."));
+        assertNotNull(journalSegments);
+        assertEquals(0, journalSegments.length);
+    }
+}
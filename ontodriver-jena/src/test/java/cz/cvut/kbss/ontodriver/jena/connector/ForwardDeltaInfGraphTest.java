@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.rulesys.GenericRuleReasoner;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.junit.Assert.*;
+
+public class ForwardDeltaInfGraphTest {
+
+    private static final String RULES =
+            "[subClassInheritance: (?a rdfs:subClassOf ?b) (?x rdf:type ?a) -> (?x rdf:type ?b)]\n" +
+                    "[subClassTransitivity: (?a rdfs:subClassOf ?b) (?b rdfs:subClassOf ?c) -> (?a rdfs:subClassOf ?c)]";
+
+    private static final String TYPE_THREE = "http://onto.fel.cvut.cz/ontologies/jena-driver/TypeThree";
+    private static final String OTHER = "http://onto.fel.cvut.cz/ontologies/jena-driver/Other";
+
+    private GenericRuleReasoner reasoner;
+
+    private InfGraph base;
+
+    @Before
+    public void setUp() {
+        this.reasoner = forwardReasoner(RULES);
+        final Graph data = GraphFactory.createGraphMem();
+        data.add(statement(TYPE_ONE, RDFS.subClassOf.getURI(), TYPE_TWO).asTriple());
+        data.add(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE).asTriple());
+        this.base = reasoner.bind(data);
+        base.prepare();
+    }
+
+    private static GenericRuleReasoner forwardReasoner(String rules) {
+        final GenericRuleReasoner reasoner = new GenericRuleReasoner(Rule.parseRules(rules));
+        reasoner.setMode(GenericRuleReasoner.FORWARD);
+        return reasoner;
+    }
+
+    private ForwardDeltaInfGraph createSut() {
+        return new ForwardDeltaInfGraph(reasoner, base, base.getDeductionsGraph());
+    }
+
+    @Test
+    public void supportsReturnsTrueForForwardRuleReasonerWithMonotonicRules() {
+        assertTrue(ForwardDeltaInfGraph.supports(base));
+        final GenericRuleReasoner rete = forwardReasoner(RULES);
+        rete.setMode(GenericRuleReasoner.FORWARD_RETE);
+        assertTrue(ForwardDeltaInfGraph.supports(rete.bind(GraphFactory.createGraphMem())));
+        assertTrue(ForwardDeltaInfGraph.supports(createSut()));
+    }
+
+    @Test
+    public void supportsReturnsFalseForHybridReasoners() {
+        assertFalse(ForwardDeltaInfGraph
+                .supports(RDFSRuleReasonerFactory.theInstance().create(null).bind(GraphFactory.createGraphMem())));
+        final GenericRuleReasoner hybrid = forwardReasoner(RULES);
+        hybrid.setMode(GenericRuleReasoner.HYBRID);
+        assertFalse(ForwardDeltaInfGraph.supports(hybrid.bind(GraphFactory.createGraphMem())));
+    }
+
+    @Test
+    public void supportsReturnsFalseForRulesWithNonMonotonicBuiltins() {
+        final GenericRuleReasoner noValue = forwardReasoner(
+                "[(?x rdf:type ?a) noValue(?x rdf:type rdfs:Class) -> (?x rdf:type rdfs:Resource)]");
+        assertFalse(ForwardDeltaInfGraph.supports(noValue.bind(GraphFactory.createGraphMem())));
+        final GenericRuleReasoner remove = forwardReasoner("[(?x rdf:type ?a) -> remove(0)]");
+        assertFalse(ForwardDeltaInfGraph.supports(remove.bind(GraphFactory.createGraphMem())));
+    }
+
+    @Test
+    public void addDerivesConsequencesOfAddedStatementUsingBaseClosure() {
+        final ForwardDeltaInfGraph sut = createSut();
+        sut.add(statement(TYPE_TWO, RDFS.subClassOf.getURI(), TYPE_THREE).asTriple());
+
+        assertTrue(sut.contains(statement(SUBJECT, RDF.type.getURI(), TYPE_THREE).asTriple()));
+        assertTrue(sut.contains(statement(TYPE_ONE, RDFS.subClassOf.getURI(), TYPE_THREE).asTriple()));
+        assertTrue(sut.contains(statement(SUBJECT, RDF.type.getURI(), TYPE_TWO).asTriple()));
+    }
+
+    @Test
+    public void addDoesNotModifyBaseClosure() {
+        final ForwardDeltaInfGraph sut = createSut();
+        sut.add(statement(OTHER, RDF.type.getURI(), TYPE_ONE).asTriple());
+
+        assertTrue(sut.contains(statement(OTHER, RDF.type.getURI(), TYPE_TWO).asTriple()));
+        assertFalse(base.contains(statement(OTHER, RDF.type.getURI(), TYPE_ONE).asTriple()));
+        assertFalse(base.contains(statement(OTHER, RDF.type.getURI(), TYPE_TWO).asTriple()));
+    }
+
+    @Test
+    public void findReturnsEachStatementOnlyOnce() {
+        final ForwardDeltaInfGraph sut = createSut();
+        sut.add(statement(OTHER, RDF.type.getURI(), TYPE_ONE).asTriple());
+        // Already inferred in this graph
+        sut.add(statement(OTHER, RDF.type.getURI(), TYPE_TWO).asTriple());
+        // Already inferred in the base closure
+        sut.add(statement(SUBJECT, RDF.type.getURI(), TYPE_TWO).asTriple());
+
+        final List<Triple> result = sut.find(null, RDF.type.asNode(), null).toList();
+        assertEquals(4, result.size());
+        assertEquals(4, result.stream().distinct().count());
+        assertEquals(2, sut.getRawGraph().size());
+    }
+
+    @Test
+    public void deductionsGraphContainsDeductionsOfBaseAndOfAddedStatements() {
+        final ForwardDeltaInfGraph sut = createSut();
+        final Statement added = statement(OTHER, RDF.type.getURI(), TYPE_ONE);
+        sut.add(added.asTriple());
+
+        final Graph result = sut.getDeductionsGraph();
+        assertTrue(result.contains(statement(SUBJECT, RDF.type.getURI(), TYPE_TWO).asTriple()));
+        assertTrue(result.contains(statement(OTHER, RDF.type.getURI(), TYPE_TWO).asTriple()));
+        assertFalse(result.contains(added.asTriple()));
+    }
+
+    @Test(expected = DeleteDeniedException.class)
+    public void deleteThrowsDeleteDeniedException() {
+        final ForwardDeltaInfGraph sut = createSut();
+        final Triple added = statement(OTHER, RDF.type.getURI(), TYPE_ONE).asTriple();
+        sut.add(added);
+        sut.delete(added);
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.jena.environment.Generator;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.rulesys.GenericRuleReasoner;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.junit.Assert.*;
+
+public class SharedInferenceCacheTest {
+
+    private final Supplier<Reasoner> reasonerSupplier = () -> RDFSRuleReasonerFactory.theInstance().create(null);
+
+    private final Supplier<Reasoner> forwardReasonerSupplier = () -> {
+        final GenericRuleReasoner reasoner = new GenericRuleReasoner(Rule.rulesFromURL("forward.rules"));
+        reasoner.setMode(GenericRuleReasoner.FORWARD);
+        return reasoner;
+    };
+
+    private static final String OTHER = "http://onto.fel.cvut.cz/ontologies/jena-driver/Other";
+
+    private final Statement subClass = statement(TYPE_ONE, RDFS.subClassOf.getURI(), TYPE_TWO);
+
+    private Dataset central;
+
+    private VersionedDataset versionedDataset;
+
+    private SharedInferenceCache sut;
+
+    @Before
+    public void setUp() {
+        this.central = DatasetFactory.createTxnMem();
+        this.versionedDataset = new VersionedDataset(() -> central, false);
+        this.sut = new SharedInferenceCache();
+    }
+
+    private void add(List<Statement> statements, String context) {
+        versionedDataset.startWrite();
+        central.begin(ReadWrite.WRITE);
+        versionedDataset.beforeAdd(statements, context);
+        if (context != null) {
+            central.getNamedModel(context).add(statements);
+        } else {
+            central.getDefaultModel().add(statements);
+        }
+        versionedDataset.commitWrite(central::commit);
+    }
+
+    private void remove(List<Statement> statements, String context) {
+        versionedDataset.startWrite();
+        central.begin(ReadWrite.WRITE);
+        versionedDataset.beforeRemove(statements, context);
+        if (context != null) {
+            central.getNamedModel(context).remove(statements);
+        } else {
+            central.getDefaultModel().remove(statements);
+        }
+        versionedDataset.commitWrite(central::commit);
+    }
+
+    private static boolean isInferred(SharedInferenceCache.Entry entry, Statement statement) {
+        return entry.read(g -> g.contains(statement.asTriple()));
+    }
+
+    @Test
+    public void acquireReturnsSameEntryForSnapshotsWithSameGraphData() {
+        add(Arrays.asList(subClass, statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, reasonerSupplier);
+        add(Arrays.asList(subClass), Generator.generateUri().toString());
+        final DatasetSnapshot second = versionedDataset.acquire();
+
+        assertSame(entry, sut.acquire(second, Quad.defaultGraphIRI, reasonerSupplier));
+        assertTrue(isInferred(entry, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void acquireAppliesCommittedChangesToEntryNotInUse() {
+        add(Arrays.asList(subClass), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, reasonerSupplier);
+        sut.release(entry);
+        first.release();
+        add(Arrays.asList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot second = versionedDataset.acquire();
+
+        final SharedInferenceCache.Entry result = sut.acquire(second, Quad.defaultGraphIRI, reasonerSupplier);
+        assertSame(entry, result);
+        assertTrue(isInferred(result, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void acquireCreatesNewEntryWhenCachedEntryIsInUseAndGraphChanged() {
+        add(Arrays.asList(subClass), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, reasonerSupplier);
+        add(Arrays.asList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot second = versionedDataset.acquire();
+
+        final SharedInferenceCache.Entry result = sut.acquire(second, Quad.defaultGraphIRI, reasonerSupplier);
+        assertNotSame(entry, result);
+        assertFalse(isInferred(entry, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+        assertTrue(isInferred(result, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void acquireDoesNotReuseNewerEntryForOlderSnapshotWithDifferentGraphData() {
+        final String context = Generator.generateUri().toString();
+        final Node graphName = NodeFactory.createURI(context);
+        add(Arrays.asList(subClass), context);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        add(Arrays.asList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), context);
+        final DatasetSnapshot second = versionedDataset.acquire();
+        final SharedInferenceCache.Entry newer = sut.acquire(second, graphName, reasonerSupplier);
+
+        final SharedInferenceCache.Entry result = sut.acquire(first, graphName, reasonerSupplier);
+        assertNotSame(newer, result);
+        assertFalse(isInferred(result, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+        assertSame(newer, sut.acquire(second, graphName, reasonerSupplier));
+    }
+
+    @Test
+    public void releasedAndClearedEntriesDoNotKeepSnapshotsActive() {
+        add(Arrays.asList(subClass), null);
+        final DatasetSnapshot snapshot = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(snapshot, Quad.defaultGraphIRI, reasonerSupplier);
+        snapshot.release();
+        assertEquals(1, versionedDataset.getActiveSnapshotCount());
+        sut.clear();
+        assertEquals(1, versionedDataset.getActiveSnapshotCount());
+        sut.release(entry);
+        assertEquals(0, versionedDataset.getActiveSnapshotCount());
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void acquireExtendsClosureOfEntryInUseWithCommittedAdditionsForForwardRuleReasoner() {
+        add(Arrays.asList(subClass, statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, forwardReasonerSupplier);
+        assertTrue(entry.isExtensible());
+        add(Arrays.asList(statement(OTHER, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot second = versionedDataset.acquire();
+
+        final SharedInferenceCache.Entry result = sut.acquire(second, Quad.defaultGraphIRI, () -> {
+            throw new AssertionError("Closure should not be computed from scratch.");
+        });
+        assertNotSame(entry, result);
+        assertTrue(result.read(g -> g instanceof ForwardDeltaInfGraph));
+        assertTrue(isInferred(result, statement(OTHER, RDF.type.getURI(), TYPE_TWO)));
+        assertTrue(isInferred(result, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+        assertFalse(isInferred(entry, statement(OTHER, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void acquireAppliesCommittedAdditionsToExtensionNotInUse() {
+        add(Arrays.asList(subClass), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, forwardReasonerSupplier);
+        add(Arrays.asList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final SharedInferenceCache.Entry extension =
+                sut.acquire(versionedDataset.acquire(), Quad.defaultGraphIRI, forwardReasonerSupplier);
+        sut.release(extension);
+        add(Arrays.asList(statement(OTHER, RDF.type.getURI(), TYPE_ONE)), null);
+
+        final SharedInferenceCache.Entry result =
+                sut.acquire(versionedDataset.acquire(), Quad.defaultGraphIRI, forwardReasonerSupplier);
+        assertSame(extension, result);
+        assertTrue(isInferred(result, statement(OTHER, RDF.type.getURI(), TYPE_TWO)));
+        assertFalse(isInferred(entry, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void acquireComputesClosureFromScratchWhenStatementsWereRemoved() {
+        add(Arrays.asList(subClass, statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, forwardReasonerSupplier);
+        sut.release(entry);
+        remove(Arrays.asList(subClass), null);
+
+        final SharedInferenceCache.Entry result =
+                sut.acquire(versionedDataset.acquire(), Quad.defaultGraphIRI, forwardReasonerSupplier);
+        assertNotSame(entry, result);
+        assertFalse(result.read(g -> g instanceof ForwardDeltaInfGraph));
+        assertFalse(isInferred(result, statement(SUBJECT, RDF.type.getURI(), TYPE_TWO)));
+    }
+
+    @Test
+    public void releasingExtensionReleasesExtendedEntry() {
+        add(Arrays.asList(subClass), null);
+        final DatasetSnapshot first = versionedDataset.acquire();
+        final SharedInferenceCache.Entry entry = sut.acquire(first, Quad.defaultGraphIRI, forwardReasonerSupplier);
+        first.release();
+        add(Arrays.asList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        final DatasetSnapshot second = versionedDataset.acquire();
+        final SharedInferenceCache.Entry extension = sut.acquire(second, Quad.defaultGraphIRI, forwardReasonerSupplier);
+        second.release();
+        sut.release(entry);
+        // The extension still needs the extended entry
+        assertEquals(2, versionedDataset.getActiveSnapshotCount());
+
+        sut.clear();
+        sut.release(extension);
+        assertEquals(0, versionedDataset.getActiveSnapshotCount());
+    }
+}
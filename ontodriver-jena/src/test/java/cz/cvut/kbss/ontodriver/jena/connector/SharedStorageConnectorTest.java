@@ -24,8 +24,10 @@ import org.apache.jena.graph.Graph;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.Rule;
 import org.junit.Test;
@@ -405,6 +407,51 @@ public class SharedStorageConnectorTest {
         connector.executeUpdate(update, StatementOntology.CENTRAL);
     }
 
+    @Test
+    public void executeAtomicallyCommitsChangesMadeByOperation() throws Exception {
+        final SharedStorageConnector connector = initConnector();
+        final Statement statement = createStatement(RESOURCE, RDF.type, createResource(Generator.generateUri().toString()));
+        final boolean result = connector.executeAtomically(ds -> {
+            assertTrue(ds.isInTransaction());
+            ds.getDefaultModel().add(statement);
+            return true;
+        });
+        assertTrue(result);
+        verify(connector.storage).begin(ReadWrite.WRITE);
+        verify(connector.storage).commit();
+        assertTrue(connector.contains(RESOURCE, RDF.type, statement.getObject(), null));
+    }
+
+    @Test
+    public void executeAtomicallyDoesNotAffectExistingSnapshots() throws Exception {
+        final SharedStorageConnector connector = initConnector();
+        final DatasetSnapshot snapshot = connector.snapshot();
+        final Statement statement = createStatement(RESOURCE, RDF.type, createResource(Generator.generateUri().toString()));
+        connector.executeAtomically(ds -> ds.getDefaultModel().add(statement));
+        assertFalse(snapshot.graph(Quad.defaultGraphIRI).contains(statement.asTriple()));
+        snapshot.release();
+    }
+
+    @Test
+    public void executeAtomicallyRollsBackChangesWhenOperationFails() throws Exception {
+        final SharedStorageConnector connector = initConnector();
+        final Statement statement = createStatement(RESOURCE, RDF.type, createResource(Generator.generateUri().toString()));
+        try {
+            connector.executeAtomically(ds -> {
+                ds.getDefaultModel().add(statement);
+                throw new IllegalStateException("Operation failed.");
+            });
+            fail("Exception should have been thrown.");
+        } catch (IllegalStateException e) {
+            assertEquals("Operation failed.", e.getMessage());
+        }
+        verify(connector.storage).rollback();
+        assertFalse(connector.contains(RESOURCE, RDF.type, statement.getObject(), null));
+        // The write has ended, so the connector can start another one
+        connector.begin();
+        connector.rollback();
+    }
+
     @Test
     public void reloadStorageReloadsUnderlyingStorage() {
         final SharedStorageConnector connector = initConnector();
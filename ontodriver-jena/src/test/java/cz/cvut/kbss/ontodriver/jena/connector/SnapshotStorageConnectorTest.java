@@ -21,6 +21,7 @@ import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.rdf.model.Statement;
@@ -60,7 +61,7 @@ public class SnapshotStorageConnectorTest {
     }
 
     @Test
-    public void beginCopiesDatasetFromCentralConnector() throws JenaDriverException {
+    public void beginCreatesIsolatedSnapshotOfCentralDataset() throws JenaDriverException {
         centralConnector.begin();
         final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
         centralConnector.add(Collections.singletonList(existing), null);
@@ -77,7 +78,7 @@ public class SnapshotStorageConnectorTest {
     }
 
     @Test
-    public void beginCopiesDatasetNamedGraphsFromCentralConnector() throws JenaDriverException {
+    public void beginCreatesIsolatedSnapshotOfCentralDatasetNamedGraphs() throws JenaDriverException {
         final String context = Generator.generateUri().toString();
         centralConnector.begin();
         final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
@@ -94,6 +95,62 @@ public class SnapshotStorageConnectorTest {
         assertTrue(dataset.getNamedModel(context).contains(existing));
     }
 
+    @Test
+    public void snapshotDoesNotSeeStatementsCommittedToCentralAfterBegin() throws JenaDriverException {
+        final String context = Generator.generateUri().toString();
+        connector.begin();
+        centralConnector.begin();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        centralConnector.add(Collections.singletonList(added), context);
+        centralConnector.commit();
+
+        assertFalse(connector.getContexts().contains(context));
+        assertFalse(connector.contains(added.getSubject(), added.getPredicate(), added.getObject(), context));
+        connector.rollback();
+        connector.begin();
+        assertTrue(connector.contains(added.getSubject(), added.getPredicate(), added.getObject(), context));
+        assertTrue(connector.getContexts().contains(context));
+    }
+
+    @Test
+    public void beginDoesNotCopyCentralData() {
+        connector.begin();
+        verify(centralConnector).snapshot();
+        verify(centralConnector, never()).getStorage();
+    }
+
+    @Test
+    public void commitAndRollbackReleaseSnapshot() throws Exception {
+        final VersionedDataset versionedDataset = getVersionedDataset();
+        connector.begin();
+        assertEquals(1, versionedDataset.getActiveSnapshotCount());
+        connector.rollback();
+        assertEquals(0, versionedDataset.getActiveSnapshotCount());
+        connector.begin();
+        connector.add(Collections.singletonList(
+                createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE))), null);
+        connector.commit();
+        assertEquals(0, versionedDataset.getActiveSnapshotCount());
+    }
+
+    private VersionedDataset getVersionedDataset() throws Exception {
+        final Field field = SharedStorageConnector.class.getDeclaredField("versionedDataset");
+        field.setAccessible(true);
+        return (VersionedDataset) field.get(centralConnector);
+    }
+
+    @Test
+    public void snapshotIsIsolatedFromCentralDatasetReplacement() throws JenaDriverException {
+        centralConnector.begin();
+        final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        centralConnector.add(Collections.singletonList(existing), null);
+        centralConnector.commit();
+        connector.begin();
+
+        centralConnector.setDataset(DatasetFactory.createTxnMem());
+        assertTrue(connector.contains(existing.getSubject(), existing.getPredicate(), existing.getObject(), null));
+    }
+
     @Test
     public void beginThrowsIllegalStateWhenTransactionIsAlreadyActive() {
         connector.begin();
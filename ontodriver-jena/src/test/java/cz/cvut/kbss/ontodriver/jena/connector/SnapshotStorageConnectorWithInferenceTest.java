@@ -22,9 +22,11 @@ import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.rulesys.GenericRuleReasonerFactory;
 import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.ReasonerVocabulary;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,7 +37,9 @@ import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
@@ -49,6 +53,8 @@ public class SnapshotStorageConnectorWithInferenceTest {
 
     private SharedStorageConnector centralConnector;
 
+    private SharedInferenceCache inferenceCache;
+
     private SnapshotStorageConnectorWithInference connector;
 
     @Before
@@ -56,7 +62,9 @@ public class SnapshotStorageConnectorWithInferenceTest {
         final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
         this.centralConnector = spy(new SharedStorageConnector(configuration));
-        this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap());
+        this.inferenceCache = new SharedInferenceCache();
+        this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap(),
+                inferenceCache);
     }
 
     @Test
@@ -156,6 +164,102 @@ public class SnapshotStorageConnectorWithInferenceTest {
         assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
     }
 
+    @Test
+    public void changesCommittedByAnotherTransactionAreReflectedInInferenceResults() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        connector.commit();
+        final Resource another = createResource(Generator.generateUri().toString());
+        centralConnector.begin();
+        centralConnector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)),
+                null);
+        centralConnector.commit();
+
+        connector.begin();
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        assertEquals(1, inferenceCache.size());
+    }
+
+    @Test
+    public void transactionalChangesDoNotAffectInferenceResultsOfConcurrentTransaction() throws Exception {
+        generateTestData(null);
+        final SnapshotStorageConnectorWithInference other =
+                new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap(), inferenceCache);
+        connector.begin();
+        other.begin();
+        assertTrue(other.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        final Resource another = createResource(Generator.generateUri().toString());
+        connector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        assertFalse(other.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        other.rollback();
+    }
+
+    private void useForwardRuleReasoner() {
+        final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
+        configuration
+                .setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, GenericRuleReasonerFactory.class.getName());
+        this.centralConnector = spy(new SharedStorageConnector(configuration));
+        this.connector =
+                new SnapshotStorageConnectorWithInference(centralConnector, forwardRuleConfig(), inferenceCache);
+    }
+
+    private static Map<String, String> forwardRuleConfig() {
+        final Map<String, String> reasonerConfig = new HashMap<>();
+        reasonerConfig.put(ReasonerVocabulary.PROPruleMode.getURI(), "forward");
+        reasonerConfig.put(ReasonerVocabulary.PROPruleSet.getURI(), "forward.rules");
+        return reasonerConfig;
+    }
+
+    @Test
+    public void addStatementsWithForwardRuleReasonerInfersOnTopOfSharedClosure() throws Exception {
+        useForwardRuleReasoner();
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        final Resource another = createResource(Generator.generateUri().toString());
+        connector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        assertTrue(connector.contains(another, RDF.type, createResource(TYPE_ONE), null));
+        assertFalse(connector.contains(another, RDF.type, createResource(TYPE_TWO), null));
+        assertEquals(1, inferenceCache.size());
+    }
+
+    @Test
+    public void removeStatementsAfterAddWithForwardRuleReasonerInfluencesInferenceResults() throws Exception {
+        useForwardRuleReasoner();
+        generateTestData(null);
+        connector.begin();
+        final Resource another = createResource(Generator.generateUri().toString());
+        connector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        connector.remove(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE), null);
+
+        assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+    }
+
+    @Test
+    public void transactionalAdditionsWithForwardRuleReasonerDoNotAffectConcurrentTransaction() throws Exception {
+        useForwardRuleReasoner();
+        generateTestData(null);
+        final SnapshotStorageConnectorWithInference other =
+                new SnapshotStorageConnectorWithInference(centralConnector, forwardRuleConfig(), inferenceCache);
+        connector.begin();
+        other.begin();
+        assertTrue(other.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        final Resource another = createResource(Generator.generateUri().toString());
+        connector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        assertFalse(other.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        other.rollback();
+    }
+
     @Test
     public void isConsistentVerifiesConsistencyOfDefaultGraph() throws Exception {
         generateTestData(null);
@@ -187,7 +291,8 @@ public class SnapshotStorageConnectorWithInferenceTest {
             config.setProperty(JenaConfigParam.STORAGE_TYPE, JenaOntoDriverProperties.TDB);
             config.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
             this.centralConnector = new SharedStorageConnector(config);
-            this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap());
+            this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap(),
+                    new SharedInferenceCache());
             connector.begin();
             assertFalse(connector.contains(createResource(SUBJECT), RDF.type, null, null));
         } finally {
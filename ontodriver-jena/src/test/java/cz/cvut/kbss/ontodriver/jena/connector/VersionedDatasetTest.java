@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.jena.environment.Generator;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.DatasetGraphMonitor;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
+import static org.junit.Assert.*;
+
+public class VersionedDatasetTest {
+
+    private final Statement statement = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+
+    private Dataset central;
+
+    private VersionedDataset sut;
+
+    @Before
+    public void setUp() {
+        this.central = DatasetFactory.createTxnMem();
+        this.sut = new VersionedDataset(() -> central, false);
+    }
+
+    private void add(Statement s, String context) {
+        sut.startWrite();
+        central.begin(ReadWrite.WRITE);
+        sut.beforeAdd(Collections.singletonList(s), context);
+        if (context != null) {
+            central.getNamedModel(context).add(s);
+        } else {
+            central.getDefaultModel().add(s);
+        }
+        sut.commitWrite(central::commit);
+    }
+
+    private void remove(Statement s, String context) {
+        sut.startWrite();
+        central.begin(ReadWrite.WRITE);
+        sut.beforeRemove(Collections.singletonList(s), context);
+        if (context != null) {
+            central.getNamedModel(context).remove(s);
+        } else {
+            central.getDefaultModel().remove(s);
+        }
+        sut.commitWrite(central::commit);
+    }
+
+    private static boolean contains(DatasetSnapshot snapshot, Node graphName, Statement s) {
+        return snapshot.graph(graphName).contains(s.asTriple());
+    }
+
+    @Test
+    public void snapshotDoesNotContainStatementsAddedAfterItWasAcquired() {
+        final DatasetSnapshot snapshot = sut.acquire();
+        add(statement, null);
+        assertFalse(contains(snapshot, Quad.defaultGraphIRI, statement));
+        assertTrue(contains(sut.acquire(), Quad.defaultGraphIRI, statement));
+    }
+
+    @Test
+    public void snapshotContainsStatementsRemovedAfterItWasAcquired() {
+        add(statement, null);
+        final DatasetSnapshot snapshot = sut.acquire();
+        remove(statement, null);
+        assertTrue(contains(snapshot, Quad.defaultGraphIRI, statement));
+        final List<Triple> result = snapshot.graph(Quad.defaultGraphIRI).find(Node.ANY, RDF.type.asNode(), Node.ANY)
+                                            .toList();
+        assertEquals(Collections.singletonList(statement.asTriple()), result);
+        assertFalse(contains(sut.acquire(), Quad.defaultGraphIRI, statement));
+    }
+
+    @Test
+    public void snapshotReflectsFirstChangeAfterItsVersionWhenStatementIsChangedRepeatedly() {
+        final DatasetSnapshot snapshot = sut.acquire();
+        add(statement, null);
+        final DatasetSnapshot afterAdd = sut.acquire();
+        remove(statement, null);
+        add(statement, null);
+        assertFalse(contains(snapshot, Quad.defaultGraphIRI, statement));
+        assertTrue(contains(afterAdd, Quad.defaultGraphIRI, statement));
+    }
+
+    @Test
+    public void snapshotGraphNamesCorrespondToDatasetStateWhenSnapshotWasAcquired() {
+        final String removedGraph = Generator.generateUri().toString();
+        final String addedGraph = Generator.generateUri().toString();
+        add(statement, removedGraph);
+        final DatasetSnapshot snapshot = sut.acquire();
+        remove(statement, removedGraph);
+        add(statement, addedGraph);
+
+        assertEquals(Collections.singletonList(NodeFactory.createURI(removedGraph)), snapshot.graphNames());
+        assertTrue(contains(snapshot, NodeFactory.createURI(removedGraph), statement));
+        assertFalse(contains(snapshot, NodeFactory.createURI(addedGraph), statement));
+    }
+
+    @Test
+    public void abortedWriteDoesNotAffectSnapshots() {
+        final DatasetSnapshot snapshot = sut.acquire();
+        sut.startWrite();
+        central.begin(ReadWrite.WRITE);
+        sut.beforeAdd(Collections.singletonList(statement), null);
+        central.getDefaultModel().add(statement);
+        central.abort();
+        sut.abortWrite();
+        add(createStatement(statement.getSubject(), RDF.type, createResource(TYPE_TWO)), null);
+
+        assertFalse(contains(snapshot, Quad.defaultGraphIRI, statement));
+        assertTrue(snapshot.graph(Quad.defaultGraphIRI).isEmpty());
+    }
+
+    @Test
+    public void changeRecorderRecordsChangesMadeByUpdateQueries() {
+        add(statement, null);
+        final DatasetSnapshot snapshot = sut.acquire();
+        sut.startWrite();
+        central.begin(ReadWrite.WRITE);
+        final Dataset monitored =
+                DatasetFactory.wrap(new DatasetGraphMonitor(central.asDatasetGraph(), sut.changeRecorder(), true));
+        UpdateAction.parseExecute("DELETE WHERE { ?x a <" + TYPE_ONE + "> . }; INSERT DATA { <" + SUBJECT + "> a <" +
+                TYPE_TWO + "> . }", monitored);
+        sut.commitWrite(central::commit);
+
+        assertTrue(contains(snapshot, Quad.defaultGraphIRI, statement));
+        assertFalse(contains(snapshot, Quad.defaultGraphIRI,
+                createStatement(statement.getSubject(), RDF.type, createResource(TYPE_TWO))));
+    }
+
+    @Test
+    public void freezeIsolatesActiveSnapshotsFromUntrackedChanges() {
+        add(statement, null);
+        final DatasetSnapshot snapshot = sut.acquire();
+        sut.startWrite();
+        sut.freeze();
+        this.central = DatasetFactory.createTxnMem();
+        sut.abortWrite();
+
+        assertTrue(contains(snapshot, Quad.defaultGraphIRI, statement));
+        assertFalse(contains(sut.acquire(), Quad.defaultGraphIRI, statement));
+    }
+
+    @Test
+    public void releaseUnregistersSnapshot() {
+        final DatasetSnapshot snapshot = sut.acquire();
+        final DatasetSnapshot another = sut.acquire();
+        assertEquals(2, sut.getActiveSnapshotCount());
+        snapshot.release();
+        snapshot.release();
+        assertEquals(1, sut.getActiveSnapshotCount());
+        another.release();
+        assertEquals(0, sut.getActiveSnapshotCount());
+    }
+
+    @Test
+    public void readersWaitUntilWriteIsFinished() throws Exception {
+        final DatasetSnapshot snapshot = sut.acquire();
+        sut.startWrite();
+        central.begin(ReadWrite.WRITE);
+        sut.beforeAdd(Collections.singletonList(statement), null);
+        central.getDefaultModel().add(statement);
+        final boolean[] result = new boolean[2];
+        final Thread reader = new Thread(() -> {
+            result[0] = contains(snapshot, Quad.defaultGraphIRI, statement);
+            result[1] = contains(sut.acquire(), Quad.defaultGraphIRI, statement);
+        });
+        reader.start();
+        reader.join(100);
+        assertTrue(reader.isAlive());
+        sut.commitWrite(central::commit);
+        reader.join();
+        assertFalse(result[0]);
+        assertTrue(result[1]);
+    }
+}
@@ -93,6 +93,20 @@ public class ReferencedListHandlerTest
         }
     }
 
+    @Test
+    public void persistListGeneratesDistinctNodesForRepeatedValue() {
+        final URI value = Generator.generateUri();
+        final ReferencedListValueDescriptor descriptor = listValueDescriptor();
+        descriptor.addValue(NamedResource.create(value));
+        descriptor.addValue(NamedResource.create(value));
+        handler.persistList(descriptor);
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(connectorMock).add(captor.capture(), eq(null));
+        final List<Statement> added = captor.getValue();
+        assertEquals(2, added.stream().filter(s -> s.getPredicate().equals(HAS_CONTENT_PROPERTY))
+                             .map(Statement::getSubject).distinct().count());
+    }
+
     @Test
     public void persistListWithContextInsertsStatementsCorrespondingToListIntoContext() {
         final List<URI> list = listUtil.generateList();
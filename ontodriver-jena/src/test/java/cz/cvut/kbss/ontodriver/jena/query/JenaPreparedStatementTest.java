@@ -33,8 +33,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class JenaPreparedStatementTest {
 
@@ -159,4 +158,32 @@ public class JenaPreparedStatementTest {
         statement.close();
         statement.clearParameters();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void executeQueryReusesParsedQueryForDifferentParameterValues() throws Exception {
+        final ParsedQueryCache cache = spy(new ParsedQueryCache());
+        this.statement = new JenaPreparedStatement(executor, QUERY, cache);
+        final String valueOne = "<" + Vocabulary.RDF_TYPE + ">";
+        statement.setObject("y", valueOne);
+        statement.executeQuery();
+        final String valueTwo = "<" + Generator.generateUri() + ">";
+        statement.setObject("y", valueTwo);
+        statement.executeQuery();
+        verify(executor).executeSelectQuery(eq(QueryFactory.create(QUERY.replace("?y", valueOne))),
+                eq(Statement.StatementOntology.CENTRAL));
+        verify(executor).executeSelectQuery(eq(QueryFactory.create(QUERY.replace("?y", valueTwo))),
+                eq(Statement.StatementOntology.CENTRAL));
+        verify(cache, times(2)).parse(QUERY);
+        assertSame(cache.parse(QUERY), cache.parse(QUERY));
+    }
+
+    @Test
+    public void executeQueryInsertsParameterValuesIntoQueryStringWhenValueIsNotSingleTerm() throws Exception {
+        final String query = "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> SELECT * WHERE { ?x ?y ?z . }";
+        this.statement = new JenaPreparedStatement(executor, query);
+        statement.setObject("y", "rdf:type");
+        statement.executeQuery();
+        verify(executor).executeSelectQuery(eq(QueryFactory.create(query.replace("?y", "rdf:type"))),
+                eq(Statement.StatementOntology.CENTRAL));
+    }
+}
@@ -15,10 +15,17 @@
 package cz.cvut.kbss.ontodriver.jena.util;
 
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
+import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.model.Value;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.junit.Test;
 
+import java.util.Date;
+import java.util.GregorianCalendar;
+
 import static org.junit.Assert.*;
 
 public class JenaUtilsTest {
@@ -59,4 +66,25 @@ public class JenaUtilsTest {
     public void literalToValueTranslatesLongLiteralToJavaLong() {
         assertEquals(117L, JenaUtils.literalToValue(ResourceFactory.createTypedLiteral(117L)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void valueToRdfNodeCreatesLanguageTaggedLiteralOnlyForStringValues() {
+        final Assertion assertion = Assertion.createDataPropertyAssertion(Generator.generateUri(), "en", false);
+        assertEquals(ResourceFactory.createLangLiteral("test", "en"),
+                JenaUtils.valueToRdfNode(assertion, new Value<>("test")));
+        assertEquals(ResourceFactory.createTypedLiteral(117), JenaUtils.valueToRdfNode(assertion, new Value<>(117)));
+    }
+
+    @Test
+    public void valueToRdfNodeCreatesDateTimeLiteralForDateValue() {
+        final Assertion assertion = Assertion.createDataPropertyAssertion(Generator.generateUri(), false);
+        final Date date = new Date();
+        final RDFNode result = JenaUtils.valueToRdfNode(assertion, new Value<>(date));
+        assertTrue(result.isLiteral());
+        assertEquals(XSDDatatype.XSDdateTime.getURI(), result.asLiteral().getDatatypeURI());
+        final GregorianCalendar cal = new GregorianCalendar();
+        cal.setTime(date);
+        // The same literal is stored by AxiomSaver for data property values
+        assertEquals(ResourceFactory.createTypedLiteral(cal), result);
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi;
+
+import cz.cvut.kbss.ontodriver.owlapi.connector.Connector;
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableRemoveAxiom;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.search.EntitySearcher;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves blocks of identifier counter values in the ontology.
+ * <p>
+ * The counter of a class is stored as an annotation assertion on the class IRI holding the next value to reserve. Each
+ * reservation is applied to the live ontology directly (while holding its write lock), so that it does not depend on
+ * the outcome of the transaction in which the identifiers are used.
+ */
+class IdentifierCounters {
+
+    private final Connector connector;
+
+    IdentifierCounters(Connector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Reserves the specified number of counter values for instances of the specified class.
+     *
+     * @param classUri Class URI
+     * @param size     Number of values to reserve
+     * @return The first reserved value
+     */
+    long reserve(URI classUri, int size) {
+        final IRI subject = IRI.create(classUri);
+        final long[] start = new long[1];
+        connector.executeWrite(snapshot -> {
+            final OWLOntology ontology = snapshot.getOntology();
+            final OWLDataFactory dataFactory = snapshot.getDataFactory();
+            final OWLAnnotationProperty counter = dataFactory
+                    .getOWLAnnotationProperty(IRI.create(Vocabulary.IDENTIFIER_COUNTER));
+            final List<OWLAnnotationAssertionAxiom> current =
+                    EntitySearcher.getAnnotationAssertionAxioms(subject, ontology)
+                                  .filter(ax -> ax.getProperty().equals(counter)).collect(Collectors.toList());
+            final List<OWLOntologyChange> changes = new ArrayList<>(current.size() + 1);
+            for (OWLAnnotationAssertionAxiom ax : current) {
+                ax.getValue().asLiteral()
+                  .ifPresent(lit -> start[0] = Math.max(start[0], Long.parseLong(lit.getLiteral())));
+                changes.add(new MutableRemoveAxiom(ontology, ax));
+            }
+            changes.add(new MutableAddAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(counter, subject,
+                    dataFactory.getOWLLiteral(Long.toString(start[0] + size), OWL2Datatype.XSD_LONG))));
+            // The write lock is reentrant, so the changes are applied atomically with the read above
+            connector.applyChanges(changes);
+        });
+        return start[0];
+    }
+}
@@ -15,20 +15,18 @@
 package cz.cvut.kbss.ontodriver.owlapi;
 
 import cz.cvut.kbss.ontodriver.model.*;
+import cz.cvut.kbss.ontodriver.owlapi.connector.InferenceCache;
 import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.exception.ReasonerNotAvailableException;
 import cz.cvut.kbss.ontodriver.owlapi.util.OwlapiUtils;
 import org.semanticweb.owlapi.model.*;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class InferredAxiomLoader implements AxiomLoader {
 
-    private final OWLReasoner reasoner;
-    private final OWLOntology ontology;
+    private final InferenceCache inferenceCache;
     private final OWLDataFactory dataFactory;
 
     private final OwlapiAdapter adapter;
@@ -38,8 +36,7 @@ public class InferredAxiomLoader implements AxiomLoader {
 
     InferredAxiomLoader(OwlapiAdapter adapter, OntologySnapshot snapshot) {
         this.adapter = adapter;
-        this.reasoner = snapshot.getReasoner();
-        this.ontology = snapshot.getOntology();
+        this.inferenceCache = snapshot.getInferenceCache();
         this.dataFactory = snapshot.getDataFactory();
         this.axiomAdapter = new AxiomAdapter(snapshot.getDataFactory());
     }
@@ -50,10 +47,9 @@ public class InferredAxiomLoader implements AxiomLoader {
         if (assertions.isEmpty()) {
             return Collections.emptySet();
         }
-        if (reasoner == null) {
+        if (inferenceCache == null) {
             throw new ReasonerNotAvailableException();
         }
-        reasoner.flush();
         final OWLNamedIndividual individual = OwlapiUtils.getIndividual(subject, dataFactory);
         final Collection<Axiom<?>> axioms = new HashSet<>();
         for (Assertion a : assertions) {
@@ -81,7 +77,7 @@ public class InferredAxiomLoader implements AxiomLoader {
     }
 
     private Collection<Axiom<?>> inferDataPropertyValues(OWLNamedIndividual individual, Assertion dpAssertion) {
-        final Set<OWLLiteral> literals = reasoner.getDataPropertyValues(individual, dataProperty(dpAssertion));
+        final Set<OWLLiteral> literals = inferenceCache.getDataPropertyValues(individual, dataProperty(dpAssertion));
         return literals.stream().filter(lit -> OwlapiUtils.doesLanguageMatch(lit, dpAssertion))
                        .map(owlLiteral -> new AxiomImpl<>(subject, dpAssertion,
                                new Value<>(OwlapiUtils.owlLiteralToValue(owlLiteral)))).collect(Collectors.toSet());
@@ -92,9 +88,9 @@ public class InferredAxiomLoader implements AxiomLoader {
     }
 
     private Collection<Axiom<?>> inferObjectPropertyValues(OWLNamedIndividual individual, Assertion opAssertion) {
-        final Stream<OWLNamedIndividual> individuals =
-                reasoner.getObjectPropertyValues(individual, objectProperty(opAssertion)).entities();
-        return individuals.map(
+        final Set<OWLNamedIndividual> individuals =
+                inferenceCache.getObjectPropertyValues(individual, objectProperty(opAssertion));
+        return individuals.stream().map(
                 target -> axiomAdapter.createAxiom(subject, opAssertion, NamedResource.create(target.getIRI().toURI())))
                           .collect(
                                   Collectors.toList());
@@ -108,16 +104,16 @@ public class InferredAxiomLoader implements AxiomLoader {
     public Collection<Axiom<?>> loadPropertyAxioms(NamedResource subject) {
         final Collection<Axiom<?>> axioms = new ArrayList<>();
         final OWLNamedIndividual individual = OwlapiUtils.getIndividual(subject, dataFactory);
-        ontology.dataPropertiesInSignature().forEach(dp -> {
-            final Set<OWLLiteral> values = reasoner.getDataPropertyValues(individual, dp);
+        inferenceCache.getDataPropertiesInSignature().forEach(dp -> {
+            final Set<OWLLiteral> values = inferenceCache.getDataPropertyValues(individual, dp);
             for (OWLLiteral literal : values) {
                 axioms.add(axiomAdapter.createAxiom(subject,
                         Assertion.createDataPropertyAssertion(dp.getIRI().toURI(), true), literal));
             }
         });
-        ontology.objectPropertiesInSignature().forEach(op -> {
+        inferenceCache.getObjectPropertiesInSignature().forEach(op -> {
             final Assertion opAss = Assertion.createObjectPropertyAssertion(op.getIRI().toURI(), true);
-            reasoner.getObjectPropertyValues(individual, op).entities()
+            inferenceCache.getObjectPropertyValues(individual, op)
                     .forEach(ind -> axioms
                             .add(axiomAdapter.createAxiom(subject, opAss, NamedResource.create(ind.getIRI().toURI()))));
         });
@@ -56,6 +56,25 @@ class MainAxiomLoader {
         return result;
     }
 
+    /**
+     * Loads axioms for all the specified descriptors.
+     * <p>
+     * All the descriptors are processed against the same ontology snapshot.
+     *
+     * @param descriptors Descriptors of axioms to load
+     * @return Matching axioms of all the descriptor subjects
+     */
+    Collection<Axiom<?>> findAxioms(Collection<AxiomDescriptor> descriptors) {
+        final Collection<Axiom<?>> result = new ArrayList<>();
+        for (AxiomDescriptor descriptor : descriptors) {
+            inferredAssertionUris.clear();
+            inferredAssertions.clear();
+            explicitAssertions.clear();
+            result.addAll(findAxioms(descriptor));
+        }
+        return result;
+    }
+
     private void resolveInferredAssertions(AxiomDescriptor descriptor) {
         descriptor.getAssertions().forEach(assertion -> {
             if (assertion.isInferred()) {
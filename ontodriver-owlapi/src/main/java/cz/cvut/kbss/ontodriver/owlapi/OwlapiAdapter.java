@@ -15,6 +15,11 @@
 package cz.cvut.kbss.ontodriver.owlapi;
 
 import cz.cvut.kbss.ontodriver.descriptor.*;
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierStorage;
+import cz.cvut.kbss.ontodriver.identifier.RandomIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.owlapi.connector.Connector;
 import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
@@ -23,7 +28,7 @@ import cz.cvut.kbss.ontodriver.owlapi.list.ListHandler;
 import cz.cvut.kbss.ontodriver.owlapi.query.OwlapiPreparedStatement;
 import cz.cvut.kbss.ontodriver.owlapi.query.OwlapiStatement;
 import cz.cvut.kbss.ontodriver.owlapi.query.StatementExecutorFactory;
-import cz.cvut.kbss.ontodriver.owlapi.util.IdentifierGenerator;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -44,6 +49,9 @@ public class OwlapiAdapter {
     private final Connector connector;
     private OntologySnapshot ontologySnapshot;
 
+    private final IdentifierGenerator identifierGenerator;
+    private final IdentifierCounters identifierCounters;
+
     private StatementExecutorFactory statementExecutorFactory;
 
     private TransactionState transactionState = TransactionState.INITIAL;
@@ -54,7 +62,13 @@ public class OwlapiAdapter {
     }
 
     public OwlapiAdapter(Connector connector) {
+        this(connector, new RandomIdentifierGenerator());
+    }
+
+    OwlapiAdapter(Connector connector, IdentifierGenerator identifierGenerator) {
         this.connector = connector;
+        this.identifierGenerator = identifierGenerator;
+        this.identifierCounters = new IdentifierCounters(connector);
     }
 
     private void startTransactionIfNotActive() {
@@ -163,24 +177,34 @@ public class OwlapiAdapter {
         return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptor);
     }
 
-    void persist(AxiomValueDescriptor descriptor) {
+    Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) {
         startTransactionIfNotActive();
+        return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptors);
+    }
+
+    void persist(AxiomValueDescriptor descriptor) {
+        prepareForChanges();
         new AxiomSaver(this, ontologySnapshot).persist(descriptor);
     }
 
     URI generateIdentifier(URI classUri) {
         startTransactionIfNotActive();
-        return new IdentifierGenerator(ontology()).generateIdentifier(classUri);
+        try {
+            return identifierGenerator
+                    .generateIdentifier(classUri, new SnapshotIdentifierStorage(ontology(), identifierCounters));
+        } catch (OntoDriverException e) {
+            throw new IdentifierGenerationException("Unable to generate identifier for an instance of " + classUri, e);
+        }
     }
 
     void update(AxiomValueDescriptor descriptor) {
-        startTransactionIfNotActive();
+        prepareForChanges();
         new EpistemicAxiomRemover(this, ontologySnapshot).remove(descriptor);
         new AxiomSaver(this, ontologySnapshot).persist(descriptor);
     }
 
     void remove(AxiomDescriptor descriptor) {
-        startTransactionIfNotActive();
+        prepareForChanges();
         new EpistemicAxiomRemover(this, ontologySnapshot).remove(descriptor);
     }
 
@@ -194,6 +218,17 @@ public class OwlapiAdapter {
         return new PropertiesHandler(this, ontologySnapshot);
     }
 
+    /**
+     * Prepares the transactional snapshot for changes made by the subsequent operation.
+     * <p>
+     * Handlers obtained after this call work with an ontology which can be modified without affecting other
+     * transactions.
+     */
+    public void prepareForChanges() {
+        startTransactionIfNotActive();
+        ontologySnapshot.prepareForChanges();
+    }
+
     public void addTransactionalChanges(Collection<OWLOntologyChange> changes) {
         pendingChanges.addAll(changes);
     }
@@ -223,8 +258,31 @@ public class OwlapiAdapter {
         if (cls.isAssignableFrom(this.getClass())) {
             return cls.cast(this);
         } else if (cls.isAssignableFrom(OWLOntology.class)) {
+            // The ontology may be modified by the caller
+            ontologySnapshot.prepareForDirectChanges();
             return cls.cast(ontologySnapshot.getOntology());
         }
         throw new OwlapiDriverException("Unsupported type " + cls);
     }
+
+    private static class SnapshotIdentifierStorage implements IdentifierStorage {
+
+        private final OWLOntology ontology;
+        private final IdentifierCounters counters;
+
+        private SnapshotIdentifierStorage(OWLOntology ontology, IdentifierCounters counters) {
+            this.ontology = ontology;
+            this.counters = counters;
+        }
+
+        @Override
+        public boolean isUsed(URI identifier, URI classUri) {
+            return ontology.containsIndividualInSignature(IRI.create(identifier));
+        }
+
+        @Override
+        public long reserveBlock(URI classUri, int size) {
+            return counters.reserve(classUri, size);
+        }
+    }
 }
@@ -21,6 +21,8 @@ import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.config.ConfigurationParameter;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerators;
 import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
 import cz.cvut.kbss.ontodriver.owlapi.connector.ConnectorFactory;
 import cz.cvut.kbss.ontodriver.owlapi.exception.OwlapiDriverException;
@@ -32,20 +34,24 @@ class OwlapiDriver implements Closeable, ConnectionListener {
 
     private static final List<ConfigurationParameter> CONFIGS = Arrays
             .asList(DriverConfigParam.AUTO_COMMIT, DriverConfigParam.MODULE_EXTRACTION_SIGNATURE,
-                    DriverConfigParam.REASONER_FACTORY_CLASS,
+                    DriverConfigParam.REASONER_FACTORY_CLASS, DriverConfigParam.FILE_FLUSH_INTERVAL,
+                    DriverConfigParam.FILE_FLUSH_THRESHOLD, DriverConfigParam.FILE_CHANGE_JOURNAL,
                     OwlapiConfigParam.IRI_MAPPING_DELIMITER, OwlapiConfigParam.MAPPING_FILE_LOCATION,
-                    OwlapiConfigParam.WRITE_ON_COMMIT);
+                    OwlapiConfigParam.WRITE_ON_COMMIT, OwlapiConfigParam.DELTA_SNAPSHOTS,
+                    DriverConfigParam.IDENTIFIER_GENERATOR, DriverConfigParam.IDENTIFIER_BLOCK_SIZE);
 
     private final DriverConfiguration configuration;
     private volatile boolean open = true;
 
     private ConnectorFactory connectorFactory;
+    private final IdentifierGenerator identifierGenerator;
     private final Set<OwlapiConnection> openConnections = new HashSet<>();
 
     OwlapiDriver(OntologyStorageProperties storageProperties, Map<String, String> properties) {
         this.configuration = new DriverConfiguration(storageProperties);
         configuration.addConfiguration(properties, CONFIGS);
         this.connectorFactory = ConnectorFactory.createFactory();
+        this.identifierGenerator = IdentifierGenerators.create(configuration);
     }
 
     @Override
@@ -72,7 +78,8 @@ class OwlapiDriver implements Closeable, ConnectionListener {
 
     Connection acquireConnection() throws OntoDriverException {
         assert open;
-        final OwlapiAdapter adapter = new OwlapiAdapter(connectorFactory.getConnector(configuration));
+        final OwlapiAdapter adapter = new OwlapiAdapter(connectorFactory.getConnector(configuration),
+                identifierGenerator);
         final OwlapiConnection c = new OwlapiConnection(adapter);
         c.setTypes(new OwlapiTypes(adapter, c::ensureOpen, c::commitIfAuto));
         c.setProperties(new OwlapiProperties(adapter, c::ensureOpen, c::commitIfAuto));
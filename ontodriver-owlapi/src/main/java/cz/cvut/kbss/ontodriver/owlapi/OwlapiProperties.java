@@ -57,6 +57,7 @@ public class OwlapiProperties implements Properties {
             throws OntoDriverException {
         ensureValidity(individual, properties);
         if (!properties.isEmpty()) {
+            adapter.prepareForChanges();
             adapter.getPropertiesHandler().addProperties(individual, properties);
         }
         afterChangeCallback.execute();
@@ -74,6 +75,7 @@ public class OwlapiProperties implements Properties {
             throws OntoDriverException {
         ensureValidity(individual, properties);
         if (!properties.isEmpty()) {
+            adapter.prepareForChanges();
             adapter.getPropertiesHandler().removeProperties(individual, properties);
         }
         afterChangeCallback.execute();
@@ -52,6 +52,7 @@ public class OwlapiTypes implements Types {
     public void addTypes(NamedResource individual, URI context, Set<URI> types) throws OntoDriverException {
         ensureValidity(individual, types);
         if (!types.isEmpty()) {
+            adapter.prepareForChanges();
             adapter.getTypesHandler().addTypes(individual, context, types);
         }
         afterChangeCallback.execute();
@@ -67,6 +68,7 @@ public class OwlapiTypes implements Types {
     public void removeTypes(NamedResource individual, URI context, Set<URI> types) throws OntoDriverException {
         ensureValidity(individual, types);
         if (!types.isEmpty()) {
+            adapter.prepareForChanges();
             adapter.getTypesHandler().removeTypes(individual, context, types);
         }
         afterChangeCallback.execute();
@@ -19,7 +19,6 @@ import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableRemoveAxiom;
 import org.semanticweb.owlapi.model.*;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.search.EntitySearcher;
 
 import java.net.URI;
@@ -33,7 +32,6 @@ class TypesHandler {
 
     private final OWLOntology ontology;
     private final OWLDataFactory dataFactory;
-    private final OWLReasoner reasoner;
     private final OntologySnapshot snapshot;
 
     private final OwlapiAdapter adapter;
@@ -43,7 +41,6 @@ class TypesHandler {
         this.snapshot = snapshot;
         this.ontology = snapshot.getOntology();
         this.dataFactory = snapshot.getDataFactory();
-        this.reasoner = snapshot.getReasoner();
     }
 
     Set<Axiom<URI>> getTypes(NamedResource subject, URI context, boolean includeInferred) {
@@ -73,7 +70,7 @@ class TypesHandler {
 
     private Collection<? extends OWLClassExpression> inferClasses(NamedResource subject) {
         final OWLNamedIndividual individual = getIndividual(subject);
-        return reasoner.getTypes(individual, false).entities().collect(Collectors.toSet());
+        return snapshot.getInferenceCache().getTypes(individual);
     }
 
     void addTypes(NamedResource subject, URI context, Set<URI> types) {
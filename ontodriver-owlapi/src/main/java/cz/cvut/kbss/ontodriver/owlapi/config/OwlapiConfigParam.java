@@ -23,7 +23,8 @@ public enum OwlapiConfigParam implements ConfigurationParameter {
 
     MAPPING_FILE_LOCATION(OwlapiOntoDriverProperties.MAPPING_FILE_LOCATION),
     IRI_MAPPING_DELIMITER(OwlapiOntoDriverProperties.IRI_MAPPING_DELIMITER),
-    WRITE_ON_COMMIT(OwlapiOntoDriverProperties.WRITE_ON_COMMIT);
+    WRITE_ON_COMMIT(OwlapiOntoDriverProperties.WRITE_ON_COMMIT),
+    DELTA_SNAPSHOTS(OwlapiOntoDriverProperties.DELTA_SNAPSHOTS);
 
     private final String name;
 
@@ -36,6 +36,17 @@ public abstract class OwlapiOntoDriverProperties {
      */
     public static final String WRITE_ON_COMMIT = "cz.cvut.kbss.ontodriver.owlapi.writeOnCommit";
 
+    /**
+     * When set to true, transactions do not work on a copy of the ontology created at transaction start.
+     * <p>
+     * Instead, they record their changes on top of the live ontology and reads overlay the changes over the live
+     * ontology. Inferences come from a reasoner shared by all transactions, which is updated when changes are
+     * committed. Only when a transaction needs inferences while it has uncommitted changes is the ontology copied and a
+     * reasoner created for the copy. Note that transactions see changes committed by other transactions (until the
+     * copy is made).
+     */
+    public static final String DELTA_SNAPSHOTS = "cz.cvut.kbss.ontodriver.owlapi.deltaSnapshots";
+
     /**
      * Default IRI mapping delimiter.
      *
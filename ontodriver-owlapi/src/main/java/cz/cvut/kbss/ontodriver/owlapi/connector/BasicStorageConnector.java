@@ -23,15 +23,25 @@ import cz.cvut.kbss.ontodriver.owlapi.exception.*;
 import cz.cvut.kbss.ontodriver.owlapi.util.DefaultOntologyIriMapper;
 import cz.cvut.kbss.ontodriver.owlapi.util.MappingFileParser;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAxiomChange;
+import cz.cvut.kbss.ontodriver.util.AtomicFileWriter;
+import cz.cvut.kbss.ontodriver.util.ChangeJournal;
+import cz.cvut.kbss.ontodriver.util.WriteBehindScheduler;
 import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.OntologyCopy;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
+import java.io.*;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
@@ -46,6 +56,18 @@ import java.util.stream.Collectors;
  * Each call to {@link #getOntologySnapshot()} returns a new snapshot of the current state of the ontology. The changes
  * are the applied to a shared ontology, which represents the current state of the underlying storage.
  * <p>
+ * If delta snapshots are enabled (see {@link OwlapiConfigParam#DELTA_SNAPSHOTS}), the snapshots do not copy the
+ * ontology. Instead, they record changes of the transaction on top of the shared ontology and use the shared reasoner
+ * (see {@link DeltaOntologySnapshot}).
+ * <p>
+ * The shared reasoner is a buffering reasoner accessed only while holding the read lock of this connector. It is
+ * flushed and its inference cache invalidated under the write lock whenever the shared ontology changes.
+ * <p>
+ * By default, the ontology is written into the storage file whenever changes are applied. If deferred writing is
+ * configured (see {@link cz.cvut.kbss.ontodriver.config.DriverConfigParam#FILE_FLUSH_INTERVAL}), a background thread
+ * writes out changes applied by multiple transactions at once. Applied changes can be additionally recorded in a change
+ * journal, which is replayed when the connector is initialized.
+ * <p>
  * Note: This connector currently does not handle concurrent updates.
  */
 public class BasicStorageConnector extends AbstractConnector {
@@ -59,8 +81,17 @@ public class BasicStorageConnector extends AbstractConnector {
     private OWLOntologyManager ontologyManager;
     private OWLOntology ontology;
     private OWLReasoner reasoner;
+    private OWLReasoner sharedReasoner;
+    private InferenceCache inferenceCache;
     private OWLReasonerFactory reasonerFactory;
 
+    private boolean deltaSnapshots;
+
+    private Path storageFile;
+    private WriteBehindScheduler scheduler;
+    private ChangeJournal journal;
+    private OWLOntologyManager journalManager;
+
     private OWLOntologyIRIMapper iriMapper;
 
     BasicStorageConnector(DriverConfiguration configuration) throws OwlapiDriverException {
@@ -76,11 +107,68 @@ public class BasicStorageConnector extends AbstractConnector {
         LOG.debug("Loading ontology {} from {}.", storageProperties.getOntologyURI(),
                 storageProperties.getPhysicalURI());
         resolveIriMapper();
-        this.ontologyManager = OWLManager.createOWLOntologyManager();
+        this.deltaSnapshots = configuration.is(OwlapiConfigParam.DELTA_SNAPSHOTS);
+        // Delta snapshots read the shared ontology concurrently with commits of other transactions
+        this.ontologyManager = deltaSnapshots ? OWLManager.createConcurrentOWLOntologyManager() :
+                               OWLManager.createOWLOntologyManager();
         setIriMapper(ontologyManager);
         loadOntology(storageProperties);
         initializeReasonerFactory();
-        this.reasoner = getReasoner(ontology);
+        initializeReasoner();
+        initializeWriteBehind(storageProperties);
+    }
+
+    private void initializeWriteBehind(OntologyStorageProperties storageProperties) throws OwlapiDriverException {
+        final URI physicalUri = storageProperties.getPhysicalURI();
+        this.storageFile = "file".equals(physicalUri.getScheme()) ? Paths.get(physicalUri) : null;
+        if (!WriteBehindScheduler.isEnabled(configuration)) {
+            return;
+        }
+        if (storageFile == null) {
+            LOG.warn("Deferred writing is supported only for local files, ontology {} will be written on commit.",
+                    physicalUri);
+            return;
+        }
+        this.scheduler = WriteBehindScheduler.create(configuration, this::flush, "owlapi-storage-writer");
+        if (configuration.is(DriverConfigParam.FILE_CHANGE_JOURNAL)) {
+            this.journal = new ChangeJournal(storageFile);
+            this.journalManager = OWLManager.createOWLOntologyManager();
+            replayJournal();
+        }
+    }
+
+    private void replayJournal() throws OwlapiDriverException {
+        try {
+            final List<byte[]> records = journal.read();
+            if (records.isEmpty()) {
+                return;
+            }
+            LOG.debug("Replaying {} journaled commits of ontology {}.", records.size(),
+                    configuration.getStorageProperties().getPhysicalURI());
+            for (byte[] record : records) {
+                try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+                    ontologyManager.removeAxioms(ontology, readJournalAxioms(in).stream());
+                    ontologyManager.addAxioms(ontology, readJournalAxioms(in).stream());
+                }
+            }
+            final long segment = journal.rotate();
+            writeToFile();
+            journal.discard(segment);
+        } catch (IOException | OWLOntologyCreationException e) {
+            throw new OwlapiDriverException("Unable to replay change journal of ontology " +
+                    configuration.getStorageProperties().getPhysicalURI(), e);
+        }
+    }
+
+    private List<OWLAxiom> readJournalAxioms(DataInputStream in) throws IOException, OWLOntologyCreationException {
+        final byte[] document = new byte[in.readInt()];
+        in.readFully(document);
+        final OWLOntology ont = journalManager.loadOntologyFromOntologyDocument(new ByteArrayInputStream(document));
+        try {
+            return ont.axioms().collect(Collectors.toList());
+        } finally {
+            journalManager.removeOntology(ont);
+        }
     }
 
     private void resolveIriMapper() {
@@ -156,12 +244,26 @@ public class BasicStorageConnector extends AbstractConnector {
     @Override
     public OntologySnapshot getOntologySnapshot() {
         ensureOpen();
+        if (deltaSnapshots) {
+            READ.lock();
+            try {
+                return new DeltaOntologySnapshot(ontology, ontologyManager, ontologyManager.getOWLDataFactory(),
+                        sharedReasoner, inferenceCache, this::copyOntology, this::getReasoner);
+            } finally {
+                READ.unlock();
+            }
+        }
+        final OWLOntology snapshot = copyOntology();
+        return new OntologySnapshot(snapshot, ontologyManager, ontologyManager.getOWLDataFactory(),
+                getReasoner(snapshot));
+    }
+
+    private OWLOntology copyOntology() {
         READ.lock();
         try {
             final OWLOntology snapshot = ontologyManager.createOntology();
             cloneOntologyContent(snapshot);
-            return new OntologySnapshot(snapshot, ontologyManager, ontologyManager.getOWLDataFactory(),
-                    getReasoner(snapshot));
+            return snapshot;
         } catch (OWLOntologyCreationException e) {
             throw new OntologySnapshotException("Unable to create ontology snapshot.", e);
         } finally {
@@ -179,7 +281,8 @@ public class BasicStorageConnector extends AbstractConnector {
 
     private OntologySnapshot getLiveOntology() {
         ensureOpen();
-        return new OntologySnapshot(ontology, ontologyManager, ontologyManager.getOWLDataFactory(), reasoner);
+        return new OntologySnapshot(ontology, ontologyManager, ontologyManager.getOWLDataFactory(), reasoner,
+                inferenceCache);
     }
 
     @Override
@@ -198,12 +301,33 @@ public class BasicStorageConnector extends AbstractConnector {
         ensureOpen();
         WRITE.lock();
         try {
-            function.accept(getLiveOntology());
+            // The function may change the ontology, so it does not use the shared inference cache
+            function.accept(new OntologySnapshot(ontology, ontologyManager, ontologyManager.getOWLDataFactory(),
+                    reasoner));
         } finally {
+            refreshReasoner();
             WRITE.unlock();
         }
     }
 
+    private void initializeReasoner() {
+        this.reasoner = getReasoner(ontology);
+        this.sharedReasoner = ReadLockedReasoner.wrap(reasoner, READ);
+        this.inferenceCache = reasoner != null ? new InferenceCache(ontology, reasoner, READ) : null;
+    }
+
+    /**
+     * Brings the shared reasoner up to date with the shared ontology and discards cached inferences.
+     * <p>
+     * Has to be called while holding the write lock.
+     */
+    private void refreshReasoner() {
+        if (reasoner != null) {
+            reasoner.flush();
+            inferenceCache.invalidate();
+        }
+    }
+
     private OWLReasoner getReasoner(OWLOntology ontology) {
         if (reasonerFactory == null) {
             LOG.warn(
@@ -222,6 +346,11 @@ public class BasicStorageConnector extends AbstractConnector {
             changes.stream().filter(ch -> ch instanceof MutableAxiomChange)
                    .forEach(ch -> ((MutableAxiomChange) ch).setOntology(ontology));
             ontologyManager.applyChanges(changes);
+            refreshReasoner();
+            if (scheduler != null && appendToJournal(changes)) {
+                scheduler.changed();
+                return;
+            }
             try {
                 writeToFile();
             } catch (OntologyStorageException e) {
@@ -232,20 +361,113 @@ public class BasicStorageConnector extends AbstractConnector {
         }
     }
 
+    /**
+     * Records the specified changes in the change journal (if it is used).
+     *
+     * @return {@code false} if the changes could not have been journaled and the ontology should be written out
+     * immediately, {@code true} otherwise
+     */
+    private boolean appendToJournal(List<OWLOntologyChange> changes) {
+        if (journal == null) {
+            return true;
+        }
+        final List<OWLAxiom> added = new ArrayList<>();
+        final List<OWLAxiom> removed = new ArrayList<>();
+        for (OWLOntologyChange ch : changes) {
+            if (ch.isAddAxiom()) {
+                added.add(ch.getAxiom());
+            } else if (ch.isRemoveAxiom()) {
+                removed.add(ch.getAxiom());
+            } else {
+                return false;
+            }
+        }
+        try {
+            final ByteArrayOutputStream record = new ByteArrayOutputStream();
+            try (final DataOutputStream out = new DataOutputStream(record)) {
+                writeJournalAxioms(removed, out);
+                writeJournalAxioms(added, out);
+            }
+            journal.append(record.toByteArray());
+            return true;
+        } catch (IOException | OWLOntologyCreationException e) {
+            LOG.error("Unable to append changes to change journal, writing out ontology.", e);
+            return false;
+        }
+    }
+
+    private void writeJournalAxioms(List<OWLAxiom> axioms, DataOutputStream out)
+            throws OWLOntologyCreationException, IOException {
+        final OWLOntology ont = journalManager.createOntology(axioms.stream());
+        try {
+            final ByteArrayOutputStream document = new ByteArrayOutputStream();
+            try (final Writer writer = new OutputStreamWriter(document, StandardCharsets.UTF_8)) {
+                final FunctionalSyntaxObjectRenderer renderer = new FunctionalSyntaxObjectRenderer(ont, writer);
+                // Do not add declarations of entities used by the axioms, they would be replayed as new axioms
+                renderer.setAddMissingDeclarations(false);
+                ont.accept(renderer);
+            }
+            out.writeInt(document.size());
+            document.writeTo(out);
+        } finally {
+            journalManager.removeOntology(ont);
+        }
+    }
+
+    /**
+     * Writes out the current state of the ontology.
+     * <p>
+     * The ontology is copied under the read lock, so that the (potentially long) writing of the file does not block
+     * transactions.
+     */
+    private void flush() throws IOException {
+        final OWLOntology copy;
+        final long segment;
+        READ.lock();
+        try {
+            segment = journal != null ? journal.rotate() : 0L;
+            copy = OWLManager.createOWLOntologyManager().copyOntology(ontology, OntologyCopy.SHALLOW);
+        } catch (OWLOntologyCreationException e) {
+            throw new IOException("Unable to copy ontology for writing.", e);
+        } finally {
+            READ.unlock();
+        }
+        writeOntology(copy, copy.getOWLOntologyManager());
+        if (journal != null) {
+            journal.discard(segment);
+        }
+    }
+
+    private void flushPending() {
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            scheduler.flush();
+        } catch (IOException e) {
+            LOG.error("Unable to write out ontology.", e);
+        }
+    }
+
     @Override
     public void closeSnapshot(OntologySnapshot snapshot) {
         ensureOpen();
         assert snapshot != null;
-        ontologyManager.removeOntology(snapshot.getOntology());
+        if (snapshot instanceof DeltaOntologySnapshot) {
+            ((DeltaOntologySnapshot) snapshot).close();
+        } else {
+            ontologyManager.removeOntology(snapshot.getOntology());
+        }
     }
 
     @Override
     void reloadData() throws OwlapiDriverException {
+        flushPending();
         WRITE.lock();
         try {
             ontologyManager.clearOntologies();
             loadOntology(configuration.getStorageProperties());
-            this.reasoner = getReasoner(ontology);
+            initializeReasoner();
         } finally {
             WRITE.unlock();
         }
@@ -256,21 +478,61 @@ public class BasicStorageConnector extends AbstractConnector {
         if (!isOpen()) {
             return;
         }
+        if (scheduler != null) {
+            try {
+                // Close before acquiring the write lock, the final flush needs the read lock
+                scheduler.close();
+            } catch (IOException e) {
+                throw new OntologyStorageException(
+                        "Error when saving ontology to " + configuration.getStorageProperties().getPhysicalURI(), e);
+            }
+        }
         WRITE.lock();
         try {
-            writeToFile();
+            if (scheduler == null) {
+                writeToFile();
+            }
+            closeJournal();
             super.close();
         } finally {
             WRITE.unlock();
         }
     }
 
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOG.error("Unable to close change journal.", e);
+        }
+    }
+
     private void writeToFile() throws OntologyStorageException {
         try {
-            ontologyManager.saveOntology(ontology, IRI.create(configuration.getStorageProperties().getPhysicalURI()));
-        } catch (OWLOntologyStorageException e) {
+            if (storageFile != null) {
+                writeOntology(ontology, ontologyManager);
+            } else {
+                ontologyManager
+                        .saveOntology(ontology, IRI.create(configuration.getStorageProperties().getPhysicalURI()));
+            }
+        } catch (IOException | OWLOntologyStorageException e) {
             throw new OntologyStorageException(
                     "Error when saving ontology to " + configuration.getStorageProperties().getPhysicalURI(), e);
         }
     }
+
+    private void writeOntology(OWLOntology ont, OWLOntologyManager manager) throws IOException {
+        final OWLDocumentFormat originalFormat = ontologyManager.getOntologyFormat(ontology);
+        final OWLDocumentFormat format = originalFormat != null ? originalFormat : new RDFXMLDocumentFormat();
+        AtomicFileWriter.write(storageFile, out -> {
+            try {
+                manager.saveOntology(ont, format, out);
+            } catch (OWLOntologyStorageException e) {
+                throw new IOException(e);
+            }
+        });
+    }
 }
@@ -0,0 +1,517 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.AxiomAnnotations;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.model.parameters.Navigation;
+import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ontology consisting of a live ontology and axioms added to and removed from it by a transaction.
+ * <p>
+ * The live ontology is never modified. Added axioms are kept in a separate (small) ontology, removed axioms are
+ * recorded in a set. Reads are answered by the live ontology with the removed axioms filtered out and by the ontology of
+ * added axioms. Thus, the cost of reads and changes does not depend on the size of the live ontology, except for the
+ * signature checks, which have to look for a remaining reference once axioms have been removed.
+ * <p>
+ * The live ontology may be changed by other transactions in the meantime, reads reflect its current state.
+ * <p>
+ * This ontology is not managed by any ontology manager, so it cannot be changed through a manager and it cannot be
+ * passed to a reasoner.
+ */
+class DeltaOntology implements OWLOntology {
+
+    private final OWLOntology live;
+    private final OWLOntology additions;
+    private final Set<OWLAxiom> removed = new HashSet<>();
+
+    /**
+     * @param live      The live ontology
+     * @param additions Empty ontology which will hold axioms added on top of the live ontology
+     */
+    DeltaOntology(OWLOntology live, OWLOntology additions) {
+        this.live = live;
+        this.additions = additions;
+    }
+
+    /**
+     * Gets the ontology holding axioms added on top of the live ontology.
+     */
+    OWLOntology getAdditions() {
+        return additions;
+    }
+
+    /**
+     * Checks whether any axioms have been added or removed.
+     *
+     * @return {@code true} if there are no changes, {@code false} otherwise
+     */
+    boolean isUnchanged() {
+        return removed.isEmpty() && additions.getAxiomCount() == 0;
+    }
+
+    Stream<OWLAxiom> addedAxioms() {
+        return additions.axioms();
+    }
+
+    Stream<OWLAxiom> removedAxioms() {
+        return removed.stream();
+    }
+
+    /**
+     * Records the specified axiom change.
+     *
+     * @param change Axiom change
+     */
+    void recordChange(OWLOntologyChange change) {
+        assert change.isAxiomChange();
+        final OWLAxiom axiom = change.getAxiom();
+        final OWLOntologyManager manager = additions.getOWLOntologyManager();
+        if (change.isAddAxiom()) {
+            removed.remove(axiom);
+            manager.addAxiom(additions, axiom);
+        } else {
+            manager.removeAxiom(additions, axiom);
+            removed.add(axiom);
+        }
+    }
+
+    /**
+     * Axioms removed or re-added by the transaction are hidden in the live ontology.
+     */
+    private boolean isVisibleInLive(OWLAxiom axiom) {
+        return !removed.contains(axiom) && !additions.containsAxiom(axiom);
+    }
+
+    private <T extends OWLAxiom> Stream<T> overlay(Function<OWLOntology, Stream<T>> search) {
+        final Stream<T> liveAxioms = search.apply(live);
+        return Stream.concat(isUnchanged() ? liveAxioms : liveAxioms.filter(this::isVisibleInLive),
+                search.apply(additions));
+    }
+
+    private int count(Function<OWLOntology, Integer> counter, Predicate<OWLAxiom> filter) {
+        final long hidden = Stream.concat(removed.stream(), additions.axioms()).filter(filter)
+                                  .filter(live::containsAxiom).count();
+        return (int) (counter.apply(live) + counter.apply(additions) - hidden);
+    }
+
+    private <T> Stream<T> closure(Imports imports, Function<OWLOntology, Stream<T>> search) {
+        return imports.stream(this).flatMap(search);
+    }
+
+    /**
+     * Checks whether the specified entity of the live ontology signature is still referenced after axiom removal.
+     */
+    private boolean isReferenced(OWLPrimitive primitive) {
+        return removed.isEmpty() || live.referencingAxioms(primitive).anyMatch(this::isVisibleInLive);
+    }
+
+    private <E extends OWLPrimitive> Stream<E> signature(Function<OWLOntology, Stream<E>> search) {
+        return Stream.concat(search.apply(live).filter(this::isReferenced), search.apply(additions)).distinct();
+    }
+
+    private boolean containsInSignature(IRI iri, Imports imports, EntityType<?> type) {
+        return imports.stream(this).anyMatch(o -> o == this ? containsInSignature(iri, type) :
+                                                  o.containsEntityInSignature(getDataFactory().getOWLEntity(type, iri)));
+    }
+
+    private boolean containsInSignature(IRI iri, EntityType<?> type) {
+        final OWLEntity entity = getDataFactory().getOWLEntity(type, iri);
+        return additions.containsEntityInSignature(entity) ||
+                live.containsEntityInSignature(entity) && isReferenced(entity);
+    }
+
+    private OWLDataFactory getDataFactory() {
+        return live.getOWLOntologyManager().getOWLDataFactory();
+    }
+
+    @Override
+    public OWLOntologyManager getOWLOntologyManager() {
+        return live.getOWLOntologyManager();
+    }
+
+    @Override
+    public void setOWLOntologyManager(OWLOntologyManager manager) {
+        throw new UnsupportedOperationException("Delta ontology is not managed by an ontology manager.");
+    }
+
+    @Override
+    public OWLOntologyID getOntologyID() {
+        return additions.getOntologyID();
+    }
+
+    @Override
+    public Stream<OWLAnnotation> annotations() {
+        return live.annotations();
+    }
+
+    @Override
+    public Stream<OWLOntology> imports() {
+        return live.imports();
+    }
+
+    @Override
+    public Stream<OWLImportsDeclaration> importsDeclarations() {
+        return live.importsDeclarations();
+    }
+
+    @Override
+    public Stream<IRI> directImportsDocuments() {
+        return live.directImportsDocuments();
+    }
+
+    @Override
+    public Stream<OWLOntology> directImports() {
+        return live.directImports();
+    }
+
+    @Override
+    public Stream<OWLOntology> importsClosure() {
+        // The live ontology may be a wrapper of the instance in its imports closure, so compare identifiers
+        return Stream.concat(Stream.of(this),
+                live.importsClosure().filter(o -> !o.getOntologyID().equals(live.getOntologyID())));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getAxiomCount() == 0 && !annotations().findAny().isPresent();
+    }
+
+    @Override
+    public Stream<OWLAxiom> axioms() {
+        return overlay(OWLOntology::axioms);
+    }
+
+    @Override
+    public <T extends OWLAxiom> Stream<T> axioms(AxiomType<T> axiomType) {
+        return overlay(o -> o.axioms(axiomType));
+    }
+
+    @Override
+    public Stream<OWLLogicalAxiom> logicalAxioms() {
+        return overlay(OWLOntology::logicalAxioms);
+    }
+
+    @Override
+    public Stream<OWLAxiom> tboxAxioms(Imports imports) {
+        return closure(imports, o -> o == this ? overlay(ont -> ont.tboxAxioms(Imports.EXCLUDED)) :
+                                     o.tboxAxioms(Imports.EXCLUDED));
+    }
+
+    @Override
+    public Stream<OWLAxiom> aboxAxioms(Imports imports) {
+        return closure(imports, o -> o == this ? overlay(ont -> ont.aboxAxioms(Imports.EXCLUDED)) :
+                                     o.aboxAxioms(Imports.EXCLUDED));
+    }
+
+    @Override
+    public Stream<OWLAxiom> rboxAxioms(Imports imports) {
+        return closure(imports, o -> o == this ? overlay(ont -> ont.rboxAxioms(Imports.EXCLUDED)) :
+                                     o.rboxAxioms(Imports.EXCLUDED));
+    }
+
+    @Override
+    public Stream<OWLClassAxiom> generalClassAxioms() {
+        return overlay(OWLOntology::generalClassAxioms);
+    }
+
+    @Override
+    public boolean isDeclared(OWLEntity owlEntity) {
+        return additions.isDeclared(owlEntity) ||
+                live.declarationAxioms(owlEntity).anyMatch(this::isVisibleInLive);
+    }
+
+    @Override
+    public <T extends OWLAxiom> Stream<T> axioms(OWLAxiomSearchFilter filter, Object key, Imports imports) {
+        return closure(imports, o -> o == this ? axioms(filter, key) : o.axioms(filter, key));
+    }
+
+    @Override
+    public <T extends OWLAxiom> Stream<T> axioms(OWLAxiomSearchFilter filter, Object key) {
+        return overlay(o -> o.axioms(filter, key));
+    }
+
+    @Override
+    public boolean contains(OWLAxiomSearchFilter filter, Object key) {
+        return axioms(filter, key).findAny().isPresent();
+    }
+
+    @Override
+    public boolean contains(OWLAxiomSearchFilter filter, Object key, Imports imports) {
+        return axioms(filter, key, imports).findAny().isPresent();
+    }
+
+    @Override
+    public <T extends OWLAxiom> Stream<T> axioms(Class<T> type, Class<? extends OWLObject> explicitClass,
+                                                 OWLObject entity, Navigation forSubPosition) {
+        return overlay(o -> o.axioms(type, explicitClass, entity, forSubPosition));
+    }
+
+    @Override
+    public Stream<OWLSubAnnotationPropertyOfAxiom> subAnnotationPropertyOfAxioms(OWLAnnotationProperty subProperty) {
+        return overlay(o -> o.subAnnotationPropertyOfAxioms(subProperty));
+    }
+
+    @Override
+    public Stream<OWLAnnotationPropertyDomainAxiom> annotationPropertyDomainAxioms(OWLAnnotationProperty property) {
+        return overlay(o -> o.annotationPropertyDomainAxioms(property));
+    }
+
+    @Override
+    public Stream<OWLAnnotationPropertyRangeAxiom> annotationPropertyRangeAxioms(OWLAnnotationProperty property) {
+        return overlay(o -> o.annotationPropertyRangeAxioms(property));
+    }
+
+    @Override
+    public Stream<OWLDatatypeDefinitionAxiom> datatypeDefinitions(OWLDatatype datatype) {
+        return overlay(o -> o.datatypeDefinitions(datatype));
+    }
+
+    @Override
+    public int getAxiomCount() {
+        return count(OWLOntology::getAxiomCount, ax -> true);
+    }
+
+    @Override
+    public int getAxiomCount(Imports imports) {
+        return imports.stream(this).mapToInt(o -> o == this ? getAxiomCount() : o.getAxiomCount()).sum();
+    }
+
+    @Override
+    public <T extends OWLAxiom> int getAxiomCount(AxiomType<T> axiomType) {
+        return count(o -> o.getAxiomCount(axiomType), ax -> ax.getAxiomType() == axiomType);
+    }
+
+    @Override
+    public <T extends OWLAxiom> int getAxiomCount(AxiomType<T> axiomType, Imports imports) {
+        return imports.stream(this).mapToInt(o -> o == this ? getAxiomCount(axiomType) : o.getAxiomCount(axiomType))
+                      .sum();
+    }
+
+    @Override
+    public int getLogicalAxiomCount() {
+        return count(OWLOntology::getLogicalAxiomCount, OWLAxiom::isLogicalAxiom);
+    }
+
+    @Override
+    public int getLogicalAxiomCount(Imports imports) {
+        return imports.stream(this).mapToInt(o -> o == this ? getLogicalAxiomCount() : o.getLogicalAxiomCount())
+                      .sum();
+    }
+
+    @Override
+    public boolean containsAxiom(OWLAxiom axiom) {
+        return additions.containsAxiom(axiom) || !removed.contains(axiom) && live.containsAxiom(axiom);
+    }
+
+    @Override
+    public boolean containsAxiom(OWLAxiom axiom, Imports imports, AxiomAnnotations ignoreAnnotations) {
+        return imports.stream(this).anyMatch(o -> ignoreAnnotations.contains(o, axiom));
+    }
+
+    @Override
+    public boolean containsAxiomIgnoreAnnotations(OWLAxiom axiom) {
+        return axiomsIgnoreAnnotations(axiom).findAny().isPresent();
+    }
+
+    @Override
+    public Stream<OWLAxiom> axiomsIgnoreAnnotations(OWLAxiom axiom) {
+        return overlay(o -> o.axiomsIgnoreAnnotations(axiom));
+    }
+
+    @Override
+    public Stream<OWLAxiom> axiomsIgnoreAnnotations(OWLAxiom axiom, Imports imports) {
+        return closure(imports, o -> o.axiomsIgnoreAnnotations(axiom));
+    }
+
+    @Override
+    public Stream<OWLAxiom> referencingAxioms(OWLPrimitive owlEntity) {
+        return overlay(o -> o.referencingAxioms(owlEntity));
+    }
+
+    @Override
+    public Stream<OWLClassAxiom> axioms(OWLClass cls) {
+        return overlay(o -> o.axioms(cls));
+    }
+
+    @Override
+    public Stream<OWLObjectPropertyAxiom> axioms(OWLObjectPropertyExpression property) {
+        return overlay(o -> o.axioms(property));
+    }
+
+    @Override
+    public Stream<OWLDataPropertyAxiom> axioms(OWLDataProperty property) {
+        return overlay(o -> o.axioms(property));
+    }
+
+    @Override
+    public Stream<OWLIndividualAxiom> axioms(OWLIndividual individual) {
+        return overlay(o -> o.axioms(individual));
+    }
+
+    @Override
+    public Stream<OWLDatatypeDefinitionAxiom> axioms(OWLDatatype datatype) {
+        return overlay(o -> o.axioms(datatype));
+    }
+
+    @Override
+    public Stream<OWLEntity> signature() {
+        return signature(OWLOntology::signature);
+    }
+
+    @Override
+    public Stream<OWLClass> classesInSignature() {
+        return signature(OWLOntology::classesInSignature);
+    }
+
+    @Override
+    public Stream<OWLObjectProperty> objectPropertiesInSignature() {
+        return signature(OWLOntology::objectPropertiesInSignature);
+    }
+
+    @Override
+    public Stream<OWLDataProperty> dataPropertiesInSignature() {
+        return signature(OWLOntology::dataPropertiesInSignature);
+    }
+
+    @Override
+    public Stream<OWLNamedIndividual> individualsInSignature() {
+        return signature(OWLOntology::individualsInSignature);
+    }
+
+    @Override
+    public Stream<OWLDatatype> datatypesInSignature() {
+        return signature(OWLOntology::datatypesInSignature);
+    }
+
+    @Override
+    public Stream<OWLAnnotationProperty> annotationPropertiesInSignature() {
+        return signature(OWLOntology::annotationPropertiesInSignature);
+    }
+
+    @Override
+    public Stream<OWLAnonymousIndividual> anonymousIndividuals() {
+        return signature(OWLOntology::anonymousIndividuals);
+    }
+
+    @Override
+    public Stream<OWLAnonymousIndividual> referencedAnonymousIndividuals() {
+        return signature(OWLOntology::referencedAnonymousIndividuals);
+    }
+
+    @Override
+    public Stream<OWLEntity> entitiesInSignature(IRI iri) {
+        return signature(o -> o.entitiesInSignature(iri));
+    }
+
+    @Override
+    public boolean containsReference(OWLEntity entity) {
+        return additions.containsReference(entity) || live.containsReference(entity) && isReferenced(entity);
+    }
+
+    @Override
+    public boolean containsClassInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.CLASS);
+    }
+
+    @Override
+    public boolean containsClassInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.CLASS);
+    }
+
+    @Override
+    public boolean containsObjectPropertyInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.OBJECT_PROPERTY);
+    }
+
+    @Override
+    public boolean containsObjectPropertyInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.OBJECT_PROPERTY);
+    }
+
+    @Override
+    public boolean containsDataPropertyInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.DATA_PROPERTY);
+    }
+
+    @Override
+    public boolean containsDataPropertyInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.DATA_PROPERTY);
+    }
+
+    @Override
+    public boolean containsAnnotationPropertyInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.ANNOTATION_PROPERTY);
+    }
+
+    @Override
+    public boolean containsAnnotationPropertyInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.ANNOTATION_PROPERTY);
+    }
+
+    @Override
+    public boolean containsDatatypeInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.DATATYPE);
+    }
+
+    @Override
+    public boolean containsDatatypeInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.DATATYPE);
+    }
+
+    @Override
+    public boolean containsIndividualInSignature(IRI iri) {
+        return containsInSignature(iri, EntityType.NAMED_INDIVIDUAL);
+    }
+
+    @Override
+    public boolean containsIndividualInSignature(IRI iri, Imports imports) {
+        return containsInSignature(iri, imports, EntityType.NAMED_INDIVIDUAL);
+    }
+
+    @Override
+    public Set<IRI> getPunnedIRIs(Imports imports) {
+        final Map<IRI, Set<EntityType<?>>> types = closure(imports, OWLOntology::signature)
+                .collect(Collectors.groupingBy(OWLEntity::getIRI,
+                        Collectors.mapping(OWLEntity::getEntityType, Collectors.toSet())));
+        return types.entrySet().stream().filter(e -> e.getValue().size() > 1).map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+    }
+
+    @Override
+    public int compareTo(OWLObject o) {
+        if (o == this) {
+            return 0;
+        }
+        final int diff = Integer.compare(typeIndex(), o.typeIndex());
+        return diff != 0 ? diff : getOntologyID().compareTo(((OWLOntology) o).getOntologyID());
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaOntology{" + live.getOntologyID() + ", added=" + additions.getAxiomCount() + ", removed=" +
+                removed.size() + '}';
+    }
+}
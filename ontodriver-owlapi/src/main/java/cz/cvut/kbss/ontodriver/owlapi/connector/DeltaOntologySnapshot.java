@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import cz.cvut.kbss.ontodriver.owlapi.exception.OntologySnapshotException;
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableAxiomChange;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ontology snapshot which records changes made by the transaction on top of the live ontology.
+ * <p>
+ * The snapshot does not copy the live ontology. Changes applied through {@link #applyChanges(List)} are recorded in a
+ * {@link DeltaOntology}, which answers reads by overlaying the changes over the live ontology. As long as the
+ * transaction has no pending changes, inferences come from the buffering reasoner shared by the connector (guarded by
+ * the connector's read lock), which the connector flushes whenever changes are committed.
+ * <p>
+ * The shared reasoner cannot see changes of the transaction. So when the transaction requests inferences while it has
+ * pending changes, or when its ontology is to be modified directly (see {@link #prepareForDirectChanges()}), the live
+ * ontology is copied, the recorded changes are applied to the copy and the transaction continues with the copy and
+ * its own reasoner.
+ * <p>
+ * Note that the transaction sees changes committed by other transactions until the ontology is copied.
+ */
+class DeltaOntologySnapshot extends OntologySnapshot {
+
+    private final Supplier<OWLOntology> ontologyCopier;
+    private final Function<OWLOntology, OWLReasoner> reasonerProvider;
+    private final InferenceCache sharedInferenceCache;
+
+    private DeltaOntology delta;
+    private OWLOntology copy;
+    private OWLReasoner copyReasoner;
+
+    DeltaOntologySnapshot(OWLOntology liveOntology, OWLOntologyManager ontologyManager, OWLDataFactory dataFactory,
+                          OWLReasoner sharedReasoner, InferenceCache sharedInferenceCache,
+                          Supplier<OWLOntology> ontologyCopier, Function<OWLOntology, OWLReasoner> reasonerProvider) {
+        super(liveOntology, ontologyManager, dataFactory, sharedReasoner);
+        this.sharedInferenceCache = sharedInferenceCache;
+        this.ontologyCopier = ontologyCopier;
+        this.reasonerProvider = reasonerProvider;
+    }
+
+    @Override
+    public OWLOntology getOntology() {
+        if (copy != null) {
+            return copy;
+        }
+        return delta != null ? delta : super.getOntology();
+    }
+
+    @Override
+    public OWLReasoner getReasoner() {
+        if (copy == null && isUnchanged() || super.getReasoner() == null) {
+            return super.getReasoner();
+        }
+        materialize();
+        if (copyReasoner == null) {
+            this.copyReasoner = reasonerProvider.apply(copy);
+        }
+        return copyReasoner;
+    }
+
+    private boolean isUnchanged() {
+        return delta == null || delta.isUnchanged();
+    }
+
+    /**
+     * Until the transaction makes changes, inferences are served from the cache shared with other transactions
+     * reading the live ontology.
+     */
+    @Override
+    public InferenceCache getInferenceCache() {
+        return copy == null && isUnchanged() ? sharedInferenceCache : super.getInferenceCache();
+    }
+
+    /**
+     * Creates a delta over the live ontology, so that changes made by the transaction are isolated from other
+     * transactions.
+     */
+    @Override
+    public void prepareForChanges() {
+        if (delta != null || copy != null) {
+            return;
+        }
+        try {
+            this.delta = new DeltaOntology(super.getOntology(), getOntologyManager().createOntology());
+        } catch (OWLOntologyCreationException e) {
+            throw new OntologySnapshotException("Unable to create ontology snapshot.", e);
+        }
+    }
+
+    /**
+     * Copies the live ontology and applies changes recorded so far to the copy, which is then modifiable through the
+     * ontology manager.
+     */
+    @Override
+    public void prepareForDirectChanges() {
+        materialize();
+    }
+
+    private void materialize() {
+        if (copy != null) {
+            return;
+        }
+        final OWLOntology target = ontologyCopier.get();
+        if (delta != null) {
+            getOntologyManager().removeAxioms(target, delta.removedAxioms());
+            getOntologyManager().addAxioms(target, delta.addedAxioms());
+        }
+        this.copy = target;
+    }
+
+    @Override
+    public List<OWLOntologyChange> applyChanges(List<OWLOntologyChange> changes) {
+        prepareForChanges();
+        if (changes.stream().anyMatch(ch -> !ch.isAxiomChange())) {
+            materialize();
+        }
+        if (delta != null) {
+            // Keep the delta up to date even after materialization, handlers may still be reading it
+            changes.stream().filter(OWLOntologyChange::isAxiomChange).forEach(delta::recordChange);
+        }
+        if (copy == null) {
+            return changes;
+        }
+        changes.stream().filter(ch -> ch instanceof MutableAxiomChange)
+               .forEach(ch -> ((MutableAxiomChange) ch).setOntology(copy));
+        return super.applyChanges(changes);
+    }
+
+    void close() {
+        if (delta != null) {
+            getOntologyManager().removeOntology(delta.getAdditions());
+        }
+        if (copy == null) {
+            return;
+        }
+        if (copyReasoner != null) {
+            copyReasoner.dispose();
+        }
+        getOntologyManager().removeOntology(copy);
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Memoizes answers of a reasoner about individuals.
+ * <p>
+ * The cache is bound to an ontology and its reasoner and has to be invalidated whenever the ontology changes. The first
+ * access after invalidation flushes pending changes to the reasoner and lets it precompute class and property
+ * assertions of all individuals in bulk (realization), if the reasoner supports it. Results of the subsequent queries
+ * are then served from memory until the next invalidation.
+ * <p>
+ * A cache of a reasoner shared by multiple threads is created with the read lock of the reasoner's owner. All calls to
+ * the reasoner are then made while holding the lock and the cache does not flush the reasoner. The owner is expected to
+ * flush the reasoner and invalidate the cache while holding the corresponding write lock, so the cache cannot be filled
+ * from a reasoner in the middle of a flush.
+ * <p>
+ * The cache is thread-safe, results computed concurrently with invalidation are discarded.
+ */
+public class InferenceCache {
+
+    private static final Set<InferenceType> PRECOMPUTED_INFERENCES = EnumSet
+            .of(InferenceType.CLASS_ASSERTIONS, InferenceType.OBJECT_PROPERTY_ASSERTIONS,
+                    InferenceType.DATA_PROPERTY_ASSERTIONS);
+
+    private final OWLOntology ontology;
+    private final OWLReasoner reasoner;
+    private final Lock readLock;
+
+    private final Map<OWLNamedIndividual, Set<OWLClass>> types = new ConcurrentHashMap<>();
+    private final Map<OWLNamedIndividual, Map<OWLDataProperty, Set<OWLLiteral>>> dataPropertyValues =
+            new ConcurrentHashMap<>();
+    private final Map<OWLNamedIndividual, Map<OWLObjectProperty, Set<OWLNamedIndividual>>> objectPropertyValues =
+            new ConcurrentHashMap<>();
+    private volatile List<OWLDataProperty> dataProperties;
+    private volatile List<OWLObjectProperty> objectProperties;
+
+    private long generation;
+    private boolean prepared;
+
+    public InferenceCache(OWLOntology ontology, OWLReasoner reasoner) {
+        this(ontology, reasoner, null);
+    }
+
+    /**
+     * Creates a cache of a shared reasoner.
+     *
+     * @param ontology Ontology reasoned over
+     * @param reasoner Shared reasoner
+     * @param readLock Read lock guarding access to the reasoner, {@code null} if the reasoner is not shared
+     */
+    InferenceCache(OWLOntology ontology, OWLReasoner reasoner, Lock readLock) {
+        this.ontology = Objects.requireNonNull(ontology);
+        this.reasoner = Objects.requireNonNull(reasoner);
+        this.readLock = readLock;
+    }
+
+    /**
+     * Gets inferred classes of the specified individual.
+     *
+     * @param individual Individual whose classes to get
+     * @return Unmodifiable set of classes (both direct and indirect)
+     */
+    public Set<OWLClass> getTypes(OWLNamedIndividual individual) {
+        return lookup(types, individual,
+                () -> reasoner.getTypes(individual, false).entities().collect(Collectors.toSet()));
+    }
+
+    /**
+     * Gets inferred values of the specified data property of the specified individual.
+     *
+     * @param individual Subject individual
+     * @param property   Data property
+     * @return Unmodifiable set of literal values
+     */
+    public Set<OWLLiteral> getDataPropertyValues(OWLNamedIndividual individual, OWLDataProperty property) {
+        return lookup(dataPropertyValues.computeIfAbsent(individual, ind -> new ConcurrentHashMap<>()), property,
+                () -> reasoner.getDataPropertyValues(individual, property));
+    }
+
+    /**
+     * Gets inferred values of the specified object property of the specified individual.
+     *
+     * @param individual Subject individual
+     * @param property   Object property
+     * @return Unmodifiable set of individuals
+     */
+    public Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectProperty property) {
+        return lookup(objectPropertyValues.computeIfAbsent(individual, ind -> new ConcurrentHashMap<>()), property,
+                () -> reasoner.getObjectPropertyValues(individual, property).entities().collect(Collectors.toSet()));
+    }
+
+    /**
+     * Gets data properties in the signature of the ontology.
+     *
+     * @return Unmodifiable list of data properties
+     */
+    public List<OWLDataProperty> getDataPropertiesInSignature() {
+        List<OWLDataProperty> result = dataProperties;
+        if (result == null) {
+            final long gen = currentGeneration();
+            result = Collections.unmodifiableList(ontology.dataPropertiesInSignature().collect(Collectors.toList()));
+            synchronized (this) {
+                if (gen == generation) {
+                    this.dataProperties = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets object properties in the signature of the ontology.
+     *
+     * @return Unmodifiable list of object properties
+     */
+    public List<OWLObjectProperty> getObjectPropertiesInSignature() {
+        List<OWLObjectProperty> result = objectProperties;
+        if (result == null) {
+            final long gen = currentGeneration();
+            result = Collections.unmodifiableList(ontology.objectPropertiesInSignature().collect(Collectors.toList()));
+            synchronized (this) {
+                if (gen == generation) {
+                    this.objectProperties = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private <K, V> Set<V> lookup(Map<K, Set<V>> cache, K key, Supplier<Set<V>> loader) {
+        final Set<V> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // The read lock has to be acquired before the monitor of this cache
+        lock();
+        try {
+            final long gen = prepare();
+            final Set<V> result = Collections.unmodifiableSet(new HashSet<>(loader.get()));
+            synchronized (this) {
+                if (gen == generation) {
+                    cache.putIfAbsent(key, result);
+                }
+            }
+            return result;
+        } finally {
+            unlock();
+        }
+    }
+
+    private void lock() {
+        if (readLock != null) {
+            readLock.lock();
+        }
+    }
+
+    private void unlock() {
+        if (readLock != null) {
+            readLock.unlock();
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    /**
+     * Brings the reasoner up to date with the ontology and lets it precompute assertions, if this has not been done
+     * since the last invalidation.
+     *
+     * @return Generation of the cache the reasoner has been prepared for
+     */
+    private synchronized long prepare() {
+        if (!prepared) {
+            if (readLock == null) {
+                reasoner.flush();
+            }
+            final Set<InferenceType> precomputable = EnumSet.noneOf(InferenceType.class);
+            precomputable.addAll(PRECOMPUTED_INFERENCES);
+            precomputable.retainAll(reasoner.getPrecomputableInferenceTypes());
+            if (!precomputable.isEmpty()) {
+                reasoner.precomputeInferences(precomputable.toArray(new InferenceType[0]));
+            }
+            this.prepared = true;
+        }
+        return generation;
+    }
+
+    /**
+     * Discards all cached inferences.
+     * <p>
+     * Has to be called whenever the underlying ontology changes.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        this.prepared = false;
+        types.clear();
+        dataPropertyValues.clear();
+        objectPropertyValues.clear();
+        this.dataProperties = null;
+        this.objectProperties = null;
+    }
+}
@@ -31,12 +31,20 @@ public class OntologySnapshot {
     private final OWLDataFactory dataFactory;
     private final OWLReasoner reasoner;
 
+    private InferenceCache inferenceCache;
+
     public OntologySnapshot(OWLOntology ontology, OWLOntologyManager ontologyManager, OWLDataFactory dataFactory,
                             OWLReasoner reasoner) {
+        this(ontology, ontologyManager, dataFactory, reasoner, null);
+    }
+
+    OntologySnapshot(OWLOntology ontology, OWLOntologyManager ontologyManager, OWLDataFactory dataFactory,
+                     OWLReasoner reasoner, InferenceCache inferenceCache) {
         this.ontology = ontology;
         this.ontologyManager = ontologyManager;
         this.dataFactory = dataFactory;
         this.reasoner = reasoner;
+        this.inferenceCache = inferenceCache;
     }
 
     public OWLOntology getOntology() {
@@ -55,6 +63,44 @@ public class OntologySnapshot {
         return reasoner;
     }
 
+    /**
+     * Gets cache of inferences made by the reasoner of this snapshot.
+     * <p>
+     * The cache is invalidated whenever changes are applied to this snapshot.
+     *
+     * @return Inference cache, {@code null} if there is no reasoner
+     */
+    public InferenceCache getInferenceCache() {
+        if (inferenceCache == null) {
+            final OWLReasoner r = getReasoner();
+            if (r != null) {
+                this.inferenceCache = new InferenceCache(getOntology(), r);
+            }
+        }
+        return inferenceCache;
+    }
+
+    /**
+     * Prepares this snapshot for changes.
+     * <p>
+     * Should be called before a component which will modify the ontology obtains it from the snapshot. This snapshot is
+     * always modifiable, so nothing needs to be done.
+     */
+    public void prepareForChanges() {
+        // Do nothing by default
+    }
+
+    /**
+     * Prepares this snapshot for changes made directly to its ontology, i.e., not through {@link
+     * #applyChanges(List)}.
+     * <p>
+     * Should be called before the ontology is handed over to a component which modifies it through the ontology
+     * manager. By default, this is the same as {@link #prepareForChanges()}.
+     */
+    public void prepareForDirectChanges() {
+        prepareForChanges();
+    }
+
     /**
      * Applies the specified changes to this ontology snapshot.
      *
@@ -68,6 +114,9 @@ public class OntologySnapshot {
                     "At least one of the following changes could not have been applied to this ontology snapshot: " +
                             changes);
         }
+        if (inferenceCache != null) {
+            inferenceCache.invalidate();
+        }
         return changes;
     }
 }
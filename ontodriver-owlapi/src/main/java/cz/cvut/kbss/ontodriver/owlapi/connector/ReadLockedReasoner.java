@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Guards access to a reasoner shared by multiple transactions.
+ * <p>
+ * Every call to the reasoner is made while holding the read lock of the connector owning it. The owner flushes the
+ * reasoner under the corresponding write lock whenever the ontology changes, so calls to {@link OWLReasoner#flush()}
+ * and {@link OWLReasoner#dispose()} made through the guarded reasoner are ignored.
+ */
+class ReadLockedReasoner implements InvocationHandler {
+
+    private final OWLReasoner reasoner;
+    private final Lock readLock;
+
+    private ReadLockedReasoner(OWLReasoner reasoner, Lock readLock) {
+        this.reasoner = reasoner;
+        this.readLock = readLock;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getParameterCount() == 0 && ("flush".equals(method.getName()) ||
+                "dispose".equals(method.getName()))) {
+            return null;
+        }
+        readLock.lock();
+        try {
+            return method.invoke(reasoner, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Wraps the specified reasoner so that all calls to it hold the specified read lock.
+     *
+     * @param reasoner Shared reasoner, possibly {@code null}
+     * @param readLock Read lock of the reasoner's owner
+     * @return Guarded reasoner, {@code null} if {@code reasoner} is {@code null}
+     */
+    static OWLReasoner wrap(OWLReasoner reasoner, Lock readLock) {
+        if (reasoner == null) {
+            return null;
+        }
+        return (OWLReasoner) Proxy.newProxyInstance(OWLReasoner.class.getClassLoader(),
+                new Class<?>[]{OWLReasoner.class}, new ReadLockedReasoner(reasoner, readLock));
+    }
+}
@@ -59,6 +59,7 @@ public class OwlapiLists implements Lists {
     @Override
     public void persistSimpleList(SimpleListValueDescriptor descriptor) throws OntoDriverException {
         ensureStateAndArgumentValid(descriptor);
+        adapter.prepareForChanges();
         adapter.getSimpleListHandler().persistList(descriptor);
         afterChangeCallback.execute();
     }
@@ -66,6 +67,7 @@ public class OwlapiLists implements Lists {
     @Override
     public void updateSimpleList(SimpleListValueDescriptor descriptor) throws OntoDriverException {
         ensureStateAndArgumentValid(descriptor);
+        adapter.prepareForChanges();
         adapter.getSimpleListHandler().updateList(descriptor);
         afterChangeCallback.execute();
     }
@@ -80,6 +82,7 @@ public class OwlapiLists implements Lists {
     @Override
     public void persistReferencedList(ReferencedListValueDescriptor descriptor) throws OntoDriverException {
         ensureStateAndArgumentValid(descriptor);
+        adapter.prepareForChanges();
         adapter.getReferencedListHandler().persistList(descriptor);
         afterChangeCallback.execute();
     }
@@ -87,6 +90,7 @@ public class OwlapiLists implements Lists {
     @Override
     public void updateReferencedList(ReferencedListValueDescriptor descriptor) throws OntoDriverException {
         ensureStateAndArgumentValid(descriptor);
+        adapter.prepareForChanges();
         adapter.getReferencedListHandler().updateList(descriptor);
         afterChangeCallback.execute();
     }
@@ -23,28 +23,19 @@ import cz.cvut.kbss.owl2query.engine.OWL2QueryEngine;
 import cz.cvut.kbss.owl2query.model.QueryResult;
 import cz.cvut.kbss.owl2query.model.owlapi.OWLAPIv3OWL2Ontology;
 import org.semanticweb.owlapi.model.OWLObject;
-import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 
 public class TransactionalStatementExecutor implements StatementExecutor {
 
-    private final OWLOntology ontology;
-    private final OWLOntologyManager ontologyManager;
-    private final OWLReasoner reasoner;
+    private final OntologySnapshot snapshot;
 
     public TransactionalStatementExecutor(OntologySnapshot snapshot) {
-        this.ontology = snapshot.getOntology();
-        this.ontologyManager = snapshot.getOntologyManager();
-        this.reasoner = snapshot.getReasoner();
+        this.snapshot = snapshot;
     }
 
     @Override
     public ResultSet executeQuery(String query, Statement statement) throws OwlapiDriverException {
-        if (reasoner == null) {
-            throw new ReasonerNotAvailableException("Cannot execute query without a reasoner.");
-        }
-        final OWLAPIv3OWL2Ontology ont = new OWLAPIv3OWL2Ontology(ontologyManager, ontology, reasoner);
+        final OWLAPIv3OWL2Ontology ont = createQueryOntology();
 
         final QueryResult<OWLObject> res = OWL2QueryEngine.exec(query, ont);
         if (res == null) {
@@ -55,14 +46,20 @@ public class TransactionalStatementExecutor implements StatementExecutor {
 
     @Override
     public void executeUpdate(String update) throws OwlapiDriverException {
-        if (reasoner == null) {
-            throw new ReasonerNotAvailableException("Cannot execute query without a reasoner.");
-        }
-        final OWLAPIv3OWL2Ontology ont = new OWLAPIv3OWL2Ontology(ontologyManager, ontology, reasoner);
+        snapshot.prepareForDirectChanges();
+        final OWLAPIv3OWL2Ontology ont = createQueryOntology();
 
         final QueryResult<OWLObject> res = OWL2QueryEngine.exec(update, ont);
         if (res == null) {
             throw new OwlapiDriverException("Unable to evaluate statement " + update);
         }
     }
+
+    private OWLAPIv3OWL2Ontology createQueryOntology() {
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        if (reasoner == null) {
+            throw new ReasonerNotAvailableException("Cannot execute query without a reasoner.");
+        }
+        return new OWLAPIv3OWL2Ontology(snapshot.getOntologyManager(), snapshot.getOntology(), reasoner);
+    }
 }
@@ -17,12 +17,15 @@ package cz.cvut.kbss.ontodriver.owlapi;
 import com.google.common.collect.Multimap;
 import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import cz.cvut.kbss.ontodriver.identifier.BlockIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.*;
 import cz.cvut.kbss.ontodriver.owlapi.connector.Connector;
 import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.environment.TestUtils;
 import cz.cvut.kbss.ontodriver.owlapi.exception.OwlapiDriverException;
 import cz.cvut.kbss.ontodriver.owlapi.util.OwlapiUtils;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -37,6 +40,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
@@ -356,4 +360,50 @@ class OwlapiAdapterTest {
     void throwsDriverExceptionWhenUnsupportedClassIsPassedToUnwrap() {
         assertThrows(OwlapiDriverException.class, () -> adapter.unwrap(Connection.class));
     }
+
+    @Test
+    void generateIdentifierGeneratesIdentifiersUniqueInOntology() {
+        final URI baseUri = URI.create("http://baseUri/");
+        final Set<URI> results = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(adapter.generateIdentifier(baseUri));
+        }
+        results.forEach(uri -> assertTrue(uri.toString().contains(baseUri.toString())));
+        assertEquals(100, results.size());
+        verify(ontology, times(100)).containsIndividualInSignature(any(IRI.class));
+    }
+
+    @Test
+    void generateIdentifierThrowsIdentifierGenerationExceptionWhenUnableToGenerateUniqueIdentifier() {
+        doReturn(true).when(ontology).containsIndividualInSignature(any(IRI.class));
+        assertThrows(IdentifierGenerationException.class,
+                () -> adapter.generateIdentifier(URI.create("http://baseUri/")));
+    }
+
+    @Test
+    void generateIdentifierWithBlockGeneratorReservesCounterValuesInLiveOntology() throws Exception {
+        final OntologySnapshot live = TestUtils.initRealOntology(null);
+        doAnswer(inv -> {
+            final Consumer<OntologySnapshot> function = inv.getArgument(0);
+            function.accept(live);
+            return null;
+        }).when(connectorMock).executeWrite(any());
+        doAnswer(inv -> {
+            final List<OWLOntologyChange> changes = inv.getArgument(0);
+            live.getOntologyManager().applyChanges(changes);
+            return null;
+        }).when(connectorMock).applyChanges(anyList());
+        this.adapter = new OwlapiAdapter(connectorMock, new BlockIdentifierGenerator(3));
+        final URI classUri = URI.create("http://krizik.felk.cvut.cz/ontologies/jopa#ClassA");
+        for (int i = 0; i < 4; i++) {
+            assertEquals(URI.create(classUri + "_instance" + i), adapter.generateIdentifier(classUri));
+        }
+        verify(connectorMock, times(2)).executeWrite(any());
+        final OWLAnnotationProperty counter = factory.getOWLAnnotationProperty(IRI.create(Vocabulary.IDENTIFIER_COUNTER));
+        final List<OWLAnnotationAssertionAxiom> counterAxioms =
+                EntitySearcher.getAnnotationAssertionAxioms(IRI.create(classUri), live.getOntology())
+                              .filter(ax -> ax.getProperty().equals(counter)).collect(Collectors.toList());
+        assertEquals(1, counterAxioms.size());
+        assertEquals("6", counterAxioms.get(0).getValue().asLiteral().get().getLiteral());
+    }
 }
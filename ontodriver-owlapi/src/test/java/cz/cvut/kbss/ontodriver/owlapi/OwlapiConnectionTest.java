@@ -119,6 +119,18 @@ public class OwlapiConnectionTest {
         verify(adapterMock).find(descriptor);
     }
 
+    @Test
+    public void findForMultipleDescriptorsPassesDescriptorsToAdapter() throws Exception {
+        final List<AxiomDescriptor> descriptors = Collections.singletonList(new AxiomDescriptor(
+                NamedResource.create("http://krizik.felk.cvut.cz/ontologies/jopa#instance")));
+        final Collection<Axiom<?>> axioms = Collections.emptyList();
+        when(adapterMock.find(descriptors)).thenReturn(axioms);
+
+        final Collection<Axiom<?>> res = connection.find(descriptors);
+        assertSame(axioms, res);
+        verify(adapterMock).find(descriptors);
+    }
+
     @Test(expected = IllegalStateException.class)
     public void findOnCloseThrowsIllegalState() throws Exception {
         final AxiomDescriptor descriptor = new AxiomDescriptor(
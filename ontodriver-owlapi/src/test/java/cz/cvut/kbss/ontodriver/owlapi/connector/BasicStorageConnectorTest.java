@@ -15,22 +15,30 @@
 package cz.cvut.kbss.ontodriver.owlapi.connector;
 
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.owlapi.OwlapiDataSource;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
 import cz.cvut.kbss.ontodriver.owlapi.environment.Generator;
 import cz.cvut.kbss.ontodriver.owlapi.exception.InvalidOntologyIriException;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableRemoveAxiom;
 import org.junit.After;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
 
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -256,4 +264,259 @@ public class BasicStorageConnectorTest {
         assertNotNull(snapshot.getOntologyManager());
         assertNotNull(snapshot.getDataFactory());
     }
+
+    @Test
+    public void getSnapshotWithDeltaSnapshotsEnabledDoesNotCopyOntology() throws Exception {
+        final URI physicalUri = initOntology(Generator.generateAxioms(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        assertTrue(snapshot instanceof DeltaOntologySnapshot);
+        assertFalse(snapshot.getOntology().getOntologyID().isAnonymous());
+        assertEquals(1, snapshot.getOntologyManager().ontologies().count());
+    }
+
+    private DriverConfiguration initDeltaSnapshotConfiguration(URI physicalUri) {
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(OwlapiConfigParam.DELTA_SNAPSHOTS, Boolean.TRUE.toString());
+        return configuration;
+    }
+
+    @Test
+    public void deltaSnapshotRecordsChangesWithoutCopyingOntology() throws Exception {
+        final Set<OWLAxiom> axioms = Generator.generateAxioms();
+        final URI physicalUri = initOntology(axioms, false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology live = snapshot.getOntology();
+        final int axiomCount = live.getAxiomCount();
+        final OWLAxiom added = classAssertion(snapshot.getDataFactory());
+        final OWLAxiom removed = axioms.iterator().next();
+        snapshot.prepareForChanges();
+        snapshot.applyChanges(Arrays.asList(new MutableAddAxiom(snapshot.getOntology(), added),
+                new MutableRemoveAxiom(snapshot.getOntology(), removed)));
+
+        assertTrue(snapshot.getOntology() instanceof DeltaOntology);
+        assertTrue(snapshot.getOntology().containsAxiom(added));
+        assertFalse(snapshot.getOntology().containsAxiom(removed));
+        assertEquals(axiomCount, snapshot.getOntology().getAxiomCount());
+        assertFalse(live.containsAxiom(added));
+        assertTrue(live.containsAxiom(removed));
+        // The live ontology and the (empty) ontology of added axioms
+        assertEquals(2, snapshot.getOntologyManager().ontologies().count());
+    }
+
+    private static OWLClassAssertionAxiom classAssertion(OWLDataFactory df) {
+        return df.getOWLClassAssertionAxiom(df.getOWLClass(IRI.create(Generator.generateUri())),
+                df.getOWLNamedIndividual(IRI.create(Generator.generateUri())));
+    }
+
+    @Test
+    public void deltaSnapshotChangesAreIsolatedFromOtherSnapshots() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OntologySnapshot other = connector.getOntologySnapshot();
+        final OWLClassAssertionAxiom axiom = classAssertion(snapshot.getDataFactory());
+        snapshot.applyChanges(Collections.singletonList(new MutableAddAxiom(snapshot.getOntology(), axiom)));
+
+        assertTrue(snapshot.getOntology().containsAxiom(axiom));
+        assertFalse(other.getOntology().containsAxiom(axiom));
+    }
+
+    @Test
+    public void unchangedDeltaSnapshotSeesChangesCommittedByOtherTransactions() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLClass cls = addClassToOntology(connector.getOntologySnapshot());
+        assertTrue(snapshot.getOntology().containsClassInSignature(cls.getIRI()));
+    }
+
+    @Test
+    public void applyChangesCommitsChangesRecordedByDeltaSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLClassAssertionAxiom axiom = classAssertion(snapshot.getDataFactory());
+        final List<OWLOntologyChange> changes = snapshot.applyChanges(
+                Collections.singletonList(new MutableAddAxiom(snapshot.getOntology(), axiom)));
+        connector.applyChanges(changes);
+        connector.closeSnapshot(snapshot);
+
+        assertTrue(connector.getOntologySnapshot().getOntology().containsAxiom(axiom));
+    }
+
+    @Test
+    public void deltaSnapshotUsesSharedReasonerUntilItHasChanges() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration = initDeltaSnapshotConfiguration(physicalUri);
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, StructuralReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLReasoner shared = connector.getOntologySnapshot().getReasoner();
+        assertSame(shared, snapshot.getReasoner());
+        snapshot.prepareForChanges();
+        assertTrue(snapshot.getOntology() instanceof DeltaOntology);
+        assertSame(shared, snapshot.getReasoner());
+    }
+
+    @Test
+    public void deltaSnapshotWithChangesInfersFromCopyOfOntologyWithChangesApplied() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration = initDeltaSnapshotConfiguration(physicalUri);
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, StructuralReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLReasoner shared = snapshot.getReasoner();
+        final OWLClassAssertionAxiom axiom = classAssertion(snapshot.getDataFactory());
+        snapshot.applyChanges(Collections.singletonList(new MutableAddAxiom(snapshot.getOntology(), axiom)));
+
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        assertNotSame(shared, reasoner);
+        assertTrue(reasoner.getTypes(axiom.getIndividual().asOWLNamedIndividual(), false)
+                           .containsEntity(axiom.getClassExpression().asOWLClass()));
+        assertFalse(shared.getTypes(axiom.getIndividual().asOWLNamedIndividual(), false)
+                          .containsEntity(axiom.getClassExpression().asOWLClass()));
+    }
+
+    @Test
+    public void sharedReasonerOfDeltaSnapshotsSeesCommittedChanges() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration = initDeltaSnapshotConfiguration(physicalUri);
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, StructuralReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLClassAssertionAxiom axiom = classAssertion(snapshot.getDataFactory());
+        connector.applyChanges(snapshot.applyChanges(
+                Collections.singletonList(new MutableAddAxiom(snapshot.getOntology(), axiom))));
+        connector.closeSnapshot(snapshot);
+
+        final OWLReasoner reasoner = connector.getOntologySnapshot().getReasoner();
+        assertTrue(reasoner.getTypes(axiom.getIndividual().asOWLNamedIndividual(), false)
+                           .containsEntity(axiom.getClassExpression().asOWLClass()));
+    }
+
+    @Test
+    public void closeSnapshotKeepsLiveOntologyForUnchangedDeltaSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology live = snapshot.getOntology();
+        connector.closeSnapshot(snapshot);
+        assertTrue(snapshot.getOntologyManager().contains(live));
+    }
+
+    @Test
+    public void closeSnapshotRemovesOntologiesCreatedByChangedDeltaSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initDeltaSnapshotConfiguration(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology live = snapshot.getOntology();
+        snapshot.prepareForChanges();
+        snapshot.prepareForDirectChanges();
+        final OWLOntology copy = snapshot.getOntology();
+        assertNotSame(live, copy);
+        assertTrue(snapshot.getOntologyManager().contains(copy));
+        connector.closeSnapshot(snapshot);
+        assertEquals(Collections.singletonList(live),
+                snapshot.getOntologyManager().ontologies().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void unchangedDeltaSnapshotReasonerWaitsUntilSharedOntologyWriteIsFinished() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration = initDeltaSnapshotConfiguration(physicalUri);
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, StructuralReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch finishWrite = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> connector.executeWrite(s -> {
+                writeStarted.countDown();
+                try {
+                    finishWrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+            final Future<Boolean> consistent = executor.submit(() -> snapshot.getReasoner().isConsistent());
+            try {
+                consistent.get(200, TimeUnit.MILLISECONDS);
+                fail("Reasoner was expected to wait for the write to finish.");
+            } catch (TimeoutException e) {
+                // Expected
+            }
+            finishWrite.countDown();
+            assertTrue(consistent.get(5, TimeUnit.SECONDS));
+        } finally {
+            finishWrite.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void applyChangesWithFlushIntervalDefersWritingOfOntologyFile() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "3600000");
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLDataFactory df = snapshot.getDataFactory();
+        // Unique class, so that the assertion does not depend on ontologies created by other tests
+        final OWLClass cls = df.getOWLClass(IRI.create(Generator.generateUri()));
+        connector.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(snapshot.getOntology(), df.getOWLDeclarationAxiom(cls))));
+        assertFalse(loadOntologyFile(physicalUri).containsClassInSignature(cls.getIRI()));
+
+        connector.close();
+        assertTrue(loadOntologyFile(physicalUri).containsClassInSignature(cls.getIRI()));
+    }
+
+    private static OWLOntology loadOntologyFile(URI physicalUri) throws OWLOntologyCreationException {
+        return OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(new File(physicalUri));
+    }
+
+    @Test
+    public void initializationReplaysChangeJournalWhenChangesWereNotWrittenOut() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.FILE_FLUSH_INTERVAL, "3600000");
+        configuration.setProperty(DriverConfigParam.FILE_CHANGE_JOURNAL, Boolean.TRUE.toString());
+        final BasicStorageConnector original = new BasicStorageConnector(configuration);
+        this.connector = original;
+        final OWLDataFactory df = manager.getOWLDataFactory();
+        final OWLClassAssertionAxiom added = df.getOWLClassAssertionAxiom(
+                df.getOWLClass(IRI.create(Generator.generateUri())),
+                df.getOWLNamedIndividual(IRI.create(Generator.generateUri())));
+        final OWLClassAssertionAxiom removed = df.getOWLClassAssertionAxiom(
+                df.getOWLClass(IRI.create(Generator.generateUri())),
+                df.getOWLNamedIndividual(IRI.create(Generator.generateUri())));
+        final OWLOntology live = connector.getOntologySnapshot().getOntology();
+        connector.applyChanges(Arrays.asList(new MutableAddAxiom(live, added), new MutableAddAxiom(live, removed)));
+        connector.applyChanges(Collections.singletonList(new MutableRemoveAxiom(live, removed)));
+        // Simulate crash - the original connector is not closed, so the changes are not written out
+        assertFalse(loadOntologyFile(physicalUri).containsAxiom(added));
+
+        this.connector = new BasicStorageConnector(configuration);
+        connector.executeRead(snapshot -> {
+            assertTrue(snapshot.getOntology().containsAxiom(added));
+            assertFalse(snapshot.getOntology().containsAxiom(removed));
+            return null;
+        });
+        final OWLOntology written = loadOntologyFile(physicalUri);
+        assertTrue(written.containsAxiom(added));
+        assertFalse(written.containsAxiom(removed));
+        final File file = new File(physicalUri);
+        final File[] journalSegments =
+                file.getParentFile().listFiles((dir, name) -> name.startsWith(file.getName() + ".journal."));
+        assertNotNull(journalSegments);
+        assertEquals(0, journalSegments.length);
+        original.close();
+    }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableRemoveAxiom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.search.EntitySearcher;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaOntologyTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa#";
+
+    private OWLOntologyManager manager;
+    private OWLDataFactory dataFactory;
+    private OWLOntology live;
+
+    private OWLNamedIndividual individual;
+    private OWLClass clsOne;
+    private OWLClass clsTwo;
+
+    private DeltaOntology sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.manager = OWLManager.createOWLOntologyManager();
+        this.dataFactory = manager.getOWLDataFactory();
+        this.live = manager.createOntology(IRI.create(BASE + "live"));
+        this.individual = dataFactory.getOWLNamedIndividual(IRI.create(BASE + "individual"));
+        this.clsOne = dataFactory.getOWLClass(IRI.create(BASE + "ClassOne"));
+        this.clsTwo = dataFactory.getOWLClass(IRI.create(BASE + "ClassTwo"));
+        manager.addAxiom(live, dataFactory.getOWLClassAssertionAxiom(clsOne, individual));
+        this.sut = new DeltaOntology(live, manager.createOntology());
+    }
+
+    private void add(OWLAxiom axiom) {
+        sut.recordChange(new MutableAddAxiom(sut, axiom));
+    }
+
+    private void remove(OWLAxiom axiom) {
+        sut.recordChange(new MutableRemoveAxiom(sut, axiom));
+    }
+
+    @Test
+    void readsOverlayAddedAxiomsOverLiveOntology() {
+        add(dataFactory.getOWLClassAssertionAxiom(clsTwo, individual));
+
+        final Set<OWLClassExpression> types = EntitySearcher.getTypes(individual, sut).collect(Collectors.toSet());
+        assertEquals(2, types.size());
+        assertTrue(types.contains(clsOne));
+        assertTrue(types.contains(clsTwo));
+        assertEquals(2, sut.getAxiomCount());
+        assertEquals(2, sut.axioms().count());
+        assertTrue(sut.containsClassInSignature(clsTwo.getIRI()));
+    }
+
+    @Test
+    void applyChangeDoesNotModifyLiveOntology() {
+        final OWLAxiom added = dataFactory.getOWLClassAssertionAxiom(clsTwo, individual);
+        add(added);
+        remove(dataFactory.getOWLClassAssertionAxiom(clsOne, individual));
+
+        assertFalse(live.containsAxiom(added));
+        assertTrue(live.containsAxiom(dataFactory.getOWLClassAssertionAxiom(clsOne, individual)));
+        assertEquals(1, live.getAxiomCount());
+    }
+
+    @Test
+    void readsHideRemovedAxiomsAndEntitiesNoLongerReferenced() {
+        final OWLAxiom removed = dataFactory.getOWLClassAssertionAxiom(clsOne, individual);
+        remove(removed);
+
+        assertFalse(sut.containsAxiom(removed));
+        assertFalse(EntitySearcher.getTypes(individual, sut).findAny().isPresent());
+        assertFalse(sut.containsIndividualInSignature(individual.getIRI()));
+        assertFalse(sut.containsClassInSignature(clsOne.getIRI()));
+        assertEquals(0, sut.getAxiomCount());
+        assertTrue(sut.isEmpty());
+    }
+
+    @Test
+    void addingRemovedAxiomRestoresIt() {
+        final OWLAxiom axiom = dataFactory.getOWLClassAssertionAxiom(clsOne, individual);
+        remove(axiom);
+        add(axiom);
+
+        assertTrue(sut.containsAxiom(axiom));
+        assertTrue(sut.containsIndividualInSignature(individual.getIRI()));
+        assertEquals(1, sut.axioms().count());
+        assertEquals(1, sut.getAxiomCount());
+    }
+
+    @Test
+    void readsDoNotDuplicateAxiomsAddedAlsoToLiveOntology() {
+        final OWLAxiom axiom = dataFactory.getOWLClassAssertionAxiom(clsTwo, individual);
+        add(axiom);
+        // Committed by another transaction
+        manager.addAxiom(live, axiom);
+
+        assertEquals(2, sut.axioms().count());
+        assertEquals(2, sut.getAxiomCount());
+        assertEquals(2, sut.classAssertionAxioms(individual).count());
+    }
+
+    @Test
+    void readsReflectChangesOfLiveOntology() {
+        final OWLAxiom axiom = dataFactory.getOWLClassAssertionAxiom(clsTwo, individual);
+        manager.addAxiom(live, axiom);
+
+        assertTrue(sut.containsAxiom(axiom));
+        assertTrue(sut.isUnchanged());
+    }
+
+    @Test
+    void importsClosureContainsDeltaInsteadOfLiveOntology() {
+        final Set<OWLOntology> closure = sut.importsClosure().collect(Collectors.toSet());
+        assertEquals(1, closure.size());
+        assertTrue(closure.contains(sut));
+        assertEquals(1, sut.axioms(Imports.INCLUDED).count());
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import cz.cvut.kbss.ontodriver.owlapi.environment.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class InferenceCacheTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa#";
+
+    @Mock
+    private OWLReasoner reasonerMock;
+
+    private OntologySnapshot snapshot;
+    private OWLDataFactory dataFactory;
+
+    private OWLNamedIndividual individual;
+
+    private InferenceCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        this.snapshot = TestUtils.initRealOntology(reasonerMock);
+        this.dataFactory = snapshot.getDataFactory();
+        this.individual = dataFactory.getOWLNamedIndividual(IRI.create(BASE + "individual"));
+        this.cache = snapshot.getInferenceCache();
+    }
+
+    @Test
+    void getTypesQueriesReasonerOnlyOnceForRepeatedCalls() {
+        final OWLClass cls = dataFactory.getOWLClass(IRI.create(BASE + "OWLClassA"));
+        when(reasonerMock.getTypes(individual, false)).thenReturn(new OWLClassNodeSet(new OWLClassNode(cls)));
+
+        assertEquals(Collections.singleton(cls), cache.getTypes(individual));
+        assertEquals(Collections.singleton(cls), cache.getTypes(individual));
+        verify(reasonerMock).getTypes(individual, false);
+    }
+
+    @Test
+    void getPropertyValuesQueriesReasonerOnlyOnceForRepeatedCalls() {
+        final OWLDataProperty dp = dataFactory.getOWLDataProperty(IRI.create(BASE + "dp"));
+        final OWLObjectProperty op = dataFactory.getOWLObjectProperty(IRI.create(BASE + "op"));
+        final OWLLiteral literal = dataFactory.getOWLLiteral(117);
+        final OWLNamedIndividual target = dataFactory.getOWLNamedIndividual(IRI.create(BASE + "target"));
+        when(reasonerMock.getDataPropertyValues(individual, dp)).thenReturn(Collections.singleton(literal));
+        when(reasonerMock.getObjectPropertyValues(individual, op))
+                .thenReturn(new OWLNamedIndividualNodeSet(new OWLNamedIndividualNode(target)));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Collections.singleton(literal), cache.getDataPropertyValues(individual, dp));
+            assertEquals(Collections.singleton(target), cache.getObjectPropertyValues(individual, op));
+        }
+        verify(reasonerMock).getDataPropertyValues(individual, dp);
+        verify(reasonerMock).getObjectPropertyValues(individual, op);
+    }
+
+    @Test
+    void firstLookupFlushesReasonerAndPrecomputesSupportedAssertions() {
+        when(reasonerMock.getPrecomputableInferenceTypes())
+                .thenReturn(EnumSet.of(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS));
+        when(reasonerMock.getTypes(any(OWLNamedIndividual.class), eq(false))).thenReturn(new OWLClassNodeSet());
+
+        cache.getTypes(individual);
+        cache.getTypes(dataFactory.getOWLNamedIndividual(IRI.create(BASE + "another")));
+        verify(reasonerMock).flush();
+        verify(reasonerMock).precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+    }
+
+    @Test
+    void applyingChangesToSnapshotInvalidatesCache() {
+        final OWLClass clsOne = dataFactory.getOWLClass(IRI.create(BASE + "OWLClassA"));
+        final OWLClass clsTwo = dataFactory.getOWLClass(IRI.create(BASE + "OWLClassB"));
+        when(reasonerMock.getTypes(individual, false)).thenReturn(new OWLClassNodeSet(new OWLClassNode(clsOne)))
+                                                     .thenReturn(new OWLClassNodeSet(new OWLClassNode(clsTwo)));
+        assertEquals(Collections.singleton(clsOne), cache.getTypes(individual));
+
+        snapshot.applyChanges(Collections.singletonList(
+                new AddAxiom(snapshot.getOntology(), dataFactory.getOWLClassAssertionAxiom(clsTwo, individual))));
+        assertEquals(Collections.singleton(clsTwo), cache.getTypes(individual));
+        verify(reasonerMock, times(2)).getTypes(individual, false);
+        verify(reasonerMock, times(2)).flush();
+    }
+
+    @Test
+    void getPropertiesInSignatureReflectsOntologyChangesAfterInvalidation() {
+        final OWLDataProperty dp = dataFactory.getOWLDataProperty(IRI.create(BASE + "dp"));
+        assertEquals(Collections.emptyList(), cache.getDataPropertiesInSignature());
+
+        snapshot.applyChanges(Collections.singletonList(new AddAxiom(snapshot.getOntology(),
+                dataFactory.getOWLDataPropertyAssertionAxiom(dp, individual, 117))));
+        assertEquals(Collections.singletonList(dp), cache.getDataPropertiesInSignature());
+    }
+
+    @Test
+    void lookupWithoutPrecomputableInferencesDoesNotPrecompute() {
+        when(reasonerMock.getPrecomputableInferenceTypes()).thenReturn(Collections.emptySet());
+        final OWLDataProperty dp = dataFactory.getOWLDataProperty(IRI.create(BASE + "dp"));
+        when(reasonerMock.getDataPropertyValues(individual, dp)).thenReturn(Collections.emptySet());
+
+        final Set<OWLLiteral> result = cache.getDataPropertyValues(individual, dp);
+        assertEquals(Collections.emptySet(), result);
+        verify(reasonerMock, never()).precomputeInferences(any());
+    }
+
+    @Test
+    void sharedCacheQueriesReasonerWhileHoldingReadLockAndDoesNotFlushIt() {
+        final Lock readLock = mock(Lock.class);
+        final InferenceCache sharedCache = new InferenceCache(snapshot.getOntology(), reasonerMock, readLock);
+        when(reasonerMock.getPrecomputableInferenceTypes()).thenReturn(EnumSet.of(InferenceType.CLASS_ASSERTIONS));
+        when(reasonerMock.getTypes(individual, false)).thenReturn(new OWLClassNodeSet());
+
+        sharedCache.getTypes(individual);
+        final InOrder inOrder = inOrder(readLock, reasonerMock);
+        inOrder.verify(readLock).lock();
+        inOrder.verify(reasonerMock).precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        inOrder.verify(reasonerMock).getTypes(individual, false);
+        inOrder.verify(readLock).unlock();
+        verify(reasonerMock, never()).flush();
+    }
+}
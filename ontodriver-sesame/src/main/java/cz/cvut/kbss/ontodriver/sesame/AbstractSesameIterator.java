@@ -18,6 +18,7 @@ import cz.cvut.kbss.ontodriver.descriptor.ListDescriptor;
 import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.ontodriver.model.*;
 import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
+import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.sesame.util.SesameUtils;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
@@ -29,7 +30,7 @@ import java.util.HashSet;
 
 abstract class AbstractSesameIterator implements SesameIterator {
 
-    protected final Resource listOwner;
+    protected final IRI listOwner;
     protected final IRI hasListProperty;
     protected final IRI hasNextProperty;
     protected final IRI context;
@@ -38,6 +39,8 @@ abstract class AbstractSesameIterator implements SesameIterator {
     protected final Connector connector;
     protected final ValueFactory vf;
 
+    protected ListStatements listStatements;
+
     public AbstractSesameIterator(ListDescriptor listDescriptor, Connector connector, ValueFactory vf) {
         this.listOwner = SesameUtils.toSesameIri(listDescriptor.getListOwner().getIdentifier(), vf);
         this.hasListProperty = SesameUtils.toSesameIri(listDescriptor.getListProperty()
@@ -50,6 +53,28 @@ abstract class AbstractSesameIterator implements SesameIterator {
         this.vf = vf;
     }
 
+    /**
+     * Loads statements of the whole list, so that it can be navigated without further repository access.
+     *
+     * @param nodeContent Node content property, optional
+     * @throws SesameDriverException When storage access error occurs
+     */
+    protected void loadListStatements(IRI nodeContent) throws SesameDriverException {
+        this.listStatements = new ListStatements(
+                connector.findListStatements(listOwner, hasListProperty, hasNextProperty, nodeContent,
+                        includeInferred, context));
+    }
+
+    protected void addStatements(Collection<Statement> statements) throws SesameDriverException {
+        connector.addStatements(statements);
+        listStatements.add(statements);
+    }
+
+    protected void removeStatements(Collection<Statement> statements) throws SesameDriverException {
+        connector.removeStatements(statements);
+        listStatements.remove(statements);
+    }
+
     protected void checkSuccessorMax(Collection<Statement> stmts, IRI property) {
         // We don't mind the same statement multiple times, it could have been added during transaction
         if (new HashSet<>(stmts).size() > 1) {
@@ -33,6 +33,11 @@ import java.util.stream.Collectors;
 
 class AxiomLoader {
 
+    /**
+     * Maximum number of subjects loaded by one batch query.
+     */
+    static final int BATCH_SIZE = 512;
+
     private final Connector connector;
     private final ValueFactory valueFactory;
 
@@ -53,6 +58,112 @@ class AxiomLoader {
         return findStatements(axiomDescriptor);
     }
 
+    /**
+     * Loads axioms for all the specified descriptors.
+     * <p>
+     * Descriptors which do not specify any contexts are loaded in batches, using one repository access per batch. The
+     * remaining descriptors are loaded one by one.
+     *
+     * @param descriptors Descriptors of the axioms to load
+     * @return Axioms of all the subjects
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Axiom<?>> loadAxioms(Collection<AxiomDescriptor> descriptors) throws SesameDriverException {
+        final Collection<Axiom<?>> result = new HashSet<>();
+        final Map<IRI, AxiomDescriptor> batch = new LinkedHashMap<>();
+        for (AxiomDescriptor descriptor : descriptors) {
+            final IRI subject = SesameUtils.toSesameIri(descriptor.getSubject().getIdentifier(), valueFactory);
+            if (!isInDefaultContext(descriptor) || batch.containsKey(subject)) {
+                result.addAll(new AxiomLoader(connector, valueFactory, config).loadAxioms(descriptor));
+                continue;
+            }
+            batch.put(subject, descriptor);
+            if (batch.size() == BATCH_SIZE) {
+                result.addAll(loadBatch(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            result.addAll(loadBatch(batch));
+        }
+        return result;
+    }
+
+    private static boolean isInDefaultContext(AxiomDescriptor descriptor) {
+        return descriptor.getSubjectContext() == null &&
+                descriptor.getAssertions().stream().allMatch(a -> descriptor.getAssertionContext(a) == null);
+    }
+
+    private Collection<Axiom<?>> loadBatch(Map<IRI, AxiomDescriptor> batch) throws SesameDriverException {
+        final Map<Resource, BatchItem> items = new HashMap<>(batch.size());
+        boolean loadExplicit = false;
+        boolean loadInferred = false;
+        for (Map.Entry<IRI, AxiomDescriptor> e : batch.entrySet()) {
+            final BatchItem item = new BatchItem(e.getValue());
+            items.put(e.getKey(), item);
+            loadExplicit |= item.unspecified == null || !item.unspecified.isInferred();
+            loadInferred |= !item.inferred.isEmpty();
+        }
+        final Collection<Axiom<?>> result = new HashSet<>();
+        if (loadExplicit) {
+            for (Statement s : connector.findStatements(batch.keySet(), false)) {
+                items.get(s.getSubject()).explicitStatementToAxiom(s).ifPresent(result::add);
+            }
+        }
+        if (loadInferred) {
+            for (Statement s : connector.findStatements(batch.keySet(), true)) {
+                items.get(s.getSubject()).inferredStatementToAxiom(s).ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Assertions of a single subject in a loading batch.
+     */
+    private class BatchItem {
+
+        private final Map<IRI, Assertion> explicit = new HashMap<>();
+        private final Map<IRI, Assertion> inferred = new HashMap<>();
+        private final Assertion unspecified;
+        private final AxiomBuilder axiomBuilder;
+
+        private BatchItem(AxiomDescriptor descriptor) {
+            final Map<IRI, Assertion> all = new HashMap<>(descriptor.getAssertions().size());
+            Assertion unspecifiedAssertion = null;
+            for (Assertion a : descriptor.getAssertions()) {
+                final IRI property = SesameUtils.toSesameIri(a.getIdentifier(), valueFactory);
+                all.put(property, a);
+                if (a.equals(Assertion.createUnspecifiedPropertyAssertion(a.isInferred()))) {
+                    unspecifiedAssertion = a;
+                }
+                (a.isInferred() ? inferred : explicit).put(property, a);
+            }
+            this.unspecified = unspecifiedAssertion;
+            this.axiomBuilder = new AxiomBuilder(descriptor.getSubject(), all, unspecified);
+        }
+
+        private Optional<Axiom<?>> explicitStatementToAxiom(Statement s) {
+            if (unspecified != null && unspecified.isInferred()) {
+                return Optional.empty();
+            }
+            return statementToAxiom(s, explicit, false);
+        }
+
+        private Optional<Axiom<?>> inferredStatementToAxiom(Statement s) {
+            return statementToAxiom(s, inferred, true);
+        }
+
+        private Optional<Axiom<?>> statementToAxiom(Statement s, Map<IRI, Assertion> properties,
+                                                    boolean includeInferred) {
+            if (!properties.containsKey(s.getPredicate()) &&
+                    !properties.containsValue(Assertion.createUnspecifiedPropertyAssertion(includeInferred))) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(axiomBuilder.statementToAxiom(s));
+        }
+    }
+
     private Collection<Axiom<?>> findStatements(AxiomDescriptor descriptor) throws SesameDriverException {
         final Collection<Axiom<?>> result = new HashSet<>();
         final Resource subject = SesameUtils.toSesameIri(descriptor.getSubject().getIdentifier(), valueFactory);
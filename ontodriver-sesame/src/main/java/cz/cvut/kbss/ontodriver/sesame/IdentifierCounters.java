@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
+import cz.cvut.kbss.ontodriver.sesame.connector.ConnectorFactory;
+import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reserves blocks of identifier counter values in the repository.
+ * <p>
+ * The counter of a class is stored in a dedicated context as the next value to reserve. Each reservation reads and
+ * updates the counter in a separate {@code SERIALIZABLE} repository transaction, so that it does not depend on the
+ * outcome of the transaction in which the identifiers are used and concurrent reservations by other drivers (possibly
+ * in other JVMs) using the same repository cannot obtain overlapping blocks. A reservation rejected by the repository
+ * due to a conflict is retried.
+ */
+class IdentifierCounters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdentifierCounters.class);
+
+    static final int MAX_ATTEMPTS = 10;
+    // Maximum delay before the first retry in milliseconds, grows with each attempt
+    private static final int RETRY_DELAY = 10;
+
+    private final ConnectorFactory connectorFactory;
+    private final DriverConfiguration configuration;
+
+    IdentifierCounters(ConnectorFactory connectorFactory, DriverConfiguration configuration) {
+        this.connectorFactory = connectorFactory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Reserves the specified number of counter values for instances of the specified class.
+     *
+     * @param classUri Class URI
+     * @param size     Number of values to reserve
+     * @return The first reserved value
+     * @throws SesameDriverException When storage access error occurs or the reservation keeps conflicting with
+     *                               concurrent ones
+     */
+    synchronized long reserve(URI classUri, int size) throws SesameDriverException {
+        final Repository repository = getRepository();
+        for (int attempt = 1; ; attempt++) {
+            try (final RepositoryConnection connection = repository.getConnection()) {
+                return reserve(connection, classUri, size);
+            } catch (RepositoryException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new SesameDriverException(
+                            "Unable to reserve identifier counter values for class " + classUri + ".", e);
+                }
+                LOG.debug("Reservation of identifier counter values for class {} failed, retrying.", classUri, e);
+                awaitRetry(attempt);
+            }
+        }
+    }
+
+    private Repository getRepository() throws SesameDriverException {
+        final Connector connector = connectorFactory.createStorageConnector(configuration);
+        try {
+            return connector.unwrap(Repository.class);
+        } catch (SesameDriverException e) {
+            throw e;
+        } catch (OntoDriverException e) {
+            throw new SesameDriverException(e);
+        } finally {
+            close(connector);
+        }
+    }
+
+    private static long reserve(RepositoryConnection connection, URI classUri, int size) {
+        connection.begin(IsolationLevels.SERIALIZABLE);
+        try {
+            final ValueFactory vf = connection.getValueFactory();
+            final IRI subject = vf.createIRI(classUri.toString());
+            final IRI counter = vf.createIRI(Vocabulary.IDENTIFIER_COUNTER);
+            final IRI context = vf.createIRI(Vocabulary.IDENTIFIER_COUNTERS_CONTEXT);
+            final List<Statement> current =
+                    Iterations.asList(connection.getStatements(subject, counter, null, false, context));
+            long start = 0;
+            for (Statement s : current) {
+                if (s.getObject() instanceof Literal) {
+                    start = Math.max(start, ((Literal) s.getObject()).longValue());
+                }
+            }
+            connection.remove(current, context);
+            connection.add(subject, counter, vf.createLiteral(start + size), context);
+            connection.commit();
+            return start;
+        } catch (RepositoryException e) {
+            rollback(connection);
+            throw e;
+        }
+    }
+
+    private static void rollback(RepositoryConnection connection) {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Unable to rollback identifier counter reservation.", e);
+        }
+    }
+
+    private static void awaitRetry(int attempt) throws SesameDriverException {
+        try {
+            // Randomized delay makes it less likely that the conflicting reservations collide again
+            Thread.sleep(ThreadLocalRandom.current().nextInt(RETRY_DELAY * attempt) + 1L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SesameDriverException("Interrupted while reserving identifier counter values.", e);
+        }
+    }
+
+    private static void close(Connector connector) throws SesameDriverException {
+        try {
+            connector.close();
+        } catch (SesameDriverException e) {
+            throw e;
+        } catch (OntoDriverException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Statements of a list, loaded from the repository in one go.
+ * <p>
+ * Allows list handlers and iterators to navigate the list in memory instead of querying the repository for every
+ * list node. Changes made to the list in the repository should be recorded here as well.
+ */
+class ListStatements {
+
+    private final Map<Resource, Set<Statement>> statements = new HashMap<>();
+
+    ListStatements(Collection<Statement> statements) {
+        add(statements);
+    }
+
+    /**
+     * Finds statements with the specified subject and property.
+     *
+     * @param subject  Statement subject
+     * @param property Statement property
+     * @return Matching statements, possibly empty
+     */
+    Collection<Statement> find(Resource subject, IRI property) {
+        return statements.getOrDefault(subject, Collections.emptySet()).stream()
+                         .filter(s -> property.equals(s.getPredicate())).collect(Collectors.toList());
+    }
+
+    void add(Collection<Statement> toAdd) {
+        toAdd.forEach(s -> statements.computeIfAbsent(s.getSubject(), k -> new LinkedHashSet<>()).add(s));
+    }
+
+    void remove(Collection<Statement> toRemove) {
+        toRemove.forEach(s -> {
+            final Set<Statement> subjectStatements = statements.get(s.getSubject());
+            if (subjectStatements != null) {
+                subjectStatements.remove(s);
+            }
+        });
+    }
+}
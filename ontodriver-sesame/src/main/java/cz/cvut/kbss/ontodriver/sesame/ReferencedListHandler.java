@@ -24,16 +24,15 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 public class ReferencedListHandler extends
         ListHandler<ReferencedListDescriptor, ReferencedListValueDescriptor> {
 
     private int sequenceCounter = 0;
 
+    private final Queue<IRI> reservedNodes = new ArrayDeque<>();
+
     ReferencedListHandler(Connector connector, ValueFactory vf) {
         super(connector, vf);
     }
@@ -50,6 +49,7 @@ public class ReferencedListHandler extends
         final IRI hasList = hasList(listValueDescriptor);
         final IRI hasContent = hasContent(listValueDescriptor);
         final IRI context = context(listValueDescriptor);
+        reserveSequenceNodes(owner, context, listValueDescriptor.getValues().size());
         final IRI nodeUri = generateSequenceNode(owner, context);
         statements.add(vf.createStatement(owner, hasList, nodeUri, context));
         final IRI nodeContent = sesameIri(listValueDescriptor.getValues().get(0).getIdentifier());
@@ -61,17 +61,32 @@ public class ReferencedListHandler extends
         return sesameIri(listDescriptor.getNodeContent().getIdentifier());
     }
 
-    private IRI generateSequenceNode(IRI owner, IRI context) throws SesameDriverException {
+    /**
+     * Reserves identifiers for the specified number of new list nodes.
+     * <p>
+     * Uniqueness of the candidate identifiers is verified in one repository access, instead of checking each node
+     * separately.
+     */
+    private void reserveSequenceNodes(IRI owner, IRI context, int count) throws SesameDriverException {
         final String uriBase = owner.stringValue();
-        boolean unique;
-        IRI node;
-        do {
-            node = vf.createIRI(uriBase + "-SEQ_" + sequenceCounter++);
-            final Collection<Statement> stmts = connector.findStatements(node, null, null, false,
-                    context);
-            unique = stmts.isEmpty();
-        } while (!unique);
-        return node;
+        int remaining = count;
+        while (remaining > 0) {
+            final List<IRI> candidates = new ArrayList<>(remaining);
+            for (int i = 0; i < remaining; i++) {
+                candidates.add(vf.createIRI(uriBase + "-SEQ_" + sequenceCounter++));
+            }
+            final Collection<IRI> existing = connector.findExistingSubjects(candidates, context);
+            candidates.removeAll(existing);
+            reservedNodes.addAll(candidates);
+            remaining -= candidates.size();
+        }
+    }
+
+    private IRI generateSequenceNode(IRI owner, IRI context) throws SesameDriverException {
+        if (reservedNodes.isEmpty()) {
+            reserveSequenceNodes(owner, context, 1);
+        }
+        return reservedNodes.poll();
     }
 
     @Override
@@ -108,16 +123,19 @@ public class ReferencedListHandler extends
         final IRI hasContent = hasContent(listDescriptor);
         final boolean includeInferred = listDescriptor.getListProperty().isInferred();
         final IRI context = context(listDescriptor);
-        Resource previous = owner(listDescriptor);
+        final IRI owner = owner(listDescriptor);
         IRI currentProperty = hasList(listDescriptor);
+        final ListStatements list = new ListStatements(
+                connector.findListStatements(owner, currentProperty, hasNext, hasContent, includeInferred, context));
+        Resource previous = owner;
         final Collection<Statement> toRemove = new ArrayList<>();
         Collection<Statement> next;
         do {
-            next = connector.findStatements(previous, currentProperty, null, includeInferred, context);
+            next = list.find(previous, currentProperty);
             if (!next.isEmpty()) {
                 final Resource node = extractListNode(next, currentProperty);
                 toRemove.addAll(next);
-                toRemove.addAll(connector.findStatements(node, hasContent, null, includeInferred, context));
+                toRemove.addAll(list.find(node, hasContent));
                 previous = node;
             }
             currentProperty = hasNext;
@@ -158,6 +176,7 @@ public class ReferencedListHandler extends
         final IRI context = context(listDescriptor);
         assert i > 0;
         final Collection<Statement> toAdd = new ArrayList<>((listDescriptor.getValues().size() - i) * 2);
+        reserveSequenceNodes(owner, context, listDescriptor.getValues().size() - i);
         while (i < listDescriptor.getValues().size()) {
             final IRI content = sesameIri(listDescriptor.getValues().get(i).getIdentifier());
             previous = createListNode(owner, hasNext, hasContent, content, context, previous, toAdd);
@@ -53,7 +53,8 @@ class ReferencedListIterator extends AbstractSesameIterator {
     }
 
     private void init() throws SesameDriverException {
-        this.next = connector.findStatements(listOwner, hasListProperty, null, includeInferred, context);
+        loadListStatements(hasContentProperty);
+        this.next = listStatements.find(listOwner, hasListProperty);
     }
 
     @Override
@@ -77,12 +78,11 @@ class ReferencedListIterator extends AbstractSesameIterator {
         checkNodeIsResource(currentNode);
         final Resource elem = (Resource) currentNode.getObject();
         this.currentContent = getNodeContent(elem);
-        this.next = connector.findStatements(elem, hasNextProperty, null, includeInferred, context);
+        this.next = listStatements.find(elem, hasNextProperty);
     }
 
-    private Statement getNodeContent(Resource node) throws SesameDriverException {
-        final Collection<Statement> elems = connector.findStatements(node, hasContentProperty,
-                null, includeInferred, context);
+    private Statement getNodeContent(Resource node) {
+        final Collection<Statement> elems = listStatements.find(node, hasContentProperty);
         checkSuccessorMax(elems, hasContentProperty);
         if (elems.isEmpty()) {
             throw new IntegrityConstraintViolatedException("Node " + node + " has no content.");
@@ -124,23 +124,23 @@ class ReferencedListIterator extends AbstractSesameIterator {
 
             this.currentNode = null;
             this.currentContent = null;
-            connector.addStatements(next);
+            addStatements(next);
         } else {
             next = Collections.emptyList();
         }
-        connector.removeStatements(toRemove);
+        removeStatements(toRemove);
     }
 
     @Override
     public void replaceCurrentWith(NamedResource newContent) throws SesameDriverException {
         assert currentNode.getObject() instanceof Resource;
         // We just replace the original content statement with new one
-        connector.removeStatements(Collections.singleton(currentContent));
+        removeStatements(Collections.singleton(currentContent));
         final Resource node = (Resource) currentNode.getObject();
         final Statement stmt = vf
                 .createStatement(node, hasContentProperty, SesameUtils.toSesameIri(newContent.getIdentifier(), vf),
                         context);
-        connector.addStatements(Collections.singleton(stmt));
+        addStatements(Collections.singleton(stmt));
     }
 
 }
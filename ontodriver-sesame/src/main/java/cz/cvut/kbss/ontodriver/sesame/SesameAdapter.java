@@ -18,8 +18,10 @@ import cz.cvut.kbss.ontodriver.Closeable;
 import cz.cvut.kbss.ontodriver.Wrapper;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.descriptor.*;
-import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierStorage;
+import cz.cvut.kbss.ontodriver.identifier.RandomIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.sesame.config.Constants;
 import cz.cvut.kbss.ontodriver.sesame.config.RuntimeConfiguration;
@@ -27,7 +29,6 @@ import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
 import cz.cvut.kbss.ontodriver.sesame.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.sesame.util.SesameUtils;
-import cz.cvut.kbss.ontodriver.util.IdentifierUtils;
 import cz.cvut.kbss.ontodriver.util.Transaction;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
@@ -41,25 +42,30 @@ import java.util.List;
 
 class SesameAdapter implements Closeable, Wrapper {
 
-    /**
-     * Maximum number of attempts to generate a unique identifier
-     */
-    private static final int ID_GENERATION_THRESHOLD = 64;
-
     private final Connector connector;
     private final ValueFactory valueFactory;
     private final RuntimeConfiguration config;
     private boolean open;
     private final Transaction transaction;
+    private final IdentifierGenerator identifierGenerator;
+    private final IdentifierStorage identifierStorage;
 
     public SesameAdapter(Connector connector, DriverConfiguration configuration) {
+        this(connector, configuration, new RandomIdentifierGenerator(), null);
+    }
+
+    SesameAdapter(Connector connector, DriverConfiguration configuration, IdentifierGenerator identifierGenerator,
+                  IdentifierCounters identifierCounters) {
         assert connector != null;
+        assert identifierGenerator != null;
 
         this.connector = connector;
         this.valueFactory = connector.getValueFactory();
         this.config = new RuntimeConfiguration(configuration);
         this.open = true;
         this.transaction = new Transaction();
+        this.identifierGenerator = identifierGenerator;
+        this.identifierStorage = new AdapterIdentifierStorage(identifierCounters);
     }
 
     Connector getConnector() {
@@ -128,18 +134,13 @@ class SesameAdapter implements Closeable, Wrapper {
 
     URI generateIdentifier(URI classUri) throws SesameDriverException {
         startTransactionIfNotActive();
-        boolean unique = false;
-        URI id = null;
-        int counter = 0;
-        while (!unique && counter++ < ID_GENERATION_THRESHOLD) {
-            id = IdentifierUtils.generateIdentifier(classUri);
-            unique = isIdentifierUnique(id, classUri);
-        }
-        if (!unique) {
-            throw new IdentifierGenerationException("Unable to generate a unique identifier.");
+        try {
+            return identifierGenerator.generateIdentifier(classUri, identifierStorage);
+        } catch (SesameDriverException e) {
+            throw e;
+        } catch (OntoDriverException e) {
+            throw new SesameDriverException(e);
         }
-        return id;
-
     }
 
     private void startTransactionIfNotActive() throws SesameDriverException {
@@ -149,12 +150,6 @@ class SesameAdapter implements Closeable, Wrapper {
         }
     }
 
-    private boolean isIdentifierUnique(URI identifier, URI classUri) throws SesameDriverException {
-        return !connector.containsStatement(
-                SesameUtils.toSesameIri(identifier, valueFactory), RDF.TYPE,
-                SesameUtils.toSesameIri(classUri, valueFactory), true);
-    }
-
     boolean contains(Axiom<?> axiom, URI context) throws SesameDriverException {
         startTransactionIfNotActive();
         Value value;
@@ -178,6 +173,11 @@ class SesameAdapter implements Closeable, Wrapper {
         return new AxiomLoader(connector, valueFactory, config).loadAxioms(axiomDescriptor);
     }
 
+    Collection<Axiom<?>> find(Collection<AxiomDescriptor> axiomDescriptors) throws SesameDriverException {
+        startTransactionIfNotActive();
+        return new AxiomLoader(connector, valueFactory, config).loadAxioms(axiomDescriptors);
+    }
+
     void persist(AxiomValueDescriptor axiomDescriptor) throws SesameDriverException {
         startTransactionIfNotActive();
         new AxiomSaver(connector, valueFactory).persistAxioms(axiomDescriptor);
@@ -223,4 +223,27 @@ class SesameAdapter implements Closeable, Wrapper {
         }
         return connector.unwrap(cls);
     }
+
+    private class AdapterIdentifierStorage implements IdentifierStorage {
+
+        private final IdentifierCounters counters;
+
+        private AdapterIdentifierStorage(IdentifierCounters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public boolean isUsed(URI identifier, URI classUri) throws SesameDriverException {
+            return connector.containsStatement(SesameUtils.toSesameIri(identifier, valueFactory), RDF.TYPE,
+                    SesameUtils.toSesameIri(classUri, valueFactory), true);
+        }
+
+        @Override
+        public long reserveBlock(URI classUri, int size) throws SesameDriverException {
+            if (counters == null) {
+                throw new SesameDriverException("Identifier counters are not available in this connection.");
+            }
+            return counters.reserve(classUri, size);
+        }
+    }
 }
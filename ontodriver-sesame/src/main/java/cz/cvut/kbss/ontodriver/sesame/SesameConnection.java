@@ -178,6 +178,17 @@ class SesameConnection implements Connection {
         }
     }
 
+    @Override
+    public Collection<Axiom<?>> find(Collection<AxiomDescriptor> descriptors) throws OntoDriverException {
+        ensureOpen();
+        Objects.requireNonNull(descriptors);
+        try {
+            return adapter.find(descriptors);
+        } catch (RuntimeException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
     @Override
     public void persist(AxiomValueDescriptor descriptor) throws OntoDriverException {
         ensureOpen();
@@ -21,6 +21,8 @@ import cz.cvut.kbss.ontodriver.config.ConfigurationParameter;
 import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.IdentifierGenerators;
 import cz.cvut.kbss.ontodriver.sesame.config.SesameConfigParam;
 import cz.cvut.kbss.ontodriver.sesame.connector.ConnectorFactory;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
@@ -32,11 +34,14 @@ class SesameDriver implements Closeable, ConnectionListener {
 
     private static final List<ConfigurationParameter> CONFIGS = Arrays
             .asList(DriverConfigParam.AUTO_COMMIT, SesameConfigParam.USE_INFERENCE,
-                    SesameConfigParam.USE_VOLATILE_STORAGE);
+                    SesameConfigParam.USE_VOLATILE_STORAGE, SesameConfigParam.OPTIMISTIC_COMMIT,
+                    DriverConfigParam.IDENTIFIER_GENERATOR, DriverConfigParam.IDENTIFIER_BLOCK_SIZE);
 
     private final DriverConfiguration configuration;
     private boolean open;
     private final ConnectorFactory connectorFactory;
+    private final IdentifierGenerator identifierGenerator;
+    private final IdentifierCounters identifierCounters;
 
     private final Set<SesameConnection> openedConnections;
 
@@ -48,6 +53,8 @@ class SesameDriver implements Closeable, ConnectionListener {
         configuration.addConfiguration(properties, CONFIGS);
         this.openedConnections = new HashSet<>();
         this.connectorFactory = ConnectorFactory.getInstance();
+        this.identifierGenerator = IdentifierGenerators.create(configuration);
+        this.identifierCounters = new IdentifierCounters(connectorFactory, configuration);
         this.open = true;
     }
 
@@ -79,7 +86,7 @@ class SesameDriver implements Closeable, ConnectionListener {
     Connection acquireConnection() throws SesameDriverException {
         assert open;
         final SesameAdapter adapter = new SesameAdapter(connectorFactory.createStorageConnector(configuration),
-                configuration);
+                configuration, identifierGenerator, identifierCounters);
         final SesameConnection c = new SesameConnection(adapter);
         c.setLists(new SesameLists(adapter, c::ensureOpen, c::commitIfAuto));
         c.setTypes(new SesameTypes(adapter, c::ensureOpen, c::commitIfAuto));
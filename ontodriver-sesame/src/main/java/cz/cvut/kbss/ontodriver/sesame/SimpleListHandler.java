@@ -76,10 +76,13 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
         IRI currentProperty = hasList(listValueDescriptor);
         final IRI hasNext = hasNext(listValueDescriptor);
         final boolean includeInferred = listValueDescriptor.getNextNode().isInferred();
+        final IRI owner = owner(listValueDescriptor);
+        final ListStatements list = new ListStatements(
+                connector.findListStatements(owner, currentProperty, hasNext, null, includeInferred, context));
         Collection<Statement> stmts;
-        Resource subject = owner(listValueDescriptor);
+        Resource subject = owner;
         do {
-            stmts = connector.findStatements(subject, currentProperty, null, includeInferred, context);
+            stmts = list.find(subject, currentProperty);
             if (!stmts.isEmpty()) {
                 subject = extractListNode(stmts, hasNext);
                 toRemove.addAll(stmts);
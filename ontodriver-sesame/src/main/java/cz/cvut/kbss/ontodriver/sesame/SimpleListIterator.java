@@ -48,7 +48,8 @@ class SimpleListIterator extends AbstractSesameIterator {
     }
 
     private void init() throws SesameDriverException {
-        this.next = connector.findStatements(listOwner, hasListProperty, null, includeInferred, context);
+        loadListStatements(null);
+        this.next = listStatements.find(listOwner, hasListProperty);
     }
 
     @Override
@@ -73,7 +74,7 @@ class SimpleListIterator extends AbstractSesameIterator {
         this.currentProperty = current.getPredicate();
         checkNodeIsResource(current);
         final Resource elem = (Resource) current.getObject();
-        this.next = connector.findStatements(elem, hasNextProperty, null, includeInferred, context);
+        this.next = listStatements.find(elem, hasNextProperty);
     }
 
     @Override
@@ -88,7 +89,7 @@ class SimpleListIterator extends AbstractSesameIterator {
         nextInternal();
         assert current.getObject() instanceof Resource;
 
-        final Assertion assertion = current.getPredicate() == hasListProperty ? listDescriptor
+        final Assertion assertion = hasListProperty.equals(current.getPredicate()) ? listDescriptor
                 .getListProperty() : listDescriptor.getNextNode();
         return createAxiom(current.getSubject(), assertion, (Resource) current.getObject());
     }
@@ -116,15 +117,14 @@ class SimpleListIterator extends AbstractSesameIterator {
                 toAdd.add(newNext);
                 this.next = Collections.singletonList(newNext);
             } else {
-                this.next = connector.findStatements(newNodeSesame, hasNextProperty, null,
-                        includeInferred, context);
+                this.next = listStatements.find(newNodeSesame, hasNextProperty);
             }
         } else {
             this.next = Collections.emptyList();
         }
         this.current = null;
-        connector.removeStatements(toRemove);
-        connector.addStatements(toAdd);
+        removeStatements(toRemove);
+        addStatements(toAdd);
     }
 
     @Override
@@ -144,10 +144,10 @@ class SimpleListIterator extends AbstractSesameIterator {
             this.next = Collections.singletonList(toAdd);
             this.current = null;
 
-            connector.addStatements(next);
+            addStatements(next);
         } else {
             this.next = Collections.emptyList();
         }
-        connector.removeStatements(toRemove);
+        removeStatements(toRemove);
     }
 }
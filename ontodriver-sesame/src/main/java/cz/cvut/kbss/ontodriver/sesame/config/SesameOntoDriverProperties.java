@@ -74,6 +74,21 @@ public abstract class SesameOntoDriverProperties {
      */
     public static final String SESAME_REPOSITORY_CONFIG = "cz.cvut.kbss.ontodriver.sesame.repository-config";
 
+    /**
+     * Specifies whether transactions should be committed optimistically, relying on the transaction isolation of the
+     * underlying repository.
+     * <p>
+     * By default, commits into a repository are serialized by a lock maintained by the driver. When optimistic commit
+     * is enabled, each transaction runs in a {@code SERIALIZABLE} repository transaction on its own repository
+     * connection and no lock is acquired, so non-conflicting transactions can commit in parallel. A commit is rejected
+     * with an exception when data read by the transaction were modified by another transaction in the meantime.
+     * <p>
+     * The repository must support serializable isolation, e.g., the RDF4J memory and native stores.
+     * <p>
+     * {@code Boolean} value expected, default is false.
+     */
+    public static final String SESAME_OPTIMISTIC_COMMIT = "cz.cvut.kbss.ontodriver.sesame.optimistic-commit";
+
     private SesameOntoDriverProperties() {
         throw new AssertionError();
     }
@@ -16,25 +16,44 @@ package cz.cvut.kbss.ontodriver.sesame.connector;
 
 
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Actual implementation of statement processing.
  */
 class ConnectionStatementExecutor implements StatementExecutor {
 
     private final RepositoryConnection connection;
+    private final ParsedQueryCache queryCache;
 
     ConnectionStatementExecutor(RepositoryConnection connection) {
+        this(connection, null);
+    }
+
+    ConnectionStatementExecutor(RepositoryConnection connection, ParsedQueryCache queryCache) {
         this.connection = connection;
+        this.queryCache = queryCache;
     }
 
     @Override
     public TupleQueryResult executeSelectQuery(String query) throws SesameDriverException {
+        return executeSelectQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    @Override
+    public TupleQueryResult executeSelectQuery(String query, BindingSet bindings) throws SesameDriverException {
         try {
-            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+            final TupleQuery tq = queryCache != null ? queryCache.prepareTupleQuery(connection, query) :
+                                  connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+            bindings.forEach(b -> tq.setBinding(b.getName(), b.getValue()));
             return new QueryResult(tq.evaluate(), connection);
         } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
             throw new SesameDriverException(e);
@@ -43,8 +62,16 @@ class ConnectionStatementExecutor implements StatementExecutor {
 
     @Override
     public boolean executeBooleanQuery(String query) throws SesameDriverException {
+        return executeBooleanQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    @Override
+    public boolean executeBooleanQuery(String query, BindingSet bindings) throws SesameDriverException {
         try {
-            return connection.prepareBooleanQuery(QueryLanguage.SPARQL, query).evaluate();
+            final BooleanQuery bq = queryCache != null ? queryCache.prepareBooleanQuery(connection, query) :
+                                    connection.prepareBooleanQuery(QueryLanguage.SPARQL, query);
+            bindings.forEach(b -> bq.setBinding(b.getName(), b.getValue()));
+            return bq.evaluate();
         } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
             throw new SesameDriverException(e);
         }
@@ -59,4 +86,193 @@ class ConnectionStatementExecutor implements StatementExecutor {
             throw new SesameDriverException(e);
         }
     }
+
+    /**
+     * Finds all statements with the specified subjects using a single query.
+     * <p>
+     * Unlike {@link #executeSelectQuery(String)}, this method does not close the underlying connection.
+     *
+     * @param subjects        Statement subjects
+     * @param includeInferred Whether to include inferred statements
+     * @return List of matching statements, without context info
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    List<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred) throws SesameDriverException {
+        if (subjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final ValueFactory vf = connection.getValueFactory();
+        final List<Statement> result = new ArrayList<>();
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, subjectsQuery(subjects.size()));
+            bindValues(tq, "s", subjects);
+            tq.setIncludeInferred(includeInferred);
+            try (final TupleQueryResult qr = tq.evaluate()) {
+                while (qr.hasNext()) {
+                    final BindingSet bs = qr.next();
+                    result.add(vf.createStatement((Resource) bs.getValue("s"), (IRI) bs.getValue("p"),
+                            bs.getValue("o")));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    /**
+     * Finds all statements of the list with the specified owner using a single query.
+     * <p>
+     * Unlike {@link #executeSelectQuery(String)}, this method does not close the underlying connection.
+     *
+     * @param owner           List owner
+     * @param hasList         Property connecting the owner to the list head
+     * @param hasNext         Property connecting list nodes
+     * @param nodeContent     Node content property, optional
+     * @param includeInferred Whether to include inferred statements
+     * @param context         Context to search, optional. Statements are without context info if it is not specified
+     * @return List of list statements
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    List<Statement> findListStatements(IRI owner, IRI hasList, IRI hasNext, IRI nodeContent,
+                                       boolean includeInferred, IRI context) throws SesameDriverException {
+        final ValueFactory vf = connection.getValueFactory();
+        final List<Statement> result = new ArrayList<>();
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                    listQuery(hasList, hasNext, nodeContent != null, context != null));
+            tq.setBinding("owner", owner);
+            tq.setBinding("hasList", hasList);
+            tq.setBinding("hasNext", hasNext);
+            if (nodeContent != null) {
+                tq.setBinding("nodeContent", nodeContent);
+            }
+            if (context != null) {
+                tq.setBinding("ctx", context);
+            }
+            tq.setIncludeInferred(includeInferred);
+            try (final TupleQueryResult qr = tq.evaluate()) {
+                while (qr.hasNext()) {
+                    final BindingSet bs = qr.next();
+                    result.add(vf.createStatement((Resource) bs.getValue("s"), (IRI) bs.getValue("p"),
+                            bs.getValue("o"), context));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    private static String listQuery(IRI hasList, IRI hasNext, boolean withNodeContent, boolean withContext)
+            throws SesameDriverException {
+        // Property paths cannot contain variables, so the list properties have to be embedded in the query
+        final StringBuilder sb = new StringBuilder("SELECT ?s ?p ?o WHERE { ");
+        if (withContext) {
+            sb.append("GRAPH ?ctx { ");
+        }
+        sb.append("{ BIND (?owner AS ?s) BIND (?hasList AS ?p) ?s ?p ?o . } UNION { ?owner ")
+          .append(toIriRef(hasList)).append('/').append(toIriRef(hasNext))
+          .append("* ?s . { BIND (?hasNext AS ?p) }");
+        if (withNodeContent) {
+            sb.append(" UNION { BIND (?nodeContent AS ?p) }");
+        }
+        sb.append(" ?s ?p ?o . }");
+        if (withContext) {
+            sb.append(" }");
+        }
+        sb.append(" }");
+        return sb.toString();
+    }
+
+    /**
+     * Creates a SPARQL IRI reference from the specified IRI.
+     *
+     * @throws SesameDriverException If the IRI contains characters which cannot be written in a SPARQL IRI reference
+     */
+    private static String toIriRef(IRI iri) throws SesameDriverException {
+        final String value = iri.stringValue();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c <= ' ' || "<>\"{}|^`\\".indexOf(c) >= 0) {
+                throw new SesameDriverException("IRI " + value + " cannot be used in a SPARQL query.");
+            }
+        }
+        return '<' + value + '>';
+    }
+
+    /**
+     * Finds which of the specified subjects occur in any statements using a single query.
+     * <p>
+     * Unlike {@link #executeSelectQuery(String)}, this method does not close the underlying connection.
+     *
+     * @param subjects Candidate statement subjects
+     * @param context  Context to search, optional
+     * @return List of subjects which occur in some statements
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    List<IRI> findExistingSubjects(Collection<IRI> subjects, IRI context) throws SesameDriverException {
+        if (subjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final StringBuilder sb = new StringBuilder("SELECT DISTINCT ?s WHERE { ");
+        if (context != null) {
+            sb.append("GRAPH ?ctx { ");
+        }
+        appendValues(sb, "s", subjects.size());
+        sb.append(" ?s ?p ?o . ");
+        if (context != null) {
+            sb.append("} ");
+        }
+        sb.append('}');
+        final List<IRI> result = new ArrayList<>();
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, sb.toString());
+            bindValues(tq, "s", subjects);
+            if (context != null) {
+                tq.setBinding("ctx", context);
+            }
+            tq.setIncludeInferred(false);
+            try (final TupleQueryResult qr = tq.evaluate()) {
+                while (qr.hasNext()) {
+                    result.add((IRI) qr.next().getValue("s"));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    private static String subjectsQuery(int subjectCount) {
+        final StringBuilder sb = new StringBuilder("SELECT ?s ?p ?o WHERE { ");
+        appendValues(sb, "s", subjectCount);
+        sb.append(" ?s ?p ?o . }");
+        return sb.toString();
+    }
+
+    /**
+     * Appends a pattern assigning each of variables {@code ?<var>0} to {@code ?<var><count - 1>} to variable {@code
+     * ?<var>}.
+     * <p>
+     * This is an alternative to an inline {@code VALUES} block, which allows to pass the values as query bindings, so
+     * that they need not be (and cannot be maliciously) embedded in the query string.
+     */
+    private static void appendValues(StringBuilder sb, String var, int count) {
+        sb.append('{');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(" UNION");
+            }
+            sb.append(" { BIND (?").append(var).append(i).append(" AS ?").append(var).append(") }");
+        }
+        sb.append(" }");
+    }
+
+    private static void bindValues(Operation operation, String var, Collection<? extends Value> values) {
+        int i = 0;
+        for (Value v : values) {
+            operation.setBinding(var + i++, v);
+        }
+    }
 }
@@ -97,6 +97,55 @@ public interface Connector extends Closeable, StatementExecutor, Wrapper {
     Collection<Statement> findStatements(Resource subject, IRI property, Value value,
                                          boolean includeInferred, IRI context) throws SesameDriverException;
 
+    /**
+     * Finds all statements whose subject is any of the specified subjects.
+     * <p>
+     * This version searches the default context and retrieves statements of all the subjects in a single repository
+     * access. Note that the returned statements do not carry context information.
+     *
+     * @param subjects        Statement subjects
+     * @param includeInferred Whether to include inferred statements as well
+     * @return Collection of matching statements
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws SesameDriverException;
+
+    /**
+     * Finds all statements forming the list with the specified owner.
+     * <p>
+     * The list is followed from {@code owner} via {@code hasList} and then via {@code hasNext}. The result contains
+     * the {@code hasList} statement of the owner and {@code hasNext} and {@code nodeContent} statements of all the
+     * list nodes. The statements are retrieved in a single repository access (save for list nodes reachable only
+     * through transactional changes).
+     *
+     * @param owner           List owner
+     * @param hasList         Property connecting the owner to the list head
+     * @param hasNext         Property connecting list nodes
+     * @param nodeContent     Property connecting list nodes to their content, optional (simple lists have no content
+     *                        property)
+     * @param includeInferred Whether to include inferred statements as well
+     * @param context         Optionally specify context in which the search should be performed. If not specified, the
+     *                        default one is used
+     * @return Collection of list statements
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Statement> findListStatements(IRI owner, IRI hasList, IRI hasNext, IRI nodeContent,
+                                             boolean includeInferred, IRI context) throws SesameDriverException;
+
+    /**
+     * Finds which of the specified resources are subjects of any statements in the repository.
+     * <p>
+     * All the resources are checked in a single repository access.
+     *
+     * @param subjects Candidate statement subjects
+     * @param context  Optionally specify context in which the search should be performed. If not specified, the
+     *                 default one is used
+     * @return Resources which are subjects of some statements
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<IRI> findExistingSubjects(Collection<IRI> subjects, IRI context) throws SesameDriverException;
+
     /**
      * Checks whether the repository contains any statements matching the specified criteria.
      * <p>
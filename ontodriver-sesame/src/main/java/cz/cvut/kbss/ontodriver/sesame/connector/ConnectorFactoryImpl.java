@@ -16,6 +16,7 @@ package cz.cvut.kbss.ontodriver.sesame.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.sesame.config.SesameConfigParam;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import org.eclipse.rdf4j.repository.Repository;
 
@@ -33,7 +34,7 @@ final class ConnectorFactoryImpl implements ConnectorFactory {
     public Connector createStorageConnector(DriverConfiguration configuration) throws SesameDriverException {
         ensureOpen();
         ensureConnected(configuration);
-        return new PoolingStorageConnector(centralConnector);
+        return new PoolingStorageConnector(centralConnector, configuration.is(SesameConfigParam.OPTIMISTIC_COMMIT));
     }
 
     private void ensureOpen() {
@@ -50,6 +50,19 @@ class LocalModel {
         statements.removeAll(removed);
     }
 
+    /**
+     * Enhances statements which were loaded without context information.
+     * <p>
+     * Since the loaded statements carry no context, removed statements are matched regardless of their context.
+     */
+    void enhanceContextlessStatements(Collection<Statement> statements, Resource subject, IRI property) {
+        final Model removed = removedStatements.filter(subject, property, null);
+        if (!removed.isEmpty()) {
+            statements.removeIf(s -> removed.contains(s.getSubject(), s.getPredicate(), s.getObject()));
+        }
+        statements.addAll(addedStatements.filter(subject, property, null));
+    }
+
     Contains contains(Resource subject, IRI property, Value object, IRI context) {
         if (context != null) {
             if (addedStatements.contains(subject, property, object, context)) {
@@ -64,6 +77,37 @@ class LocalModel {
         }
     }
 
+    /**
+     * Finds added statements matching the specified criteria.
+     * <p>
+     * Semantics of the arguments (including the contexts) is the same as in {@link Model#filter(Resource, IRI, Value,
+     * Resource...)}.
+     */
+    Collection<Statement> findAddedStatements(Resource subject, IRI property, Value object, Resource... contexts) {
+        return addedStatements.filter(subject, property, object, contexts);
+    }
+
+    /**
+     * Checks whether the specified statement has been added or removed in this local model.
+     * <p>
+     * Added statements are matched including their context. Removed statements are matched either in the context of
+     * the specified statement or without context, because a statement removed without context is removed from all
+     * contexts of the repository.
+     */
+    boolean isChanged(Statement statement) {
+        final Resource subject = statement.getSubject();
+        final IRI property = statement.getPredicate();
+        final Value object = statement.getObject();
+        final Resource ctx = statement.getContext();
+        return addedStatements.contains(subject, property, object, ctx) ||
+                removedStatements.contains(subject, property, object, ctx) ||
+                (ctx != null && removedStatements.contains(subject, property, object, (Resource) null));
+    }
+
+    boolean isEmpty() {
+        return addedStatements.isEmpty() && removedStatements.isEmpty();
+    }
+
     void addStatements(Collection<Statement> statements) {
         removedStatements.removeAll(statements);
         addedStatements.addAll(statements);
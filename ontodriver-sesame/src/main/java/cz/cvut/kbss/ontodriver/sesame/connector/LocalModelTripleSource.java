@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import org.eclipse.rdf4j.common.iteration.*;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.util.ArrayList;
+
+/**
+ * Source of statements for query evaluation, which combines repository data with transactional changes.
+ * <p>
+ * The resulting view consists of statements from the repository which were not removed in the transaction and
+ * statements added in the transaction.
+ */
+class LocalModelTripleSource implements TripleSource {
+
+    private final RepositoryConnection connection;
+    private final LocalModel localModel;
+
+    LocalModelTripleSource(RepositoryConnection connection, LocalModel localModel) {
+        this.connection = connection;
+        this.localModel = localModel;
+    }
+
+    @Override
+    public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj, IRI pred,
+                                                                                           Value obj,
+                                                                                           Resource... contexts) {
+        final CloseableIteration<Statement, QueryEvaluationException> stored;
+        try {
+            stored = new ExceptionConvertingIteration<Statement, QueryEvaluationException>(
+                    connection.getStatements(subj, pred, obj, true, contexts)) {
+                @Override
+                protected QueryEvaluationException convert(Exception e) {
+                    return new QueryEvaluationException(e);
+                }
+            };
+        } catch (RepositoryException e) {
+            throw new QueryEvaluationException(e);
+        }
+        final CloseableIteration<Statement, QueryEvaluationException> unchanged =
+                new FilterIteration<Statement, QueryEvaluationException>(stored) {
+                    @Override
+                    protected boolean accept(Statement statement) {
+                        return !localModel.isChanged(statement);
+                    }
+                };
+        // Copy the added statements, so that the evaluation is not affected by subsequent changes
+        final CloseableIteration<Statement, QueryEvaluationException> added = new CloseableIteratorIteration<>(
+                new ArrayList<>(localModel.findAddedStatements(subj, pred, obj, contexts)).iterator());
+        return new UnionIteration<>(unchanged, added);
+    }
+
+    @Override
+    public ValueFactory getValueFactory() {
+        return connection.getValueFactory();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailBooleanQuery;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caches parsed SPARQL queries, so that repeated executions of the same query string do not have to parse it again.
+ * <p>
+ * Only queries evaluated in-process by a {@link org.eclipse.rdf4j.repository.sail.SailRepository} can reuse parsed
+ * queries, other repositories (e.g., remote ones) parse the query string on their own.
+ * <p>
+ * Parsed queries are shared by all connections to the repository. This is safe, because query evaluation works on a
+ * copy of the parsed query algebra.
+ */
+class ParsedQueryCache {
+
+    /**
+     * Maximum number of distinct queries whose parsed form is retained.
+     */
+    static final int CACHE_SIZE = 128;
+
+    private final Map<String, ParsedQuery> cache = Collections.synchronizedMap(
+            new LinkedHashMap<String, ParsedQuery>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedQuery> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Prepares the specified SELECT query for evaluation on the specified connection.
+     *
+     * @param connection Connection on which the query will be evaluated
+     * @param query      The query to prepare
+     * @return Prepared query
+     */
+    TupleQuery prepareTupleQuery(RepositoryConnection connection, String query) {
+        if (!(connection instanceof SailRepositoryConnection)) {
+            return connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+        }
+        final ParsedTupleQuery parsed = get(query, q -> QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, q, null),
+                ParsedTupleQuery.class);
+        return new SailTupleQuery(parsed, (SailRepositoryConnection) connection);
+    }
+
+    /**
+     * Prepares the specified ASK query for evaluation on the specified connection.
+     *
+     * @param connection Connection on which the query will be evaluated
+     * @param query      The query to prepare
+     * @return Prepared query
+     */
+    BooleanQuery prepareBooleanQuery(RepositoryConnection connection, String query) {
+        if (!(connection instanceof SailRepositoryConnection)) {
+            return connection.prepareBooleanQuery(QueryLanguage.SPARQL, query);
+        }
+        final ParsedBooleanQuery parsed = get(query,
+                q -> QueryParserUtil.parseBooleanQuery(QueryLanguage.SPARQL, q, null), ParsedBooleanQuery.class);
+        // The constructor is not public, so an anonymous subclass is used
+        return new SailBooleanQuery(parsed, (SailRepositoryConnection) connection) {
+        };
+    }
+
+    private <T extends ParsedQuery> T get(String query, Function<String, T> parser, Class<T> type) {
+        final ParsedQuery parsed = cache.get(query);
+        if (type.isInstance(parsed)) {
+            return type.cast(parsed);
+        }
+        // Parse outside of the lock, a concurrent parse of the same query is harmless
+        final T result = parser.apply(query);
+        cache.put(query, result);
+        return result;
+    }
+}
@@ -16,80 +16,127 @@ package cz.cvut.kbss.ontodriver.sesame.connector;
 
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.IsolationLevels;
 import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 class PoolingStorageConnector extends AbstractConnector {
 
-    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-    private static final Lock READ = LOCK.readLock();
-    private static final Lock WRITE = LOCK.writeLock();
+    private static final Logger LOG = LoggerFactory.getLogger(PoolingStorageConnector.class);
 
     private final StorageConnector centralConnector;
 
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    /**
+     * Whether to run each transaction in a serializable repository transaction on this connector's own repository
+     * connection, relying on repository conflict detection instead of the central connector's lock.
+     */
+    private final boolean optimisticCommit;
+
     private RepositoryConnection connection;
     private LocalModel localModel;
+    private TransactionalQueryExecutor queryExecutor;
 
-    PoolingStorageConnector(StorageConnector centralConnector) {
+    PoolingStorageConnector(StorageConnector centralConnector, boolean optimisticCommit) {
         this.centralConnector = centralConnector;
+        this.readLock = centralConnector.readLock();
+        this.writeLock = centralConnector.writeLock();
+        this.optimisticCommit = optimisticCommit;
         this.open = true;
     }
 
     @Override
     public TupleQueryResult executeSelectQuery(String query) throws SesameDriverException {
         if (transaction.isActive()) {
-            return new ConnectionStatementExecutor(wrapConnection()).executeSelectQuery(query);
+            return queryExecutor.executeSelectQuery(query);
         }
-        READ.lock();
+        lock(readLock);
         try {
             return centralConnector.executeSelectQuery(query);
         } finally {
-            READ.unlock();
+            unlock(readLock);
         }
     }
 
-    private RepositoryConnection wrapConnection() {
-        return new TransactionalRepositoryConnection(connection);
-    }
-
     @Override
     public boolean executeBooleanQuery(String query) throws SesameDriverException {
         if (transaction.isActive()) {
-            return new ConnectionStatementExecutor(wrapConnection()).executeBooleanQuery(query);
+            return queryExecutor.executeBooleanQuery(query);
         }
-        READ.lock();
+        lock(readLock);
         try {
             return centralConnector.executeBooleanQuery(query);
         } finally {
-            READ.unlock();
+            unlock(readLock);
+        }
+    }
+
+    @Override
+    public TupleQueryResult executeSelectQuery(String query, BindingSet bindings) throws SesameDriverException {
+        if (transaction.isActive()) {
+            return queryExecutor.executeSelectQuery(query, bindings);
+        }
+        lock(readLock);
+        try {
+            return centralConnector.executeSelectQuery(query, bindings);
+        } finally {
+            unlock(readLock);
+        }
+    }
+
+    @Override
+    public boolean executeBooleanQuery(String query, BindingSet bindings) throws SesameDriverException {
+        if (transaction.isActive()) {
+            return queryExecutor.executeBooleanQuery(query, bindings);
+        }
+        lock(readLock);
+        try {
+            return centralConnector.executeBooleanQuery(query, bindings);
+        } finally {
+            unlock(readLock);
         }
     }
 
     @Override
     public void executeUpdate(String query) throws SesameDriverException {
-        WRITE.lock();
+        lock(writeLock);
         try {
             centralConnector.executeUpdate(query);
         } finally {
-            WRITE.unlock();
+            unlock(writeLock);
+        }
+    }
+
+    private void lock(Lock lock) {
+        if (!optimisticCommit) {
+            lock.lock();
+        }
+    }
+
+    private void unlock(Lock lock) {
+        if (!optimisticCommit) {
+            lock.unlock();
         }
     }
 
     @Override
     public List<Resource> getContexts() throws SesameDriverException {
-        READ.lock();
+        lock(readLock);
         try {
             return centralConnector.getContexts();
         } finally {
-            READ.unlock();
+            unlock(readLock);
         }
     }
 
@@ -105,12 +152,36 @@ class PoolingStorageConnector extends AbstractConnector {
         super.begin();
         this.localModel = new LocalModel();
         this.connection = centralConnector.acquireConnection();
+        if (optimisticCommit) {
+            beginRepositoryTransaction();
+        }
+        this.queryExecutor = new TransactionalQueryExecutor(connection, localModel);
+    }
+
+    /**
+     * Starts a serializable repository transaction, so that all reads performed by this transaction are observed by
+     * the repository and a commit is rejected when data read by the transaction were modified concurrently.
+     */
+    private void beginRepositoryTransaction() throws SesameDriverException {
+        try {
+            connection.begin(IsolationLevels.SERIALIZABLE);
+        } catch (RepositoryException e) {
+            transaction.rollback();
+            centralConnector.releaseConnection(connection);
+            this.localModel = null;
+            transaction.afterRollback();
+            throw new SesameDriverException(e);
+        }
     }
 
     @Override
     public void commit() throws SesameDriverException {
         transaction.commit();
-        WRITE.lock();
+        if (optimisticCommit) {
+            commitOptimistically();
+            return;
+        }
+        writeLock.lock();
         try {
             centralConnector.begin();
             centralConnector.removeStatements(localModel.getRemovedStatements());
@@ -123,16 +194,49 @@ class PoolingStorageConnector extends AbstractConnector {
             transaction.afterRollback();
             throw e;
         } finally {
-            WRITE.unlock();
+            writeLock.unlock();
             centralConnector.releaseConnection(connection);
             this.localModel = null;
+            this.queryExecutor = null;
+        }
+    }
+
+    private void commitOptimistically() throws SesameDriverException {
+        try {
+            connection.remove(localModel.getRemovedStatements());
+            connection.add(localModel.getAddedStatements());
+            connection.commit();
+            transaction.afterCommit();
+        } catch (RepositoryException e) {
+            transaction.rollback();
+            rollbackRepositoryTransaction();
+            transaction.afterRollback();
+            throw new SesameDriverException(e);
+        } finally {
+            centralConnector.releaseConnection(connection);
+            this.localModel = null;
+            this.queryExecutor = null;
+        }
+    }
+
+    private void rollbackRepositoryTransaction() {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Unable to rollback repository transaction.", e);
         }
     }
 
     @Override
     public void rollback() throws SesameDriverException {
         transaction.rollback();
+        if (optimisticCommit) {
+            rollbackRepositoryTransaction();
+        }
         this.localModel = null;
+        this.queryExecutor = null;
         centralConnector.releaseConnection(connection);
         transaction.afterRollback();
     }
@@ -140,7 +244,11 @@ class PoolingStorageConnector extends AbstractConnector {
     @Override
     public void close() throws OntoDriverException {
         if (open && transaction.isActive()) {
+            if (optimisticCommit) {
+                rollbackRepositoryTransaction();
+            }
             this.localModel = null;
+            this.queryExecutor = null;
             centralConnector.releaseConnection(connection);
         }
         super.close();
@@ -186,6 +294,113 @@ class PoolingStorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws SesameDriverException {
+        verifyTransactionActive();
+        try {
+            final Collection<Statement> statements =
+                    new ConnectionStatementExecutor(connection).findStatements(subjects, includeInferred);
+            subjects.forEach(s -> localModel.enhanceStatements(statements, s, null, null, null));
+            return statements;
+        } catch (SesameDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(IRI owner, IRI hasList, IRI hasNext, IRI nodeContent,
+                                                    boolean includeInferred, IRI context)
+            throws SesameDriverException {
+        verifyTransactionActive();
+        try {
+            final List<Statement> loaded = new ConnectionStatementExecutor(connection)
+                    .findListStatements(owner, hasList, hasNext, nodeContent, includeInferred, context);
+            // Nodes whose statements were loaded from the repository
+            final Set<Resource> loadedNodes = new HashSet<>();
+            loadedNodes.add(owner);
+            loaded.stream().filter(s -> isListLink(s, hasList, hasNext))
+                  .forEach(s -> loadedNodes.add((Resource) s.getObject()));
+            final Set<Statement> statements = new LinkedHashSet<>(loaded);
+            enhanceListStatements(statements, owner, hasList, context);
+            enhanceListStatements(statements, null, hasNext, context);
+            if (nodeContent != null) {
+                enhanceListStatements(statements, null, nodeContent, context);
+            }
+            if (statements.stream()
+                          .anyMatch(s -> isListLink(s, hasList, hasNext) && !loadedNodes.contains(s.getObject()))) {
+                loadLocallyLinkedNodes(statements, loadedNodes, owner, hasList, hasNext, nodeContent,
+                        includeInferred, context);
+            }
+            return statements;
+        } catch (SesameDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    private static boolean isListLink(Statement s, IRI hasList, IRI hasNext) {
+        return (hasList.equals(s.getPredicate()) || hasNext.equals(s.getPredicate())) &&
+                s.getObject() instanceof Resource;
+    }
+
+    private void enhanceListStatements(Collection<Statement> statements, Resource subject, IRI property,
+                                       IRI context) {
+        if (context != null) {
+            localModel.enhanceStatements(statements, subject, property, null, context);
+        } else {
+            localModel.enhanceContextlessStatements(statements, subject, property);
+        }
+    }
+
+    /**
+     * Transactional changes may link the list to nodes which were not reached by the repository query. Their
+     * statements are loaded separately.
+     */
+    private void loadLocallyLinkedNodes(Set<Statement> statements, Set<Resource> loadedNodes, IRI owner, IRI hasList,
+                                        IRI hasNext, IRI nodeContent, boolean includeInferred, IRI context)
+            throws SesameDriverException {
+        final Map<Resource, List<Resource>> successors = new HashMap<>();
+        statements.stream().filter(s -> isListLink(s, hasList, hasNext))
+                  .forEach(s -> successors.computeIfAbsent(s.getSubject(), k -> new ArrayList<>())
+                                          .add((Resource) s.getObject()));
+        final Set<Resource> visited = new HashSet<>();
+        final Deque<Resource> toVisit = new ArrayDeque<>(successors.getOrDefault(owner, Collections.emptyList()));
+        while (!toVisit.isEmpty()) {
+            final Resource node = toVisit.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (!loadedNodes.contains(node)) {
+                final Collection<Statement> nodeStatements = new ArrayList<>(
+                        findStatements(node, hasNext, null, includeInferred, context));
+                if (nodeContent != null) {
+                    nodeStatements.addAll(findStatements(node, nodeContent, null, includeInferred, context));
+                }
+                nodeStatements.stream().filter(s -> statements.add(s) && isListLink(s, hasList, hasNext))
+                              .forEach(s -> successors.computeIfAbsent(node, k -> new ArrayList<>())
+                                                      .add((Resource) s.getObject()));
+            }
+            successors.getOrDefault(node, Collections.emptyList()).forEach(toVisit::push);
+        }
+    }
+
+    @Override
+    public Collection<IRI> findExistingSubjects(Collection<IRI> subjects, IRI context) throws SesameDriverException {
+        verifyTransactionActive();
+        try {
+            final Set<IRI> existing = new HashSet<>(
+                    new ConnectionStatementExecutor(connection).findExistingSubjects(subjects, context));
+            subjects.stream().filter(s -> localModel.contains(s, null, null, context) == LocalModel.Contains.TRUE)
+                    .forEach(existing::add);
+            return existing;
+        } catch (SesameDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred)
             throws SesameDriverException {
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.ontodriver.sesame.connector;
 
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 
 public interface StatementExecutor {
@@ -29,6 +30,20 @@ public interface StatementExecutor {
      */
     TupleQueryResult executeSelectQuery(String query) throws SesameDriverException;
 
+    /**
+     * Executes the specified query with the specified variable bindings and returns result in form of a Sesame query
+     * result.
+     * <p>
+     * The bindings are passed to the query engine, so the query string stays the same regardless of the bound values
+     * and its parsed form can be reused.
+     *
+     * @param query    The query to execute
+     * @param bindings Values bound to query variables
+     * @return Tuple query result
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    TupleQueryResult executeSelectQuery(String query, BindingSet bindings) throws SesameDriverException;
+
     /**
      * Executes the specified boolean query.
      * <p>
@@ -40,6 +55,17 @@ public interface StatementExecutor {
      */
     boolean executeBooleanQuery(String query) throws SesameDriverException;
 
+    /**
+     * Executes the specified boolean query with the specified variable bindings.
+     *
+     * @param query    The query to execute
+     * @param bindings Values bound to query variables
+     * @return Boolean result of the query
+     * @throws SesameDriverException When things go wrong with query execution
+     * @see #executeSelectQuery(String, BindingSet)
+     */
+    boolean executeBooleanQuery(String query, BindingSet bindings) throws SesameDriverException;
+
     /**
      * Executes the specified update query.
      *
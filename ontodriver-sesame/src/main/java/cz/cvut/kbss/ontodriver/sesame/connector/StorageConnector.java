@@ -19,7 +19,9 @@ import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
@@ -35,6 +37,8 @@ import org.slf4j.LoggerFactory;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 class StorageConnector extends AbstractConnector {
 
@@ -42,6 +46,15 @@ class StorageConnector extends AbstractConnector {
 
     private final DriverConfiguration configuration;
 
+    /**
+     * Guards write access to the repository.
+     * <p>
+     * The lock is scoped to this connector, so that connectors to unrelated repositories do not block each other.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ParsedQueryCache queryCache = new ParsedQueryCache();
+
     private Repository repository;
     private RepositoryManager manager;
     private RepositoryConnection connection;
@@ -61,6 +74,18 @@ class StorageConnector extends AbstractConnector {
         this.repository = initializer.getRepository();
     }
 
+    ParsedQueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    Lock readLock() {
+        return lock.readLock();
+    }
+
+    Lock writeLock() {
+        return lock.writeLock();
+    }
+
     @Override
     public void close() throws SesameDriverException {
         if (!open) {
@@ -81,8 +106,13 @@ class StorageConnector extends AbstractConnector {
 
     @Override
     public TupleQueryResult executeSelectQuery(String query) throws SesameDriverException {
+        return executeSelectQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    @Override
+    public TupleQueryResult executeSelectQuery(String query, BindingSet bindings) throws SesameDriverException {
         final RepositoryConnection conn = acquireConnection();
-        return new ConnectionStatementExecutor(conn).executeSelectQuery(query);
+        return new ConnectionStatementExecutor(conn, queryCache).executeSelectQuery(query, bindings);
         // The connection is released by the result set once it is closed
     }
 
@@ -112,8 +142,13 @@ class StorageConnector extends AbstractConnector {
 
     @Override
     public boolean executeBooleanQuery(String query) throws SesameDriverException {
+        return executeBooleanQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    @Override
+    public boolean executeBooleanQuery(String query, BindingSet bindings) throws SesameDriverException {
         try (final RepositoryConnection conn = acquireConnection()) {
-            return new ConnectionStatementExecutor(conn).executeBooleanQuery(query);
+            return new ConnectionStatementExecutor(conn, queryCache).executeBooleanQuery(query, bindings);
         }
     }
 
@@ -229,6 +264,37 @@ class StorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws SesameDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn).findStatements(subjects, includeInferred);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(IRI owner, IRI hasList, IRI hasNext, IRI nodeContent,
+                                                    boolean includeInferred, IRI context)
+            throws SesameDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn)
+                    .findListStatements(owner, hasList, hasNext, nodeContent, includeInferred, context);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<IRI> findExistingSubjects(Collection<IRI> subjects, IRI context) throws SesameDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn).findExistingSubjects(subjects, context);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred)
             throws SesameDriverException {
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StandardQueryOptimizerPipeline;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Executes queries in an active transaction.
+ * <p>
+ * The queries see changes made in the transaction, i.e., they are evaluated against a union view of the repository
+ * data and statements added in the transaction, minus statements removed in the transaction (see {@link
+ * LocalModelTripleSource}). Until the transaction changes anything, queries are evaluated directly by the repository.
+ * <p>
+ * The union view is evaluated only for in-process ({@link SailRepositoryConnection Sail}) repositories. For other
+ * repositories (e.g., remote ones), it would require a request for every statement pattern of the query. Queries are
+ * therefore always evaluated by such repositories and do not see uncommitted changes of the transaction.
+ * <p>
+ * Prepared (and parsed) queries are reused for the duration of the transaction, they all run on the transaction's
+ * repository connection. Values of query variables can be bound at execution time, so that a query executed repeatedly
+ * with different parameter values is prepared only once.
+ */
+class TransactionalQueryExecutor {
+
+    /**
+     * Maximum number of distinct queries whose prepared form is retained.
+     */
+    static final int QUERY_CACHE_SIZE = 32;
+
+    private final RepositoryConnection connection;
+    private final LocalModel localModel;
+    private final LocalModelTripleSource tripleSource;
+    private final boolean evaluateLocalChanges;
+
+    private final Map<String, TupleQuery> tupleQueries = createQueryCache();
+    private final Map<String, BooleanQuery> booleanQueries = createQueryCache();
+    private final Map<String, ParsedQuery> parsedQueries = createQueryCache();
+
+    TransactionalQueryExecutor(RepositoryConnection connection, LocalModel localModel) {
+        this.connection = connection;
+        this.localModel = localModel;
+        this.tripleSource = new LocalModelTripleSource(connection, localModel);
+        this.evaluateLocalChanges = connection instanceof SailRepositoryConnection;
+    }
+
+    private static <V> Map<String, V> createQueryCache() {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > QUERY_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Executes the specified SELECT query.
+     * <p>
+     * Closing the result does not close the transaction's repository connection.
+     *
+     * @param query The query to execute
+     * @return Tuple query result
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    TupleQueryResult executeSelectQuery(String query) throws SesameDriverException {
+        return executeSelectQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    /**
+     * Executes the specified SELECT query with the specified variable bindings.
+     * <p>
+     * Closing the result does not close the transaction's repository connection.
+     *
+     * @param query    The query to execute
+     * @param bindings Values bound to query variables
+     * @return Tuple query result
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    TupleQueryResult executeSelectQuery(String query, BindingSet bindings) throws SesameDriverException {
+        try {
+            if (!evaluateLocalChanges || localModel.isEmpty()) {
+                final TupleQuery tq = tupleQueries.computeIfAbsent(query,
+                        q -> connection.prepareTupleQuery(QueryLanguage.SPARQL, q));
+                bind(tq, bindings);
+                return tq.evaluate();
+            }
+            final ParsedQuery parsed = parse(query);
+            if (!(parsed instanceof ParsedTupleQuery)) {
+                throw new SesameDriverException("Query " + query + " is not a SELECT query.");
+            }
+            return new IteratingTupleQueryResult(new ArrayList<>(parsed.getTupleExpr().getBindingNames()),
+                    evaluate(parsed, bindings));
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    /**
+     * Executes the specified ASK query.
+     *
+     * @param query The query to execute
+     * @return Boolean result of the query
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    boolean executeBooleanQuery(String query) throws SesameDriverException {
+        return executeBooleanQuery(query, EmptyBindingSet.getInstance());
+    }
+
+    /**
+     * Executes the specified ASK query with the specified variable bindings.
+     *
+     * @param query    The query to execute
+     * @param bindings Values bound to query variables
+     * @return Boolean result of the query
+     * @throws SesameDriverException When things go wrong with query execution
+     */
+    boolean executeBooleanQuery(String query, BindingSet bindings) throws SesameDriverException {
+        try {
+            if (!evaluateLocalChanges || localModel.isEmpty()) {
+                final BooleanQuery bq = booleanQueries.computeIfAbsent(query,
+                        q -> connection.prepareBooleanQuery(QueryLanguage.SPARQL, q));
+                bind(bq, bindings);
+                return bq.evaluate();
+            }
+            final ParsedQuery parsed = parse(query);
+            if (!(parsed instanceof ParsedBooleanQuery)) {
+                throw new SesameDriverException("Query " + query + " is not an ASK query.");
+            }
+            final CloseableIteration<BindingSet, QueryEvaluationException> result = evaluate(parsed, bindings);
+            try {
+                return result.hasNext();
+            } finally {
+                result.close();
+            }
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    private static void bind(Query query, BindingSet bindings) {
+        // Prepared queries are reused, so bindings from the previous execution have to be removed
+        query.clearBindings();
+        bindings.forEach(b -> query.setBinding(b.getName(), b.getValue()));
+    }
+
+    private ParsedQuery parse(String query) {
+        return parsedQueries.computeIfAbsent(query, q -> new SPARQLParser().parseQuery(q, null));
+    }
+
+    private CloseableIteration<BindingSet, QueryEvaluationException> evaluate(ParsedQuery query,
+                                                                              BindingSet bindings) {
+        final StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, query.getDataset(), null);
+        final EvaluationStatistics statistics = new EvaluationStatistics();
+        strategy.setOptimizerPipeline(new StandardQueryOptimizerPipeline(strategy, tripleSource, statistics));
+        // The optimizers modify the expression, so the cached one has to be copied
+        final TupleExpr expr = strategy.optimize(query.getTupleExpr().clone(), statistics, bindings);
+        return strategy.evaluate(expr, bindings);
+    }
+}
@@ -19,14 +19,36 @@ import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.sesame.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.util.StatementHolder;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 import static cz.cvut.kbss.ontodriver.util.ErrorUtils.getNPXMessageSupplier;
 
+/**
+ * Prepared statement which binds parameter values to query variables in the query engine.
+ * <p>
+ * Parameter values which represent a single RDF term (IRI or literal in the N-Triples syntax, which is a subset of the
+ * SPARQL syntax) are bound to the query variables, so the query string remains the same and its parsed form can be
+ * reused by the repository. If any parameter value cannot be bound this way, all parameter values are inserted into
+ * the query string instead.
+ */
 public class SesamePreparedStatement extends SesameStatement implements PreparedStatement {
 
-    private StatementHolder statementHolder;
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
+    private final StatementHolder statementHolder;
+
+    private final MapBindingSet bindings = new MapBindingSet();
+    // Parameters whose values have to be inserted into the query string
+    private final Set<String> substitutedParameters = new HashSet<>();
 
     public SesamePreparedStatement(StatementExecutor executor, String statement) {
         super(executor);
@@ -41,12 +63,40 @@ public class SesamePreparedStatement extends SesameStatement implements Prepared
     public void setObject(String binding, Object value) {
         ensureOpen();
         Objects.requireNonNull(value, getNPXMessageSupplier("value"));
-        statementHolder.setParameter(binding, value.toString());
+        final String strValue = value.toString();
+        statementHolder.setParameter(binding, strValue);
+        final Value rdfValue = parseValue(strValue);
+        if (rdfValue != null) {
+            bindings.addBinding(binding, rdfValue);
+            substitutedParameters.remove(binding);
+        } else {
+            bindings.removeBinding(binding);
+            substitutedParameters.add(binding);
+        }
+    }
+
+    /**
+     * Parses the specified value as a single IRI or literal.
+     *
+     * @param value Value in query syntax
+     * @return Parsed value, {@code null} if the value does not represent a single IRI or literal
+     */
+    private static Value parseValue(String value) {
+        try {
+            final Value result = NTriplesUtil.parseValue(value, VALUE_FACTORY);
+            // Verify that the whole value was consumed, the parser does not check it
+            return !(result instanceof BNode) && NTriplesUtil.toNTriplesString(result).equals(value) ? result : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     @Override
     public ResultSet executeQuery() throws OntoDriverException {
         ensureOpen();
+        if (substitutedParameters.isEmpty()) {
+            return executeQuery(statementHolder.getStatement(), bindings);
+        }
         return executeQuery(statementHolder.assembleStatement());
     }
 
@@ -59,5 +109,7 @@ public class SesamePreparedStatement extends SesameStatement implements Prepared
     @Override
     public void clearParameters() {
         statementHolder.clearParameters();
+        bindings.clear();
+        substitutedParameters.clear();
     }
 }
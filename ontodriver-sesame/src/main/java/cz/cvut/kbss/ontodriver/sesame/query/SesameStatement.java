@@ -19,8 +19,10 @@ import cz.cvut.kbss.ontodriver.Statement;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.sesame.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 
 import java.util.Objects;
 
@@ -39,18 +41,33 @@ public class SesameStatement implements Statement {
 
     @Override
     public ResultSet executeQuery(String sparql) throws OntoDriverException {
+        return executeQuery(sparql, EmptyBindingSet.getInstance());
+    }
+
+    /**
+     * Executes the specified query with the specified values bound to query variables.
+     *
+     * @param sparql   The query to execute
+     * @param bindings Variable bindings, possibly empty
+     * @return Result set
+     * @throws OntoDriverException When query execution fails
+     */
+    ResultSet executeQuery(String sparql, BindingSet bindings) throws OntoDriverException {
         ensureOpen();
         validateQueryParams(sparql);
         closeCurrentResultSet();
-        this.resultSet = determineResult(sparql);
+        this.resultSet = determineResult(sparql, bindings);
         return resultSet;
     }
 
-    private ResultSet determineResult(String sparql) throws SesameDriverException {
+    private ResultSet determineResult(String sparql, BindingSet bindings) throws SesameDriverException {
         if (isAskQuery(sparql)) {
-            return new AskResultSet(queryExecutor.executeBooleanQuery(sparql), this);
+            final boolean result = bindings.size() > 0 ? queryExecutor.executeBooleanQuery(sparql, bindings) :
+                                   queryExecutor.executeBooleanQuery(sparql);
+            return new AskResultSet(result, this);
         } else {
-            final TupleQueryResult tqr = queryExecutor.executeSelectQuery(sparql);
+            final TupleQueryResult tqr = bindings.size() > 0 ? queryExecutor.executeSelectQuery(sparql, bindings) :
+                                         queryExecutor.executeSelectQuery(sparql);
             try {
                 return new SelectResultSet(tqr, this);
             } catch (QueryEvaluationException e) {
@@ -38,8 +38,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 class AxiomLoaderTest {
 
@@ -420,4 +420,75 @@ class AxiomLoaderTest {
             spiedConnector.close();
         }
     }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsReturnsSameAxiomsAsLoadingThemOneByOne() throws Exception {
+        connector.begin();
+        final List<AxiomDescriptor> descriptors = new ArrayList<>();
+        final Set<Axiom<?>> expected = new HashSet<>();
+        for (String individual : generatedData.individuals) {
+            final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+            generatedData.values.get(individual).keySet().forEach(desc::addAssertion);
+            descriptors.add(desc);
+            expected.addAll(new AxiomLoader(connector, vf, new RuntimeConfiguration(
+                    new DriverConfiguration(TestRepositoryProvider.storageProperties()))).loadAxioms(desc));
+        }
+
+        final Collection<Axiom<?>> result = axiomLoader.loadAxioms(descriptors);
+        assertEquals(expected, new HashSet<>(result));
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsUsesSingleStorageCallForDescriptorsWithoutContexts() throws Exception {
+        final Connector spiedConnector = spy(connector);
+        final DriverConfiguration driverConfig = new DriverConfiguration(TestRepositoryProvider.storageProperties());
+        this.axiomLoader = new AxiomLoader(spiedConnector, vf, new RuntimeConfiguration(driverConfig));
+        spiedConnector.begin();
+        try {
+            final List<AxiomDescriptor> descriptors = generatedData.individuals.stream().map(ind -> {
+                final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(ind));
+                generatedData.values.get(ind).keySet().forEach(desc::addAssertion);
+                return desc;
+            }).collect(Collectors.toList());
+            axiomLoader.loadAxioms(descriptors);
+            verify(spiedConnector).findStatements(anyCollection(), eq(false));
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), anyBoolean());
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), anyBoolean(), any());
+        } finally {
+            spiedConnector.close();
+        }
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsIncludesTransactionalChanges() throws Exception {
+        connector.begin();
+        final String individual = generatedData.individuals.get(Generator.randomIndex(generatedData.individuals));
+        final Assertion property = Assertion
+                .createDataPropertyAssertion(URI.create("http://krizik.felk.cvut.cz/dataProperty"), false);
+        connector.addStatements(Collections.singleton(
+                vf.createStatement(vf.createIRI(individual), vf.createIRI(property.getIdentifier().toString()),
+                        vf.createLiteral(117))));
+        final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+        desc.addAssertion(property);
+
+        final Collection<Axiom<?>> result = axiomLoader.loadAxioms(Collections.singletonList(desc));
+        assertEquals(1, result.size());
+        assertEquals(117, result.iterator().next().getValue().getValue());
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsLoadsDescriptorsWithContextSeparately() throws Exception {
+        final String individual = generatedData.individuals.get(Generator.randomIndex(generatedData.individuals));
+        final Assertion property = generatedData.values.get(individual).keySet().iterator().next();
+        final String context = "http://krizik.felk.cvut.cz/contextOne";
+        final Object value = saveValueIntoContext(individual, property, context);
+        final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+        desc.addAssertion(property);
+        desc.setAssertionContext(property, URI.create(context));
+
+        connector.begin();
+        final Collection<Axiom<?>> res = axiomLoader.loadAxioms(Collections.singletonList(desc));
+        assertEquals(1, res.size());
+        assertEquals(value.toString(), res.iterator().next().getValue().getValue().toString());
+    }
 }
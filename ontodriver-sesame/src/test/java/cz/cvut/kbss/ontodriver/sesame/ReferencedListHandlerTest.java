@@ -127,54 +127,51 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
                         Collections.singleton(node));
             } else {
                 node = vf.createStatement(prev, nextNodeProperty, itemUri);
-                when(
-                        connector.findStatements(eq(prev), eq(nextNodeProperty), eq(null),
-                                anyBoolean(), eq(null))).thenReturn(
-                        Collections.singleton(node));
             }
             stmts.add(node);
             final Statement content = vf.createStatement(itemUri, nodeContentProperty,
                     vf.createIRI(values.get(i).toString()));
-            when(
-                    connector.findStatements(eq(itemUri), eq(nodeContentProperty),
-                            eq(null), anyBoolean(), eq(null))).thenReturn(
-                    Collections.singleton(content));
             stmts.add(content);
             prev = itemUri;
             i++;
         }
+        stubListStatements(stmts);
         return stmts;
     }
 
+    private void stubListStatements(Collection<Statement> statements) throws Exception {
+        when(connector.findListStatements(eq((IRI) owner), eq(hasListProperty), eq(nextNodeProperty),
+                eq(nodeContentProperty), anyBoolean(), eq(null))).thenReturn(statements);
+    }
+
+    @Test
+    public void loadListRetrievesWholeListInSingleRepositoryAccess() throws Exception {
+        final List<NamedResource> refList = initList();
+        initStatementsForList(initListNodes(refList), refList);
+
+        handler.loadList(listDescriptor);
+        verify(connector).findListStatements((IRI) owner, hasListProperty, nextNodeProperty, nodeContentProperty,
+                false, null);
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(Value.class),
+                anyBoolean(), any());
+    }
+
     @Test(expected = IntegrityConstraintViolatedException.class)
     public void throwsICViolationWhenThereIsNoContentInHeadNode() throws Exception {
         final IRI headNode = vf.createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/SEQ0");
-        when(
-                connector.findStatements(eq(owner), eq(hasListProperty), eq(null),
-                        anyBoolean(), eq(null))).thenReturn(
-                Collections.singleton(vf.createStatement(owner, hasListProperty, headNode)));
-        when(
-                connector.findStatements(eq(headNode), eq(nodeContentProperty), eq(null),
-                        anyBoolean(), eq(null))).thenReturn(Collections.emptyList());
-        try {
-            final Collection<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
-            assert res == null;
-            fail("This line should not have been reached.");
-        } finally {
-            verify(connector, never()).findStatements(any(Resource.class), eq(nextNodeProperty),
-                    any(Value.class), anyBoolean());
-        }
+        stubListStatements(Collections.singleton(vf.createStatement(owner, hasListProperty, headNode)));
+        final Collection<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
+        assert res == null;
+        fail("This line should not have been reached.");
     }
 
     @Test(expected = IntegrityConstraintViolatedException.class)
     public void throwsICViolationWhenThereIsNoContentInSomeListNode() throws Exception {
         final List<NamedResource> refList = initList();
         final List<java.net.URI> listNodes = initListNodes(refList);
-        initStatementsForList(listNodes, refList);
+        final List<Statement> stmts = initStatementsForList(listNodes, refList);
         final Resource elem = selectRandomNode(listNodes);
-        when(
-                connector.findStatements(eq(elem), eq(nodeContentProperty), eq(null),
-                        anyBoolean(), eq(null))).thenReturn(Collections.emptyList());
+        stmts.removeIf(s -> s.getSubject().equals(elem) && s.getPredicate().equals(nodeContentProperty));
         final Collection<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
         assert res == null;
     }
@@ -194,12 +191,9 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
     private void runIcViolationTest(IRI property) throws Exception {
         final List<NamedResource> refList = initList();
         final List<java.net.URI> listNodes = initListNodes(refList);
-        initStatementsForList(listNodes, refList);
+        final List<Statement> stmts = initStatementsForList(listNodes, refList);
         final Resource node = selectRandomNode(listNodes);
-        final List<Statement> stmts = Arrays.asList(mock(Statement.class), mock(Statement.class));
-        when(
-                connector.findStatements(eq(node), eq(property), eq(null),
-                        anyBoolean(), eq(null))).thenReturn(stmts);
+        stmts.add(vf.createStatement(node, property, vf.createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/x")));
         handler.loadList(listDescriptor);
     }
 
@@ -233,6 +227,32 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
         }
     }
 
+    @Test
+    public void persistListVerifiesUniquenessOfGeneratedNodesOnceForWholeList() throws Exception {
+        initList().forEach(valueDescriptor::addValue);
+        handler.persistList(valueDescriptor);
+        verify(connector).findExistingSubjects(anyCollection(), eq(null));
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(Value.class),
+                anyBoolean(), any());
+    }
+
+    @Test
+    public void persistListSkipsGeneratedNodeIdentifiersWhichAlreadyExist() throws Exception {
+        final List<NamedResource> values = initList();
+        values.forEach(valueDescriptor::addValue);
+        final IRI existing = vf.createIRI(OWNER.getIdentifier() + "-SEQ_1");
+        when(connector.findExistingSubjects(anyCollection(), eq(null)))
+                .thenReturn(Collections.singleton(existing)).thenReturn(Collections.emptyList());
+        handler.persistList(valueDescriptor);
+        final ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connector).addStatements(captor.capture());
+        final Collection<Statement> stmts = captor.getValue();
+        assertTrue(stmts.stream().noneMatch(s -> s.getSubject().equals(existing) || s.getObject().equals(existing)));
+        assertEquals(values.size(),
+                stmts.stream().filter(s -> s.getPredicate().equals(nodeContentProperty)).map(Statement::getSubject)
+                     .distinct().count());
+    }
+
     @Test
     public void doesNothingWhenNoValuesArePassedToPersist() throws Exception {
         assertTrue(valueDescriptor.getValues().isEmpty());
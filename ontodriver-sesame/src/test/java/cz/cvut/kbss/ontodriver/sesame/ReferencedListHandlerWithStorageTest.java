@@ -17,15 +17,20 @@ package cz.cvut.kbss.ontodriver.sesame;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
 import cz.cvut.kbss.ontodriver.model.*;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class ReferencedListHandlerWithStorageTest
         extends ListHandlerWithStorageTestBase<ReferencedListDescriptor, ReferencedListValueDescriptor> {
@@ -205,4 +210,38 @@ public class ReferencedListHandlerWithStorageTest
         updateAndCheck(updated);
     }
 
+    @Test
+    public void loadListInTransactionIncludesNodesAppendedInTheTransaction() throws Exception {
+        final ReferencedListValueDescriptor original = persistOriginalList();
+
+        final ReferencedListValueDescriptor updated = initValues(0);
+        for (NamedResource r : original.getValues()) {
+            updated.addValue(r);
+        }
+        for (int i = 0; i < 3; i++) {
+            updated.addValue(NamedResource
+                    .create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#Appended_" + i));
+        }
+        final Collection<Axiom<NamedResource>> axioms = generateAxiomsForList(updated);
+        handler.updateList(updated);
+        verifyListContent(axioms, handler.loadList(updated));
+    }
+
+    @Test
+    public void persistListSkipsExistingSequenceNodeIdentifiers() throws Exception {
+        final ValueFactory vf = connector.getValueFactory();
+        final IRI existing = vf.createIRI(OWNER.getIdentifier() + "-SEQ_1");
+        connector.addStatements(Collections.singleton(
+                vf.createStatement(existing, RDF.TYPE, vf.createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/entities#OWLClassA"))));
+        final ReferencedListValueDescriptor descriptor = initValues(4);
+
+        handler.persistList(descriptor);
+        connector.commit();
+        connector.begin();
+        final List<Axiom<NamedResource>> result = handler.loadList(descriptor);
+        assertEquals(descriptor.getValues(),
+                result.stream().map(ax -> ax.getValue().getValue()).collect(Collectors.toList()));
+        assertTrue(result.stream().noneMatch(ax -> ax.getSubject().getIdentifier().toString()
+                                                     .equals(existing.stringValue())));
+    }
 }
@@ -19,6 +19,8 @@ import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
+import cz.cvut.kbss.ontodriver.identifier.BlockIdentifierGenerator;
+import cz.cvut.kbss.ontodriver.identifier.UuidIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.*;
 import cz.cvut.kbss.ontodriver.sesame.config.RuntimeConfiguration;
 import cz.cvut.kbss.ontodriver.sesame.config.SesameConfigParam;
@@ -57,6 +59,8 @@ class SesameAdapterTest {
     @Mock
     private Connector connectorMock;
 
+    private DriverConfiguration configuration;
+
     private SesameAdapter adapter;
 
     @BeforeAll
@@ -70,7 +74,7 @@ class SesameAdapterTest {
         when(connectorMock.getValueFactory()).thenReturn(vf);
         final OntologyStorageProperties sp = OntologyStorageProperties.driver(SesameDataSource.class.getName())
                                                                       .physicalUri("memory-store").build();
-        final DriverConfiguration configuration = new DriverConfiguration(sp);
+        this.configuration = new DriverConfiguration(sp);
         this.adapter = new SesameAdapter(connectorMock, configuration);
 
     }
@@ -629,6 +633,29 @@ class SesameAdapterTest {
                 vf.createIRI(clsUri.toString()), true);
     }
 
+    @Test
+    void generateIdentifierWithUuidGeneratorDoesNotCheckStorage() throws Exception {
+        final URI clsUri = URI.create("http://someClass.cz#class");
+        this.adapter = new SesameAdapter(connectorMock, configuration,
+                new UuidIdentifierGenerator(), null);
+        final URI res = adapter.generateIdentifier(clsUri);
+        assertTrue(res.toString().startsWith(clsUri + "_instance"));
+        verify(connectorMock, never()).containsStatement(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void generateIdentifierWithBlockGeneratorReservesBlockOnlyOnce() throws Exception {
+        final URI clsUri = URI.create("http://someClass.cz#class");
+        final IdentifierCounters counters = mock(IdentifierCounters.class);
+        when(counters.reserve(clsUri, 10)).thenReturn(100L);
+        this.adapter = new SesameAdapter(connectorMock, configuration,
+                new BlockIdentifierGenerator(10), counters);
+        assertEquals(URI.create(clsUri + "_instance100"), adapter.generateIdentifier(clsUri));
+        assertEquals(URI.create(clsUri + "_instance101"), adapter.generateIdentifier(clsUri));
+        verify(counters).reserve(clsUri, 10);
+        verify(connectorMock, never()).containsStatement(any(), any(), any(), anyBoolean());
+    }
+
     @Test
     void testGenerateIdentifierNeverUnique() throws Exception {
         final URI clsUri = URI.create("http://someClass.cz#class");
@@ -17,13 +17,16 @@ package cz.cvut.kbss.ontodriver.sesame;
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.identifier.BlockIdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
 import cz.cvut.kbss.ontodriver.sesame.config.SesameConfigParam;
 import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
 import cz.cvut.kbss.ontodriver.sesame.connector.ConnectorFactory;
+import cz.cvut.kbss.ontodriver.util.Vocabulary;
 import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -36,10 +39,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SesameAdapterWithStoreTest {
@@ -50,6 +56,7 @@ public class SesameAdapterWithStoreTest {
     private Repository repo;
     private ValueFactory vf;
 
+    private DriverConfiguration configuration;
     private ConnectorFactory factory;
     private Connector connector;
     private SesameAdapter adapter;
@@ -58,7 +65,7 @@ public class SesameAdapterWithStoreTest {
     public void setUp() throws Exception {
         final OntologyStorageProperties sp = OntologyStorageProperties.driver(SesameDataSource.class.getName())
                                                                       .physicalUri("memory-store").build();
-        final DriverConfiguration configuration = new DriverConfiguration(sp);
+        this.configuration = new DriverConfiguration(sp);
         configuration.setProperty(SesameConfigParam.USE_VOLATILE_STORAGE, Boolean.toString(true));
         this.factory = ConnectorFactory.getInstance();
         this.connector = factory.createStorageConnector(configuration);
@@ -109,4 +116,64 @@ public class SesameAdapterWithStoreTest {
             assertTrue(bStringProp.hasNext());
         }
     }
+
+    @Test
+    public void generateIdentifierWithBlockGeneratorReservesCounterValuesIndependentlyOfTransaction() throws Exception {
+        final SesameAdapter sut = new SesameAdapter(factory.createStorageConnector(configuration), configuration,
+                new BlockIdentifierGenerator(5), new IdentifierCounters(factory, configuration));
+        final URI clsUri = URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#OWLClassA");
+        final Set<URI> generated = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            generated.add(sut.generateIdentifier(clsUri));
+        }
+        sut.rollback();
+        sut.close();
+        assertEquals(7, generated.size());
+        assertTrue(generated.contains(URI.create(clsUri + "_instance6")));
+
+        try (RepositoryConnection connection = repo.getConnection()) {
+            final List<Statement> counter = Iterations.asList(connection
+                    .getStatements(vf.createIRI(clsUri.toString()), vf.createIRI(Vocabulary.IDENTIFIER_COUNTER), null,
+                            false));
+            assertEquals(1, counter.size());
+            assertEquals(10L, ((Literal) counter.get(0).getObject()).longValue());
+            assertEquals(vf.createIRI(Vocabulary.IDENTIFIER_COUNTERS_CONTEXT), counter.get(0).getContext());
+        }
+    }
+
+    @Test
+    public void concurrentCounterReservationsOfIndependentDriversDoNotOverlap() throws Exception {
+        // Simulates two drivers accessing the same repository
+        final ConnectorFactory otherFactory = ConnectorFactory.getInstance();
+        otherFactory.setRepository(repo, configuration);
+        final List<IdentifierCounters> counters = Arrays.asList(new IdentifierCounters(factory, configuration),
+                new IdentifierCounters(otherFactory, configuration));
+        final URI clsUri = URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#OWLClassA");
+        final int blockSize = 3;
+        final int reservations = 10;
+        final ExecutorService executor = Executors.newFixedThreadPool(counters.size());
+        try {
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            for (IdentifierCounters c : counters) {
+                results.add(executor.submit(() -> {
+                    final List<Long> starts = new ArrayList<>();
+                    for (int i = 0; i < reservations; i++) {
+                        starts.add(c.reserve(clsUri, blockSize));
+                    }
+                    return starts;
+                }));
+            }
+            final Set<Long> starts = new HashSet<>();
+            for (Future<List<Long>> f : results) {
+                starts.addAll(f.get());
+            }
+            final Set<Long> expected = new HashSet<>();
+            for (long i = 0; i < counters.size() * reservations; i++) {
+                expected.add(i * blockSize);
+            }
+            assertEquals(expected, starts);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
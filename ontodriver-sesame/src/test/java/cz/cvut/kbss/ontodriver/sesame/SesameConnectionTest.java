@@ -207,7 +207,7 @@ public class SesameConnectionTest {
     @Test(expected = NullPointerException.class)
     public void testFindNull() throws Exception {
         try {
-            final Collection<Axiom<?>> res = connection.find(null);
+            final Collection<Axiom<?>> res = connection.find((AxiomDescriptor) null);
             fail("This line should not have been reached.");
             assert res == null;
         } finally {
@@ -19,16 +19,19 @@ import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.sesame.connector.StatementExecutor;
 import cz.cvut.kbss.ontodriver.sesame.query.SesamePreparedStatement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 public class SesamePreparedStatementTest {
 
@@ -43,6 +46,7 @@ public class SesamePreparedStatementTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         when(executorMock.executeSelectQuery(any(String.class))).thenReturn(resultMock);
+        when(executorMock.executeSelectQuery(any(String.class), any(BindingSet.class))).thenReturn(resultMock);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -91,4 +95,40 @@ public class SesamePreparedStatementTest {
         assertFalse(rsOne.isOpen());
         assertNotSame(rsOne, rsTwo);
     }
+
+    @Test
+    public void executeQueryBindsRdfTermParameterValuesInsteadOfInsertingThemIntoQuery() throws Exception {
+        final String query = "SELECT ?x WHERE { ?x <http://property> ?y . FILTER (?z > ?y) }";
+        initStatement(query);
+        statement.setObject("y", "<http://object>");
+        statement.setObject("z", "\"5\"^^<http://www.w3.org/2001/XMLSchema#int>");
+        statement.executeQuery();
+        final ArgumentCaptor<BindingSet> captor = ArgumentCaptor.forClass(BindingSet.class);
+        verify(executorMock).executeSelectQuery(eq(query), captor.capture());
+        final SimpleValueFactory vf = SimpleValueFactory.getInstance();
+        assertEquals(vf.createIRI("http://object"), captor.getValue().getValue("y"));
+        assertEquals(vf.createLiteral(5), captor.getValue().getValue("z"));
+        verify(executorMock, never()).executeSelectQuery(anyString());
+    }
+
+    @Test
+    public void executeQueryInsertsAllParameterValuesIntoQueryWhenAnyValueIsNotRdfTerm() throws Exception {
+        final String query = "SELECT ?x WHERE { ?x <http://property> ?y . } LIMIT ?limit";
+        final String expected = "SELECT ?x WHERE { ?x <http://property> <http://object> . } LIMIT 10";
+        initStatement(query);
+        statement.setObject("y", "<http://object>");
+        statement.setObject("limit", "10");
+        statement.executeQuery();
+        verify(executorMock).executeSelectQuery(expected);
+    }
+
+    @Test
+    public void clearParametersRemovesBoundValues() throws Exception {
+        final String query = "SELECT ?x WHERE { ?x <http://property> ?y . }";
+        initStatement(query);
+        statement.setObject("y", "<http://object>");
+        statement.clearParameters();
+        statement.executeQuery();
+        verify(executorMock).executeSelectQuery(query);
+    }
 }
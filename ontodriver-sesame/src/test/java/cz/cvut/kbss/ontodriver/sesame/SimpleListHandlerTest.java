@@ -21,6 +21,7 @@ import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.sesame.environment.Generator;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.sesame.util.SesameUtils;
 import org.eclipse.rdf4j.model.IRI;
@@ -36,6 +37,7 @@ import java.util.*;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -85,7 +87,7 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         initStatementsForList(simpleList);
 
         final Collection<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
-        verify(connector).findStatements(owner, hasListProperty, null, false, null);
+        verify(connector).findListStatements((IRI) owner, hasListProperty, nextNodeProperty, null, false, null);
         assertEquals(simpleList.size(), res.size());
         int i = 0;
         for (Axiom<?> ax : res) {
@@ -94,6 +96,15 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         }
     }
 
+    @Test
+    public void loadListDoesNotAccessRepositoryForIndividualNodes() throws Exception {
+        initStatementsForList(initList());
+
+        handler.loadList(listDescriptor);
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(Value.class),
+                anyBoolean(), any());
+    }
+
     private List<Statement> initStatementsForList(List<NamedResource> simpleList)
             throws SesameDriverException {
         Resource subject = owner;
@@ -103,48 +114,41 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
             final Resource value = vf.createIRI(elem.toString());
             final IRI property = subject == owner ? hasListProperty : nextNodeProperty;
             stmt = vf.createStatement(subject, property, value);
-            when(connector.findStatements(subject, property, null, false, null))
-                    .thenReturn(Collections.singleton(stmt));
             statements.add(stmt);
             subject = value;
         }
+        when(connector.findStatements(owner, hasListProperty, null, false, null))
+                .thenReturn(Collections.singleton(statements.get(0)));
+        stubListStatements(statements);
         return statements;
     }
 
+    private void stubListStatements(Collection<Statement> statements) throws SesameDriverException {
+        when(connector.findListStatements(eq((IRI) owner), eq(hasListProperty), eq(nextNodeProperty), eq(null),
+                anyBoolean(), eq(null))).thenReturn(statements);
+    }
+
     @Test(expected = IntegrityConstraintViolatedException.class)
     public void throwsICViolationExceptionWhenMultipleHasListValuesFound() throws Exception {
         final Collection<Statement> stmts = new HashSet<>();
-        stmts.add(mock(Statement.class));
-        stmts.add(mock(Statement.class));
-        when(connector.findStatements(owner, hasListProperty, null, false, null)).thenReturn(stmts);
-
-        try {
-            handler.loadList(listDescriptor);
-        } finally {
-            verify(connector, never())
-                    .findStatements(any(Resource.class), eq(nextNodeProperty), any(Value.class), any(Boolean.class),
-                            any());
-        }
+        stmts.add(vf.createStatement(owner, hasListProperty, vf.createIRI(Generator.generateUri().toString())));
+        stmts.add(vf.createStatement(owner, hasListProperty, vf.createIRI(Generator.generateUri().toString())));
+        stubListStatements(stmts);
+
+        handler.loadList(listDescriptor);
     }
 
     @Test(expected = IntegrityConstraintViolatedException.class)
     public void throwsICViolationExceptionWhenMultipleNodeSuccessorsAreFound() throws Exception {
-        final Collection<Statement> stmts = new HashSet<>();
-        stmts.add(mock(Statement.class));
-        stmts.add(mock(Statement.class));
         final Resource firstElem = vf
                 .createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/firstElem");
-        final Statement firstStmt = vf.createStatement(owner, hasListProperty, firstElem);
-
-        when(connector.findStatements(owner, hasListProperty, null, false, null))
-                .thenReturn(Collections.singleton(firstStmt));
-        when(connector.findStatements(firstElem, nextNodeProperty, null, false, null)).thenReturn(stmts);
+        final Collection<Statement> stmts = new ArrayList<>();
+        stmts.add(vf.createStatement(owner, hasListProperty, firstElem));
+        stmts.add(vf.createStatement(firstElem, nextNodeProperty, vf.createIRI(Generator.generateUri().toString())));
+        stmts.add(vf.createStatement(firstElem, nextNodeProperty, vf.createIRI(Generator.generateUri().toString())));
+        stubListStatements(stmts);
 
-        try {
-            handler.loadList(listDescriptor);
-        } finally {
-            verify(connector).findStatements(owner, hasListProperty, null, false, null);
-        }
+        handler.loadList(listDescriptor);
     }
 
     @Test(expected = IntegrityConstraintViolatedException.class)
@@ -152,19 +156,11 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         final Resource firstElem = vf
                 .createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/firstElem");
         final Statement firstStmt = vf.createStatement(owner, hasListProperty, firstElem);
-        when(connector.findStatements(owner, hasListProperty, null, false, null))
-                .thenReturn(Collections.singleton(firstStmt));
         final Statement nextStmt = vf.createStatement(firstElem, nextNodeProperty,
                 vf.createLiteral(System.currentTimeMillis()));
-        when(connector.findStatements(firstElem, nextNodeProperty, null, false, null))
-                .thenReturn(Collections.singleton(nextStmt));
-
-        try {
-            handler.loadList(listDescriptor);
-        } finally {
-            verify(connector).findStatements(owner, hasListProperty, null, false, null);
-            verify(connector).findStatements(firstElem, nextNodeProperty, null, false, null);
-        }
+        stubListStatements(Arrays.asList(firstStmt, nextStmt));
+
+        handler.loadList(listDescriptor);
     }
 
     @Test
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import cz.cvut.kbss.ontodriver.sesame.environment.Generator;
+import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionStatementExecutorTest {
+
+    private Repository repository;
+    private RepositoryConnection connection;
+    private ValueFactory vf;
+
+    private ConnectionStatementExecutor sut;
+
+    @BeforeEach
+    void setUp() {
+        this.repository = new SailRepository(new MemoryStore());
+        repository.init();
+        this.connection = repository.getConnection();
+        this.vf = connection.getValueFactory();
+        this.sut = new ConnectionStatementExecutor(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void findStatementsBySubjectsSupportsSubjectsWithCharactersNotAllowedInSparqlIris() throws Exception {
+        final IRI property = vf.createIRI(Generator.generateUri().toString());
+        final IRI subjectOne = vf.createIRI("http://example.org/a> . ?x ?y ?z } #");
+        final IRI subjectTwo = vf.createIRI("http://example.org/with space");
+        final IRI other = vf.createIRI(Generator.generateUri().toString());
+        connection.add(subjectOne, property, vf.createLiteral(1));
+        connection.add(subjectTwo, property, vf.createLiteral(2));
+        connection.add(other, property, vf.createLiteral(3));
+
+        final List<Statement> result = sut.findStatements(Arrays.asList(subjectOne, subjectTwo), false);
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(s -> s.getSubject().equals(subjectOne)));
+        assertTrue(result.stream().anyMatch(s -> s.getSubject().equals(subjectTwo)));
+    }
+
+    @Test
+    void findListStatementsSupportsOwnerAndNodesWithCharactersNotAllowedInSparqlIris() throws Exception {
+        final IRI owner = vf.createIRI("http://example.org/owner> . ?x ?y ?z } #");
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI("http://example.org/graph with space");
+        final IRI nodeOne = vf.createIRI("http://example.org/node one");
+        final IRI nodeTwo = vf.createIRI("http://example.org/node>two");
+        connection.add(owner, hasList, nodeOne, context);
+        connection.add(nodeOne, hasNext, nodeTwo, context);
+
+        final List<Statement> result = sut.findListStatements(owner, hasList, hasNext, null, false, context);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(vf.createStatement(owner, hasList, nodeOne, context)));
+        assertTrue(result.contains(vf.createStatement(nodeOne, hasNext, nodeTwo, context)));
+    }
+
+    @Test
+    void findListStatementsThrowsDriverExceptionForListPropertyNotRepresentableInSparql() {
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI("http://example.org/has list");
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+
+        assertThrows(SesameDriverException.class,
+                () -> sut.findListStatements(owner, hasList, hasNext, null, false, null));
+    }
+
+    @Test
+    void findExistingSubjectsSupportsSubjectsWithCharactersNotAllowedInSparqlIris() throws Exception {
+        final IRI property = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI("http://example.org/graph> } #");
+        final IRI existing = vf.createIRI("http://example.org/a> . ?x ?y ?z } #");
+        final IRI missing = vf.createIRI("http://example.org/with space");
+        connection.add(existing, property, vf.createLiteral(1), context);
+
+        final List<IRI> result = sut.findExistingSubjects(Arrays.asList(existing, missing), context);
+        assertEquals(Collections.singletonList(existing), result);
+    }
+}
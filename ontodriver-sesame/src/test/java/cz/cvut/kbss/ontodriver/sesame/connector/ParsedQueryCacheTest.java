@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ParsedQueryCacheTest {
+
+    private static final String QUERY = "SELECT ?s WHERE { ?s ?p ?o . }";
+
+    private Repository repository;
+
+    private final ParsedQueryCache sut = new ParsedQueryCache();
+
+    @Before
+    public void setUp() {
+        this.repository = new SailRepository(new MemoryStore());
+        repository.init();
+    }
+
+    @After
+    public void tearDown() {
+        repository.shutDown();
+    }
+
+    @Test
+    public void prepareTupleQueryReusesParsedQueryAcrossConnections() {
+        final TupleQuery first;
+        final TupleQuery second;
+        try (final RepositoryConnection connection = repository.getConnection()) {
+            first = sut.prepareTupleQuery(connection, QUERY);
+            try (final TupleQueryResult result = first.evaluate()) {
+                assertFalse(result.hasNext());
+            }
+        }
+        try (final RepositoryConnection connection = repository.getConnection()) {
+            second = sut.prepareTupleQuery(connection, QUERY);
+            try (final TupleQueryResult result = second.evaluate()) {
+                assertFalse(result.hasNext());
+            }
+        }
+        assertNotSame(first, second);
+        assertSame(((SailTupleQuery) first).getParsedQuery(), ((SailTupleQuery) second).getParsedQuery());
+    }
+
+    @Test
+    public void prepareTupleQueryLetsNonSailConnectionPrepareQuery() {
+        final RepositoryConnection connection = mock(RepositoryConnection.class);
+        final TupleQuery query = mock(TupleQuery.class);
+        when(connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY)).thenReturn(query);
+        assertSame(query, sut.prepareTupleQuery(connection, QUERY));
+    }
+
+    @Test
+    public void prepareBooleanQueryReturnsQueryEvaluatedOnConnection() {
+        try (final RepositoryConnection connection = repository.getConnection()) {
+            assertFalse(sut.prepareBooleanQuery(connection, "ASK { ?s ?p ?o . }").evaluate());
+        }
+    }
+}
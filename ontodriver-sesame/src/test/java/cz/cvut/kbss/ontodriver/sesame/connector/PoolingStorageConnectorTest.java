@@ -14,14 +14,18 @@
  */
 package cz.cvut.kbss.ontodriver.sesame.connector;
 
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.sesame.config.SesameConfigParam;
 import cz.cvut.kbss.ontodriver.sesame.environment.Generator;
 import cz.cvut.kbss.ontodriver.sesame.environment.TestUtils;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.util.Transaction;
 import cz.cvut.kbss.ontodriver.util.TransactionState;
+import org.eclipse.rdf4j.IsolationLevels;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
@@ -35,6 +39,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
@@ -61,12 +66,16 @@ public class PoolingStorageConnectorTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         this.vf = SimpleValueFactory.getInstance();
-        this.connector = new PoolingStorageConnector(centralMock);
+        when(centralMock.readLock()).thenReturn(readLock);
+        when(centralMock.writeLock()).thenReturn(writeLock);
+        this.connector = new PoolingStorageConnector(centralMock, false);
+        this.transaction = getTransaction(connector);
+    }
+
+    private static Transaction getTransaction(PoolingStorageConnector connector) throws Exception {
         final Field transactionField = AbstractConnector.class.getDeclaredField("transaction");
         transactionField.setAccessible(true);
-        this.transaction = (Transaction) transactionField.get(connector);
-        TestUtils.setMock("READ", PoolingStorageConnector.class, readLock);
-        TestUtils.setMock("WRITE", PoolingStorageConnector.class, writeLock);
+        return (Transaction) transactionField.get(connector);
     }
 
     @Test
@@ -366,4 +375,121 @@ public class PoolingStorageConnectorTest {
                 Collections.singletonList(vf.createStatement(subject, property, vf.createLiteral(117))));
         assertFalse(connector.containsStatement(subject, property, null, false));
     }
+
+    @Test
+    public void optimisticCommitWritesChangesThroughTransactionConnectionWithoutLocking() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final PoolingStorageConnector optimisticConnector = new PoolingStorageConnector(centralMock, true);
+        final List<Statement> added = Collections.singletonList(
+                vf.createStatement(vf.createIRI(TestUtils.randomUri()), RDF.TYPE, vf.createIRI(TestUtils.randomUri())));
+        optimisticConnector.begin();
+        optimisticConnector.addStatements(added);
+        optimisticConnector.commit();
+
+        final InOrder inOrder = inOrder(conn, centralMock);
+        inOrder.verify(conn).begin(IsolationLevels.SERIALIZABLE);
+        inOrder.verify(conn).add(argThat((Collection<Statement> c) -> c.containsAll(added)));
+        inOrder.verify(conn).commit();
+        inOrder.verify(centralMock).releaseConnection(conn);
+        verify(centralMock, never()).begin();
+        verify(centralMock, never()).commit();
+        verify(writeLock, never()).lock();
+        assertFalse(getTransaction(optimisticConnector).isActive());
+    }
+
+    @Test
+    public void optimisticCommitRollsBackRepositoryTransactionWhenCommitFails() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        doThrow(new RepositoryException("Conflict")).when(conn).commit();
+        when(conn.isActive()).thenReturn(true);
+        final PoolingStorageConnector optimisticConnector = new PoolingStorageConnector(centralMock, true);
+        optimisticConnector.begin();
+        optimisticConnector.addStatements(Collections.singletonList(
+                vf.createStatement(vf.createIRI(TestUtils.randomUri()), RDF.TYPE, vf.createIRI(TestUtils.randomUri()))));
+        try {
+            optimisticConnector.commit();
+            fail("Commit was expected to fail.");
+        } catch (SesameDriverException e) {
+            assertTrue(e.getCause() instanceof RepositoryException);
+        }
+        verify(conn).rollback();
+        verify(centralMock).releaseConnection(conn);
+        assertEquals(TransactionState.ABORTED, getTransaction(optimisticConnector).getState());
+    }
+
+    @Test
+    public void optimisticRollbackRollsBackRepositoryTransaction() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        when(conn.isActive()).thenReturn(true);
+        final PoolingStorageConnector optimisticConnector = new PoolingStorageConnector(centralMock, true);
+        optimisticConnector.begin();
+        optimisticConnector.rollback();
+
+        final InOrder inOrder = inOrder(conn, centralMock);
+        inOrder.verify(conn).begin(IsolationLevels.SERIALIZABLE);
+        inOrder.verify(conn).rollback();
+        inOrder.verify(centralMock).releaseConnection(conn);
+    }
+
+    @Test
+    public void optimisticCommitRejectsConcurrentUpdateOfSameAttribute() throws Exception {
+        final DriverConfiguration conf = TestUtils.createDriverConfig("urn:test");
+        conf.setProperty(SesameConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        final StorageConnector central = new StorageConnector(conf);
+        try {
+            final IRI subject = vf.createIRI(TestUtils.randomUri());
+            final IRI property = vf.createIRI(TestUtils.randomUri());
+            final Statement original = vf.createStatement(subject, property, vf.createLiteral("original"));
+            central.begin();
+            central.addStatements(Collections.singletonList(original));
+            central.commit();
+
+            final PoolingStorageConnector first = new PoolingStorageConnector(central, true);
+            final PoolingStorageConnector second = new PoolingStorageConnector(central, true);
+            first.begin();
+            second.begin();
+            updateValue(first, subject, property, "first");
+            updateValue(second, subject, property, "second");
+            first.commit();
+            try {
+                second.commit();
+                fail("Commit of a concurrent update was expected to fail.");
+            } catch (SesameDriverException e) {
+                assertEquals(TransactionState.ABORTED, getTransaction(second).getState());
+            }
+
+            final PoolingStorageConnector reader = new PoolingStorageConnector(central, true);
+            reader.begin();
+            final Collection<Statement> result = reader.findStatements(subject, property, null, false);
+            reader.rollback();
+            assertEquals(1, result.size());
+            assertEquals("first", result.iterator().next().getObject().stringValue());
+        } finally {
+            central.close();
+        }
+    }
+
+    private void updateValue(PoolingStorageConnector connector, IRI subject, IRI property, String value)
+            throws SesameDriverException {
+        final Collection<Statement> current = connector.findStatements(subject, property, null, false);
+        connector.removeStatements(current);
+        connector.addStatements(
+                Collections.singletonList(vf.createStatement(subject, property, vf.createLiteral(value))));
+    }
+
+    @Test
+    public void optimisticModeDoesNotLockReadsAndUpdates() throws Exception {
+        final PoolingStorageConnector optimisticConnector = new PoolingStorageConnector(centralMock, true);
+        optimisticConnector.executeSelectQuery("SELECT query");
+        optimisticConnector.getContexts();
+        optimisticConnector.executeUpdate("UPDATE query");
+
+        verify(centralMock).executeSelectQuery("SELECT query");
+        verify(centralMock).getContexts();
+        verify(centralMock).executeUpdate("UPDATE query");
+        verifyZeroInteractions(readLock, writeLock);
+    }
 }
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame.connector;
+
+import cz.cvut.kbss.ontodriver.sesame.environment.Generator;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionalQueryExecutorTest {
+
+    private Repository repository;
+    private RepositoryConnection connection;
+    private ValueFactory vf;
+
+    private IRI subject;
+    private IRI property;
+
+    private LocalModel localModel;
+
+    private TransactionalQueryExecutor sut;
+
+    @Before
+    public void setUp() {
+        this.repository = new SailRepository(new MemoryStore());
+        repository.init();
+        this.connection = spy(repository.getConnection());
+        this.vf = repository.getValueFactory();
+        this.subject = vf.createIRI(Generator.generateUri().toString());
+        this.property = vf.createIRI(Generator.generateUri().toString());
+        connection.add(statement("stored"));
+        this.localModel = new LocalModel();
+        this.sut = new TransactionalQueryExecutor(connection, localModel);
+    }
+
+    private Statement statement(String value) {
+        return vf.createStatement(subject, property, vf.createLiteral(value));
+    }
+
+    @After
+    public void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    private String selectQuery() {
+        return "SELECT ?o WHERE { <" + subject + "> <" + property + "> ?o . }";
+    }
+
+    private Set<String> selectValues() throws Exception {
+        final Set<String> values = new HashSet<>();
+        try (final TupleQueryResult result = sut.executeSelectQuery(selectQuery())) {
+            while (result.hasNext()) {
+                values.add(result.next().getValue("o").stringValue());
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void executeSelectQuerySeesStatementsAddedInTransaction() throws Exception {
+        localModel.addStatements(Collections.singletonList(statement("added")));
+
+        assertEquals(new HashSet<>(Arrays.asList("stored", "added")), selectValues());
+    }
+
+    @Test
+    public void executeSelectQueryDoesNotSeeStatementsRemovedInTransaction() throws Exception {
+        localModel.addStatements(Collections.singletonList(statement("added")));
+        localModel.removeStatements(Collections.singletonList(statement("stored")));
+
+        assertEquals(Collections.singleton("added"), selectValues());
+    }
+
+    @Test
+    public void executeSelectQueryDoesNotSeeStatementsInNamedGraphRemovedWithoutContext() throws Exception {
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        connection.add(statement("named"), context);
+        localModel.removeStatements(Collections.singletonList(statement("named")));
+
+        assertEquals(Collections.singleton("stored"), selectValues());
+    }
+
+    @Test
+    public void executeSelectQueryEvaluatesQueryInNonSailRepositoryEvenWhenTransactionHasChanges() throws Exception {
+        final RepositoryConnection remoteConnection = mock(RepositoryConnection.class);
+        final TupleQuery query = mock(TupleQuery.class);
+        final TupleQueryResult result = mock(TupleQueryResult.class);
+        when(remoteConnection.prepareTupleQuery(any(), anyString())).thenReturn(query);
+        when(query.evaluate()).thenReturn(result);
+        localModel.addStatements(Collections.singletonList(statement("added")));
+        this.sut = new TransactionalQueryExecutor(remoteConnection, localModel);
+
+        assertSame(result, sut.executeSelectQuery(selectQuery()));
+        verify(remoteConnection).prepareTupleQuery(any(), eq(selectQuery()));
+        verify(remoteConnection, never()).getStatements(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    public void executeSelectQueryDoesNotDuplicateStoredStatementsAddedAgainInTransaction() throws Exception {
+        localModel.addStatements(Collections.singletonList(statement("stored")));
+        int count = 0;
+        try (final TupleQueryResult result = sut.executeSelectQuery(selectQuery())) {
+            while (result.hasNext()) {
+                result.next();
+                count++;
+            }
+        }
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void executeSelectQueryReusesPreparedQueryWhenTransactionHasNoChanges() throws Exception {
+        assertEquals(Collections.singleton("stored"), selectValues());
+        assertEquals(Collections.singleton("stored"), selectValues());
+        verify(connection).prepareTupleQuery(any(), eq(selectQuery()));
+    }
+
+    @Test
+    public void executeSelectQueryBindsVariablesOnReusedPreparedQuery() throws Exception {
+        final String query = "SELECT ?s WHERE { ?s <" + property + "> ?o . }";
+        assertEquals(Collections.singleton(subject.stringValue()), selectSubjects(query, "stored"));
+        assertTrue(selectSubjects(query, "unknown").isEmpty());
+        verify(connection).prepareTupleQuery(any(), eq(query));
+    }
+
+    private Set<String> selectSubjects(String query, String objectValue) throws Exception {
+        final MapBindingSet bindings = new MapBindingSet();
+        bindings.addBinding("o", vf.createLiteral(objectValue));
+        final Set<String> values = new HashSet<>();
+        try (final TupleQueryResult result = sut.executeSelectQuery(query, bindings)) {
+            while (result.hasNext()) {
+                values.add(result.next().getValue("s").stringValue());
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void executeSelectQueryBindsVariablesWhenEvaluatingTransactionalChanges() throws Exception {
+        localModel.addStatements(Collections.singletonList(statement("added")));
+        final String query = "SELECT ?s WHERE { ?s <" + property + "> ?o . }";
+        assertEquals(Collections.singleton(subject.stringValue()), selectSubjects(query, "added"));
+        assertTrue(selectSubjects(query, "unknown").isEmpty());
+    }
+
+    @Test
+    public void closingSelectQueryResultDoesNotCloseConnection() throws Exception {
+        selectValues();
+        assertTrue(connection.isOpen());
+        localModel.addStatements(Collections.singletonList(statement("added")));
+        selectValues();
+        assertTrue(connection.isOpen());
+    }
+
+    @Test
+    public void executeBooleanQuerySeesTransactionalChanges() throws Exception {
+        final String query = "ASK { <" + subject + "> <" + property + "> \"added\" . }";
+        assertFalse(sut.executeBooleanQuery(query));
+        localModel.addStatements(Collections.singletonList(statement("added")));
+        assertTrue(sut.executeBooleanQuery(query));
+        localModel.removeStatements(Collections.singletonList(statement("added")));
+        assertFalse(sut.executeBooleanQuery(query));
+    }
+}